@@ -0,0 +1,172 @@
+package com.collection.hashmap;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.IntObjectHashMap;
+import java.util.LongLongHashMap;
+import java.util.LongObjectHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 原始类型Map与HashMap对比
+ * HashMap<Long, V> 每个元素一个Node(32字节)加一个装箱的Long(16字节)，再加上桶数组的引用
+ * LongObjectHashMap 开放地址法，两个平行数组，没有Node也没有装箱，负载因子0.75时每个元素约16字节
+ *
+ * 查找：get(long) 不装箱，线性探测对缓存也更友好
+ * 内存：retainedHeap() 粗略对比构建完之后的堆占用，加 -Xmx 足够大再跑
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveMapBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    long[] keys;
+    // 查找用的key，一半命中一半不命中
+    long[] probes;
+
+    HashMap<Long, Object> boxedLongMap;
+    LongObjectHashMap<Object> longObjectMap;
+    HashMap<Integer, Object> boxedIntMap;
+    IntObjectHashMap<Object> intObjectMap;
+    HashMap<Long, Long> boxedLongLongMap;
+    LongLongHashMap longLongMap;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        keys = new long[size];
+        probes = new long[1024];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextLong();
+        }
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = (i & 1) == 0 ? keys[random.nextInt(size)] : random.nextLong();
+        }
+        Object value = new Object();
+        boxedLongMap = new HashMap<>();
+        longObjectMap = new LongObjectHashMap<>();
+        boxedIntMap = new HashMap<>();
+        intObjectMap = new IntObjectHashMap<>();
+        boxedLongLongMap = new HashMap<>();
+        longLongMap = new LongLongHashMap();
+        for (long k : keys) {
+            boxedLongMap.put(k, value);
+            longObjectMap.put(k, value);
+            boxedIntMap.put((int) k, value);
+            intObjectMap.put((int) k, value);
+            boxedLongLongMap.put(k, k);
+            longLongMap.put(k, k);
+        }
+    }
+
+    @Benchmark
+    public void hashMapLongGet(Blackhole bh) {
+        for (long k : probes) {
+            bh.consume(boxedLongMap.get(k));
+        }
+    }
+
+    @Benchmark
+    public void longObjectMapGet(Blackhole bh) {
+        for (long k : probes) {
+            bh.consume(longObjectMap.get(k));
+        }
+    }
+
+    @Benchmark
+    public void hashMapIntGet(Blackhole bh) {
+        for (long k : probes) {
+            bh.consume(boxedIntMap.get((int) k));
+        }
+    }
+
+    @Benchmark
+    public void intObjectMapGet(Blackhole bh) {
+        for (long k : probes) {
+            bh.consume(intObjectMap.get((int) k));
+        }
+    }
+
+    @Benchmark
+    public void hashMapLongLongGetOrDefault(Blackhole bh) {
+        for (long k : probes) {
+            bh.consume(boxedLongLongMap.getOrDefault(k, -1L).longValue());
+        }
+    }
+
+    @Benchmark
+    public void longLongMapGetOrDefault(Blackhole bh) {
+        for (long k : probes) {
+            bh.consume(longLongMap.getOrDefault(k, -1L));
+        }
+    }
+
+    @Benchmark
+    public void hashMapLongPut(Blackhole bh) {
+        HashMap<Long, Long> map = new HashMap<>();
+        for (long k : keys) {
+            map.put(k, k);
+        }
+        bh.consume(map);
+    }
+
+    @Benchmark
+    public void longLongMapPut(Blackhole bh) {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long k : keys) {
+            map.put(k, k);
+        }
+        bh.consume(map);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        retainedHeap(5_000_000);
+        Options options = new OptionsBuilder()
+                .include(PrimitiveMapBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 粗略统计堆占用，GC之后看used的变化
+     */
+    static void retainedHeap(int n) {
+        long base = usedHeap();
+        HashMap<Long, Long> boxed = new HashMap<>();
+        for (long i = 1; i <= n; i++) {
+            boxed.put(i * 31, i);
+        }
+        long boxedBytes = usedHeap() - base;
+        boxed = null;
+
+        base = usedHeap();
+        LongLongHashMap primitive = new LongLongHashMap();
+        for (long i = 1; i <= n; i++) {
+            primitive.put(i * 31, i);
+        }
+        long primitiveBytes = usedHeap() - base;
+        System.out.println("HashMap<Long,Long>: " + boxedBytes / n + " bytes/entry");
+        System.out.println("LongLongHashMap:    " + primitiveBytes / n + " bytes/entry, size=" + primitive.size());
+    }
+
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
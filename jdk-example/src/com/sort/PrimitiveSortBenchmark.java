@@ -0,0 +1,138 @@
+package com.sort;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基本类型数组排序：DualPivotQuicksort 里新加的基数排序路径
+ * 数组没什么顺序（跑不出几个有序段）而且足够大时，先一遍数出 key 每个字节的分布，所有 key 都相同的字节直接跳过，
+ * 剩下要走的趟数和 log(n) 比，够少才走 LSD 基数排序，否则还是快排
+ * parallelSort 每个叶子同样走这条判断，归并部分不变
+ *
+ * uniform: 整个取值范围上均匀分布，int 4 趟，long 8 趟，小数组上 long 会退回快排
+ * skewed: 值集中在很小的范围里，高位字节全一样，只要 1~2 趟
+ * presorted: 已经有序，在判断有没有有序段的时候就处理完了，不会走到基数排序，用来确认这种情况没有变慢
+ *
+ * sortIndices 是按 key 排下标数组，和装箱成 Integer[] 再用 Comparator 排对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PrimitiveSortBenchmark {
+
+    @Param({"uniform", "skewed", "presorted"})
+    String distribution;
+
+    @Param({"100000", "10000000"})
+    int size;
+
+    int[] ints;
+    long[] longs;
+    double[] doubles;
+
+    int[] intCopy;
+    long[] longCopy;
+    double[] doubleCopy;
+    int[] indices;
+    Integer[] boxedIndices;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom r = new SplittableRandom(42);
+        ints = new int[size];
+        longs = new long[size];
+        doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            long v;
+            switch (distribution) {
+                case "uniform":
+                    v = r.nextLong();
+                    break;
+                case "skewed":
+                    v = r.nextInt(1 << 12);
+                    break;
+                default:
+                    v = i;
+            }
+            ints[i] = (int) v;
+            longs[i] = v;
+            doubles[i] = "uniform".equals(distribution) ? r.nextDouble() : v;
+        }
+        intCopy = new int[size];
+        longCopy = new long[size];
+        doubleCopy = new double[size];
+        indices = new int[size];
+        boxedIndices = new Integer[size];
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(ints, 0, intCopy, 0, size);
+        System.arraycopy(longs, 0, longCopy, 0, size);
+        System.arraycopy(doubles, 0, doubleCopy, 0, size);
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+            boxedIndices[i] = i;
+        }
+    }
+
+    @Benchmark
+    public int[] sortInt() {
+        Arrays.sort(intCopy);
+        return intCopy;
+    }
+
+    @Benchmark
+    public long[] sortLong() {
+        Arrays.sort(longCopy);
+        return longCopy;
+    }
+
+    @Benchmark
+    public double[] sortDouble() {
+        Arrays.sort(doubleCopy);
+        return doubleCopy;
+    }
+
+    @Benchmark
+    public int[] parallelSortInt() {
+        Arrays.parallelSort(intCopy);
+        return intCopy;
+    }
+
+    @Benchmark
+    public long[] parallelSortLong() {
+        Arrays.parallelSort(longCopy);
+        return longCopy;
+    }
+
+    @Benchmark
+    public int[] sortIndicesByLong() {
+        Arrays.sortIndices(indices, longs);
+        return indices;
+    }
+
+    @Benchmark
+    public Integer[] sortBoxedIndicesByLong() {
+        long[] keys = longs;
+        Arrays.sort(boxedIndices, (a, b) -> Long.compare(keys[a], keys[b]));
+        return boxedIndices;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PrimitiveSortBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.stream;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 无状态中间操作融合：-Djava.util.stream.fusion=true 与默认逐个包装 Sink 的对比
+ * 默认每个 map/filter 是一个 Sink，accept 里调 mapper 再调 downstream.accept，这两个调用点被所有流共享，
+ * 程序里用过几种不同的 lambda 之后就变成 megamorphic，JIT 内联不进去
+ * 开启融合后连续的无状态操作按 lambda 类型生成一个专门的 Sink 类，每个 lambda 有自己的调用点，重新变回单态
+ *
+ * setup 里先用别的 lambda 把 IntPipeline/ReferencePipeline 的调用点污染掉，模拟真实程序里的 profile
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class FusionBenchmark {
+
+    @Param({"100000"})
+    int size;
+
+    int[] ints;
+    List<String> strings;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom r = new SplittableRandom(42);
+        ints = r.ints(size, 0, 1_000_000).toArray();
+        strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(Integer.toString(r.nextInt(1_000_000)));
+        }
+        // 污染 profile
+        long sink = 0;
+        for (int k = 0; k < 20; k++) {
+            sink += IntStream.of(ints).map(x -> x + 1).filter(x -> x > 10).map(x -> x ^ 3).sum();
+            sink += IntStream.of(ints).map(x -> x - 7).filter(x -> (x & 1) == 0).map(x -> x >> 1).sum();
+            sink += IntStream.of(ints).map(x -> x * 5).filter(x -> x < 0).map(x -> -x).sum();
+            sink += strings.stream().map(String::trim).filter(s -> !s.isEmpty()).mapToInt(String::length).sum();
+            sink += strings.stream().map(s -> s + "x").filter(s -> s.length() > 3).mapToInt(String::hashCode).sum();
+            sink += strings.stream().map(String::toUpperCase).filter(s -> s.charAt(0) != '9').mapToInt(s -> s.charAt(0)).sum();
+        }
+        if (sink == 42) {
+            System.out.println(sink);
+        }
+    }
+
+    public int intChain() {
+        return IntStream.of(ints).map(x -> x * 3).filter(x -> (x & 7) == 0).map(x -> x + 11).sum();
+    }
+
+    public int refChain() {
+        return strings.stream().map(s -> s.substring(1)).filter(s -> s.length() > 2).mapToInt(Integer::parseInt).sum();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public int intChainStaged() {
+        return intChain();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Djava.util.stream.fusion=true")
+    public int intChainFused() {
+        return intChain();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public int refChainStaged() {
+        return refChain();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Djava.util.stream.fusion=true")
+    public int refChainFused() {
+        return refChain();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(FusionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
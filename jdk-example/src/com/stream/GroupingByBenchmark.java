@@ -0,0 +1,103 @@
+package com.stream;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.PartitionedCollectors;
+
+/**
+ * 并行流分组：Collectors.groupingBy、groupingByConcurrent 与 PartitionedCollectors 对比
+ * groupingBy 每个叶子任务建一个 HashMap，再两两 merge，key 多的时候最后几次 merge 基本是单线程在搬整张表
+ * groupingByConcurrent 所有线程往同一个 ConcurrentHashMap 里写
+ * PartitionedCollectors 先按 key 的 hash 把元素分到各个分区（只是追加到数组），再每个分区一个任务建自己的表，不用 merge
+ *
+ * cardinality 是不同 key 的个数，从 10 到 1000 万，size 是元素个数
+ * key 少的时候前两者边走边归约，反而更快；key 越多分区的优势越明显
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class GroupingByBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int cardinality;
+
+    @Param({"10000000"})
+    int size;
+
+    List<Integer> data;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom r = new SplittableRandom(42);
+        Integer[] a = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = r.nextInt(cardinality);
+        }
+        data = Arrays.asList(a);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countingGroupingBy() {
+        return data.parallelStream().collect(Collectors.groupingBy(k -> k, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countingGroupingByConcurrent() {
+        return data.parallelStream().collect(Collectors.groupingByConcurrent(k -> k, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countingPartitioned() {
+        return data.parallelStream().collect(PartitionedCollectors.groupingByCounting(k -> k));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> summingLongGroupingBy() {
+        return data.parallelStream().collect(Collectors.groupingBy(k -> k, Collectors.summingLong(k -> k)));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> summingLongPartitioned() {
+        return data.parallelStream().collect(PartitionedCollectors.groupingBySummingLong(k -> k, k -> k));
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> listGroupingBy() {
+        return data.parallelStream().collect(Collectors.groupingBy(k -> k));
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> listPartitioned() {
+        return data.parallelStream().collect(PartitionedCollectors.groupingBy(k -> k));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> toMapMerge() {
+        return data.parallelStream().collect(Collectors.toMap(k -> k, k -> 1, Integer::sum));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> toMapPartitioned() {
+        return data.parallelStream().collect(PartitionedCollectors.toMap(k -> k, k -> 1, Integer::sum));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(GroupingByBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
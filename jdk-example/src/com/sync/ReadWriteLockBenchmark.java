@@ -0,0 +1,75 @@
+package com.sync;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.locks.StripedReadWriteLock;
+
+/**
+ * ReentrantReadWriteLock、StampedLock（asReadWriteLock）与 StripedReadWriteLock 读多写少时的对比
+ * 前两个的读锁都要CAS同一个state，核数一多读锁本身就成了瓶颈
+ * StripedReadWriteLock 每个线程按 probe 计数到自己的分片上，读锁之间不抢同一个缓存行，代价是写锁要扫一遍所有分片
+ *
+ * readPercent 控制读的比例，@Threads 控制线程数，核数多的机器上 -t 调到核数看差距
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ReadWriteLockBenchmark {
+
+    @Param({"REENTRANT", "STAMPED", "STRIPED"})
+    String lockType;
+
+    @Param({"95", "100"})
+    int readPercent;
+
+    ReadWriteLock lock;
+
+    long x, y;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (lockType) {
+            case "REENTRANT": lock = new ReentrantReadWriteLock(); break;
+            case "STAMPED":   lock = new StampedLock().asReadWriteLock(); break;
+            default:          lock = new StripedReadWriteLock(); break;
+        }
+    }
+
+    @Benchmark
+    public long readMostly() {
+        if (ThreadLocalRandom.current().nextInt(100) < readPercent) {
+            lock.readLock().lock();
+            try {
+                return x + y;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            return ++x + ++y;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ReadWriteLockBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.thread.threadpool;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * newFixedThreadPool 与 newStripedThreadPool 对比
+ * 前者所有提交线程抢 LinkedBlockingQueue 的 putLock，所有工作线程抢 takeLock，任务很小的时候两把锁就是瓶颈
+ * 后者每个线程按 probe 选自己的分片，分片空了再去别的分片偷，只有空闲线程挂起/唤醒时才加锁
+ *
+ * 每次调用提交 batch 个空任务再等它们全部跑完，@Threads 控制提交线程数，poolSize 控制工作线程数
+ * 核数多的机器上把 poolSize 调到核数、-t 调大看差距
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class StripedExecutorBenchmark {
+
+    @Param({"LINKED", "STRIPED"})
+    String queue;
+
+    @Param({"8"})
+    int poolSize;
+
+    @Param({"256"})
+    int batch;
+
+    ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = "STRIPED".equals(queue)
+            ? Executors.newStripedThreadPool(poolSize)
+            : Executors.newFixedThreadPool(poolSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 每个提交线程自己的计数，用来等本批任务执行完
+     */
+    @State(Scope.Thread)
+    public static class Batch {
+        final LongAdder done = new LongAdder();
+        long submitted;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(256)
+    public void submitTinyTasks(Batch b) {
+        final LongAdder done = b.done;
+        Runnable task = done::increment;
+        for (int i = 0; i < batch; i++) {
+            executor.execute(task);
+        }
+        b.submitted += batch;
+        // 等这一批跑完，避免队列无限堆积只测到入队
+        while (done.sum() < b.submitted) {
+            Thread.yield();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(StripedExecutorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
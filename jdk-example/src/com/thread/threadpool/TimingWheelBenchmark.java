@@ -0,0 +1,142 @@
+package com.thread.threadpool;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimingWheelScheduledExecutor;
+
+/**
+ * 模拟请求超时：大量定时任务已经挂着，每个请求注册一个 30 秒的超时，请求完成后马上取消
+ *
+ * WHEEL        TimingWheelScheduledExecutor，注册和取消都是往无锁队列里放一下，O(1)
+ * STPE         ScheduledThreadPoolExecutor 默认策略，注册 O(log n) 加锁，取消的任务留在堆里直到到期
+ * STPE_REMOVE  setRemoveOnCancelPolicy(true)，取消时从堆里删掉，也要加锁
+ * TIMER        java.util.Timer，单线程，也是堆 + 一把锁，取消的任务留在堆里
+ *
+ * pending 是预先挂着的超时数，用来看堆的深度对注册/取消的影响
+ * 不删除取消任务的实现每轮迭代结束时 purge 一次，免得堆越来越大
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class TimingWheelBenchmark {
+
+    @Param({"WHEEL", "STPE", "STPE_REMOVE", "TIMER"})
+    String impl;
+
+    @Param({"10000", "1000000"})
+    int pending;
+
+    ScheduledExecutorService executor;
+    Timer timer;
+    final List<Object> background = new ArrayList<>();
+
+    static final Runnable NOOP = () -> { };
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (impl) {
+            case "WHEEL":
+                executor = new TimingWheelScheduledExecutor(1);
+                break;
+            case "STPE_REMOVE":
+                ScheduledThreadPoolExecutor e = new ScheduledThreadPoolExecutor(1);
+                e.setRemoveOnCancelPolicy(true);
+                executor = e;
+                break;
+            case "STPE":
+                executor = new ScheduledThreadPoolExecutor(1);
+                break;
+            default:
+                timer = new Timer(true);
+        }
+        // 后台挂着的超时，分布在 10~20 分钟之后，测试期间不会到期
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        for (int i = 0; i < pending; i++) {
+            long delay = TimeUnit.MINUTES.toMillis(10) + r.nextLong(TimeUnit.MINUTES.toMillis(10));
+            if (timer != null) {
+                TimerTask t = new NoopTimerTask();
+                timer.schedule(t, delay);
+                background.add(t);
+            } else {
+                background.add(executor.schedule(NOOP, delay, TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() {
+        if (executor instanceof ScheduledThreadPoolExecutor) {
+            ((ScheduledThreadPoolExecutor) executor).purge();
+        } else if (timer != null) {
+            timer.purge();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (timer != null) {
+            timer.cancel();
+        } else {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        background.clear();
+    }
+
+    static final class NoopTimerTask extends TimerTask {
+        @Override
+        public void run() {
+        }
+    }
+
+    /**
+     * 注册一个超时再取消，绝大多数请求超时的命运
+     */
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        if (timer != null) {
+            TimerTask t = new NoopTimerTask();
+            timer.schedule(t, 30_000L);
+            return t.cancel();
+        }
+        ScheduledFuture<?> f = executor.schedule(NOOP, 30, TimeUnit.SECONDS);
+        return f.cancel(false);
+    }
+
+    /**
+     * 只注册不取消，单看插入的开销；这些任务 30 秒后才到期，堆/轮子里的任务数会随着测试变多
+     */
+    @Benchmark
+    public Object scheduleOnly() {
+        if (timer != null) {
+            TimerTask t = new NoopTimerTask();
+            timer.schedule(t, 30_000L);
+            return t;
+        }
+        return executor.schedule(NOOP, 30, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(TimingWheelBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.List;
+import java.util.concurrent.ExecutorMetrics;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Implementation of {@link ExecutorMXBean} over the metrics of one
+ * executor.
+ */
+class ExecutorImpl implements ExecutorMXBean {
+
+    /** Snapshots younger than this are reused across attributes. */
+    private static final long MAX_SNAPSHOT_AGE_MILLIS = 100L;
+
+    private final ExecutorMetrics metrics;
+    private volatile ExecutorMetrics.Snapshot snapshot;
+
+    ExecutorImpl(ExecutorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    ExecutorMetrics metrics() {
+        return metrics;
+    }
+
+    private ExecutorMetrics.Snapshot snapshot() {
+        ExecutorMetrics.Snapshot s = snapshot;
+        if (s == null ||
+            System.currentTimeMillis() - s.getTimestamp() > MAX_SNAPSHOT_AGE_MILLIS)
+            snapshot = s = metrics.snapshot();
+        return s;
+    }
+
+    public String getName()              { return metrics.getName(); }
+    public String getType()              { return metrics.getType(); }
+    public int getPoolSize()             { return snapshot().getPoolSize(); }
+    public int getActiveCount()          { return snapshot().getActiveCount(); }
+    public long getQueuedTaskCount()     { return snapshot().getQueuedTaskCount(); }
+    public long getCompletedTaskCount()  { return snapshot().getCompletedTaskCount(); }
+    public long getRejectedCount()       { return snapshot().getRejectedCount(); }
+    public long getStealCount()          { return snapshot().getStealCount(); }
+    public long getParkedTime()          { return snapshot().getParkedNanos(); }
+
+    public long getQueueDelayCount()     { return snapshot().getQueueDelay().getCount(); }
+    public double getQueueDelayMean()    { return snapshot().getQueueDelay().getMean(); }
+    public long getQueueDelayMax()       { return snapshot().getQueueDelay().getMax(); }
+    public long getQueueDelayAtPercentile(double percentile) {
+        return snapshot().getQueueDelay().getValueAtPercentile(percentile);
+    }
+
+    public long getExecutionTimeCount()  { return snapshot().getExecutionTime().getCount(); }
+    public double getExecutionTimeMean() { return snapshot().getExecutionTime().getMean(); }
+    public long getExecutionTimeMax()    { return snapshot().getExecutionTime().getMax(); }
+    public long getExecutionTimeAtPercentile(double percentile) {
+        return snapshot().getExecutionTime().getValueAtPercentile(percentile);
+    }
+
+    public String[] getWorkerNames() {
+        List<ExecutorMetrics.WorkerStats> ws = snapshot().getWorkers();
+        String[] a = new String[ws.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = ws.get(i).getName();
+        return a;
+    }
+
+    public long[] getWorkerStealCounts() {
+        List<ExecutorMetrics.WorkerStats> ws = snapshot().getWorkers();
+        long[] a = new long[ws.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = ws.get(i).getStealCount();
+        return a;
+    }
+
+    public long[] getWorkerParkedTimes() {
+        List<ExecutorMetrics.WorkerStats> ws = snapshot().getWorkers();
+        long[] a = new long[ws.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = ws.get(i).getParkedNanos();
+        return a;
+    }
+
+    public ObjectName getObjectName() {
+        return objectNameOf(metrics);
+    }
+
+    static ObjectName objectNameOf(ExecutorMetrics m) {
+        String base = "java.util.concurrent:type=Executor,name=";
+        try {
+            return ObjectName.getInstance(base + m.getName());
+        } catch (MalformedObjectNameException e) {
+            try {
+                return ObjectName.getInstance(base + ObjectName.quote(m.getName()));
+            } catch (MalformedObjectNameException x) {
+                throw new IllegalArgumentException(x);
+            }
+        }
+    }
+}
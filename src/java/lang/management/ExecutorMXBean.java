@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+/**
+ * The management interface for the metrics of a
+ * {@link java.util.concurrent.ThreadPoolExecutor} or
+ * {@link java.util.concurrent.ForkJoinPool}.
+ *
+ * <p> A class implementing this interface is an
+ * {@link javax.management.MXBean}.  There is one for each executor
+ * whose metrics are enabled, as listed by
+ * {@link java.util.concurrent.ExecutorMetrics#registered}.  The {@link
+ * java.lang.management.ManagementFactory#getPlatformMXBeans getPlatformMXBeans}
+ * method can be used to obtain them as follows:
+ * <pre>
+ *     List&lt;ExecutorMXBean&gt; executors = ManagementFactory.getPlatformMXBeans(ExecutorMXBean.class);
+ * </pre>
+ *
+ * <p> The management interfaces are also registered with the platform {@link
+ * javax.management.MBeanServer MBeanServer}, including those of executors
+ * whose metrics are enabled after the {@code MBeanServer} was created, and
+ * unregistered when the executor terminates, its metrics are disabled,
+ * or it is garbage collected.  A registered management interface refers
+ * to its executor only weakly.  The {@link
+ * javax.management.ObjectName ObjectName} that uniquely identifies the
+ * management interface within the {@code MBeanServer} takes the form:
+ * <pre>
+ *     java.util.concurrent:type=Executor,name=<i>executor name</i>
+ * </pre>
+ * where <em>executor name</em> is the {@link #getName name} under which
+ * the metrics were enabled.
+ *
+ * <p> Times are in nanoseconds.  Each attribute is read from a fresh
+ * snapshot, taken without locking the executor, unless one was taken
+ * within the last 100 milliseconds.
+ *
+ * @see java.util.concurrent.ExecutorMetrics
+ * @since   1.8
+ */
+public interface ExecutorMXBean extends PlatformManagedObject {
+
+    /**
+     * Returns the name under which the executor's metrics are enabled.
+     *
+     * @return  The name of the executor
+     */
+    String getName();
+
+    /**
+     * Returns the simple class name of the executor.
+     *
+     * @return  The type of the executor
+     */
+    String getType();
+
+    /**
+     * Returns the current number of worker threads.
+     *
+     * @return  The number of worker threads
+     */
+    int getPoolSize();
+
+    /**
+     * Returns the number of worker threads running a task.
+     *
+     * @return  The number of active worker threads
+     */
+    int getActiveCount();
+
+    /**
+     * Returns an estimate of the number of tasks waiting to run.
+     *
+     * @return  The number of queued tasks
+     */
+    long getQueuedTaskCount();
+
+    /**
+     * Returns the number of tasks completed by worker threads.
+     *
+     * @return  The number of completed tasks
+     */
+    long getCompletedTaskCount();
+
+    /**
+     * Returns the number of submissions rejected since metrics were
+     * enabled.
+     *
+     * @return  The number of rejected tasks
+     */
+    long getRejectedCount();
+
+    /**
+     * Returns the number of tasks taken from the queues of other
+     * workers; always zero for a {@code ThreadPoolExecutor}.
+     *
+     * @return  The number of steals
+     */
+    long getStealCount();
+
+    /**
+     * Returns the total time worker threads spent parked waiting for
+     * work since metrics were enabled.
+     *
+     * @return  The parked time in nanoseconds
+     */
+    long getParkedTime();
+
+    /**
+     * Returns the number of queue delays recorded.
+     *
+     * @return  The number of queue delay samples
+     */
+    long getQueueDelayCount();
+
+    /**
+     * Returns the mean delay between submission and start of a task.
+     *
+     * @return  The mean queue delay in nanoseconds
+     */
+    double getQueueDelayMean();
+
+    /**
+     * Returns the largest delay between submission and start of a task.
+     *
+     * @return  The maximum queue delay in nanoseconds
+     */
+    long getQueueDelayMax();
+
+    /**
+     * Returns the queue delay at the given percentile.
+     *
+     * @param  percentile the percentile, from 0.0 to 100.0
+     * @return  The queue delay at the percentile, in nanoseconds
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    long getQueueDelayAtPercentile(double percentile);
+
+    /**
+     * Returns the number of task execution times recorded.
+     *
+     * @return  The number of execution time samples
+     */
+    long getExecutionTimeCount();
+
+    /**
+     * Returns the mean execution time of a task.
+     *
+     * @return  The mean execution time in nanoseconds
+     */
+    double getExecutionTimeMean();
+
+    /**
+     * Returns the largest execution time of a task.
+     *
+     * @return  The maximum execution time in nanoseconds
+     */
+    long getExecutionTimeMax();
+
+    /**
+     * Returns the task execution time at the given percentile.
+     *
+     * @param  percentile the percentile, from 0.0 to 100.0
+     * @return  The execution time at the percentile, in nanoseconds
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    long getExecutionTimeAtPercentile(double percentile);
+
+    /**
+     * Returns the names of the live worker threads.  The arrays
+     * returned by {@link #getWorkerStealCounts} and
+     * {@link #getWorkerParkedTimes} are in the same order when read
+     * from the same snapshot.
+     *
+     * @return  The worker thread names
+     */
+    String[] getWorkerNames();
+
+    /**
+     * Returns the steal count of each live worker thread.
+     *
+     * @return  The per-worker steal counts
+     */
+    long[] getWorkerStealCounts();
+
+    /**
+     * Returns the parked time of each live worker thread.
+     *
+     * @return  The per-worker parked times in nanoseconds
+     */
+    long[] getWorkerParkedTimes();
+}
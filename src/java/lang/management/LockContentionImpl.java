@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.List;
+import java.util.concurrent.locks.ContentionProfiler;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Implementation of {@link LockContentionMXBean} over
+ * {@link ContentionProfiler}.
+ */
+class LockContentionImpl implements LockContentionMXBean {
+
+    static final String OBJECT_NAME = "java.util.concurrent.locks:type=LockContention";
+
+    private static final LockContentionImpl INSTANCE = new LockContentionImpl();
+
+    static LockContentionImpl getInstance() {
+        return INSTANCE;
+    }
+
+    private LockContentionImpl() {}
+
+    private static void checkControlAccess() {
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null)
+            sm.checkPermission(new ManagementPermission("control"));
+    }
+
+    public boolean isEnabled() {
+        return ContentionProfiler.isEnabled();
+    }
+
+    public void setEnabled(boolean enable) {
+        checkControlAccess();
+        if (enable)
+            ContentionProfiler.enable();
+        else
+            ContentionProfiler.disable();
+    }
+
+    public int getStackSampleInterval() {
+        return ContentionProfiler.getStackSampleInterval();
+    }
+
+    public void setStackSampleInterval(int interval) {
+        checkControlAccess();
+        ContentionProfiler.setStackSampleInterval(interval);
+    }
+
+    public int getLockCount() {
+        return ContentionProfiler.getLockInfos().size();
+    }
+
+    public ContentionProfiler.LockContentionInfo[] getTopContendedLocks(int maxLocks) {
+        List<ContentionProfiler.LockContentionInfo> list = ContentionProfiler.getTopContended(maxLocks);
+        return list.toArray(new ContentionProfiler.LockContentionInfo[list.size()]);
+    }
+
+    public String getContentionReport(int maxLocks) {
+        return ContentionProfiler.report(maxLocks);
+    }
+
+    public void reset() {
+        checkControlAccess();
+        ContentionProfiler.reset();
+    }
+
+    public ObjectName getObjectName() {
+        try {
+            return ObjectName.getInstance(OBJECT_NAME);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
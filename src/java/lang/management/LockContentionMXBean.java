@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.concurrent.locks.ContentionProfiler;
+
+/**
+ * The management interface for the contention recorded on
+ * {@link java.util.concurrent.locks.AbstractQueuedSynchronizer}-based
+ * locks by {@link ContentionProfiler}.
+ *
+ * <p> A class implementing this interface is an
+ * {@link javax.management.MXBean}.  There is a single instance, which
+ * can be obtained by calling the
+ * {@link ManagementFactory#getPlatformMXBean(Class)} method:
+ * <pre>
+ *     LockContentionMXBean contention = ManagementFactory.getPlatformMXBean(LockContentionMXBean.class);
+ * </pre>
+ *
+ * <p> The {@link javax.management.ObjectName ObjectName} that uniquely
+ * identifies the management interface within the
+ * {@code MBeanServer} is:
+ * <pre>
+ *     java.util.concurrent.locks:type=LockContention
+ * </pre>
+ *
+ * <p> Recording is disabled by default, and costs a read of a static
+ * field per acquire while disabled.  Times are in nanoseconds.  When
+ * accessed remotely, a {@link ContentionProfiler.LockContentionInfo}
+ * is mapped to a {@link javax.management.openmbean.CompositeData
+ * CompositeData} with an item for each of its getters, and rebuilt by
+ * its {@link ContentionProfiler.LockContentionInfo#from from} method.
+ *
+ * @see ContentionProfiler
+ * @since   1.8
+ */
+public interface LockContentionMXBean extends PlatformManagedObject {
+
+    /**
+     * Tests if contention recording is enabled.
+     *
+     * @return {@code true} if contention recording is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables contention recording.  Data recorded before
+     * recording is disabled is kept until {@link #reset}.
+     *
+     * @param enable {@code true} to enable recording,
+     *               {@code false} to disable it
+     * @throws SecurityException if a security manager exists and the
+     *         caller does not have ManagementPermission("control")
+     */
+    void setEnabled(boolean enable);
+
+    /**
+     * Returns the number of contended acquisitions per stack sample.
+     *
+     * @return the stack sample interval
+     */
+    int getStackSampleInterval();
+
+    /**
+     * Sets the number of contended acquisitions per stack sample;
+     * zero disables stack sampling.
+     *
+     * @param interval the stack sample interval
+     * @throws IllegalArgumentException if {@code interval} is negative
+     * @throws SecurityException if a security manager exists and the
+     *         caller does not have ManagementPermission("control")
+     */
+    void setStackSampleInterval(int interval);
+
+    /**
+     * Returns the number of locks with recorded data.
+     *
+     * @return the number of profiled locks
+     */
+    int getLockCount();
+
+    /**
+     * Returns the recorded data of the most contended locks, most
+     * contended first.
+     *
+     * @param maxLocks the maximum number of locks to return
+     * @return the recorded data of at most {@code maxLocks} locks
+     * @throws IllegalArgumentException if {@code maxLocks} is negative
+     */
+    ContentionProfiler.LockContentionInfo[] getTopContendedLocks(int maxLocks);
+
+    /**
+     * Returns a printable report of the most contended locks with
+     * their most sampled acquisition stacks.
+     *
+     * @param maxLocks the maximum number of locks to report
+     * @return the report
+     * @throws IllegalArgumentException if {@code maxLocks} is negative
+     */
+    String getContentionReport(int maxLocks);
+
+    /**
+     * Discards all recorded data.
+     *
+     * @throws SecurityException if a security manager exists and the
+     *         caller does not have ManagementPermission("control")
+     */
+    void reset();
+}
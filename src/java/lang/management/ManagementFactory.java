@@ -50,7 +50,9 @@ import java.security.Permission;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import javax.management.JMException;
 import javax.management.JMX;
+import sun.misc.ExecutorMetricsHook;
 import sun.management.ManagementFactoryHelper;
 import sun.management.ExtendedPlatformComponent;
 
@@ -467,7 +469,13 @@ public class ManagementFactory {
 
         if (platformMBeanServer == null) {
             platformMBeanServer = MBeanServerFactory.createMBeanServer();
+            // installed first, so that executors enabled while the
+            // components below are registered are not missed; executors
+            // are then registered by the listener only
+            installExecutorListener(platformMBeanServer);
             for (PlatformComponent pc : PlatformComponent.values()) {
+                if (pc == PlatformComponent.EXECUTOR)
+                    continue;
                 List<? extends PlatformManagedObject> list =
                     pc.getMXBeans(pc.getMXBeanInterface());
                 for (PlatformManagedObject o : list) {
@@ -874,6 +882,64 @@ public class ManagementFactory {
         }
     }
 
+    /**
+     * The ExecutorMXBeans registered with the platform MBeanServer, by
+     * executor name.  Guarded by itself.
+     */
+    private static final Map<String, ExecutorImpl> executorMXBeans = new HashMap<>();
+
+    /**
+     * Registers the ExecutorMXBeans of executors whose metrics are
+     * enabled, and installs a listener, through sun.misc, that keeps
+     * them registered as metrics are enabled and disabled later.
+     */
+    private static void installExecutorListener(final MBeanServer mbs) {
+        ExecutorMetricsHook.setListener((m, registered) -> syncExecutorMXBean(mbs, m));
+        for (java.util.concurrent.ExecutorMetrics m :
+                 java.util.concurrent.ExecutorMetrics.registered())
+            syncExecutorMXBean(mbs, m);
+    }
+
+    /**
+     * Brings the MXBean registered under the name of the given metrics in
+     * line with whether those metrics are registered now.  Notifications
+     * for the same name can arrive from several threads in any order, so
+     * this acts on the current state rather than on the notification, and
+     * only one thread at a time does so.
+     */
+    private static void syncExecutorMXBean(MBeanServer mbs,
+                                           java.util.concurrent.ExecutorMetrics m) {
+        String name = m.getName();
+        synchronized (executorMXBeans) {
+            ExecutorImpl cur = executorMXBeans.get(name);
+            boolean live = m.isRegistered();
+            // stale: the bean of m once m is gone, or of another
+            // executor once m has taken over the name
+            if (cur != null && (cur.metrics() == m) != live) {
+                executorMXBeans.remove(name);
+                unregisterQuietly(mbs, cur.getObjectName());
+                cur = null;
+            }
+            if (live && cur == null) {
+                ExecutorImpl impl = new ExecutorImpl(m);
+                try {
+                    addMXBean(mbs, impl);
+                    executorMXBeans.put(name, impl);
+                } catch (RuntimeException e) {
+                    // the name is taken by an MBean registered by someone else
+                }
+            }
+        }
+    }
+
+    private static void unregisterQuietly(MBeanServer mbs, ObjectName on) {
+        try {
+            mbs.unregisterMBean(on);
+        } catch (JMException e) {
+            // already unregistered by someone else
+        }
+    }
+
     /**
      * Registers a DynamicMBean.
      */
@@ -216,6 +216,37 @@ enum PlatformComponent {
             }
         }),
 
+    /**
+     * Executors with metrics enabled.
+     */
+    EXECUTOR(
+        "java.lang.management.ExecutorMXBean",
+        "java.util.concurrent", "Executor", keyProperties("name"),
+        false, // zero or more instances
+        new MXBeanFetcher<ExecutorMXBean>() {
+            public List<ExecutorMXBean> getMXBeans() {
+                List<java.util.concurrent.ExecutorMetrics> ms =
+                    java.util.concurrent.ExecutorMetrics.registered();
+                List<ExecutorMXBean> list = new ArrayList<>(ms.size());
+                for (java.util.concurrent.ExecutorMetrics m : ms)
+                    list.add(new ExecutorImpl(m));
+                return list;
+            }
+        }),
+
+    /**
+     * Contention recorded on AbstractQueuedSynchronizer-based locks.
+     */
+    LOCK_CONTENTION(
+        "java.lang.management.LockContentionMXBean",
+        "java.util.concurrent.locks", "LockContention", defaultKeyProperties(),
+        true, // singleton
+        new MXBeanFetcher<LockContentionMXBean>() {
+            public List<LockContentionMXBean> getMXBeans() {
+                return Collections.<LockContentionMXBean>singletonList(LockContentionImpl.getInstance());
+            }
+        }),
+
 
     // Sun Platform Extension
 
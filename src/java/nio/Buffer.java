@@ -191,6 +191,10 @@ public abstract class Buffer {
     // NOTE: hoisted here for speed in JNI GetDirectBufferAddress
     long address;
 
+    // Used only by direct buffers whose memory can be released explicitly;
+    // shared by the buffer that owns the memory and all views of it
+    MemoryGuard guard;
+
     // Creates a new buffer with the given mark, position, limit, and capacity,
     // after checking invariants.
     //
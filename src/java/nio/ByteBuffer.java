@@ -299,6 +299,10 @@ public abstract class ByteBuffer
      * initialized to zero.  Whether or not it has a
      * {@link #hasArray backing array} is unspecified.
      *
+     * @implNote The returned buffer is a {@link MappedByteBuffer}, so its
+     * memory can be freed without waiting for garbage collection by invoking
+     * {@link MappedByteBuffer#close close} on it.
+     *
      * @param  capacity
      *         The new buffer's capacity, in bytes
      *
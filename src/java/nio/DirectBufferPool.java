@@ -0,0 +1,602 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of direct byte buffers that are carved out of large, long-lived
+ * chunks of native memory and handed back to the pool explicitly.
+ *
+ * <p>{@link ByteBuffer#allocateDirect(int)} reserves and zeroes fresh
+ * native memory for every buffer, and only gets that memory back once the
+ * buffer has been garbage collected.  When the direct memory limit is
+ * reached the allocating thread triggers a full collection and sleeps
+ * while it waits for buffers to be freed.  A pool avoids both costs: it
+ * reserves memory in chunks of {@value #CHUNK_SIZE} bytes, and a buffer
+ * passed to {@link #release(ByteBuffer)} is recycled immediately.
+ *
+ * <p>Requests are rounded up to one of a fixed set of size classes: multiples
+ * of 16 bytes up to 128 bytes, then four classes for every doubling up to
+ * {@value #MAX_POOLED} bytes, so no more than 20% of a buffer above 128
+ * bytes is lost to rounding.  Each chunk is divided into runs of equally
+ * sized slots.  Larger requests are not pooled and are allocated with
+ * {@code allocateDirect}.
+ *
+ * <p>The pool is striped over a number of arenas, each with its own chunks
+ * and free lists, and every thread is bound to one arena when it first
+ * allocates.  A thread also keeps a small cache of free slots for each size
+ * class, so that most allocations and releases by the same thread do not
+ * touch the arena at all.  Slots cached by threads that have terminated
+ * are returned to their arena before it reserves another chunk.
+ *
+ * <p>A buffer that becomes unreachable without having been released is a
+ * leak.  The pool tracks one in every <i>leakSampleInterval</i> buffers it
+ * allocates, and when a tracked buffer is collected the pool counts the leak
+ * and recycles its memory.  Untracked leaked buffers stay lost to the pool
+ * until the pool itself is collected.
+ *
+ * <p>Buffers allocated from a pool are direct, have a capacity and limit
+ * equal to the requested capacity and big-endian byte order; their initial
+ * content is undefined.  Once a buffer has been released, any access to it
+ * or to views created from it with methods such as
+ * {@link ByteBuffer#duplicate()} or {@link ByteBuffer#slice()} throws
+ * {@link IllegalStateException}, as for a buffer whose memory has been
+ * released by {@link MappedByteBuffer#close()}.  Only the buffer originally
+ * returned by {@link #allocate(int)} may be released.
+ *
+ * <p>Unlike the memory of a closed buffer, the memory of a released buffer
+ * is handed out again at once.  The check that rejects an access to a
+ * released buffer cannot be atomic with the access itself, so an access by
+ * one thread that races with the release of the buffer by another may
+ * read or write the memory of whichever buffer is allocated from the same
+ * slot next.  The behavior of a buffer that is used while, or after, it is
+ * being released is therefore undefined; the exception is thrown only on a
+ * best-effort basis, and a buffer must not be released before every thread
+ * that uses it has finished with it.
+ *
+ * <p>This class is safe for use by multiple concurrent threads.
+ *
+ * @since 1.8
+ */
+public final class DirectBufferPool {
+
+    /** The amount of native memory an arena reserves at a time. */
+    static final int CHUNK_SIZE = 4 << 20;
+
+    /** The largest capacity that is served from a size class. */
+    static final int MAX_POOLED = 1 << 20;
+
+    // Approximate size of a run of slots carved from a chunk in one go
+    private static final int RUN_SIZE = 64 << 10;
+
+    // Classes up to this size are cached more deeply per thread
+    private static final int SMALL_MAX = 32 << 10;
+    private static final int SMALL_CACHE = 32;
+    private static final int LARGE_CACHE = 4;
+
+    static final int NUM_CLASSES = sizeClass(MAX_POOLED) + 1;
+
+    private static final int[] CLASS_SIZES = new int[NUM_CLASSES];
+    static {
+        for (int i = 0; i < NUM_CLASSES; i++)
+            CLASS_SIZES[i] = classSize(i);
+    }
+
+    /**
+     * Returns the index of the smallest size class that holds the given
+     * number of bytes.
+     */
+    static int sizeClass(int size) {
+        if (size <= 128)
+            return (size <= 16) ? 0 : ((size + 15) >>> 4) - 1;
+        int s = size - 1;
+        int lg = 31 - Integer.numberOfLeadingZeros(s);
+        return 8 + ((lg - 7) << 2) + ((s >>> (lg - 2)) & 3);
+    }
+
+    /**
+     * Returns the number of bytes held by the given size class.
+     */
+    static int classSize(int sizeClass) {
+        if (sizeClass < 8)
+            return (sizeClass + 1) << 4;
+        int lg = ((sizeClass - 8) >>> 2) + 7;
+        return (5 + ((sizeClass - 8) & 3)) << (lg - 2);
+    }
+
+    private final Arena[] arenas;
+    private final AtomicInteger nextArena = new AtomicInteger();
+    private final ThreadLocal<Cache> caches = new ThreadLocal<>();
+
+    private final int leakSampleInterval;
+    private final Set<Leak> tracked = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<ByteBuffer> leakQueue = new ReferenceQueue<>();
+
+    // Bytes requested by callers for buffers not yet released
+    private final LongAdder requested = new LongAdder();
+    // Bytes of buffers too large to be pooled and not yet released
+    private final LongAdder unpooled = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    /**
+     * Creates a pool with two arenas per available processor that tracks
+     * one in every 128 allocated buffers for leaks.
+     */
+    public DirectBufferPool() {
+        this(Runtime.getRuntime().availableProcessors() * 2, 128);
+    }
+
+    /**
+     * Creates a pool with the given number of arenas.
+     *
+     * @param arenas the number of arenas the pool is striped over
+     * @param leakSampleInterval track one in every this many buffers for
+     *        leaks; {@code 1} tracks every buffer and {@code 0} disables
+     *        leak detection
+     * @throws IllegalArgumentException if {@code arenas} is not positive or
+     *         {@code leakSampleInterval} is negative
+     */
+    public DirectBufferPool(int arenas, int leakSampleInterval) {
+        if (arenas <= 0)
+            throw new IllegalArgumentException("Illegal arena count: " + arenas);
+        if (leakSampleInterval < 0)
+            throw new IllegalArgumentException("Illegal leak sample interval: "
+                                               + leakSampleInterval);
+        this.arenas = new Arena[arenas];
+        for (int i = 0; i < arenas; i++)
+            this.arenas[i] = new Arena(this);
+        this.leakSampleInterval = leakSampleInterval;
+    }
+
+    /**
+     * Allocates a direct byte buffer from this pool.
+     *
+     * <p>The new buffer's position will be zero, its limit will be its
+     * capacity, its mark will be undefined, and its content is undefined.
+     *
+     * @param  capacity
+     *         The new buffer's capacity, in bytes
+     *
+     * @return  The new byte buffer
+     *
+     * @throws  IllegalArgumentException
+     *          If the <tt>capacity</tt> is a negative integer
+     */
+    public ByteBuffer allocate(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        reclaimLeaks();
+        Cache c = cache();
+        Slot slot;
+        if (capacity > MAX_POOLED) {
+            DirectByteBuffer chunk = (DirectByteBuffer)ByteBuffer.allocateDirect(capacity);
+            unpooled.add(capacity);
+            slot = new Slot(c.arena, chunk.address(), -1, capacity, chunk);
+        } else {
+            int sc = sizeClass(capacity);
+            slot = new Slot(c.arena, c.allocate(sc), sc, capacity, null);
+            c.arena.used.add(CLASS_SIZES[sc]);
+        }
+        requested.add(capacity);
+        allocations.increment();
+        ByteBuffer buffer = new DirectByteBuffer(slot.address, capacity, slot);
+        buffer.guard = new MemoryGuard();
+        if (leakSampleInterval != 0 && --c.untilSample <= 0) {
+            c.untilSample = leakSampleInterval;
+            Leak leak = new Leak(buffer, slot, leakQueue);
+            slot.leak = leak;
+            tracked.add(leak);
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to this pool.  The buffer and any views of it can
+     * not be used afterwards.
+     *
+     * @param  buffer
+     *         A buffer returned by {@link #allocate(int)} of this pool
+     *
+     * @throws  IllegalArgumentException
+     *          If the buffer was not allocated by this pool, or is a view
+     *          of such a buffer
+     *
+     * @throws  IllegalStateException
+     *          If the buffer has already been released
+     */
+    public void release(ByteBuffer buffer) {
+        Object att = (buffer instanceof DirectByteBuffer)
+            ? ((DirectByteBuffer)buffer).attachment() : null;
+        if (!(att instanceof Slot) || ((Slot)att).arena.pool != this)
+            throw new IllegalArgumentException("Buffer was not allocated by this pool");
+        Slot slot = (Slot)att;
+        if (!slot.markReleased())
+            throw new IllegalStateException("Buffer already released");
+        // The guard is volatile and closed before the slot can be handed
+        // out again, so any access that starts after this point throws
+        buffer.guard.close();
+        Leak leak = slot.leak;
+        if (leak != null) {
+            tracked.remove(leak);
+            leak.clear();
+        }
+        free(slot, caches.get());
+    }
+
+    private void free(Slot slot, Cache c) {
+        requested.add(-slot.requested);
+        if (slot.sizeClass < 0) {
+            // Unpooled memory is left to the buffer's own cleaner, since
+            // views of the buffer may still refer to it
+            unpooled.add(-slot.requested);
+            return;
+        }
+        slot.arena.used.add(-CLASS_SIZES[slot.sizeClass]);
+        if (c != null && c.arena == slot.arena)
+            c.free(slot.sizeClass, slot.address);
+        else
+            slot.arena.free(slot.sizeClass, slot.address);
+    }
+
+    private void reclaimLeaks() {
+        for (Leak leak; (leak = (Leak)leakQueue.poll()) != null; ) {
+            tracked.remove(leak);
+            Slot slot = leak.slot;
+            if (slot.markReleased()) {
+                leaks.increment();
+                free(slot, null);
+            }
+        }
+    }
+
+    private Cache cache() {
+        Cache c = caches.get();
+        if (c == null) {
+            int i = (nextArena.getAndIncrement() & Integer.MAX_VALUE) % arenas.length;
+            c = new Cache(arenas[i], Thread.currentThread(), leakSampleInterval);
+            arenas[i].register(c);
+            caches.set(c);
+        }
+        return c;
+    }
+
+    // -- Statistics --
+
+    /**
+     * Returns the number of arenas this pool is striped over.
+     *
+     * @return  The number of arenas
+     */
+    public int getArenaCount() {
+        return arenas.length;
+    }
+
+    /**
+     * Returns the amount of native memory reserved by the given arena.
+     *
+     * @param  arena
+     *         The index of the arena, from zero to
+     *         {@link #getArenaCount()} - 1
+     *
+     * @return  The reserved memory, in bytes
+     */
+    public long getArenaReservedMemory(int arena) {
+        return arenas[arena].reserved();
+    }
+
+    /**
+     * Returns the amount of memory in the given arena that is held by
+     * buffers that have not yet been released, including the bytes lost to
+     * rounding up to a size class.
+     *
+     * @param  arena
+     *         The index of the arena, from zero to
+     *         {@link #getArenaCount()} - 1
+     *
+     * @return  The memory in use, in bytes
+     */
+    public long getArenaUsedMemory(int arena) {
+        return arenas[arena].used.sum();
+    }
+
+    /**
+     * Returns the amount of native memory reserved by this pool, including
+     * unpooled buffers that have not been released.
+     *
+     * @return  The reserved memory, in bytes
+     */
+    public long getReservedMemory() {
+        long n = unpooled.sum();
+        for (Arena a : arenas)
+            n += a.reserved();
+        return n;
+    }
+
+    /**
+     * Returns the amount of memory held by buffers that have not yet been
+     * released, including the bytes lost to rounding up to a size class.
+     *
+     * @return  The memory in use, in bytes
+     */
+    public long getUsedMemory() {
+        long n = unpooled.sum();
+        for (Arena a : arenas)
+            n += a.used.sum();
+        return n;
+    }
+
+    /**
+     * Returns the total capacity of the buffers that have not yet been
+     * released.
+     *
+     * @return  The requested memory in use, in bytes
+     */
+    public long getRequestedMemory() {
+        return requested.sum();
+    }
+
+    /**
+     * Returns the fraction of the reserved memory that is not part of the
+     * capacity of an unreleased buffer.  This covers both the rounding up
+     * of requests to size classes and the free slots and unused chunk space
+     * held by the pool.
+     *
+     * @return  A value between {@code 0.0} and {@code 1.0}
+     */
+    public double getFragmentation() {
+        long reserved = getReservedMemory();
+        if (reserved == 0)
+            return 0.0;
+        return Math.max(0.0, 1.0 - (double)getRequestedMemory() / reserved);
+    }
+
+    /**
+     * Returns the number of buffers allocated by this pool.
+     *
+     * @return  The number of allocations
+     */
+    public long getAllocationCount() {
+        return allocations.sum();
+    }
+
+    /**
+     * Returns the number of tracked buffers that have been found to be
+     * garbage collected without having been released.
+     *
+     * @return  The number of leaks detected
+     */
+    public long getLeakCount() {
+        return leaks.sum();
+    }
+
+    // -- Internals --
+
+    /**
+     * The attachment of a buffer allocated by the pool.
+     */
+    static final class Slot {
+        final Arena arena;
+        final long address;
+        final int sizeClass;        // -1 if unpooled
+        final int requested;
+        final DirectByteBuffer chunk; // unpooled buffers only
+        Leak leak;
+        volatile int released;
+
+        Slot(Arena arena, long address, int sizeClass, int requested,
+             DirectByteBuffer chunk) {
+            this.arena = arena;
+            this.address = address;
+            this.sizeClass = sizeClass;
+            this.requested = requested;
+            this.chunk = chunk;
+        }
+
+        boolean markReleased() {
+            return RELEASED.compareAndSet(this, 0, 1);
+        }
+
+        private static final AtomicIntegerFieldUpdater<Slot> RELEASED =
+            AtomicIntegerFieldUpdater.newUpdater(Slot.class, "released");
+    }
+
+    /**
+     * Enqueued when a tracked buffer becomes unreachable.
+     */
+    static final class Leak extends PhantomReference<ByteBuffer> {
+        final Slot slot;
+
+        Leak(ByteBuffer buffer, Slot slot, ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * The free slots of one thread's arena, used by that thread only.
+     */
+    static final class Cache {
+        final Arena arena;
+        final WeakReference<Thread> owner;
+        final long[][] slots = new long[NUM_CLASSES][];
+        final int[] counts = new int[NUM_CLASSES];
+        int untilSample;
+
+        Cache(Arena arena, Thread owner, int untilSample) {
+            this.arena = arena;
+            this.owner = new WeakReference<>(owner);
+            this.untilSample = untilSample;
+        }
+
+        boolean isDead() {
+            Thread t = owner.get();
+            return t == null || !t.isAlive();
+        }
+
+        private long[] slots(int sc) {
+            long[] s = slots[sc];
+            if (s == null)
+                slots[sc] = s = new long[CLASS_SIZES[sc] <= SMALL_MAX
+                                        ? SMALL_CACHE : LARGE_CACHE];
+            return s;
+        }
+
+        long allocate(int sc) {
+            long[] s = slots(sc);
+            int n = counts[sc];
+            if (n == 0)
+                n = arena.allocate(sc, s, s.length >>> 1);
+            counts[sc] = --n;
+            return s[n];
+        }
+
+        void free(int sc, long address) {
+            long[] s = slots(sc);
+            int n = counts[sc];
+            if (n == s.length) {
+                int keep = n >>> 1;
+                arena.free(sc, s, keep, n - keep);
+                n = keep;
+            }
+            s[n++] = address;
+            counts[sc] = n;
+        }
+    }
+
+    /**
+     * A set of chunks with per size class free lists.
+     */
+    static final class Arena {
+        final DirectBufferPool pool;
+        final LongAdder used = new LongAdder();
+
+        // All guarded by this
+        private final long[][] free = new long[NUM_CLASSES][];
+        private final int[] freeCount = new int[NUM_CLASSES];
+        private final ArrayList<ByteBuffer> chunks = new ArrayList<>();
+        private final ArrayList<Cache> caches = new ArrayList<>();
+        private long chunkBase;
+        private int chunkUsed = CHUNK_SIZE;
+        private long reserved;
+
+        Arena(DirectBufferPool pool) {
+            this.pool = pool;
+        }
+
+        synchronized long reserved() {
+            return reserved;
+        }
+
+        synchronized void register(Cache c) {
+            caches.add(c);
+        }
+
+        /**
+         * Moves up to max free slots of the given class into out, and
+         * returns how many were moved, at least one.
+         */
+        synchronized int allocate(int sc, long[] out, int max) {
+            int n = freeCount[sc];
+            if (n == 0)
+                n = refill(sc);
+            int k = Math.max(1, Math.min(n, max));
+            System.arraycopy(free[sc], n - k, out, 0, k);
+            freeCount[sc] = n - k;
+            return k;
+        }
+
+        synchronized void free(int sc, long address) {
+            push(sc, address);
+        }
+
+        synchronized void free(int sc, long[] src, int off, int len) {
+            for (int i = off; i < off + len; i++)
+                push(sc, src[i]);
+        }
+
+        private void push(int sc, long address) {
+            long[] f = free[sc];
+            int n = freeCount[sc];
+            if (f == null)
+                free[sc] = f = new long[16];
+            else if (n == f.length)
+                free[sc] = f = Arrays.copyOf(f, n << 1);
+            f[n] = address;
+            freeCount[sc] = n + 1;
+        }
+
+        // Carves a run of slots from the current chunk, reserving a new
+        // chunk if there is no room left, and returns the free count
+        private int refill(int sc) {
+            int size = CLASS_SIZES[sc];
+            if (CHUNK_SIZE - chunkUsed < size) {
+                if (reclaimDeadCaches() && freeCount[sc] > 0)
+                    return freeCount[sc];
+                DirectByteBuffer chunk =
+                    (DirectByteBuffer)ByteBuffer.allocateDirect(CHUNK_SIZE);
+                chunks.add(chunk);
+                chunkBase = chunk.address();
+                chunkUsed = 0;
+                reserved += CHUNK_SIZE;
+            }
+            int count = Math.max(1, Math.min(RUN_SIZE, CHUNK_SIZE - chunkUsed) / size);
+            for (int i = 0; i < count; i++) {
+                push(sc, chunkBase + chunkUsed);
+                chunkUsed += size;
+            }
+            return freeCount[sc];
+        }
+
+        private boolean reclaimDeadCaches() {
+            boolean reclaimed = false;
+            for (Iterator<Cache> it = caches.iterator(); it.hasNext(); ) {
+                Cache c = it.next();
+                if (c.isDead()) {
+                    for (int sc = 0; sc < NUM_CLASSES; sc++) {
+                        for (int i = 0; i < c.counts[sc]; i++)
+                            push(sc, c.slots[sc][i]);
+                        c.counts[sc] = 0;
+                    }
+                    it.remove();
+                    reclaimed = true;
+                }
+            }
+            return reclaimed;
+        }
+    }
+}
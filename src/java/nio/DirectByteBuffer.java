@@ -78,12 +78,15 @@ class DirectByteBuffer
         private long address;
         private long size;
         private int capacity;
+        private final MemoryGuard guard;
 
-        private Deallocator(long address, long size, int capacity) {
+        private Deallocator(long address, long size, int capacity,
+                            MemoryGuard guard) {
             assert (address != 0);
             this.address = address;
             this.size = size;
             this.capacity = capacity;
+            this.guard = guard;
         }
 
         public void run() {
@@ -93,7 +96,9 @@ class DirectByteBuffer
             }
             unsafe.freeMemory(address);
             address = 0;
-            Bits.unreserveMemory(size, capacity);
+            // A buffer that was closed gave its reservation back then
+            if (!guard.isClosed())
+                Bits.unreserveMemory(size, capacity);
         }
 
     }
@@ -119,7 +124,7 @@ class DirectByteBuffer
         super(-1, 0, cap, cap);
         boolean pa = VM.isDirectMemoryPageAligned();
         int ps = Bits.pageSize();
-        long size = Math.max(1L, (long)cap + (pa ? ps : 0));
+        long size = allocationSize(cap);
         Bits.reserveMemory(size, cap);
 
         long base = 0;
@@ -136,7 +141,8 @@ class DirectByteBuffer
         } else {
             address = base;
         }
-        cleaner = Cleaner.create(this, new Deallocator(base, size, cap));
+        guard = new MemoryGuard();
+        cleaner = Cleaner.create(this, new Deallocator(base, size, cap, guard));
         att = null;
 
 
@@ -145,6 +151,26 @@ class DirectByteBuffer
 
 
 
+    // The number of bytes allocated for a buffer of the given capacity
+    private static long allocationSize(int cap) {
+        boolean pa = VM.isDirectMemoryPageAligned();
+        return Math.max(1L, (long)cap + (pa ? Bits.pageSize() : 0));
+    }
+
+    // Gives back the memory of a buffer created by allocateDirect once it
+    // has been closed.  The pages are replaced with fresh zero-filled ones
+    // and the reservation is returned at once, but the addresses stay valid
+    // until the Deallocator frees them, so that an access racing with the
+    // close cannot fault.
+    void discard() {
+        long ps = Bits.pageSize();
+        long start = (address + ps - 1) & -ps;
+        long end = (address + capacity()) & -ps;
+        if (start < end)
+            discard0(start, end - start);
+        Bits.unreserveMemory(allocationSize(capacity()), capacity());
+    }
+
     // Invoked to construct a direct ByteBuffer referring to the block of
     // memory. A given arbitrary object may also be attached to the buffer.
     //
@@ -178,6 +204,7 @@ class DirectByteBuffer
         address = addr;
         cleaner = Cleaner.create(this, unmapper);
         att = null;
+        guard = new MemoryGuard();
 
 
 
@@ -198,6 +225,7 @@ class DirectByteBuffer
         cleaner = null;
 
         att = db;
+        guard = MemoryGuard.of(db);
 
 
 
@@ -237,10 +265,14 @@ class DirectByteBuffer
 
 
     public long address() {
+        if (guard != null)
+            guard.check();
         return address;
     }
 
     private long ix(int i) {
+        if (guard != null)
+            guard.check();
         return address + ((long)i << 0);
     }
 
@@ -470,10 +502,14 @@ class DirectByteBuffer
 
 
     byte _get(int i) {                          // package-private
+        if (guard != null)
+            guard.check();
         return unsafe.getByte(address + i);
     }
 
     void _put(int i, byte b) {                  // package-private
+        if (guard != null)
+            guard.check();
 
         unsafe.putByte(address + i, b);
 
@@ -198,6 +198,7 @@ class DirectCharBufferS
 
 
         att = db;
+        guard = MemoryGuard.of(db);
 
 
 
@@ -241,6 +242,8 @@ class DirectCharBufferS
     }
 
     private long ix(int i) {
+        if (guard != null)
+            guard.check();
         return address + ((long)i << 1);
     }
 
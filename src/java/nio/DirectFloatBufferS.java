@@ -198,6 +198,7 @@ class DirectFloatBufferS
 
 
         att = db;
+        guard = MemoryGuard.of(db);
 
 
 
@@ -241,6 +242,8 @@ class DirectFloatBufferS
     }
 
     private long ix(int i) {
+        if (guard != null)
+            guard.check();
         return address + ((long)i << 2);
     }
 
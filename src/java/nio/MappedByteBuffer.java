@@ -27,6 +27,7 @@ package java.nio;
 
 import java.io.FileDescriptor;
 import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
 
 
 /**
@@ -38,7 +39,8 @@ import sun.misc.Unsafe;
  * memory-mapped file regions.
  *
  * <p> A mapped byte buffer and the file mapping that it represents remain
- * valid until the buffer itself is garbage-collected.
+ * valid until the buffer itself is garbage-collected, or until the mapping
+ * is released explicitly by {@link #close close}.
  *
  * <p> The content of a mapped byte buffer can change at any time, for example
  * if the content of the corresponding region of the mapped file is changed by
@@ -65,6 +67,7 @@ import sun.misc.Unsafe;
 
 public abstract class MappedByteBuffer
     extends ByteBuffer
+    implements AutoCloseable
 {
 
     // This is a little bit backwards: By rights MappedByteBuffer should be a
@@ -94,6 +97,8 @@ public abstract class MappedByteBuffer
         if (fd == null)
             // Can only happen if a luser explicitly casts a direct byte buffer
             throw new UnsupportedOperationException();
+        if (guard != null)
+            guard.check();
     }
 
     // Returns the distance (in bytes) of the buffer from the page aligned address
@@ -205,6 +210,84 @@ public abstract class MappedByteBuffer
         return this;
     }
 
+    // Forces the given part of this buffer's content to the storage device,
+    // for use by MappedRegion
+    void force(long offset, long length) {
+        checkMapped();
+        if ((address != 0) && (length != 0)) {
+            long a = address + offset;
+            long pageOffset = a & (Bits.pageSize() - 1);
+            force0(fd, a - pageOffset, length + pageOffset);
+        }
+    }
+
+    // Advises the operating system that the given part of this buffer's
+    // content will be needed soon, for use by MappedRegion
+    void willNeed(long offset, long length) {
+        checkMapped();
+        if ((address != 0) && (length != 0)) {
+            long a = address + offset;
+            long pageOffset = a & (Bits.pageSize() - 1);
+            load0(a - pageOffset, length + pageOffset);
+        }
+    }
+
+    /**
+     * Releases the memory backing this buffer without waiting for the buffer
+     * to be garbage collected.
+     *
+     * <p> If this buffer was created by {@link
+     * java.nio.channels.FileChannel#map FileChannel.map} then the file is no
+     * longer mapped, so that it can be deleted or truncated right away.  If it
+     * was created by {@link ByteBuffer#allocateDirect ByteBuffer.allocateDirect}
+     * then its memory is given back to the operating system, and no longer
+     * counted against the direct memory limit or reported by the
+     * <tt>"direct"</tt> {@link java.lang.management.BufferPoolMXBean}.
+     *
+     * <p> This buffer and every buffer derived from it, such as slices,
+     * duplicates and views of other types, share a guard that is checked on
+     * every access.  Once this method has been invoked, any attempt by any
+     * thread to read or write the content of any of these buffers, or to
+     * create a new view of them, throws {@link IllegalStateException}.  This
+     * method may be invoked while other threads are accessing the buffer:
+     * an access that is already past the check when the memory is released
+     * reads zeros, or writes to memory that is then discarded, but never
+     * faults.  To make this so, the range of addresses of the buffer remains
+     * reserved, and for a mapped buffer is still reported by the
+     * <tt>"mapped"</tt> buffer pool, until the buffer is garbage collected,
+     * though it no longer holds any memory or refers to the file.  Invoking
+     * this method again has no effect.
+     *
+     * @throws  UnsupportedOperationException
+     *          If this buffer does not own its memory, for example because it
+     *          is a slice or duplicate of another buffer, or was created by
+     *          native code
+     *
+     * @since 1.8
+     */
+    public void close() {
+        // Only the buffer that owns the memory has a guard and no attachment;
+        // views are attached to their parent and pooled buffers to their slot
+        if (guard == null || !(this instanceof DirectBuffer)
+            || ((DirectBuffer)this).attachment() != null)
+            throw new UnsupportedOperationException("Buffer does not own its memory");
+        if (!guard.close())
+            return;
+        if (fd == null) {
+            ((DirectByteBuffer)this).discard();
+        } else if ((address != 0) && (capacity() != 0)) {
+            // The Cleaner unmaps the zero pages left in place of the file
+            // once the buffer is unreachable
+            long offset = mappingOffset();
+            discard0(mappingAddress(offset), mappingLength(offset));
+        }
+    }
+
+    // Replaces the whole pages in the given range with fresh private,
+    // zero-filled pages, as mmap with MAP_FIXED does, dropping whatever they
+    // mapped before, be it a file or memory, without unmapping the range
+    static native void discard0(long address, long length);
+
     private native boolean isLoaded0(long address, long length, int pageCount);
     private native void load0(long address, long length);
     private native void force0(FileDescriptor fd, long address, long length);
@@ -0,0 +1,1080 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A memory-mapped region of a file that is addressed with <tt>long</tt>
+ * offsets, and so is not limited to {@link Integer#MAX_VALUE} bytes like a
+ * {@link MappedByteBuffer}.
+ *
+ * <p> Mapped regions are created by the {@link FileChannel#mapRegion
+ * FileChannel.mapRegion} method.  A region is mapped as a sequence of
+ * segments of {@value #SEGMENT_SIZE} bytes, but offers a single, flat
+ * address space over them: values and byte ranges that cross the boundary
+ * between two segments are read and written like any others.
+ *
+ * <p> Unlike a buffer, a region has no position, limit or mark.  All of its
+ * accessors are absolute and take an offset from the start of the region,
+ * so a region may be shared freely between threads, subject to the usual
+ * visibility rules for memory written by one thread and read by another.
+ * Multi-byte values are read and written in the region's {@link #order
+ * byte order}, which is {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN} for a newly
+ * mapped region; {@link #order(ByteOrder)} returns a region that shares the
+ * same mapping in another byte order, rather than changing this one.
+ *
+ * <p> The region remains mapped until it is {@link #close closed} or
+ * garbage-collected.  Once it is closed, any attempt to access it throws
+ * {@link IllegalStateException}.  As for {@link MappedByteBuffer#close()},
+ * the region may be closed while other threads are accessing it: an access
+ * racing with the close reads zeros or writes to discarded memory, but never
+ * faults.
+ *
+ * <p> The remarks about inaccessible regions and changes to the underlying
+ * file in the specification of {@link MappedByteBuffer} apply equally to
+ * mapped regions.
+ *
+ * @see FileChannel#mapRegion
+ * @since 1.8
+ */
+public final class MappedRegion implements AutoCloseable {
+
+    /** The number of bytes mapped by each segment of a region. */
+    public static final int SEGMENT_SIZE = 1 << 30;
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // Bulk copies are split so that safepoints are not delayed for too long
+    private static final long COPY_CHUNK = Bits.UNSAFE_COPY_THRESHOLD;
+
+    private static final Unsafe unsafe = Bits.unsafe();
+    private static final boolean unaligned = Bits.unaligned();
+    private static final long arrayBaseOffset = unsafe.arrayBaseOffset(byte[].class);
+
+    private final MappedByteBuffer[] segments;
+    private final long[] addresses;
+    private final long size;
+    private final boolean readOnly;
+    private final MemoryGuard guard;
+
+    private final boolean bigEndian;
+    private final boolean nativeByteOrder;
+
+    private MappedRegion(MappedByteBuffer[] segments, long size, boolean readOnly) {
+        this.segments = segments;
+        this.addresses = new long[segments.length];
+        for (int i = 0; i < segments.length; i++)
+            addresses[i] = ((DirectBuffer)segments[i]).address();
+        this.size = size;
+        this.readOnly = readOnly;
+        this.guard = new MemoryGuard();
+        this.bigEndian = true;
+        this.nativeByteOrder = (Bits.byteOrder() == ByteOrder.BIG_ENDIAN);
+    }
+
+    // Creates a view of the given region in the given byte order
+    private MappedRegion(MappedRegion r, boolean bigEndian) {
+        this.segments = r.segments;
+        this.addresses = r.addresses;
+        this.size = r.size;
+        this.readOnly = r.readOnly;
+        this.guard = r.guard;
+        this.bigEndian = bigEndian;
+        this.nativeByteOrder = (bigEndian == (Bits.byteOrder() == ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * Maps a region of the given channel's file into memory.  This method
+     * is invoked by {@link FileChannel#mapRegion}, which specifies its
+     * behavior.
+     *
+     * @param  channel
+     *         The channel whose file is to be mapped
+     * @param  mode
+     *         The mapping mode
+     * @param  position
+     *         The position within the file at which the region is to start
+     * @param  size
+     *         The size of the region to be mapped
+     *
+     * @return  The mapped region
+     *
+     * @throws  IOException
+     *          If some I/O error occurs
+     */
+    public static MappedRegion map(FileChannel channel, MapMode mode,
+                                   long position, long size)
+        throws IOException
+    {
+        if (mode == null)
+            throw new NullPointerException("Mode is null");
+        if (position < 0L)
+            throw new IllegalArgumentException("Negative position");
+        if (size < 0L)
+            throw new IllegalArgumentException("Negative size");
+        if (position + size < 0)
+            throw new IllegalArgumentException("Position + size overflow");
+        int n = (int)((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                long start = (long)i << SEGMENT_SHIFT;
+                long length = Math.min(SEGMENT_SIZE, size - start);
+                segments[i] = channel.map(mode, position + start, length);
+            }
+        } catch (IOException | RuntimeException | Error x) {
+            for (MappedByteBuffer segment : segments) {
+                if (segment != null)
+                    segment.close();
+            }
+            throw x;
+        }
+        return new MappedRegion(segments, size, mode == MapMode.READ_ONLY);
+    }
+
+    /**
+     * Returns the size of this region.
+     *
+     * @return  The size of this region, in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Tells whether or not this region is read-only.
+     *
+     * @return  <tt>true</tt> if, and only if, this region was mapped in
+     *          {@link MapMode#READ_ONLY READ_ONLY} mode
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Retrieves this region's byte order.
+     *
+     * @return  This region's byte order
+     */
+    public ByteOrder order() {
+        return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+
+    /**
+     * Returns a region over the same mapping as this one that reads and
+     * writes multi-byte values in the given byte order.  This region's own
+     * byte order is not changed, so that it remains safe to share between
+     * threads.
+     *
+     * <p> The two regions share their content and their mapping: closing
+     * either of them closes both.
+     *
+     * @param  bo
+     *         The byte order of the returned region,
+     *         either {@link ByteOrder#BIG_ENDIAN BIG_ENDIAN}
+     *         or {@link ByteOrder#LITTLE_ENDIAN LITTLE_ENDIAN}
+     *
+     * @return  This region, if it already has the given byte order,
+     *          else a new region in that order
+     */
+    public MappedRegion order(ByteOrder bo) {
+        boolean be = (bo == ByteOrder.BIG_ENDIAN);
+        return (be == bigEndian) ? this : new MappedRegion(this, be);
+    }
+
+    // -- Address computation --
+
+    private void checkRange(long offset, long length) {
+        if ((offset | length) < 0 || offset > size - length)
+            throw new IndexOutOfBoundsException("offset " + offset + ", length "
+                                                + length + ", size " + size);
+    }
+
+    private void checkWritable() {
+        if (readOnly)
+            throw new ReadOnlyBufferException();
+    }
+
+    // Returns the address of a value of n bytes at the given offset, or zero
+    // if it crosses a segment boundary or cannot be accessed in one go
+    private long ix(long offset, int n) {
+        guard.check();
+        checkRange(offset, n);
+        long i = offset & SEGMENT_MASK;
+        if (i > SEGMENT_SIZE - n)
+            return 0L;
+        long a = addresses[(int)(offset >>> SEGMENT_SHIFT)] + i;
+        return (unaligned || (a & (n - 1)) == 0) ? a : 0L;
+    }
+
+    // Address of a single byte, which never crosses a boundary
+    private long address(long offset) {
+        return addresses[(int)(offset >>> SEGMENT_SHIFT)] + (offset & SEGMENT_MASK);
+    }
+
+    // Number of bytes from offset to the end of its segment
+    private static long segmentRemaining(long offset) {
+        return SEGMENT_SIZE - (offset & SEGMENT_MASK);
+    }
+
+    // Reads n bytes one at a time, in this region's byte order
+    private long getBytes(long offset, int n) {
+        long x = 0L;
+        for (int i = 0; i < n; i++) {
+            int shift = bigEndian ? (n - 1 - i) << 3 : i << 3;
+            x |= (unsafe.getByte(address(offset + i)) & 0xffL) << shift;
+        }
+        return x;
+    }
+
+    private void putBytes(long offset, int n, long x) {
+        for (int i = 0; i < n; i++) {
+            int shift = bigEndian ? (n - 1 - i) << 3 : i << 3;
+            unsafe.putByte(address(offset + i), (byte)(x >> shift));
+        }
+    }
+
+    // -- Typed absolute accessors --
+
+    /**
+     * Reads the byte at the given offset.
+     *
+     * @param  offset
+     *         The offset from which the byte will be read
+     *
+     * @return  The byte at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public byte get(long offset) {
+        return unsafe.getByte(ix(offset, 1));
+    }
+
+    /**
+     * Writes the given byte at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the byte will be written
+     *
+     * @param  b
+     *         The byte value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion put(long offset, byte b) {
+        checkWritable();
+        unsafe.putByte(ix(offset, 1), b);
+        return this;
+    }
+
+    /**
+     * Reads two bytes at the given offset, composing them into a short
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The short value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public short getShort(long offset) {
+        long a = ix(offset, 2);
+        if (a == 0L)
+            return (short)getBytes(offset, 2);
+        short x = unsafe.getShort(a);
+        return nativeByteOrder ? x : Short.reverseBytes(x);
+    }
+
+    /**
+     * Writes two bytes containing the given short value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The short value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion putShort(long offset, short value) {
+        checkWritable();
+        long a = ix(offset, 2);
+        if (a == 0L)
+            putBytes(offset, 2, value);
+        else
+            unsafe.putShort(a, nativeByteOrder ? value : Short.reverseBytes(value));
+        return this;
+    }
+
+    /**
+     * Reads two bytes at the given offset, composing them into a char
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The char value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public char getChar(long offset) {
+        return (char)getShort(offset);
+    }
+
+    /**
+     * Writes two bytes containing the given char value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The char value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus one
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion putChar(long offset, char value) {
+        return putShort(offset, (short)value);
+    }
+
+    /**
+     * Reads four bytes at the given offset, composing them into an int
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The int value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public int getInt(long offset) {
+        long a = ix(offset, 4);
+        if (a == 0L)
+            return (int)getBytes(offset, 4);
+        int x = unsafe.getInt(a);
+        return nativeByteOrder ? x : Integer.reverseBytes(x);
+    }
+
+    /**
+     * Writes four bytes containing the given int value, in the current byte
+     * order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The int value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion putInt(long offset, int value) {
+        checkWritable();
+        long a = ix(offset, 4);
+        if (a == 0L)
+            putBytes(offset, 4, value);
+        else
+            unsafe.putInt(a, nativeByteOrder ? value : Integer.reverseBytes(value));
+        return this;
+    }
+
+    /**
+     * Reads eight bytes at the given offset, composing them into a long
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The long value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public long getLong(long offset) {
+        long a = ix(offset, 8);
+        if (a == 0L)
+            return getBytes(offset, 8);
+        long x = unsafe.getLong(a);
+        return nativeByteOrder ? x : Long.reverseBytes(x);
+    }
+
+    /**
+     * Writes eight bytes containing the given long value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The long value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion putLong(long offset, long value) {
+        checkWritable();
+        long a = ix(offset, 8);
+        if (a == 0L)
+            putBytes(offset, 8, value);
+        else
+            unsafe.putLong(a, nativeByteOrder ? value : Long.reverseBytes(value));
+        return this;
+    }
+
+    /**
+     * Reads four bytes at the given offset, composing them into a float
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The float value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public float getFloat(long offset) {
+        return Float.intBitsToFloat(getInt(offset));
+    }
+
+    /**
+     * Writes four bytes containing the given float value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The float value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus three
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion putFloat(long offset, float value) {
+        return putInt(offset, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Reads eight bytes at the given offset, composing them into a double
+     * value according to the current byte order.
+     *
+     * @param  offset
+     *         The offset from which the bytes will be read
+     *
+     * @return  The double value at the given offset
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public double getDouble(long offset) {
+        return Double.longBitsToDouble(getLong(offset));
+    }
+
+    /**
+     * Writes eight bytes containing the given double value, in the current
+     * byte order, at the given offset.
+     *
+     * @param  offset
+     *         The offset at which the bytes will be written
+     *
+     * @param  value
+     *         The double value to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If <tt>offset</tt> is negative or not smaller than the
+     *          region's size, minus seven
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion putDouble(long offset, double value) {
+        return putLong(offset, Double.doubleToRawLongBits(value));
+    }
+
+    // -- Bulk operations --
+
+    /**
+     * Copies bytes from this region, starting at the given offset, into the
+     * given array.
+     *
+     * @param  offset
+     *         The offset in this region of the first byte to be copied
+     *
+     * @param  dst
+     *         The array into which bytes are to be written
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be written
+     *
+     * @param  length
+     *         The number of bytes to be copied
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range of the region or of the array is out of bounds
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion get(long offset, byte[] dst, int off, int length) {
+        guard.check();
+        checkRange(offset, length);
+        if ((off | length | (off + length) | (dst.length - (off + length))) < 0)
+            throw new IndexOutOfBoundsException();
+        while (length > 0) {
+            int n = (int)Math.min(length, Math.min(segmentRemaining(offset), COPY_CHUNK));
+            unsafe.copyMemory(null, address(offset), dst, arrayBaseOffset + off, n);
+            offset += n;
+            off += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Copies bytes from the given array into this region, starting at the
+     * given offset.
+     *
+     * @param  offset
+     *         The offset in this region at which the first byte is to be
+     *         written
+     *
+     * @param  src
+     *         The array from which bytes are to be read
+     *
+     * @param  off
+     *         The offset within the array of the first byte to be read
+     *
+     * @param  length
+     *         The number of bytes to be copied
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range of the region or of the array is out of bounds
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion put(long offset, byte[] src, int off, int length) {
+        checkWritable();
+        guard.check();
+        checkRange(offset, length);
+        if ((off | length | (off + length) | (src.length - (off + length))) < 0)
+            throw new IndexOutOfBoundsException();
+        while (length > 0) {
+            int n = (int)Math.min(length, Math.min(segmentRemaining(offset), COPY_CHUNK));
+            unsafe.copyMemory(src, arrayBaseOffset + off, null, address(offset), n);
+            offset += n;
+            off += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Copies the remaining bytes of the given buffer into this region,
+     * starting at the given offset.  The buffer's position is advanced by
+     * the number of bytes copied.
+     *
+     * @param  offset
+     *         The offset in this region at which the first byte is to be
+     *         written
+     *
+     * @param  src
+     *         The buffer from which bytes are to be read
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there is not enough room in this region after
+     *          <tt>offset</tt> for the remaining bytes of the buffer
+     *
+     * @throws  ReadOnlyBufferException
+     *          If this region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion put(long offset, ByteBuffer src) {
+        checkWritable();
+        guard.check();
+        int length = src.remaining();
+        checkRange(offset, length);
+        if (src.hasArray()) {
+            put(offset, src.array(), src.arrayOffset() + src.position(), length);
+        } else if (src.isDirect()) {
+            long a = ((DirectBuffer)src).address() + src.position();
+            for (int done = 0; done < length; ) {
+                int n = (int)Math.min(length - done,
+                                      Math.min(segmentRemaining(offset + done), COPY_CHUNK));
+                unsafe.copyMemory(a + done, address(offset + done), n);
+                done += n;
+            }
+        } else {
+            for (int i = 0; i < length; i++)
+                unsafe.putByte(address(offset + i), src.get(src.position() + i));
+        }
+        src.position(src.position() + length);
+        return this;
+    }
+
+    /**
+     * Copies bytes from this region, starting at the given offset, into the
+     * given buffer until it has no bytes remaining.  The buffer's position
+     * is advanced by the number of bytes copied.
+     *
+     * @param  offset
+     *         The offset in this region of the first byte to be copied
+     *
+     * @param  dst
+     *         The buffer into which bytes are to be written
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there are fewer bytes in this region after <tt>offset</tt>
+     *          than remain in the buffer
+     *
+     * @throws  ReadOnlyBufferException
+     *          If the buffer is read-only
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion get(long offset, ByteBuffer dst) {
+        if (dst.isReadOnly())
+            throw new ReadOnlyBufferException();
+        guard.check();
+        int length = dst.remaining();
+        checkRange(offset, length);
+        if (dst.hasArray()) {
+            get(offset, dst.array(), dst.arrayOffset() + dst.position(), length);
+        } else if (dst.isDirect()) {
+            long a = ((DirectBuffer)dst).address() + dst.position();
+            for (int done = 0; done < length; ) {
+                int n = (int)Math.min(length - done,
+                                      Math.min(segmentRemaining(offset + done), COPY_CHUNK));
+                unsafe.copyMemory(address(offset + done), a + done, n);
+                done += n;
+            }
+        } else {
+            for (int i = 0; i < length; i++)
+                dst.put(dst.position() + i, unsafe.getByte(address(offset + i)));
+        }
+        dst.position(dst.position() + length);
+        return this;
+    }
+
+    /**
+     * Copies a range of bytes from this region to another region, or to
+     * another part of this region.  Overlapping ranges of the same mapping,
+     * whether accessed through this region or through a view of it returned
+     * by {@link #order(ByteOrder) order}, are copied as if the bytes were
+     * first copied to a temporary array.  If the regions are separate
+     * mappings of overlapping parts of the same file, the result is
+     * unspecified.
+     *
+     * @param  offset
+     *         The offset in this region of the first byte to be copied
+     *
+     * @param  dst
+     *         The region into which bytes are to be written
+     *
+     * @param  dstOffset
+     *         The offset in the destination region at which the first byte
+     *         is to be written
+     *
+     * @param  length
+     *         The number of bytes to be copied
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If either range is out of bounds
+     *
+     * @throws  ReadOnlyBufferException
+     *          If the destination region is read-only
+     *
+     * @throws  IllegalStateException
+     *          If either region has been closed
+     */
+    public MappedRegion copyTo(long offset, MappedRegion dst, long dstOffset,
+                               long length) {
+        dst.checkWritable();
+        guard.check();
+        dst.guard.check();
+        checkRange(offset, length);
+        dst.checkRange(dstOffset, length);
+        // A view shares the mapping, and so the addresses, of its region
+        if (dst.addresses == addresses && offset < dstOffset && dstOffset < offset + length) {
+            // Copy backwards so that bytes are read before they are overwritten
+            while (length > 0) {
+                long end = offset + length, dstEnd = dstOffset + length;
+                long n = Math.min(length, Math.min(((end - 1) & SEGMENT_MASK) + 1,
+                                                   ((dstEnd - 1) & SEGMENT_MASK) + 1));
+                n = Math.min(n, COPY_CHUNK);
+                unsafe.copyMemory(address(end - n), address(dstEnd - n), n);
+                length -= n;
+            }
+        } else {
+            while (length > 0) {
+                long n = Math.min(length, Math.min(segmentRemaining(offset),
+                                                   segmentRemaining(dstOffset)));
+                n = Math.min(n, COPY_CHUNK);
+                unsafe.copyMemory(address(offset), dst.address(dstOffset), n);
+                offset += n;
+                dstOffset += n;
+                length -= n;
+            }
+        }
+        return this;
+    }
+
+    // -- Mapping operations --
+
+    /**
+     * Forces any changes made to the given range of this region to be
+     * written to the storage device containing the mapped file.  This method
+     * behaves as {@link MappedByteBuffer#force()} does for the whole of a
+     * buffer.
+     *
+     * @param  offset
+     *         The offset of the first byte of the range
+     *
+     * @param  length
+     *         The length of the range
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is out of bounds
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion force(long offset, long length) {
+        guard.check();
+        checkRange(offset, length);
+        if (readOnly)
+            return this;
+        while (length > 0) {
+            long n = Math.min(length, segmentRemaining(offset));
+            segments[(int)(offset >>> SEGMENT_SHIFT)].force(offset & SEGMENT_MASK, n);
+            offset += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    /**
+     * Forces any changes made to this region to be written to the storage
+     * device containing the mapped file.
+     *
+     * @return  This region
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion force() {
+        return force(0L, size);
+    }
+
+    /**
+     * A hint about how a range of a region is going to be accessed.
+     *
+     * @see MappedRegion#advise
+     * @since 1.8
+     */
+    public enum Advice {
+        /** No particular access pattern. */
+        NORMAL,
+        /** The range will be read sequentially, from lower to higher offsets. */
+        SEQUENTIAL,
+        /** The range will be accessed in random order. */
+        RANDOM,
+        /** The range will be accessed soon and should be read ahead. */
+        WILL_NEED
+    }
+
+    /**
+     * Advises the operating system about how the given range of this region
+     * is going to be accessed.  Advice is only a hint: it does not change
+     * the content of the region, and it may be ignored.
+     *
+     * @implNote This implementation acts on {@link Advice#WILL_NEED
+     * WILL_NEED}, by asking the operating system to start reading the range
+     * into memory without waiting for it to do so, and ignores other advice.
+     *
+     * @param  offset
+     *         The offset of the first byte of the range
+     *
+     * @param  length
+     *         The length of the range
+     *
+     * @param  advice
+     *         The expected access pattern
+     *
+     * @return  This region
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the range is out of bounds
+     *
+     * @throws  IllegalStateException
+     *          If the region has been closed
+     */
+    public MappedRegion advise(long offset, long length, Advice advice) {
+        if (advice == null)
+            throw new NullPointerException();
+        guard.check();
+        checkRange(offset, length);
+        if (advice == Advice.WILL_NEED) {
+            while (length > 0) {
+                long n = Math.min(length, segmentRemaining(offset));
+                segments[(int)(offset >>> SEGMENT_SHIFT)].willNeed(offset & SEGMENT_MASK, n);
+                offset += n;
+                length -= n;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Unmaps this region, and so every region obtained from it by
+     * {@link #order(ByteOrder)}.  Any further attempt to access them throws
+     * {@link IllegalStateException}.  Invoking this method again has no
+     * effect.
+     */
+    public void close() {
+        if (guard.close()) {
+            for (MappedByteBuffer segment : segments)
+                segment.close();
+        }
+    }
+
+    // -- Parallel scanning --
+
+    /**
+     * Creates a {@link Spliterator.OfLong} over the offsets of the
+     * fixed-size records that this region is made of, for scanning the region
+     * in parallel with {@link java.util.stream.StreamSupport#longStream
+     * StreamSupport.longStream}.  The offsets are <tt>0</tt>,
+     * <tt>recordSize</tt>, <tt>2*recordSize</tt> and so on, up to the last
+     * record that fits entirely within the region.
+     *
+     * <p> The spliterator splits on record boundaries, moving each split
+     * point to the first record that starts at or after a page boundary when
+     * there is one nearby, so that the halves rarely share a page.  It
+     * reports {@link Spliterator#SIZED},
+     * {@link Spliterator#SUBSIZED}, {@link Spliterator#ORDERED},
+     * {@link Spliterator#SORTED}, {@link Spliterator#DISTINCT},
+     * {@link Spliterator#NONNULL} and {@link Spliterator#IMMUTABLE}.
+     *
+     * @param  recordSize
+     *         The size of each record, in bytes
+     *
+     * @return  A spliterator over the record offsets
+     *
+     * @throws  IllegalArgumentException
+     *          If <tt>recordSize</tt> is not positive
+     */
+    public Spliterator.OfLong spliterator(long recordSize) {
+        if (recordSize <= 0)
+            throw new IllegalArgumentException("Record size must be positive");
+        return new RecordSpliterator(0L, size / recordSize, recordSize);
+    }
+
+    static final class RecordSpliterator implements Spliterator.OfLong {
+        private final long recordSize;
+        private long index;        // current record, advanced on split/traversal
+        private final long fence;  // one past last record
+
+        RecordSpliterator(long origin, long fence, long recordSize) {
+            this.index = origin;
+            this.fence = fence;
+            this.recordSize = recordSize;
+        }
+
+        public OfLong trySplit() {
+            long lo = index, mid = (lo + fence) >>> 1;
+            // Move the split to the first record at or after the next page
+            // boundary, if that is within a page of the midpoint
+            long ps = Bits.pageSize();
+            if (recordSize < ps) {
+                long pageStart = ((mid * recordSize + ps - 1) / ps) * ps;
+                long r = (pageStart + recordSize - 1) / recordSize;
+                if (r < fence && (r * recordSize - mid * recordSize) < ps)
+                    mid = r;
+            }
+            return (lo >= mid) ? null
+                : new RecordSpliterator(lo, index = mid, recordSize);
+        }
+
+        public boolean tryAdvance(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (index < fence) {
+                long i = index++;
+                action.accept(i * recordSize);
+                return true;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            long i = index, hi = fence;
+            index = hi;
+            for (; i < hi; i++)
+                action.accept(i * recordSize);
+        }
+
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED |
+                Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL |
+                Spliterator.IMMUTABLE;
+        }
+
+        public Comparator<? super Long> getComparator() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+/**
+ * The guard over the memory of a direct buffer that can be released
+ * explicitly.  The buffer that owns the memory and every buffer derived from
+ * it share one guard and check it before each access, so that an access
+ * after the memory has been released throws an exception rather than
+ * reading or writing memory that is no longer the buffer's.
+ *
+ * <p> The flag is volatile, so that a release is seen by the next access of
+ * every thread, with or without any other synchronization between them.
+ * The check still cannot be atomic with the access that follows it, so an
+ * access that passed the check just before the release may yet touch the
+ * memory.  Releasing therefore never makes the addresses invalid: it only
+ * replaces their pages with fresh zero-filled ones, and the addresses are
+ * given back by the buffer's {@code Cleaner} once the buffer is unreachable,
+ * when no access can still be in progress.
+ */
+final class MemoryGuard {
+
+    private volatile boolean closed;
+
+    /**
+     * Returns the guard of the given buffer, to be shared by a view of it.
+     */
+    static MemoryGuard of(Object buffer) {
+        return (buffer instanceof Buffer) ? ((Buffer)buffer).guard : null;
+    }
+
+    /**
+     * Throws {@code IllegalStateException} if the memory has been released.
+     */
+    void check() {
+        if (closed)
+            throw new IllegalStateException("Buffer has been released");
+    }
+
+    /**
+     * Returns true if the memory has been released.
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Marks the memory as released, returning true if this call did so.
+     */
+    synchronized boolean close() {
+        if (closed)
+            return false;
+        closed = true;
+        return true;
+    }
+}
@@ -207,6 +207,15 @@ public abstract class AsynchronousFileChannel
      * FileSystemProvider#newFileChannel newFileChannel} method on the
      * provider that created the {@code Path}.
      *
+     * <p> If the {@code executor} parameter is {@code null}, the file is on
+     * the {@link FileSystems#getDefault default} file system and the system
+     * property {@code jdk.nio.asyncFileQueueDepth} is set to a positive
+     * number, then the channel is instead backed by a shared I/O engine that
+     * performs the operations of all such channels in batches, with that
+     * many operations in progress at most.  Once that many are in progress,
+     * initiating another operation waits until one completes, unless it is
+     * initiated by a completion handler.
+     *
      * @param   file
      *          The path of the file to open or create
      * @param   options
@@ -244,6 +253,11 @@ public abstract class AsynchronousFileChannel
                                                FileAttribute<?>... attrs)
         throws IOException
     {
+        if (executor == null) {
+            AsynchronousFileChannel ch = IoRing.open(file, options, attrs);
+            if (ch != null)
+                return ch;
+        }
         FileSystemProvider provider = file.getFileSystem().provider();
         return provider.newAsynchronousFileChannel(file, options, executor, attrs);
     }
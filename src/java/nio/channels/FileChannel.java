@@ -28,13 +28,16 @@ package java.nio.channels;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.MappedRegion;
 import java.nio.channels.spi.AbstractInterruptibleChannel;
 import java.nio.file.*;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.spi.*;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Collections;
+import sun.nio.ch.Util;
 
 /**
  * 实现零拷贝的主要Java方法，Kafka利用Transfer实现消费
@@ -654,6 +657,321 @@ public abstract class FileChannel extends AbstractInterruptibleChannel implement
      */
     public abstract int write(ByteBuffer src, long position) throws IOException;
 
+    /**
+     * Reads a sequence of bytes from this channel into a subsequence of the
+     * given buffers, starting at the given file position.
+     *
+     * <p> This method works in the same manner as the {@link
+     * #read(ByteBuffer[], int, int)} method, except that bytes are read
+     * starting at the given file position rather than at the channel's
+     * current position, and that it keeps reading until the buffers are
+     * full or the end of the file is reached.  This method does not modify
+     * this channel's position, and so does not need to wait for other
+     * operations that read or update the position.  </p>
+     *
+     * @implSpec The default implementation invokes {@link
+     * #read(ByteBuffer,long)} for each buffer in turn.
+     *
+     * @param  dsts
+     *         The buffers into which bytes are to be transferred
+     *
+     * @param  offset
+     *         The offset within the buffer array of the first buffer into
+     *         which bytes are to be transferred; must be non-negative and no
+     *         larger than <tt>dsts.length</tt>
+     *
+     * @param  length
+     *         The maximum number of buffers to be accessed; must be
+     *         non-negative and no larger than
+     *         <tt>dsts.length</tt>&nbsp;-&nbsp;<tt>offset</tt>
+     *
+     * @param  position
+     *         The file position at which the transfer is to begin;
+     *         must be non-negative
+     *
+     * @return  The number of bytes read, possibly zero, or <tt>-1</tt> if the
+     *          given position is greater than or equal to the file's current
+     *          size
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  IllegalArgumentException
+     *          If the position is negative
+     *
+     * @throws  NonReadableChannelException
+     *          If this channel was not opened for reading
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the read operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the read operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public long read(ByteBuffer[] dsts, int offset, int length, long position)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > dsts.length - length))
+            throw new IndexOutOfBoundsException();
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            ByteBuffer dst = dsts[i];
+            while (dst.hasRemaining()) {
+                int n = read(dst, position + total);
+                if (n < 0)
+                    return (total == 0) ? -1 : total;
+                total += n;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Writes a sequence of bytes to this channel from a subsequence of the
+     * given buffers, starting at the given file position.
+     *
+     * <p> This method works in the same manner as the {@link
+     * #write(ByteBuffer[], int, int)} method, except that bytes are written
+     * starting at the given file position rather than at the channel's
+     * current position.  All of the remaining bytes of the buffers are
+     * written.  This method does not modify this channel's position.  If the
+     * given position is greater than the file's current size then the file
+     * will be grown to accommodate the new bytes; the values of any bytes
+     * between the previous end-of-file and the newly-written bytes are
+     * unspecified.  </p>
+     *
+     * @implSpec The default implementation invokes {@link
+     * #write(ByteBuffer,long)} for each buffer in turn.
+     *
+     * @param  srcs
+     *         The buffers from which bytes are to be retrieved
+     *
+     * @param  offset
+     *         The offset within the buffer array of the first buffer from
+     *         which bytes are to be retrieved; must be non-negative and no
+     *         larger than <tt>srcs.length</tt>
+     *
+     * @param  length
+     *         The maximum number of buffers to be accessed; must be
+     *         non-negative and no larger than
+     *         <tt>srcs.length</tt>&nbsp;-&nbsp;<tt>offset</tt>
+     *
+     * @param  position
+     *         The file position at which the transfer is to begin;
+     *         must be non-negative
+     *
+     * @return  The number of bytes written, possibly zero
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If the preconditions on the <tt>offset</tt> and <tt>length</tt>
+     *          parameters do not hold
+     *
+     * @throws  IllegalArgumentException
+     *          If the position is negative
+     *
+     * @throws  NonWritableChannelException
+     *          If this channel was not opened for writing
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the write operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the write operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public long write(ByteBuffer[] srcs, int offset, int length, long position)
+        throws IOException
+    {
+        if ((offset < 0) || (length < 0) || (offset > srcs.length - length))
+            throw new IndexOutOfBoundsException();
+        if (position < 0)
+            throw new IllegalArgumentException("Negative position");
+        long total = 0;
+        for (int i = offset; i < offset + length; i++) {
+            ByteBuffer src = srcs[i];
+            while (src.hasRemaining())
+                total += write(src, position + total);
+        }
+        return total;
+    }
+
+    // Ranges of a batch read that are at most this far apart are read
+    // with a single call, as long as the combined span is not too large
+    private static final int COALESCE_GAP = 4096;
+    private static final int MAX_COALESCED_SPAN = 1024 * 1024;
+
+    // Spans up to this size are read through the thread's cache of
+    // temporary buffers.  That cache keeps what it is given for the life of
+    // the thread, so larger spans get a buffer of their own that is freed
+    // as soon as the batch is done
+    private static final int MAX_CACHED_SPAN = 64 * 1024;
+
+    /**
+     * Reads several ranges of this channel's file, each into its own buffer.
+     *
+     * <p> For each index <i>i</i>, this method reads bytes starting at file
+     * position <tt>positions[</tt><i>i</i><tt>]</tt> into buffer
+     * <tt>dsts[</tt><i>i</i><tt>]</tt>, as if by invoking {@link
+     * #read(ByteBuffer,long) read(dsts[}<i>i</i><tt>], positions[</tt><i>i</i><tt>])</tt>
+     * repeatedly until the buffer is full or the end of the file is reached.
+     * The number of bytes read into each buffer can be found from the change
+     * in its position.  The ranges may be given in any order and may
+     * overlap.  This method does not modify this channel's position.
+     *
+     * <p> Reading many small ranges this way is considerably cheaper than
+     * reading them one at a time: ranges that lie close together in the file
+     * are combined and read with a single operation, and then copied into
+     * their buffers.  </p>
+     *
+     * @param  positions
+     *         The file positions at which the ranges start; each must be
+     *         non-negative
+     *
+     * @param  dsts
+     *         The buffers into which the ranges are to be read, one for each
+     *         position
+     *
+     * @return  The total number of bytes read, possibly zero
+     *
+     * @throws  IllegalArgumentException
+     *          If the arrays differ in length, a position is negative, or a
+     *          buffer is read-only
+     *
+     * @throws  NonReadableChannelException
+     *          If this channel was not opened for reading
+     *
+     * @throws  ClosedChannelException
+     *          If this channel is closed
+     *
+     * @throws  AsynchronousCloseException
+     *          If another thread closes this channel
+     *          while the read operation is in progress
+     *
+     * @throws  ClosedByInterruptException
+     *          If another thread interrupts the current thread
+     *          while the read operation is in progress, thereby
+     *          closing the channel and setting the current thread's
+     *          interrupt status
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs
+     *
+     * @since 1.8
+     */
+    public long read(long[] positions, ByteBuffer[] dsts) throws IOException {
+        int n = positions.length;
+        if (dsts.length != n)
+            throw new IllegalArgumentException("Arrays differ in length");
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (positions[i] < 0)
+                throw new IllegalArgumentException("Negative position");
+            if (dsts[i].isReadOnly())
+                throw new IllegalArgumentException("Read-only buffer");
+            order[i] = i;
+        }
+        Arrays.sortIndices(order, positions);
+
+        long total = 0;
+        ByteBuffer tmp = null;
+        boolean cached = false;
+        try {
+            for (int i = 0, j; i < n; i = j) {
+                // Gather the run of ranges that can be read together
+                long start = positions[order[i]];
+                long end = start + dsts[order[i]].remaining();
+                for (j = i + 1; j < n; j++) {
+                    int k = order[j];
+                    long p = positions[k];
+                    long e = Math.max(end, p + dsts[k].remaining());
+                    if (p - end > COALESCE_GAP || e - start > MAX_COALESCED_SPAN)
+                        break;
+                    end = e;
+                }
+                if (j == i + 1) {
+                    total += readFully(dsts[order[i]], start);
+                    continue;
+                }
+                int span = (int)(end - start);
+                if (tmp == null || tmp.capacity() < span) {
+                    if (tmp != null) {
+                        releaseBatchBuffer(tmp, cached);
+                        tmp = null;
+                    }
+                    cached = (span <= MAX_CACHED_SPAN);
+                    tmp = cached ? Util.getTemporaryDirectBuffer(span)
+                                 : ByteBuffer.allocateDirect(span);
+                }
+                tmp.clear().limit(span);
+                readFully(tmp, start);
+                int available = tmp.position();
+                for (int m = i; m < j; m++) {
+                    ByteBuffer dst = dsts[order[m]];
+                    int from = (int)(positions[order[m]] - start);
+                    int count = Math.min(dst.remaining(), available - from);
+                    if (count > 0) {
+                        ByteBuffer src = tmp.duplicate();
+                        src.limit(from + count).position(from);
+                        dst.put(src);
+                        total += count;
+                    }
+                }
+            }
+        } finally {
+            if (tmp != null)
+                releaseBatchBuffer(tmp, cached);
+        }
+        return total;
+    }
+
+    // Returns a small buffer to this thread's cache of temporary buffers,
+    // and frees a large one at once
+    private static void releaseBatchBuffer(ByteBuffer buf, boolean cached) {
+        if (cached)
+            Util.releaseTemporaryDirectBuffer(buf);
+        else
+            ((MappedByteBuffer)buf).close();
+    }
+
+    // Reads into dst from the given position until it is full or the end
+    // of the file is reached, and returns the number of bytes read
+    private long readFully(ByteBuffer dst, long position) throws IOException {
+        long total = 0;
+        while (dst.hasRemaining()) {
+            int n = read(dst, position + total);
+            if (n < 0)
+                break;
+            total += n;
+        }
+        return total;
+    }
+
 
     // -- Memory-mapped buffers --
 
@@ -793,6 +1111,58 @@ public abstract class FileChannel extends AbstractInterruptibleChannel implement
                                          long position, long size)
         throws IOException;
 
+    /**
+     * Maps a region of this channel's file of any size directly into memory.
+     *
+     * <p> This method behaves as the {@link #map map} method does, except
+     * that the size of the region is not limited to {@link
+     * java.lang.Integer#MAX_VALUE} bytes, and that the region is accessed
+     * through the <tt>long</tt> offsets of the returned {@link MappedRegion}
+     * rather than through a buffer.  The region is mapped as a number of
+     * segments, each of which is established by invoking the {@link #map map}
+     * method; if any of them cannot be mapped then the segments already
+     * mapped are unmapped before the exception is thrown.
+     *
+     * @param  mode
+     *         One of the constants {@link MapMode#READ_ONLY READ_ONLY}, {@link
+     *         MapMode#READ_WRITE READ_WRITE}, or {@link MapMode#PRIVATE
+     *         PRIVATE} defined in the {@link MapMode} class, according to
+     *         whether the file is to be mapped read-only, read/write, or
+     *         privately (copy-on-write), respectively
+     *
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     *
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative
+     *
+     * @return  The mapped region
+     *
+     * @throws NonReadableChannelException
+     *         If the <tt>mode</tt> is {@link MapMode#READ_ONLY READ_ONLY} but
+     *         this channel was not opened for reading
+     *
+     * @throws NonWritableChannelException
+     *         If the <tt>mode</tt> is {@link MapMode#READ_WRITE READ_WRITE} or
+     *         {@link MapMode#PRIVATE PRIVATE} but this channel was not opened
+     *         for both reading and writing
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold
+     *
+     * @throws IOException
+     *         If some other I/O error occurs
+     *
+     * @see java.nio.MappedRegion
+     * @since 1.8
+     */
+    public MappedRegion mapRegion(MapMode mode, long position, long size)
+        throws IOException
+    {
+        return MappedRegion.map(this, mode, position, size);
+    }
+
 
     // -- Locks --
 
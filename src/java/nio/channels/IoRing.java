@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.channels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.security.AccessController;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * The engine behind {@link AsynchronousFileChannel}s opened on the default
+ * file system when the system property {@value #QUEUE_DEPTH_PROPERTY} is
+ * set to a positive number, the queue depth.
+ *
+ * <p> Operations are queued to a ring shared by all such channels and taken
+ * from it in batches by a fixed number of threads, one for every two
+ * available processors, which also invoke the completion handlers.  Reads on
+ * the same channel within a batch are performed with a single {@link
+ * FileChannel#read(long[], ByteBuffer[]) batched read}, which combines ranges
+ * that lie close together in the file, so that many small reads issued at
+ * once cost far fewer system calls and threads than in the default
+ * implementation, which performs each operation on a thread of its own.
+ * The number of operations that have been started and not yet completed is
+ * bounded by the queue depth; once it is reached, starting an operation
+ * waits until another completes, except on a thread of the ring, so that a
+ * handler may always start further operations.  Lock requests that cannot
+ * be granted at once wait on a thread of their own, never on a worker.
+ *
+ * <p> If the property is not set, or a channel is opened with an executor
+ * or on a file system other than the default, channels are created by the
+ * provider as before.
+ */
+final class IoRing {
+
+    /**
+     * The system property that enables the ring and sets its queue depth.
+     */
+    static final String QUEUE_DEPTH_PROPERTY = "jdk.nio.asyncFileQueueDepth";
+
+    // The most operations a worker takes from the queue at a time
+    private static final int MAX_BATCH = 64;
+
+    private final Semaphore slots;
+    private final Thread[] workers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final ArrayDeque<Op> queue = new ArrayDeque<>();
+
+    private IoRing(int queueDepth, int threads) {
+        this.slots = new Semaphore(queueDepth);
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++)
+            workers[i] = new RingThread(this, this::work, "IoRing-worker-" + i);
+        for (Thread t : workers)
+            t.start();
+    }
+
+    // The ring is created on first use, and only if it is enabled
+    private static class Holder {
+        static final IoRing RING = create();
+
+        private static IoRing create() {
+            String s = AccessController.doPrivileged(
+                new GetPropertyAction(QUEUE_DEPTH_PROPERTY));
+            if (s == null)
+                return null;
+            int depth;
+            try {
+                depth = Integer.parseInt(s.trim());
+            } catch (NumberFormatException x) {
+                return null;
+            }
+            if (depth <= 0)
+                return null;
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            return new IoRing(depth, threads);
+        }
+    }
+
+    /**
+     * Opens a file through the ring, as {@link AsynchronousFileChannel#open(Path,
+     * Set, java.util.concurrent.ExecutorService, FileAttribute[])
+     * AsynchronousFileChannel.open} does, or returns {@code null} if the
+     * channel is to be created by the file's provider instead.
+     */
+    static AsynchronousFileChannel open(Path file,
+                                        Set<? extends OpenOption> options,
+                                        FileAttribute<?>... attrs)
+        throws IOException
+    {
+        if (file.getFileSystem() != FileSystems.getDefault())
+            return null;
+        IoRing ring = Holder.RING;
+        if (ring == null)
+            return null;
+        return new RingChannel(ring, FileChannel.open(file, options, attrs));
+    }
+
+    // Queues a single operation on behalf of a channel
+    void submit(Op op) {
+        Thread t = Thread.currentThread();
+        if (t instanceof RingThread && ((RingThread)t).ring == this) {
+            // A handler must not wait for room, since the room can only be
+            // made by the threads of this ring
+            op.counted = slots.tryAcquire();
+        } else {
+            slots.acquireUninterruptibly();
+            op.counted = true;
+        }
+        lock.lock();
+        try {
+            queue.add(op);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // -- Workers --
+
+    /**
+     * A thread of a ring: a worker, or a thread waiting for a lock.
+     */
+    static final class RingThread extends Thread {
+        final IoRing ring;
+
+        RingThread(IoRing ring, Runnable task, String name) {
+            super(task, name);
+            this.ring = ring;
+            setDaemon(true);
+        }
+    }
+
+    private void work() {
+        Op[] batch = new Op[MAX_BATCH];
+        for (;;) {
+            int n = 0;
+            lock.lock();
+            try {
+                while (queue.isEmpty())
+                    notEmpty.awaitUninterruptibly();
+                while (n < MAX_BATCH && !queue.isEmpty())
+                    batch[n++] = queue.poll();
+                if (!queue.isEmpty())
+                    notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+            perform(batch, n);
+            // Operations not done are locks left to wait on their own
+            // threads, which complete them and release their slots
+            int permits = 0;
+            for (int i = 0; i < n; i++) {
+                if (batch[i].done && batch[i].counted)
+                    permits++;
+            }
+            slots.release(permits);
+            for (int i = 0; i < n; i++) {
+                if (batch[i].done)
+                    batch[i].complete();
+                batch[i] = null;
+            }
+        }
+    }
+
+    // Acquires the lock of the given operation on a new thread, which then
+    // completes the operation
+    void awaitLock(Op op) {
+        new RingThread(this, () -> {
+            op.lock();
+            if (op.counted)
+                slots.release();
+            op.complete();
+        }, "IoRing-lock").start();
+    }
+
+    // Performs a batch of operations, leaving their results in them
+    private static void perform(Op[] batch, int n) {
+        for (int i = 0; i < n; i++) {
+            Op op = batch[i];
+            if (op.done)
+                continue;
+            if (op.kind == Op.READ) {
+                // Reads on the same channel are performed together
+                int count = 0;
+                for (int j = i; j < n; j++) {
+                    if (!batch[j].done && batch[j].kind == Op.READ
+                        && batch[j].channel == op.channel)
+                        count++;
+                }
+                if (count > 1) {
+                    readBatch(batch, i, n, count);
+                    continue;
+                }
+            }
+            op.perform();
+        }
+    }
+
+    private static void readBatch(Op[] batch, int from, int n, int count) {
+        RingChannel channel = batch[from].channel;
+        Op[] ops = new Op[count];
+        long[] positions = new long[count];
+        ByteBuffer[] dsts = new ByteBuffer[count];
+        int[] wanted = new int[count];
+        for (int j = from, k = 0; j < n; j++) {
+            Op op = batch[j];
+            if (!op.done && op.kind == Op.READ && op.channel == channel) {
+                ops[k] = op;
+                positions[k] = op.position;
+                dsts[k] = op.buffer;
+                wanted[k] = op.buffer.remaining();
+                k++;
+            }
+        }
+        int[] before = new int[count];
+        for (int k = 0; k < count; k++)
+            before[k] = dsts[k].position();
+        Throwable exc = null;
+        try {
+            channel.fc.read(positions, dsts);
+        } catch (Throwable x) {
+            exc = x;
+        }
+        for (int k = 0; k < count; k++) {
+            Op op = ops[k];
+            if (exc != null) {
+                op.exc = exc;
+            } else {
+                int got = dsts[k].position() - before[k];
+                // A range that yields nothing starts at or beyond the end
+                op.result = (got == 0 && wanted[k] > 0) ? -1 : got;
+            }
+            op.done = true;
+        }
+    }
+
+    /**
+     * A prepared or submitted operation.
+     */
+    static final class Op {
+        static final int READ = 0;
+        static final int WRITE = 1;
+        static final int LOCK = 2;
+
+        final int kind;
+        final RingChannel channel;
+        final ByteBuffer buffer;
+        final long position;
+        final long size;            // locks only
+        final boolean shared;       // locks only
+        final Object attachment;
+        final CompletionHandler<?,?> handler;
+        boolean counted;            // holds a slot in the queue
+
+        boolean done;
+        Object result;
+        Throwable exc;
+
+        Op(int kind, RingChannel channel, ByteBuffer buffer, long position,
+           long size, boolean shared, Object attachment,
+           CompletionHandler<?,?> handler)
+        {
+            this.kind = kind;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.position = position;
+            this.size = size;
+            this.shared = shared;
+            this.attachment = attachment;
+            this.handler = handler;
+        }
+
+        void perform() {
+            try {
+                switch (kind) {
+                case READ:
+                    result = channel.fc.read(buffer, position);
+                    break;
+                case WRITE:
+                    result = channel.fc.write(buffer, position);
+                    break;
+                default:
+                    // A lock held elsewhere could block a worker for any
+                    // length of time, so only try it here
+                    FileLock fl = channel.fc.tryLock(position, size, shared);
+                    if (fl == null) {
+                        channel.ring.awaitLock(this);
+                        return;
+                    }
+                    result = new RingLock(channel, fl);
+                    break;
+                }
+            } catch (Throwable x) {
+                exc = x;
+            }
+            done = true;
+        }
+
+        // Waits for a lock, on a thread that is not a worker
+        void lock() {
+            try {
+                result = new RingLock(channel, channel.fc.lock(position, size, shared));
+            } catch (Throwable x) {
+                exc = x;
+            }
+            done = true;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete() {
+            CompletionHandler<Object,Object> h = (CompletionHandler<Object,Object>)handler;
+            try {
+                if (exc == null)
+                    h.completed(result, attachment);
+                else
+                    h.failed(exc, attachment);
+            } catch (Throwable x) {
+                Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, x);
+            }
+        }
+    }
+
+    /**
+     * A lock acquired through a ring channel, backed by a lock on the
+     * underlying file channel.
+     */
+    static final class RingLock extends FileLock {
+        private final FileLock lock;
+
+        RingLock(AsynchronousFileChannel channel, FileLock lock) {
+            super(channel, lock.position(), lock.size(), lock.isShared());
+            this.lock = lock;
+        }
+
+        public boolean isValid() {
+            return lock.isValid();
+        }
+
+        public void release() throws IOException {
+            lock.release();
+        }
+    }
+
+    /**
+     * An asynchronous file channel whose operations go through a ring.
+     */
+    static final class RingChannel extends AsynchronousFileChannel {
+        final IoRing ring;
+        final FileChannel fc;
+
+        RingChannel(IoRing ring, FileChannel fc) {
+            this.ring = ring;
+            this.fc = fc;
+        }
+
+        public boolean isOpen() {
+            return fc.isOpen();
+        }
+
+        public void close() throws IOException {
+            fc.close();
+        }
+
+        public long size() throws IOException {
+            return fc.size();
+        }
+
+        public AsynchronousFileChannel truncate(long size) throws IOException {
+            fc.truncate(size);
+            return this;
+        }
+
+        public void force(boolean metaData) throws IOException {
+            fc.force(metaData);
+        }
+
+        public FileLock tryLock(long position, long size, boolean shared)
+            throws IOException
+        {
+            FileLock fl = fc.tryLock(position, size, shared);
+            return (fl == null) ? null : new RingLock(this, fl);
+        }
+
+        public <A> void lock(long position, long size, boolean shared,
+                             A attachment,
+                             CompletionHandler<FileLock,? super A> handler)
+        {
+            if (handler == null)
+                throw new NullPointerException("'handler' is null");
+            submit(Op.LOCK, null, position, size, shared, attachment, handler);
+        }
+
+        public Future<FileLock> lock(long position, long size, boolean shared) {
+            CompletableFuture<FileLock> f = new CompletableFuture<>();
+            submit(Op.LOCK, null, position, size, shared, null, futureHandler(f));
+            return f;
+        }
+
+        public <A> void read(ByteBuffer dst, long position, A attachment,
+                             CompletionHandler<Integer,? super A> handler)
+        {
+            if (handler == null)
+                throw new NullPointerException("'handler' is null");
+            if (dst.isReadOnly())
+                throw new IllegalArgumentException("Read-only buffer");
+            submit(Op.READ, dst, position, 0L, false, attachment, handler);
+        }
+
+        public Future<Integer> read(ByteBuffer dst, long position) {
+            if (dst.isReadOnly())
+                throw new IllegalArgumentException("Read-only buffer");
+            CompletableFuture<Integer> f = new CompletableFuture<>();
+            submit(Op.READ, dst, position, 0L, false, null, futureHandler(f));
+            return f;
+        }
+
+        public <A> void write(ByteBuffer src, long position, A attachment,
+                              CompletionHandler<Integer,? super A> handler)
+        {
+            if (handler == null)
+                throw new NullPointerException("'handler' is null");
+            submit(Op.WRITE, src, position, 0L, false, attachment, handler);
+        }
+
+        public Future<Integer> write(ByteBuffer src, long position) {
+            CompletableFuture<Integer> f = new CompletableFuture<>();
+            submit(Op.WRITE, src, position, 0L, false, null, futureHandler(f));
+            return f;
+        }
+
+        private void submit(int kind, ByteBuffer buf, long position, long size,
+                            boolean shared, Object attachment,
+                            CompletionHandler<?,?> handler)
+        {
+            if (position < 0)
+                throw new IllegalArgumentException("Negative position");
+            if (kind == Op.LOCK && (size < 0 || position + size < 0))
+                throw new IllegalArgumentException("Negative size");
+            ring.submit(new Op(kind, this, buf, position, size, shared,
+                                  attachment, handler));
+        }
+
+        private static <V> CompletionHandler<V,Object> futureHandler(CompletableFuture<V> f) {
+            return new CompletionHandler<V,Object>() {
+                public void completed(V result, Object attachment) {
+                    f.complete(result);
+                }
+                public void failed(Throwable exc, Object attachment) {
+                    f.completeExceptionally(exc);
+                }
+            };
+        }
+    }
+}
@@ -1351,6 +1351,29 @@ public class ArrayList<E> extends AbstractList<E> implements List<E>, RandomAcce
             throw new ConcurrentModificationException();
         }
 
+        // 和 forEachRemaining 一样，只是把 elementData 的整段区间一次交给 action，modCount 同样在最后检查
+        public boolean forEachRemainingChunk(Spliterator.ChunkConsumer action) {
+            int i, hi, mc;
+            ArrayList<E> lst; Object[] a;
+            if (action == null)
+                throw new NullPointerException();
+            if ((lst = list) != null && (a = lst.elementData) != null) {
+                if ((hi = fence) < 0) {
+                    mc = lst.modCount;
+                    hi = lst.size;
+                }
+                else
+                    mc = expectedModCount;
+                if ((i = index) >= 0 && (index = hi) <= a.length) {
+                    if (i < hi)
+                        action.accept(a, i, hi);
+                    if (lst.modCount == mc)
+                        return true;
+                }
+            }
+            throw new ConcurrentModificationException();
+        }
+
         public long estimateSize() {
             return (long) (getFence() - index);
         }
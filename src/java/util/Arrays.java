@@ -963,6 +963,114 @@ public class Arrays {
                  MIN_ARRAY_SORT_GRAN : g).invoke();
     }
 
+    /**
+     * Sorts the specified array of indices into ascending order of the
+     * {@code int} keys they select, so that afterwards
+     * {@code keys[indices[i]] <= keys[indices[i + 1]]}.  The keys are
+     * neither boxed nor moved.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  indices that select
+     * equal keys will not be reordered as a result of the sort.
+     *
+     * @implNote The indices are sorted by an LSD radix sort of the keys
+     * they select, which skips the bytes that are the same in all keys.
+     * It requires working space of two {@code int}s for each index.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys the indices select
+     * @throws ArrayIndexOutOfBoundsException if an element of
+     *     {@code indices} is not a valid index into {@code keys}
+     *
+     * @since 1.8
+     */
+    public static void sortIndices(int[] indices, int[] keys) {
+        Objects.requireNonNull(keys);
+        DualPivotQuicksort.sortIndices(indices, 0, indices.length - 1, keys);
+    }
+
+    /**
+     * Sorts the specified array of indices into ascending order of the
+     * {@code long} keys they select, so that afterwards
+     * {@code keys[indices[i]] <= keys[indices[i + 1]]}.  The keys are
+     * neither boxed nor moved.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  indices that select
+     * equal keys will not be reordered as a result of the sort.
+     *
+     * @implNote The indices are sorted by an LSD radix sort of the keys
+     * they select, which skips the bytes that are the same in all keys.
+     * It requires working space of a {@code long} and an {@code int} for
+     * each index.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys the indices select
+     * @throws ArrayIndexOutOfBoundsException if an element of
+     *     {@code indices} is not a valid index into {@code keys}
+     *
+     * @since 1.8
+     */
+    public static void sortIndices(int[] indices, long[] keys) {
+        Objects.requireNonNull(keys);
+        DualPivotQuicksort.sortIndices(indices, 0, indices.length - 1, keys);
+    }
+
+    /**
+     * Sorts the specified array of indices into ascending order of the
+     * {@code float} keys they select.  The keys are neither boxed nor
+     * moved.
+     *
+     * <p>The keys are ordered as by {@link Float#compare}: {@code -0.0f}
+     * is treated as less than {@code 0.0f}, and {@code Float.NaN} as
+     * greater than any other value, all NaNs being equal.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  indices that select
+     * equal keys will not be reordered as a result of the sort.
+     *
+     * @implNote The indices are sorted by an LSD radix sort of the keys
+     * they select, which skips the bytes that are the same in all keys.
+     * It requires working space of two {@code int}s for each index.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys the indices select
+     * @throws ArrayIndexOutOfBoundsException if an element of
+     *     {@code indices} is not a valid index into {@code keys}
+     *
+     * @since 1.8
+     */
+    public static void sortIndices(int[] indices, float[] keys) {
+        Objects.requireNonNull(keys);
+        DualPivotQuicksort.sortIndices(indices, 0, indices.length - 1, keys);
+    }
+
+    /**
+     * Sorts the specified array of indices into ascending order of the
+     * {@code double} keys they select.  The keys are neither boxed nor
+     * moved.
+     *
+     * <p>The keys are ordered as by {@link Double#compare}: {@code -0.0d}
+     * is treated as less than {@code 0.0d}, and {@code Double.NaN} as
+     * greater than any other value, all NaNs being equal.
+     *
+     * <p>This sort is guaranteed to be <i>stable</i>:  indices that select
+     * equal keys will not be reordered as a result of the sort.
+     *
+     * @implNote The indices are sorted by an LSD radix sort of the keys
+     * they select, which skips the bytes that are the same in all keys.
+     * It requires working space of a {@code long} and an {@code int} for
+     * each index.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys the indices select
+     * @throws ArrayIndexOutOfBoundsException if an element of
+     *     {@code indices} is not a valid index into {@code keys}
+     *
+     * @since 1.8
+     */
+    public static void sortIndices(int[] indices, double[] keys) {
+        Objects.requireNonNull(keys);
+        DualPivotQuicksort.sortIndices(indices, 0, indices.length - 1, keys);
+    }
+
     /**
      * Sorts the specified array of objects into ascending order, according
      * to the {@linkplain Comparable natural ordering} of its elements.
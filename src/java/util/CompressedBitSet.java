@@ -0,0 +1,1510 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of nonnegative integers, like {@link BitSet}, stored in a
+ * compressed form whose size follows the number and clustering of its
+ * elements rather than the largest of them.
+ *
+ * <p>The index space is divided into chunks of 2<sup>16</sup> indices.
+ * Each chunk that contains at least one element is held in a container of
+ * one of three kinds: a sorted array of the low 16 bits of its elements,
+ * used for up to 4096 elements; a bitmap of 2<sup>16</sup> bits, used for
+ * more; or a list of runs of consecutive elements, produced by
+ * {@link #compact()} when that is smaller.  A set of a few elements near
+ * {@code Integer.MAX_VALUE} therefore takes a few bytes instead of the
+ * 256MB a {@code BitSet} needs, while dense chunks cost no more than in a
+ * {@code BitSet}.
+ *
+ * <p>The logical operations {@link #and}, {@link #or}, {@link #andNot} and
+ * {@link #xor} work chunk by chunk and pick an algorithm for each pair of
+ * containers; {@link #union} and {@link #parallelUnion} combine many sets
+ * at once, computing each chunk of the result in a single pass.
+ *
+ * <p>A set can be written with {@link #serialize(ByteBuffer)} and read
+ * back with {@link #map(ByteBuffer)}, which does not copy the containers:
+ * the returned set reads them from the buffer, typically a
+ * {@link java.nio.MappedByteBuffer}, as they are used, and copies a
+ * container to the heap only when it is modified.
+ *
+ * <p>Unless otherwise noted, passing a null parameter to any of the
+ * methods in a {@code CompressedBitSet} will result in a
+ * {@code NullPointerException}.
+ *
+ * <p>A {@code CompressedBitSet} is not safe for multithreaded use without
+ * external synchronization.
+ *
+ * @see BitSet
+ * @since 1.8
+ */
+public class CompressedBitSet implements Cloneable {
+
+    /** The number of low bits of an index stored in a container. */
+    private static final int CHUNK_BITS = 16;
+
+    /** The number of chunks a nonnegative int index can fall in. */
+    private static final int MAX_CHUNKS = 1 << (31 - CHUNK_BITS);
+
+    /** The number of words in a bitmap container. */
+    private static final int WORDS = (1 << CHUNK_BITS) >>> 6;
+
+    /** The largest cardinality held in an array container. */
+    private static final int ARRAY_MAX = 4096;
+
+    /** Container kinds, as recorded in the serialized form. */
+    private static final int ARRAY = 0, BITMAP = 1, RUN = 2;
+
+    /** Identifies the serialized form. */
+    private static final int MAGIC = 0x43425331;
+
+    /** Size of the serialized header: magic and container count. */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Size of the serialized descriptor of a container: key, kind, count,
+     * cardinality and data offset.
+     */
+    private static final int DESCRIPTOR_SIZE = 16;
+
+    /** The high 16 bits of the indices in each container, ascending. */
+    private char[] keys;
+
+    /** The containers, parallel to keys; none is empty. */
+    private Container[] containers;
+
+    /** The number of containers in use. */
+    private int size;
+
+    /**
+     * Creates a new, empty set.
+     */
+    public CompressedBitSet() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    private CompressedBitSet(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * Returns a new set containing the indices of the set bits of the
+     * given {@code BitSet}.
+     *
+     * @param bits a bit set
+     * @return a {@code CompressedBitSet} with the same set bits
+     */
+    public static CompressedBitSet valueOf(BitSet bits) {
+        CompressedBitSet result = new CompressedBitSet();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.set(i);
+            if (i == Integer.MAX_VALUE)
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new {@code BitSet} with the same set bits as this set.
+     *
+     * @return a {@code BitSet} with the same set bits
+     */
+    public BitSet toBitSet() {
+        BitSet bits = new BitSet();
+        forEach(bits::set);
+        return bits;
+    }
+
+    // Chunk lookup and maintenance
+
+    private int indexOf(char key) {
+        int lo = 0, hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char k = keys[mid];
+            if (k < key)
+                lo = mid + 1;
+            else if (k > key)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private void insertAt(int i, char key, Container c) {
+        if (size == keys.length) {
+            int n = size + Math.max(4, size >> 1);
+            keys = Arrays.copyOf(keys, n);
+            containers = Arrays.copyOf(containers, n);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = c;
+        size++;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    /** Stores c, or removes the container at i if c is null (empty). */
+    private void replaceAt(int i, Container c) {
+        if (c == null)
+            removeAt(i);
+        else
+            containers[i] = c;
+    }
+
+    private void replaceAll(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+    }
+
+    private static void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex < 0)
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex +
+                                                " > toIndex: " + toIndex);
+    }
+
+    // Single bits and ranges
+
+    /**
+     * Returns true if the given index is in this set.
+     *
+     * @param  bitIndex the bit index
+     * @return the value of the bit with the specified index
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public boolean get(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = indexOf((char) (bitIndex >>> CHUNK_BITS));
+        return i >= 0 && containers[i].contains((char) bitIndex);
+    }
+
+    /**
+     * Adds the given index to this set.
+     *
+     * @param  bitIndex a bit index
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public void set(int bitIndex) {
+        checkIndex(bitIndex);
+        char key = (char) (bitIndex >>> CHUNK_BITS), low = (char) bitIndex;
+        int i = indexOf(key);
+        if (i >= 0)
+            containers[i] = containers[i].add(low);
+        else
+            insertAt(-(i + 1), key, new HeapArrayContainer(new char[] { low }, 1));
+    }
+
+    /**
+     * Adds the given index to this set if {@code value} is true, and
+     * removes it otherwise.
+     *
+     * @param  bitIndex a bit index
+     * @param  value a boolean value to set
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public void set(int bitIndex, boolean value) {
+        if (value)
+            set(bitIndex);
+        else
+            clear(bitIndex);
+    }
+
+    /**
+     * Removes the given index from this set.
+     *
+     * @param  bitIndex the index of the bit to be cleared
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public void clear(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = indexOf((char) (bitIndex >>> CHUNK_BITS));
+        if (i >= 0)
+            replaceAt(i, containers[i].remove((char) bitIndex));
+    }
+
+    /**
+     * Adds the indices from {@code fromIndex} (inclusive) to
+     * {@code toIndex} (exclusive) to this set.  Chunks that the range
+     * covers completely are held as a single run.
+     *
+     * @param  fromIndex index of the first bit to be set
+     * @param  toIndex index after the last bit to be set
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     */
+    public void set(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        updateRange(fromIndex, toIndex, true);
+    }
+
+    /**
+     * Removes the indices from {@code fromIndex} (inclusive) to
+     * {@code toIndex} (exclusive) from this set.
+     *
+     * @param  fromIndex index of the first bit to be cleared
+     * @param  toIndex index after the last bit to be cleared
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     */
+    public void clear(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        updateRange(fromIndex, toIndex, false);
+    }
+
+    private void updateRange(int fromIndex, int toIndex, boolean set) {
+        if (fromIndex == toIndex)
+            return;
+        int last = toIndex - 1;
+        for (int key = fromIndex >>> CHUNK_BITS; key <= last >>> CHUNK_BITS; key++) {
+            int lo = (key == fromIndex >>> CHUNK_BITS) ? fromIndex & 0xFFFF : 0;
+            int hi = (key == last >>> CHUNK_BITS) ? last & 0xFFFF : 0xFFFF;
+            Container range =
+                new HeapRunContainer(new char[] { (char) lo, (char) (hi - lo) }, 1);
+            int i = indexOf((char) key);
+            if (i >= 0)
+                replaceAt(i, set ? Container.or(containers[i], range)
+                                 : Container.andNot(containers[i], range));
+            else if (set)
+                insertAt(-(i + 1), (char) key, range);
+        }
+    }
+
+    /**
+     * Removes all indices from this set.
+     */
+    public void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the smallest index in this set that is greater than or
+     * equal to {@code fromIndex}, or {@code -1} if there is none.
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the next set bit, or {@code -1} if there
+     *         is no such bit
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public int nextSetBit(int fromIndex) {
+        checkIndex(fromIndex);
+        int i = indexOf((char) (fromIndex >>> CHUNK_BITS));
+        if (i >= 0) {
+            int low = containers[i].next(fromIndex & 0xFFFF);
+            if (low >= 0)
+                return (keys[i] << CHUNK_BITS) | low;
+            i++;
+        } else {
+            i = -(i + 1);
+        }
+        return (i < size) ? (keys[i] << CHUNK_BITS) | containers[i].next(0) : -1;
+    }
+
+    /**
+     * Returns the number of indices in this set.
+     *
+     * @return the number of bits set to {@code true} in this set
+     */
+    public int cardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++)
+            n += containers[i].cardinality();
+        return n;
+    }
+
+    /**
+     * Returns true if this set contains no indices.
+     *
+     * @return boolean indicating whether this set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Performs the given action for each index in this set, in ascending
+     * order.
+     *
+     * @param action the action to be performed for each index
+     */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < size; i++)
+            containers[i].forEach(keys[i] << CHUNK_BITS, action);
+    }
+
+    /**
+     * Returns a stream of the indices in this set, in ascending order.
+     * The size of the stream is the value returned by
+     * {@link #cardinality()}.  The stream splits at chunk boundaries, so
+     * parallel streams over sets that span many chunks split evenly.
+     *
+     * <p>The set must remain constant during the execution of the
+     * terminal stream operation.  Otherwise, the result of the terminal
+     * stream operation is undefined.
+     *
+     * @return a stream of integers representing set indices
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(
+            () -> new IndexSpliterator(keys, containers, 0, size, 0, cardinality()),
+            IndexSpliterator.CHARACTERISTICS, false);
+    }
+
+    // Logical operations
+
+    /**
+     * Removes from this set every index that is not in the argument set.
+     *
+     * @param set a compressed bit set
+     */
+    public void and(CompressedBitSet set) {
+        if (this == set)
+            return;
+        int n = 0, cap = Math.min(size, set.size);
+        char[] k = new char[Math.max(cap, 4)];
+        Container[] c = new Container[k.length];
+        for (int i = 0, j = 0; i < size && j < set.size; ) {
+            char a = keys[i], b = set.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                Container r = Container.and(containers[i++], set.containers[j++]);
+                if (r != null) {
+                    k[n] = a;
+                    c[n++] = r;
+                }
+            }
+        }
+        replaceAll(k, c, n);
+    }
+
+    /**
+     * Adds to this set every index in the argument set.
+     *
+     * @param set a compressed bit set
+     */
+    public void or(CompressedBitSet set) {
+        if (this == set)
+            return;
+        merge(set, true);
+    }
+
+    /**
+     * Replaces this set with the indices that are in exactly one of this
+     * set and the argument set.
+     *
+     * @param set a compressed bit set
+     */
+    public void xor(CompressedBitSet set) {
+        if (this == set) {
+            clear();
+            return;
+        }
+        merge(set, false);
+    }
+
+    /** The shared loop of or and xor, which keep containers on either side. */
+    private void merge(CompressedBitSet set, boolean or) {
+        int n = 0;
+        char[] k = new char[Math.max(size + set.size, 4)];
+        Container[] c = new Container[k.length];
+        int i = 0, j = 0;
+        while (i < size || j < set.size) {
+            char a = (i < size) ? keys[i] : Character.MAX_VALUE;
+            char b = (j < set.size) ? set.keys[j] : Character.MAX_VALUE;
+            Container r;
+            char key;
+            if (j == set.size || (i < size && a < b)) {
+                key = a;
+                r = containers[i++];
+            } else if (i == size || a > b) {
+                key = b;
+                r = set.containers[j++].share();
+            } else {
+                key = a;
+                r = or ? Container.or(containers[i++], set.containers[j++])
+                       : Container.xor(containers[i++], set.containers[j++]);
+            }
+            if (r != null) {
+                k[n] = key;
+                c[n++] = r;
+            }
+        }
+        replaceAll(k, c, n);
+    }
+
+    /**
+     * Removes from this set every index that is in the argument set.
+     *
+     * @param set a compressed bit set
+     */
+    public void andNot(CompressedBitSet set) {
+        if (this == set) {
+            clear();
+            return;
+        }
+        for (int i = 0, j = 0; i < size && j < set.size; ) {
+            char a = keys[i], b = set.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                Container r = Container.andNot(containers[i], set.containers[j++]);
+                if (r == null) {
+                    removeAt(i);
+                } else {
+                    containers[i++] = r;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a new set containing every index that is in any of the given
+     * sets.  Each chunk of the result is computed in one pass over the
+     * containers of that chunk, however many sets contribute to it.
+     *
+     * @param sets the sets to combine
+     * @return the union of the sets
+     */
+    public static CompressedBitSet union(Collection<? extends CompressedBitSet> sets) {
+        return union(sets, false);
+    }
+
+    /**
+     * Returns a new set containing every index that is in any of the given
+     * sets, computing the chunks of the result in parallel.  The sets must
+     * not be modified until this method returns.
+     *
+     * @param sets the sets to combine
+     * @return the union of the sets
+     */
+    public static CompressedBitSet parallelUnion(Collection<? extends CompressedBitSet> sets) {
+        return union(sets, true);
+    }
+
+    private static CompressedBitSet union(Collection<? extends CompressedBitSet> sets,
+                                          boolean parallel) {
+        // Group the containers of all sets by chunk, counting sort style
+        int[] start = new int[MAX_CHUNKS + 1];
+        for (CompressedBitSet s : sets)
+            for (int i = 0; i < s.size; i++)
+                start[s.keys[i] + 1]++;
+        int chunks = 0;
+        for (int k = 0; k < MAX_CHUNKS; k++) {
+            if (start[k + 1] != 0)
+                chunks++;
+            start[k + 1] += start[k];
+        }
+        Container[] grouped = new Container[start[MAX_CHUNKS]];
+        int[] fill = Arrays.copyOf(start, MAX_CHUNKS);
+        for (CompressedBitSet s : sets)
+            for (int i = 0; i < s.size; i++)
+                grouped[fill[s.keys[i]]++] = s.containers[i];
+        char[] keys = new char[Math.max(chunks, 4)];
+        for (int k = 0, n = 0; n < chunks; k++)
+            if (start[k + 1] != start[k])
+                keys[n++] = (char) k;
+
+        Container[] result = new Container[keys.length];
+        IntStream chunkIndices = IntStream.range(0, chunks);
+        if (parallel)
+            chunkIndices = chunkIndices.parallel();
+        chunkIndices.forEach(n -> {
+            int lo = start[keys[n]], hi = start[keys[n] + 1];
+            if (hi - lo == 1) {
+                result[n] = grouped[lo].share();
+            } else {
+                long[] words = new long[WORDS];
+                for (int i = lo; i < hi; i++)
+                    grouped[i].orInto(words);
+                result[n] = Container.fromWords(words);
+            }
+        });
+        return new CompressedBitSet(keys, result, chunks);
+    }
+
+    /**
+     * Converts each container to the smallest of the array, bitmap and
+     * run representations of its contents.  Sets built by adding indices
+     * one at a time never use runs until compacted, and should be
+     * compacted before they are serialized.
+     */
+    public void compact() {
+        for (int i = 0; i < size; i++)
+            containers[i] = containers[i].compact();
+    }
+
+    // Serialized form
+
+    /**
+     * Returns the number of bytes {@link #serialize(ByteBuffer)} writes
+     * for this set.
+     *
+     * @return the size of the serialized form of this set
+     */
+    public int serializedSize() {
+        int n = HEADER_SIZE + size * DESCRIPTOR_SIZE;
+        for (int i = 0; i < size; i++) {
+            Container c = containers[i];
+            if (c.kind() == BITMAP)
+                n = align(n);
+            n += c.dataSize();
+        }
+        return n;
+    }
+
+    /** Bitmap data is aligned so that its words can be read aligned. */
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    /**
+     * Writes this set to the buffer, starting at its position, and
+     * advances the position past the written bytes.  The serialized
+     * form is little-endian whatever the order of the buffer, and keeps
+     * each container in its current representation.
+     *
+     * @param buffer the buffer to write to
+     * @throws BufferOverflowException if fewer than
+     *         {@link #serializedSize()} bytes remain in the buffer
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     */
+    public void serialize(ByteBuffer buffer) {
+        int total = serializedSize();
+        if (buffer.remaining() < total)
+            throw new BufferOverflowException();
+        ByteBuffer b = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC).putInt(size);
+        int offset = HEADER_SIZE + size * DESCRIPTOR_SIZE;
+        for (int i = 0; i < size; i++) {
+            Container c = containers[i];
+            if (c.kind() == BITMAP)
+                offset = align(offset);
+            b.putChar(keys[i]).putChar((char) c.kind())
+             .putInt(c.count()).putInt(c.cardinality()).putInt(offset);
+            offset += c.dataSize();
+        }
+        for (int i = 0; i < size; i++) {
+            Container c = containers[i];
+            if (c.kind() == BITMAP)
+                while ((b.position() & 7) != 0)
+                    b.put((byte) 0);
+            c.write(b);
+        }
+        buffer.position(buffer.position() + total);
+    }
+
+    /**
+     * Returns a set backed by the serialized form at the position of the
+     * buffer, as written by {@link #serialize(ByteBuffer)}.  Only the
+     * header is read; containers are read from the buffer when they are
+     * used, and a container is copied to the heap only if the returned
+     * set is modified in its chunk.  The buffer's position is not
+     * changed, and its contents must not change while the returned set,
+     * or any set it has been combined into, is in use.
+     *
+     * @param buffer a buffer holding a serialized set
+     * @return a set that reads its containers from the buffer
+     * @throws IllegalArgumentException if the buffer does not hold a
+     *         well-formed serialized set
+     */
+    public static CompressedBitSet map(ByteBuffer buffer) {
+        ByteBuffer b = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int limit = b.limit();
+        if (limit < HEADER_SIZE || b.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("not a serialized CompressedBitSet");
+        int n = b.getInt(4);
+        if (n < 0 || n > MAX_CHUNKS || HEADER_SIZE + (long) n * DESCRIPTOR_SIZE > limit)
+            throw new IllegalArgumentException("bad container count: " + n);
+        char[] keys = new char[Math.max(n, 4)];
+        Container[] containers = new Container[keys.length];
+        for (int i = 0; i < n; i++) {
+            int d = HEADER_SIZE + i * DESCRIPTOR_SIZE;
+            char key = b.getChar(d);
+            int kind = b.getChar(d + 2);
+            int count = b.getInt(d + 4), cardinality = b.getInt(d + 8);
+            int offset = b.getInt(d + 12);
+            if (key >= MAX_CHUNKS || (i > 0 && key <= keys[i - 1]))
+                throw new IllegalArgumentException("bad key: " + (int) key);
+            long bytes;
+            Container c;
+            switch (kind) {
+                case ARRAY:
+                    bytes = 2L * count;
+                    c = new MappedArrayContainer(b, offset, count);
+                    break;
+                case BITMAP:
+                    bytes = 8L * WORDS;
+                    c = new MappedBitmapContainer(b, offset, cardinality);
+                    break;
+                case RUN:
+                    bytes = 4L * count;
+                    c = new MappedRunContainer(b, offset, count, cardinality);
+                    break;
+                default:
+                    throw new IllegalArgumentException("bad container kind: " + kind);
+            }
+            if (count <= 0 || cardinality <= 0 || cardinality > 1 << CHUNK_BITS ||
+                (kind == ARRAY && (count > ARRAY_MAX || count != cardinality)) ||
+                offset < 0 || offset + bytes > limit)
+                throw new IllegalArgumentException("bad container: " + i);
+            keys[i] = key;
+            containers[i] = c;
+        }
+        return new CompressedBitSet(keys, containers, n);
+    }
+
+    // Object methods
+
+    /**
+     * Cloning this set produces a new set that is equal to it.  Containers
+     * read from a mapped buffer are shared, since they are never modified
+     * in place.
+     *
+     * @return a clone of this set
+     */
+    public Object clone() {
+        try {
+            CompressedBitSet result = (CompressedBitSet) super.clone();
+            result.keys = keys.clone();
+            result.containers = containers.clone();
+            for (int i = 0; i < size; i++)
+                result.containers[i] = containers[i].share();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Compares this set against the specified object.  The result is
+     * {@code true} if the argument is a {@code CompressedBitSet} with
+     * exactly the same indices, whatever the representation of its
+     * containers.
+     *
+     * @param  obj the object to compare with
+     * @return {@code true} if the objects are the same;
+     *         {@code false} otherwise
+     */
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof CompressedBitSet))
+            return false;
+        CompressedBitSet set = (CompressedBitSet) obj;
+        if (size != set.size)
+            return false;
+        for (int i = 0; i < size; i++) {
+            Container a = containers[i], b = set.containers[i];
+            if (keys[i] != set.keys[i] || a.cardinality() != b.cardinality() ||
+                Container.xor(a, b) != null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this set, which depends only on the
+     * indices it contains.
+     *
+     * @return the hash code value for this set
+     */
+    public int hashCode() {
+        int[] h = { 1234 };
+        forEach(i -> h[0] = 31 * h[0] + i);
+        return h[0];
+    }
+
+    /**
+     * Returns a string representation of this set, listing its indices in
+     * ascending order in the same form as {@link BitSet#toString()}.
+     *
+     * @return a string representation of this set
+     */
+    public String toString() {
+        StringBuilder b = new StringBuilder("{");
+        forEach(i -> {
+            if (b.length() > 1)
+                b.append(", ");
+            b.append(i);
+        });
+        return b.append('}').toString();
+    }
+
+    // Containers
+
+    /**
+     * The elements of one chunk, as 16-bit values.  Containers on the heap
+     * are modified in place by add and remove; containers read from a
+     * buffer copy themselves to the heap first.  Operations that would
+     * leave a container empty return null instead.
+     */
+    abstract static class Container {
+        abstract int kind();
+        abstract int cardinality();
+        abstract boolean contains(char x);
+
+        /** Returns the smallest element not less than from, or -1. */
+        abstract int next(int from);
+
+        abstract void forEach(int high, IntConsumer action);
+        abstract void orInto(long[] words);
+        abstract void xorInto(long[] words);
+        abstract void andNotInto(long[] words);
+
+        void andInto(long[] words) {
+            long[] w = words();
+            for (int i = 0; i < WORDS; i++)
+                words[i] &= w[i];
+        }
+
+        /** Returns a new bitmap of the elements. */
+        long[] words() {
+            long[] w = new long[WORDS];
+            orInto(w);
+            return w;
+        }
+
+        /** Returns a modifiable copy on the heap. */
+        abstract Container copy();
+
+        /** Returns a container another set may hold. */
+        Container share() {
+            return copy();
+        }
+
+        Container add(char x) {
+            return contains(x) ? this : copy().add(x);
+        }
+
+        Container remove(char x) {
+            return contains(x) ? copy().remove(x) : this;
+        }
+
+        /** The count recorded in the serialized descriptor. */
+        abstract int count();
+
+        abstract int dataSize();
+        abstract void write(ByteBuffer b);
+
+        Container compact() {
+            long[] w = words();
+            int card = cardinality(), runs = runCount(w);
+            int arrayBytes = (card <= ARRAY_MAX) ? 2 * card : Integer.MAX_VALUE;
+            int best = (4 * runs < Math.min(arrayBytes, 8 * WORDS)) ? RUN
+                     : (card <= ARRAY_MAX) ? ARRAY : BITMAP;
+            if (best == kind())
+                return this;
+            return (best == RUN) ? HeapRunContainer.fromWords(w, runs) : fromWords(w);
+        }
+
+        static int runCount(long[] w) {
+            int runs = 0;
+            long carry = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = w[i];
+                runs += Long.bitCount(word & ~((word << 1) | carry));
+                carry = word >>> 63;
+            }
+            return runs;
+        }
+
+        /** Returns an array or bitmap container for the bits, or null. */
+        static Container fromWords(long[] w) {
+            int card = 0;
+            for (int i = 0; i < WORDS; i++)
+                card += Long.bitCount(w[i]);
+            if (card == 0)
+                return null;
+            if (card > ARRAY_MAX)
+                return new HeapBitmapContainer(w, card);
+            char[] values = new char[card];
+            for (int i = 0, n = 0; i < WORDS; i++)
+                for (long word = w[i]; word != 0; word &= word - 1)
+                    values[n++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+            return new HeapArrayContainer(values, card);
+        }
+
+        static Container and(Container a, Container b) {
+            if (a.kind() == ARRAY)
+                return ((ArrayContainer) a).filter(b, true);
+            if (b.kind() == ARRAY)
+                return ((ArrayContainer) b).filter(a, true);
+            long[] w = a.words();
+            b.andInto(w);
+            return fromWords(w);
+        }
+
+        static Container or(Container a, Container b) {
+            if (a.kind() == ARRAY && b.kind() == ARRAY &&
+                a.cardinality() + b.cardinality() <= ARRAY_MAX)
+                return ArrayContainer.merge((ArrayContainer) a, (ArrayContainer) b, false);
+            long[] w = a.words();
+            b.orInto(w);
+            return fromWords(w);
+        }
+
+        static Container xor(Container a, Container b) {
+            if (a.kind() == ARRAY && b.kind() == ARRAY &&
+                a.cardinality() + b.cardinality() <= ARRAY_MAX)
+                return ArrayContainer.merge((ArrayContainer) a, (ArrayContainer) b, true);
+            long[] w = a.words();
+            b.xorInto(w);
+            return fromWords(w);
+        }
+
+        static Container andNot(Container a, Container b) {
+            if (a.kind() == ARRAY)
+                return ((ArrayContainer) a).filter(b, false);
+            long[] w = a.words();
+            b.andNotInto(w);
+            return fromWords(w);
+        }
+
+        /** Sets bits from (inclusive) to to (exclusive). */
+        static void setRange(long[] w, int from, int to) {
+            int a = from >>> 6, b = (to - 1) >>> 6;
+            long first = -1L << from, last = -1L >>> -to;
+            if (a == b) {
+                w[a] |= first & last;
+            } else {
+                w[a] |= first;
+                for (int i = a + 1; i < b; i++)
+                    w[i] = -1L;
+                w[b] |= last;
+            }
+        }
+
+        static void flipRange(long[] w, int from, int to) {
+            int a = from >>> 6, b = (to - 1) >>> 6;
+            long first = -1L << from, last = -1L >>> -to;
+            if (a == b) {
+                w[a] ^= first & last;
+            } else {
+                w[a] ^= first;
+                for (int i = a + 1; i < b; i++)
+                    w[i] = ~w[i];
+                w[b] ^= last;
+            }
+        }
+
+        static void clearRange(long[] w, int from, int to) {
+            int a = from >>> 6, b = (to - 1) >>> 6;
+            long first = -1L << from, last = -1L >>> -to;
+            if (a == b) {
+                w[a] &= ~(first & last);
+            } else {
+                w[a] &= ~first;
+                for (int i = a + 1; i < b; i++)
+                    w[i] = 0L;
+                w[b] &= ~last;
+            }
+        }
+    }
+
+    /** A sorted array of at most ARRAY_MAX elements. */
+    abstract static class ArrayContainer extends Container {
+        int size;
+
+        ArrayContainer(int size) {
+            this.size = size;
+        }
+
+        abstract char value(int i);
+
+        final int kind() { return ARRAY; }
+        final int cardinality() { return size; }
+        final int count() { return size; }
+        final int dataSize() { return 2 * size; }
+
+        final int search(char x) {
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char v = value(mid);
+                if (v < x)
+                    lo = mid + 1;
+                else if (v > x)
+                    hi = mid - 1;
+                else
+                    return mid;
+            }
+            return -(lo + 1);
+        }
+
+        final boolean contains(char x) {
+            return search(x) >= 0;
+        }
+
+        final int next(int from) {
+            int i = search((char) from);
+            if (i < 0)
+                i = -(i + 1);
+            return (i < size) ? value(i) : -1;
+        }
+
+        final void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < size; i++)
+                action.accept(high | value(i));
+        }
+
+        final void orInto(long[] w) {
+            for (int i = 0; i < size; i++) {
+                char v = value(i);
+                w[v >>> 6] |= 1L << v;
+            }
+        }
+
+        final void xorInto(long[] w) {
+            for (int i = 0; i < size; i++) {
+                char v = value(i);
+                w[v >>> 6] ^= 1L << v;
+            }
+        }
+
+        final void andNotInto(long[] w) {
+            for (int i = 0; i < size; i++) {
+                char v = value(i);
+                w[v >>> 6] &= ~(1L << v);
+            }
+        }
+
+        final void write(ByteBuffer b) {
+            for (int i = 0; i < size; i++)
+                b.putChar(value(i));
+        }
+
+        Container copy() {
+            char[] values = new char[size];
+            for (int i = 0; i < size; i++)
+                values[i] = value(i);
+            return new HeapArrayContainer(values, size);
+        }
+
+        /** Returns the elements for which other.contains is keep. */
+        final Container filter(Container other, boolean keep) {
+            char[] values = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                char v = value(i);
+                if (other.contains(v) == keep)
+                    values[n++] = v;
+            }
+            return (n == 0) ? null : new HeapArrayContainer(values, n);
+        }
+
+        /** Returns the union, or the symmetric difference if xor. */
+        static Container merge(ArrayContainer a, ArrayContainer b, boolean xor) {
+            char[] values = new char[a.size + b.size];
+            int i = 0, j = 0, n = 0;
+            while (i < a.size && j < b.size) {
+                char x = a.value(i), y = b.value(j);
+                if (x < y) {
+                    values[n++] = x;
+                    i++;
+                } else if (x > y) {
+                    values[n++] = y;
+                    j++;
+                } else {
+                    if (!xor)
+                        values[n++] = x;
+                    i++;
+                    j++;
+                }
+            }
+            for (; i < a.size; i++)
+                values[n++] = a.value(i);
+            for (; j < b.size; j++)
+                values[n++] = b.value(j);
+            return (n == 0) ? null : new HeapArrayContainer(values, n);
+        }
+    }
+
+    static final class HeapArrayContainer extends ArrayContainer {
+        char[] values;
+
+        HeapArrayContainer(char[] values, int size) {
+            super(size);
+            this.values = values;
+        }
+
+        char value(int i) {
+            return values[i];
+        }
+
+        Container copy() {
+            return new HeapArrayContainer(Arrays.copyOf(values, size), size);
+        }
+
+        Container add(char x) {
+            int i = search(x);
+            if (i >= 0)
+                return this;
+            if (size == ARRAY_MAX)
+                return new HeapBitmapContainer(words(), size).add(x);
+            i = -(i + 1);
+            if (size == values.length)
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size + Math.max(4, size >> 1)));
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = x;
+            size++;
+            return this;
+        }
+
+        Container remove(char x) {
+            int i = search(x);
+            if (i < 0)
+                return this;
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            return (--size == 0) ? null : this;
+        }
+    }
+
+    static final class MappedArrayContainer extends ArrayContainer {
+        final ByteBuffer buffer;
+        final int offset;
+
+        MappedArrayContainer(ByteBuffer buffer, int offset, int size) {
+            super(size);
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        char value(int i) {
+            return buffer.getChar(offset + (i << 1));
+        }
+
+        Container share() {
+            return this;
+        }
+    }
+
+    /** A bitmap of the chunk, for more than ARRAY_MAX elements. */
+    abstract static class BitmapContainer extends Container {
+        int cardinality;
+
+        BitmapContainer(int cardinality) {
+            this.cardinality = cardinality;
+        }
+
+        abstract long word(int i);
+
+        final int kind() { return BITMAP; }
+        final int cardinality() { return cardinality; }
+        final int count() { return cardinality; }
+        final int dataSize() { return 8 * WORDS; }
+
+        final boolean contains(char x) {
+            return (word(x >>> 6) & (1L << x)) != 0;
+        }
+
+        final int next(int from) {
+            int i = from >>> 6;
+            long w = word(i) & (-1L << from);
+            while (w == 0) {
+                if (++i == WORDS)
+                    return -1;
+                w = word(i);
+            }
+            return (i << 6) + Long.numberOfTrailingZeros(w);
+        }
+
+        final void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < WORDS; i++)
+                for (long w = word(i); w != 0; w &= w - 1)
+                    action.accept(high | (i << 6) + Long.numberOfTrailingZeros(w));
+        }
+
+        final void orInto(long[] w) {
+            for (int i = 0; i < WORDS; i++)
+                w[i] |= word(i);
+        }
+
+        final void xorInto(long[] w) {
+            for (int i = 0; i < WORDS; i++)
+                w[i] ^= word(i);
+        }
+
+        final void andNotInto(long[] w) {
+            for (int i = 0; i < WORDS; i++)
+                w[i] &= ~word(i);
+        }
+
+        final void andInto(long[] w) {
+            for (int i = 0; i < WORDS; i++)
+                w[i] &= word(i);
+        }
+
+        final void write(ByteBuffer b) {
+            for (int i = 0; i < WORDS; i++)
+                b.putLong(word(i));
+        }
+
+        Container copy() {
+            return new HeapBitmapContainer(words(), cardinality);
+        }
+    }
+
+    static final class HeapBitmapContainer extends BitmapContainer {
+        final long[] words;
+
+        HeapBitmapContainer(long[] words, int cardinality) {
+            super(cardinality);
+            this.words = words;
+        }
+
+        long word(int i) {
+            return words[i];
+        }
+
+        long[] words() {
+            return words.clone();
+        }
+
+        Container add(char x) {
+            long bit = 1L << x;
+            if ((words[x >>> 6] & bit) == 0) {
+                words[x >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        Container remove(char x) {
+            long bit = 1L << x;
+            if ((words[x >>> 6] & bit) != 0) {
+                words[x >>> 6] &= ~bit;
+                if (--cardinality <= ARRAY_MAX)
+                    return fromWords(words);
+            }
+            return this;
+        }
+    }
+
+    static final class MappedBitmapContainer extends BitmapContainer {
+        final ByteBuffer buffer;
+        final int offset;
+
+        MappedBitmapContainer(ByteBuffer buffer, int offset, int cardinality) {
+            super(cardinality);
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        long word(int i) {
+            return buffer.getLong(offset + (i << 3));
+        }
+
+        Container share() {
+            return this;
+        }
+    }
+
+    /**
+     * Runs of consecutive elements, each stored as its first element and
+     * its length minus one.  Only produced by compact and range updates;
+     * a run container is converted to an array or bitmap when modified.
+     */
+    abstract static class RunContainer extends Container {
+        final int runs;
+        final int cardinality;
+
+        RunContainer(int runs, int cardinality) {
+            this.runs = runs;
+            this.cardinality = cardinality;
+        }
+
+        abstract char start(int i);
+        abstract char length(int i);
+
+        final int kind() { return RUN; }
+        final int cardinality() { return cardinality; }
+        final int count() { return runs; }
+        final int dataSize() { return 4 * runs; }
+
+        /** Returns the last run starting at or before x, or -1. */
+        final int runAtOrBefore(int x) {
+            int lo = 0, hi = runs - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= x)
+                    lo = mid + 1;
+                else
+                    hi = mid - 1;
+            }
+            return lo - 1;
+        }
+
+        final boolean contains(char x) {
+            int i = runAtOrBefore(x);
+            return i >= 0 && x <= start(i) + length(i);
+        }
+
+        final int next(int from) {
+            int i = runAtOrBefore(from);
+            if (i >= 0 && from <= start(i) + length(i))
+                return from;
+            return (i + 1 < runs) ? start(i + 1) : -1;
+        }
+
+        final void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < runs; i++)
+                for (int v = start(i), end = v + length(i); v <= end; v++)
+                    action.accept(high | v);
+        }
+
+        final void orInto(long[] w) {
+            for (int i = 0; i < runs; i++)
+                setRange(w, start(i), start(i) + length(i) + 1);
+        }
+
+        final void xorInto(long[] w) {
+            for (int i = 0; i < runs; i++)
+                flipRange(w, start(i), start(i) + length(i) + 1);
+        }
+
+        final void andNotInto(long[] w) {
+            for (int i = 0; i < runs; i++)
+                clearRange(w, start(i), start(i) + length(i) + 1);
+        }
+
+        final void write(ByteBuffer b) {
+            for (int i = 0; i < runs; i++)
+                b.putChar(start(i)).putChar(length(i));
+        }
+
+        Container copy() {
+            char[] r = new char[2 * runs];
+            for (int i = 0; i < runs; i++) {
+                r[2 * i] = start(i);
+                r[2 * i + 1] = length(i);
+            }
+            return new HeapRunContainer(r, runs);
+        }
+
+        Container add(char x) {
+            return contains(x) ? this : fromWords(words()).add(x);
+        }
+
+        Container remove(char x) {
+            return contains(x) ? fromWords(words()).remove(x) : this;
+        }
+    }
+
+    static final class HeapRunContainer extends RunContainer {
+        final char[] pairs;
+
+        HeapRunContainer(char[] pairs, int runs) {
+            super(runs, cardinality(pairs, runs));
+            this.pairs = pairs;
+        }
+
+        private static int cardinality(char[] pairs, int runs) {
+            int n = 0;
+            for (int i = 0; i < runs; i++)
+                n += pairs[2 * i + 1] + 1;
+            return n;
+        }
+
+        char start(int i) {
+            return pairs[2 * i];
+        }
+
+        char length(int i) {
+            return pairs[2 * i + 1];
+        }
+
+        static Container fromWords(long[] w, int runs) {
+            char[] pairs = new char[2 * runs];
+            int n = 0, v = 0;
+            while (n < runs) {
+                int s = nextBit(w, v, true);
+                int e = nextBit(w, s, false);
+                pairs[2 * n] = (char) s;
+                pairs[2 * n + 1] = (char) (e - s - 1);
+                n++;
+                v = e;
+            }
+            return new HeapRunContainer(pairs, runs);
+        }
+
+        /** Returns the first bit at or after from that is set (or clear). */
+        private static int nextBit(long[] w, int from, boolean set) {
+            if (from >= WORDS << 6)
+                return WORDS << 6;
+            int i = from >>> 6;
+            long word = (set ? w[i] : ~w[i]) & (-1L << from);
+            while (word == 0) {
+                if (++i == WORDS)
+                    return WORDS << 6;
+                word = set ? w[i] : ~w[i];
+            }
+            return (i << 6) + Long.numberOfTrailingZeros(word);
+        }
+    }
+
+    static final class MappedRunContainer extends RunContainer {
+        final ByteBuffer buffer;
+        final int offset;
+
+        MappedRunContainer(ByteBuffer buffer, int offset, int runs, int cardinality) {
+            super(runs, cardinality);
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        char start(int i) {
+            return buffer.getChar(offset + (i << 2));
+        }
+
+        char length(int i) {
+            return buffer.getChar(offset + (i << 2) + 2);
+        }
+
+        Container share() {
+            return this;
+        }
+    }
+
+    /**
+     * Spliterator over the indices of a range of containers; splits at
+     * container boundaries, keeping exact sizes.
+     */
+    static final class IndexSpliterator implements Spliterator.OfInt {
+        static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT |
+            Spliterator.SORTED | Spliterator.NONNULL | Spliterator.SIZED |
+            Spliterator.SUBSIZED;
+
+        private final char[] keys;
+        private final Container[] containers;
+        private int index;
+        private final int fence;
+        private int from;       // next element to look for in containers[index]
+        private long remaining;
+
+        IndexSpliterator(char[] keys, Container[] containers,
+                         int index, int fence, int from, long remaining) {
+            this.keys = keys;
+            this.containers = containers;
+            this.index = index;
+            this.fence = fence;
+            this.from = from;
+            this.remaining = remaining;
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            for (; index < fence; index++, from = 0) {
+                int v;
+                if (from <= 0xFFFF && (v = containers[index].next(from)) >= 0) {
+                    from = v + 1;
+                    remaining--;
+                    action.accept((keys[index] << CHUNK_BITS) | v);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int i = index, f = from;
+            if (i < fence && f > 0) {
+                int high = keys[i] << CHUNK_BITS;
+                Container c = containers[i];
+                for (int v; f <= 0xFFFF && (v = c.next(f)) >= 0; f = v + 1)
+                    action.accept(high | v);
+                i++;
+            }
+            for (; i < fence; i++)
+                containers[i].forEach(keys[i] << CHUNK_BITS, action);
+            index = fence;
+            from = 0;
+            remaining = 0;
+        }
+
+        public Spliterator.OfInt trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            if (mid <= lo)
+                return null;
+            long prefix = remaining;
+            for (int i = mid; i < fence; i++)
+                prefix -= containers[i].cardinality();
+            IndexSpliterator split =
+                new IndexSpliterator(keys, containers, lo, mid, from, prefix);
+            index = mid;
+            from = 0;
+            remaining -= prefix;
+            return split;
+        }
+
+        public long estimateSize() {
+            return remaining;
+        }
+
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+}
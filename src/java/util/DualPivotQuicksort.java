@@ -32,6 +32,10 @@ package java.util;
  * quicksorts to degrade to quadratic performance, and is typically
  * faster than traditional (one-pivot) Quicksort implementations.
  *
+ * Large int, long, float and double ranges with little existing order
+ * are sorted by LSD radix sort instead when their keys differ in few
+ * enough bytes for that to be cheaper.
+ *
  * All exposed methods are package-private, designed to be invoked
  * from public methods (in class Arrays) after performing any
  * necessary array bounds checks and expanding parameters into the
@@ -89,6 +93,13 @@ final class DualPivotQuicksort {
      */
     private static final int COUNTING_SORT_THRESHOLD_FOR_SHORT_OR_CHAR = 3200;
 
+    /**
+     * If the length of an int, long, float or double array to be sorted
+     * is not less than this constant, radix sort is considered in
+     * preference to Quicksort.
+     */
+    private static final int RADIX_SORT_THRESHOLD = 1 << 13;
+
     /*
      * Sorting methods for seven primitive types.
      */
@@ -142,6 +153,10 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
+                if (right - left >= RADIX_SORT_THRESHOLD &&
+                    radixSort(a, left, right, work, workBase, workLen)) {
+                    return;
+                }
                 sort(a, left, right, true);
                 return;
             }
@@ -590,6 +605,10 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
+                if (right - left >= RADIX_SORT_THRESHOLD &&
+                    radixSort(a, left, right, work, workBase, workLen)) {
+                    return;
+                }
                 sort(a, left, right, true);
                 return;
             }
@@ -2138,6 +2157,10 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
+                if (right - left >= RADIX_SORT_THRESHOLD &&
+                    radixSort(a, left, right, work, workBase, workLen)) {
+                    return;
+                }
                 sort(a, left, right, true);
                 return;
             }
@@ -2677,6 +2700,10 @@ final class DualPivotQuicksort {
              * use Quicksort instead of merge sort.
              */
             if (++count == MAX_RUN_COUNT) {
+                if (right - left >= RADIX_SORT_THRESHOLD &&
+                    radixSort(a, left, right, work, workBase, workLen)) {
+                    return;
+                }
                 sort(a, left, right, true);
                 return;
             }
@@ -3075,4 +3102,468 @@ final class DualPivotQuicksort {
             sort(a, great + 1, right, false);
         }
     }
+
+    /*
+     * Radix sorting methods for int, long, float and double.
+     *
+     * Keys are mapped to unsigned integers that order the same way as
+     * the values (flipping the sign bit of ints and longs, and all bits
+     * of negative floating-point values) and sorted by LSD radix sort on
+     * bytes. A single counting pass builds the histograms of all bytes
+     * at once; a byte that is the same in every key needs no pass, so
+     * values that lie in a narrow range, or differ only in a few bytes,
+     * sort in fewer passes. Radix sort is used when the number of passes
+     * left is small compared with log(n), and is stable.
+     */
+
+    /**
+     * Returns the mask of bytes, of the given number of keys whose
+     * histograms are in count, that differ between keys.
+     *
+     * @param count the histograms, 256 entries per byte
+     * @param first any of the keys, mapped to an unsigned key
+     * @param bytes the number of bytes in a key
+     * @param length the number of keys
+     */
+    private static int radixPasses(int[] count, long first, int bytes, int length) {
+        int mask = 0;
+        for (int d = 0; d < bytes; ++d) {
+            if (count[(d << 8) | (int) ((first >>> (d << 3)) & 0xFF)] != length) {
+                mask |= 1 << d;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns true if a radix sort of the given number of keys with the
+     * given mask of passes is expected to be faster than Quicksort.
+     */
+    private static boolean fewRadixPasses(int mask, int length) {
+        return Integer.bitCount(mask) <= (31 - Integer.numberOfLeadingZeros(length)) / 3;
+    }
+
+    /**
+     * Turns the histogram of one byte into the offsets its buckets start at.
+     */
+    private static void radixOffsets(int[] count, int base) {
+        for (int b = base, sum = 0; b < base + 256; ++b) {
+            int c = count[b];
+            count[b] = sum;
+            sum += c;
+        }
+    }
+
+    /**
+     * Sorts the specified range of the array by radix sort if its keys
+     * make that cheaper than Quicksort.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     * @return true if the range has been sorted
+     */
+    private static boolean radixSort(int[] a, int left, int right,
+                                     int[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        int[] count = new int[4 << 8];
+        for (int i = left; i <= right; ++i) {
+            int k = a[i] ^ Integer.MIN_VALUE;
+            ++count[k & 0xFF];
+            ++count[0x100 | ((k >>> 8) & 0xFF)];
+            ++count[0x200 | ((k >>> 16) & 0xFF)];
+            ++count[0x300 | (k >>> 24)];
+        }
+        int mask = radixPasses(count, (a[left] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL, 4, length);
+        if (!fewRadixPasses(mask, length)) {
+            return false;
+        }
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new int[length];
+            workBase = 0;
+        }
+        int[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0; d < 4; ++d) {
+            if ((mask & (1 << d)) == 0) {
+                continue;
+            }
+            int base = d << 8, shift = d << 3;
+            radixOffsets(count, base);
+            for (int i = so, end = so + length; i < end; ++i) {
+                int v = src[i];
+                dst[dso + count[base | (((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF)]++] = v;
+            }
+            int[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the specified range of the array by radix sort if its keys
+     * make that cheaper than Quicksort.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     * @return true if the range has been sorted
+     */
+    private static boolean radixSort(long[] a, int left, int right,
+                                     long[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        int[] count = new int[8 << 8];
+        for (int i = left; i <= right; ++i) {
+            long k = a[i] ^ Long.MIN_VALUE;
+            for (int d = 0; d < 8; ++d, k >>>= 8) {
+                ++count[(d << 8) | (int) (k & 0xFF)];
+            }
+        }
+        int mask = radixPasses(count, a[left] ^ Long.MIN_VALUE, 8, length);
+        if (!fewRadixPasses(mask, length)) {
+            return false;
+        }
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new long[length];
+            workBase = 0;
+        }
+        long[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0; d < 8; ++d) {
+            if ((mask & (1 << d)) == 0) {
+                continue;
+            }
+            int base = d << 8, shift = d << 3;
+            radixOffsets(count, base);
+            for (int i = so, end = so + length; i < end; ++i) {
+                long v = src[i];
+                dst[dso + count[base | (int) (((v ^ Long.MIN_VALUE) >>> shift) & 0xFF)]++] = v;
+            }
+            long[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+        return true;
+    }
+
+    /**
+     * Maps the bits of a float to an int whose unsigned order is the
+     * order of the float values.
+     */
+    private static int radixKey(int bits) {
+        return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+    }
+
+    /**
+     * Maps the bits of a double to a long whose unsigned order is the
+     * order of the double values.
+     */
+    private static long radixKey(long bits) {
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * Sorts the specified range of the array, which contains no NaNs,
+     * by radix sort if its keys make that cheaper than Quicksort.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     * @return true if the range has been sorted
+     */
+    private static boolean radixSort(float[] a, int left, int right,
+                                     float[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        int[] count = new int[4 << 8];
+        for (int i = left; i <= right; ++i) {
+            int k = radixKey(Float.floatToRawIntBits(a[i]));
+            ++count[k & 0xFF];
+            ++count[0x100 | ((k >>> 8) & 0xFF)];
+            ++count[0x200 | ((k >>> 16) & 0xFF)];
+            ++count[0x300 | (k >>> 24)];
+        }
+        int mask = radixPasses(count,
+            radixKey(Float.floatToRawIntBits(a[left])) & 0xFFFFFFFFL, 4, length);
+        if (!fewRadixPasses(mask, length)) {
+            return false;
+        }
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new float[length];
+            workBase = 0;
+        }
+        float[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0; d < 4; ++d) {
+            if ((mask & (1 << d)) == 0) {
+                continue;
+            }
+            int base = d << 8, shift = d << 3;
+            radixOffsets(count, base);
+            for (int i = so, end = so + length; i < end; ++i) {
+                float v = src[i];
+                int k = radixKey(Float.floatToRawIntBits(v));
+                dst[dso + count[base | ((k >>> shift) & 0xFF)]++] = v;
+            }
+            float[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the specified range of the array, which contains no NaNs,
+     * by radix sort if its keys make that cheaper than Quicksort.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     * @return true if the range has been sorted
+     */
+    private static boolean radixSort(double[] a, int left, int right,
+                                     double[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        int[] count = new int[8 << 8];
+        for (int i = left; i <= right; ++i) {
+            long k = radixKey(Double.doubleToRawLongBits(a[i]));
+            for (int d = 0; d < 8; ++d, k >>>= 8) {
+                ++count[(d << 8) | (int) (k & 0xFF)];
+            }
+        }
+        int mask = radixPasses(count,
+            radixKey(Double.doubleToRawLongBits(a[left])), 8, length);
+        if (!fewRadixPasses(mask, length)) {
+            return false;
+        }
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new double[length];
+            workBase = 0;
+        }
+        double[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0; d < 8; ++d) {
+            if ((mask & (1 << d)) == 0) {
+                continue;
+            }
+            int base = d << 8, shift = d << 3;
+            radixOffsets(count, base);
+            for (int i = so, end = so + length; i < end; ++i) {
+                double v = src[i];
+                long k = radixKey(Double.doubleToRawLongBits(v));
+                dst[dso + count[base | (int) ((k >>> shift) & 0xFF)]++] = v;
+            }
+            double[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+        return true;
+    }
+
+    /*
+     * Sorting an array of indices by the primitive keys they select.
+     */
+
+    /**
+     * Sorts the specified range of the index array by the int keys the
+     * indices select. The sort is stable.
+     *
+     * @param index the indices to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param keys the keys
+     */
+    static void sortIndices(int[] index, int left, int right, int[] keys) {
+        int length = right - left + 1;
+        int[] k = new int[length];
+        for (int i = 0; i < length; ++i) {
+            k[i] = keys[index[left + i]] ^ Integer.MIN_VALUE;
+        }
+        sortIndices(k, index, left, length);
+    }
+
+    /**
+     * Sorts the specified range of the index array by the long keys the
+     * indices select. The sort is stable.
+     *
+     * @param index the indices to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param keys the keys
+     */
+    static void sortIndices(int[] index, int left, int right, long[] keys) {
+        int length = right - left + 1;
+        long[] k = new long[length];
+        for (int i = 0; i < length; ++i) {
+            k[i] = keys[index[left + i]] ^ Long.MIN_VALUE;
+        }
+        sortIndices(k, index, left, length);
+    }
+
+    /**
+     * Sorts the specified range of the index array by the float keys the
+     * indices select, in the order of {@link Float#compare}. The sort is
+     * stable.
+     *
+     * @param index the indices to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param keys the keys
+     */
+    static void sortIndices(int[] index, int left, int right, float[] keys) {
+        int length = right - left + 1;
+        int[] k = new int[length];
+        for (int i = 0; i < length; ++i) {
+            k[i] = radixKey(Float.floatToIntBits(keys[index[left + i]]));
+        }
+        sortIndices(k, index, left, length);
+    }
+
+    /**
+     * Sorts the specified range of the index array by the double keys the
+     * indices select, in the order of {@link Double#compare}. The sort is
+     * stable.
+     *
+     * @param index the indices to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param keys the keys
+     */
+    static void sortIndices(int[] index, int left, int right, double[] keys) {
+        int length = right - left + 1;
+        long[] k = new long[length];
+        for (int i = 0; i < length; ++i) {
+            k[i] = radixKey(Double.doubleToLongBits(keys[index[left + i]]));
+        }
+        sortIndices(k, index, left, length);
+    }
+
+    /**
+     * Sorts the unsigned keys, moving the indices from the given offset
+     * along with them.
+     *
+     * @param k the unsigned keys
+     * @param index the indices that go with the keys
+     * @param offset the offset of the first index
+     * @param length the number of keys
+     */
+    private static void sortIndices(int[] k, int[] index, int offset, int length) {
+        if (length < INSERTION_SORT_THRESHOLD) {
+            for (int i = 1; i < length; ++i) {
+                int ki = k[i], vi = index[offset + i], j = i - 1;
+                for (; j >= 0 && Integer.compareUnsigned(k[j], ki) > 0; --j) {
+                    k[j + 1] = k[j];
+                    index[offset + j + 1] = index[offset + j];
+                }
+                k[j + 1] = ki;
+                index[offset + j + 1] = vi;
+            }
+            return;
+        }
+        int[] count = new int[4 << 8];
+        for (int i = 0; i < length; ++i) {
+            int ki = k[i];
+            ++count[ki & 0xFF];
+            ++count[0x100 | ((ki >>> 8) & 0xFF)];
+            ++count[0x200 | ((ki >>> 16) & 0xFF)];
+            ++count[0x300 | (ki >>> 24)];
+        }
+        int mask = radixPasses(count, k[0] & 0xFFFFFFFFL, 4, length);
+        int[] ks = k, kd = new int[length], vs = index, vd = new int[length];
+        int vso = offset, vdo = 0;
+        for (int d = 0; d < 4; ++d) {
+            if ((mask & (1 << d)) == 0) {
+                continue;
+            }
+            int base = d << 8, shift = d << 3;
+            radixOffsets(count, base);
+            for (int i = 0; i < length; ++i) {
+                int ki = ks[i];
+                int p = count[base | ((ki >>> shift) & 0xFF)]++;
+                kd[p] = ki;
+                vd[vdo + p] = vs[vso + i];
+            }
+            int[] t = ks; ks = kd; kd = t;
+            t = vs; vs = vd; vd = t;
+            int o = vso; vso = vdo; vdo = o;
+        }
+        if (vs != index) {
+            System.arraycopy(vs, vso, index, offset, length);
+        }
+    }
+
+    /**
+     * Sorts the unsigned keys, moving the indices from the given offset
+     * along with them.
+     *
+     * @param k the unsigned keys
+     * @param index the indices that go with the keys
+     * @param offset the offset of the first index
+     * @param length the number of keys
+     */
+    private static void sortIndices(long[] k, int[] index, int offset, int length) {
+        if (length < INSERTION_SORT_THRESHOLD) {
+            for (int i = 1; i < length; ++i) {
+                long ki = k[i];
+                int vi = index[offset + i], j = i - 1;
+                for (; j >= 0 && Long.compareUnsigned(k[j], ki) > 0; --j) {
+                    k[j + 1] = k[j];
+                    index[offset + j + 1] = index[offset + j];
+                }
+                k[j + 1] = ki;
+                index[offset + j + 1] = vi;
+            }
+            return;
+        }
+        int[] count = new int[8 << 8];
+        for (int i = 0; i < length; ++i) {
+            long ki = k[i];
+            for (int d = 0; d < 8; ++d, ki >>>= 8) {
+                ++count[(d << 8) | (int) (ki & 0xFF)];
+            }
+        }
+        int mask = radixPasses(count, k[0], 8, length);
+        long[] ks = k, kd = new long[length];
+        int[] vs = index, vd = new int[length];
+        int vso = offset, vdo = 0;
+        for (int d = 0; d < 8; ++d) {
+            if ((mask & (1 << d)) == 0) {
+                continue;
+            }
+            int base = d << 8, shift = d << 3;
+            radixOffsets(count, base);
+            for (int i = 0; i < length; ++i) {
+                long ki = ks[i];
+                int p = count[base | (int) ((ki >>> shift) & 0xFF)]++;
+                kd[p] = ki;
+                vd[vdo + p] = vs[vso + i];
+            }
+            long[] t = ks; ks = kd; kd = t;
+            int[] u = vs; vs = vd; vd = u;
+            int o = vso; vso = vdo; vdo = o;
+        }
+        if (vs != index) {
+            System.arraycopy(vs, vso, index, offset, length);
+        }
+    }
 }
@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * Sorts sequences of records that do not fit in the heap.  The input is
+ * read in runs of at most {@linkplain #memoryBudget(long) memory budget}
+ * bytes; each run is sorted in memory with
+ * {@link Arrays#parallelSort(Object[], int, int, Comparator)} and spilled to a
+ * temporary file through a {@link FileChannel}.  The runs are then combined
+ * with a k-way merge that reads them through memory-mapped windows.  If
+ * there are more runs than the {@linkplain #maxRuns(int) run count}, groups
+ * of runs are first merged into longer runs until at most that many remain.
+ * Input that fits within the budget is sorted in memory and never touches
+ * the disk.
+ *
+ * <p>Records are written to run files with a {@link Codec}.  Each encoded
+ * record is stored with its length, so a codec does not need to delimit its
+ * own output.
+ *
+ * <p>The sort is stable: records that compare equal are delivered in the
+ * order they were read.
+ *
+ * <p>An {@code ExternalSorter} is a mutable configuration and is not safe for
+ * concurrent modification; once configured, {@link #sort} may be called from
+ * several threads at the same time.
+ *
+ * <pre>{@code
+ *     new ExternalSorter<>(Comparator.comparingLong(Trade::id), Trade.CODEC)
+ *         .memoryBudget(1L << 30)
+ *         .tempDirectory(Paths.get("/scratch"))
+ *         .sort(trades, out::write);
+ * }</pre>
+ *
+ * @param <T> the type of records sorted
+ * @since 1.8
+ */
+public final class ExternalSorter<T> {
+
+    /**
+     * Converts records to and from the bytes stored in run files.
+     *
+     * @param <T> the type of records
+     * @since 1.8
+     */
+    public interface Codec<T> {
+        /**
+         * Returns the number of bytes {@link #encode} writes for the record.
+         *
+         * @param record the record
+         * @return the encoded size of the record
+         */
+        int size(T record);
+
+        /**
+         * Writes exactly {@link #size size(record)} bytes encoding the record
+         * at the position of the buffer.
+         *
+         * @param record the record
+         * @param buffer the buffer, with at least {@code size(record)} bytes
+         *        remaining
+         */
+        void encode(T record, ByteBuffer buffer);
+
+        /**
+         * Reads a record from the buffer, whose remaining bytes are exactly
+         * those written by {@link #encode} for it.  The buffer is only valid
+         * for the duration of the call.
+         *
+         * @param buffer the encoded record
+         * @return the record
+         */
+        T decode(ByteBuffer buffer);
+    }
+
+    /** Default memory budget, in encoded bytes per run. */
+    private static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /** Default maximum number of runs merged at once. */
+    private static final int DEFAULT_MAX_RUNS = 64;
+
+    /** Size of the direct buffer a run is written through. */
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /** Size of the window of a run file mapped at a time while merging. */
+    private static final int MAP_WINDOW_SIZE = 1 << 26;
+
+    /** Length prefix written before each encoded record. */
+    private static final int HEADER_SIZE = Integer.BYTES;
+
+    private final Comparator<? super T> comparator;
+    private final Codec<T> codec;
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private int maxRuns = DEFAULT_MAX_RUNS;
+    private Path tempDirectory;
+
+    /**
+     * Creates a sorter with the default memory budget and run count that
+     * writes its runs to the default temporary-file directory.
+     *
+     * @param comparator the comparator that orders the records
+     * @param codec the codec runs are written with
+     * @throws NullPointerException if an argument is null
+     */
+    public ExternalSorter(Comparator<? super T> comparator, Codec<T> codec) {
+        this.comparator = Objects.requireNonNull(comparator);
+        this.codec = Objects.requireNonNull(codec);
+    }
+
+    /**
+     * Sets the number of bytes of encoded records held in memory for each
+     * run.  The heap needed for a run is the in-memory size of its records,
+     * which is usually a small multiple of their encoded size; the budget
+     * should be chosen with that in mind.
+     *
+     * @param bytes the memory budget in bytes
+     * @return this sorter
+     * @throws IllegalArgumentException if {@code bytes} is not positive
+     */
+    public ExternalSorter<T> memoryBudget(long bytes) {
+        if (bytes <= 0)
+            throw new IllegalArgumentException("memory budget: " + bytes);
+        memoryBudget = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of runs merged at once.  Each run being merged
+     * holds an open file and a mapped window of it.
+     *
+     * @param runs the maximum number of runs merged at once
+     * @return this sorter
+     * @throws IllegalArgumentException if {@code runs} is less than 2
+     */
+    public ExternalSorter<T> maxRuns(int runs) {
+        if (runs < 2)
+            throw new IllegalArgumentException("max runs: " + runs);
+        maxRuns = runs;
+        return this;
+    }
+
+    /**
+     * Sets the directory run files are created in, or {@code null} for the
+     * default temporary-file directory.
+     *
+     * @param dir the directory for run files
+     * @return this sorter
+     */
+    public ExternalSorter<T> tempDirectory(Path dir) {
+        tempDirectory = dir;
+        return this;
+    }
+
+    /**
+     * Reads every record from {@code input} and passes them to
+     * {@code output} in sorted order.  Run files are deleted before this
+     * method returns, normally or not.
+     *
+     * @param input the records to sort
+     * @param output receives the records in sorted order
+     * @throws IOException if a run file cannot be written or read
+     * @throws NullPointerException if an argument is null
+     */
+    public void sort(Iterator<? extends T> input, Consumer<? super T> output)
+        throws IOException {
+        Objects.requireNonNull(input);
+        Objects.requireNonNull(output);
+        final long budget = memoryBudget;
+        final int fanIn = maxRuns;
+        List<Path> files = new ArrayList<>();
+        List<Path> runs = new ArrayList<>();
+        Throwable primary = null;
+        try {
+            @SuppressWarnings("unchecked")
+            T[] buf = (T[]) new Object[16];
+            int n;
+            do {
+                n = 0;
+                long bytes = 0;
+                while (bytes < budget && input.hasNext()) {
+                    T t = input.next();
+                    if (n == buf.length)
+                        buf = Arrays.copyOf(buf, n + (n >> 1));
+                    buf[n++] = t;
+                    bytes += HEADER_SIZE + codec.size(t);
+                }
+                Arrays.parallelSort(buf, 0, n, comparator);
+                if (runs.isEmpty() && !input.hasNext()) {
+                    for (int i = 0; i < n; i++)
+                        output.accept(buf[i]);
+                    return;
+                }
+                if (n > 0) {
+                    Path run = createRunFile(files);
+                    try (RunWriter<T> w = new RunWriter<>(run, codec)) {
+                        for (int i = 0; i < n; i++)
+                            w.write(buf[i]);
+                    }
+                    runs.add(run);
+                }
+                Arrays.fill(buf, 0, n, null);
+            } while (input.hasNext());
+            buf = null;
+
+            while (runs.size() > fanIn) {
+                ArrayList<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    Path dst = createRunFile(files);
+                    merged.add(dst);
+                    try (RunWriter<T> w = new RunWriter<>(dst, codec)) {
+                        merge(group, w::write);
+                    }
+                    for (Path p : group)
+                        Files.delete(p);
+                }
+                runs = merged;
+            }
+            merge(runs, output);
+        } catch (RunFileException e) {
+            IOException cause = e.getCause();
+            primary = cause;
+            throw cause;
+        } catch (Throwable t) {
+            primary = t;
+            throw t;
+        } finally {
+            IOException failure = null;
+            for (Path p : files) {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    if (primary != null)
+                        primary.addSuppressed(e);
+                    else if (failure == null)
+                        failure = e;
+                    else
+                        failure.addSuppressed(e);
+                }
+            }
+            if (failure != null)
+                throw failure;
+        }
+    }
+
+    private Path createRunFile(List<Path> files) throws IOException {
+        Path dir = tempDirectory;
+        Path path = (dir == null)
+            ? Files.createTempFile("sort", ".run")
+            : Files.createTempFile(dir, "sort", ".run");
+        files.add(path);
+        return path;
+    }
+
+    /**
+     * Merges the runs, each of which is sorted, into {@code output}.  Ties
+     * are broken by run order, which keeps the merge stable since earlier
+     * runs hold earlier input.
+     */
+    private void merge(List<Path> runs, Consumer<? super T> output)
+        throws IOException {
+        int k = runs.size();
+        @SuppressWarnings("unchecked")
+        RunReader<T>[] readers = (RunReader<T>[]) new RunReader<?>[k];
+        RunReader<T>[] heap = readers.clone();
+        int size = 0;
+        try {
+            for (int i = 0; i < k; i++) {
+                RunReader<T> r = readers[i] = new RunReader<>(runs.get(i), i, codec);
+                if (r.advance()) {
+                    heap[size++] = r;
+                    siftUp(heap, size - 1);
+                }
+            }
+            while (size > 0) {
+                RunReader<T> top = heap[0];
+                output.accept(top.head);
+                if (!top.advance()) {
+                    top.close();
+                    heap[0] = heap[--size];
+                    heap[size] = null;
+                }
+                if (size > 1)
+                    siftDown(heap, 0, size);
+            }
+        } finally {
+            for (RunReader<T> r : readers)
+                if (r != null)
+                    r.close();
+        }
+    }
+
+    private boolean less(RunReader<T> a, RunReader<T> b) {
+        int c = comparator.compare(a.head, b.head);
+        return c < 0 || (c == 0 && a.index < b.index);
+    }
+
+    private void siftUp(RunReader<T>[] heap, int i) {
+        RunReader<T> x = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            RunReader<T> p = heap[parent];
+            if (!less(x, p))
+                break;
+            heap[i] = p;
+            i = parent;
+        }
+        heap[i] = x;
+    }
+
+    private void siftDown(RunReader<T>[] heap, int i, int size) {
+        RunReader<T> x = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            RunReader<T> c = heap[child];
+            int right = child + 1;
+            if (right < size && less(heap[right], c))
+                c = heap[child = right];
+            if (!less(c, x))
+                break;
+            heap[i] = c;
+            i = child;
+        }
+        heap[i] = x;
+    }
+
+    /**
+     * Frees a direct buffer, or unmaps a mapped window, now rather than
+     * when it is collected, so the run file can be deleted and the memory
+     * or address space reused.
+     */
+    private static void free(ByteBuffer buffer) {
+        sun.misc.Cleaner cleaner = ((DirectBuffer) buffer).cleaner();
+        if (cleaner != null)
+            cleaner.clean();
+    }
+
+    /**
+     * Carries an I/O error on a run file out of a record callback, so that
+     * {@link #sort} can tell it apart from unchecked exceptions thrown by
+     * the codec, comparator or output.
+     */
+    private static final class RunFileException extends UncheckedIOException {
+        private static final long serialVersionUID = 0L;
+
+        RunFileException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Writes length-prefixed records to a run file through a direct buffer.
+     */
+    private static final class RunWriter<T> implements AutoCloseable {
+        private final Codec<T> codec;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        RunWriter(Path path, Codec<T> codec) throws IOException {
+            this.codec = codec;
+            channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        }
+
+        void write(T record) {
+            try {
+                int len = codec.size(record);
+                if (len < 0)
+                    throw new IllegalStateException("negative record size: " + len);
+                ByteBuffer b = buffer;
+                if (b.remaining() < HEADER_SIZE + len) {
+                    flush();
+                    if (b.remaining() < HEADER_SIZE + len)
+                        b = ByteBuffer.allocate(HEADER_SIZE + len);
+                }
+                int start = b.position();
+                b.putInt(len);
+                codec.encode(record, b);
+                if (b.position() - start != HEADER_SIZE + len)
+                    throw new IllegalStateException(
+                        "codec wrote " + (b.position() - start - HEADER_SIZE) +
+                        " bytes, expected " + len);
+                if (b != buffer) {
+                    b.flip();
+                    while (b.hasRemaining())
+                        channel.write(b);
+                }
+            } catch (IOException e) {
+                throw new RunFileException(e);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                try {
+                    channel.close();
+                } finally {
+                    free(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads length-prefixed records from a run file through a mapped window,
+     * remapping whenever the next record does not lie wholly inside it.
+     */
+    private static final class RunReader<T> {
+        final int index;
+        private final Codec<T> codec;
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+        T head;
+        private boolean closed;
+
+        RunReader(Path path, int index, Codec<T> codec) throws IOException {
+            this.index = index;
+            this.codec = codec;
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+        }
+
+        /**
+         * Decodes the next record into {@code head}, returning false at the
+         * end of the run.
+         */
+        boolean advance() {
+            try {
+                MappedByteBuffer w = window;
+                long pos = (w == null) ? 0L : windowStart + w.position();
+                if (pos >= size) {
+                    head = null;
+                    return false;
+                }
+                if (w == null || w.remaining() < HEADER_SIZE)
+                    w = map(pos, HEADER_SIZE);
+                int len = w.getInt(w.position());
+                if (w.remaining() < HEADER_SIZE + len)
+                    w = map(pos, HEADER_SIZE + len);
+                int start = w.position() + HEADER_SIZE;
+                ByteBuffer record = w.duplicate();
+                record.position(start).limit(start + len);
+                head = codec.decode(record);
+                w.position(start + len);
+                return true;
+            } catch (IOException e) {
+                throw new RunFileException(e);
+            }
+        }
+
+        private MappedByteBuffer map(long pos, int needed) throws IOException {
+            if (window != null)
+                free(window);
+            window = null;
+            long len = Math.min(size - pos, Math.max(MAP_WINDOW_SIZE, needed));
+            if (len < needed)
+                throw new IOException("truncated run file");
+            MappedByteBuffer w =
+                channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+            windowStart = pos;
+            return window = w;
+        }
+
+        void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                head = null;
+                if (window != null)
+                    free(window);
+                window = null;
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,825 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A resizable array of {@code int} values, modeled on {@link ArrayList}
+ * but storing the values unboxed.  An {@code ArrayList<Integer>} holds a
+ * reference per element plus a boxed {@code Integer} of at least 16 bytes
+ * for most values; this class holds 4 bytes per element in a
+ * single {@code int[]}, and never allocates on {@link #get} or
+ * {@link #add}.
+ *
+ * <p>The {@code size}, {@code get}, {@code set}, and {@code add}
+ * operations run in constant (amortized, for {@code add}) time; the
+ * capacity grows as in {@code ArrayList}.  Whole arrays can be
+ * appended with {@link #addAll(int[])}, and the elements sorted in
+ * place with {@link #sort}, which uses the same Dual-Pivot Quicksort as
+ * {@link Arrays#sort(int[])}, or with {@link #parallelSort}.
+ *
+ * <p>The {@linkplain #spliterator spliterator} covers the backing array
+ * directly, as {@link Spliterators#spliterator(int[], int, int, int)}
+ * does, so {@link #stream} feeds a {@link IntStream} without boxing and
+ * splits evenly for parallel streams.  Unlike that of
+ * {@code ArrayList}, it binds to the elements when created and is not
+ * fail-fast: the list must not be structurally modified while a stream
+ * over it is in use.
+ *
+ * <p>A list can be made read-only with {@link #freeze}, after which
+ * {@link #toArray()} returns the backing array itself instead of a
+ * copy, so that large lists can be handed to array-based code without
+ * doubling their footprint.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ *
+ * @see ArrayList
+ * @since 1.8
+ */
+public class IntArrayList implements RandomAccess, Cloneable, java.io.Serializable {
+    private static final long serialVersionUID = -3254960373734839164L;
+
+    /**
+     * Default initial capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Shared empty array instance used for empty instances.
+     */
+    private static final int[] EMPTY_ELEMENTDATA = {};
+
+    /**
+     * Shared empty array instance used for default sized empty
+     * instances, inflated to DEFAULT_CAPACITY on the first add.
+     */
+    private static final int[] DEFAULTCAPACITY_EMPTY_ELEMENTDATA = {};
+
+    /**
+     * The array buffer into which the elements are stored.
+     */
+    transient int[] elementData; // non-private to simplify nested class access
+
+    /**
+     * The number of elements.
+     */
+    private int size;
+
+    /**
+     * Whether the list has been made read-only by {@link #freeze}.
+     */
+    private boolean frozen;
+
+    /**
+     * The number of times this list has been structurally modified.
+     */
+    protected transient int modCount = 0;
+
+    /**
+     * Constructs an empty list with the specified initial capacity.
+     *
+     * @param  initialCapacity  the initial capacity of the list
+     * @throws IllegalArgumentException if the specified initial capacity
+     *         is negative
+     */
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity > 0) {
+            this.elementData = new int[initialCapacity];
+        } else if (initialCapacity == 0) {
+            this.elementData = EMPTY_ELEMENTDATA;
+        } else {
+            throw new IllegalArgumentException("Illegal Capacity: "+
+                                               initialCapacity);
+        }
+    }
+
+    /**
+     * Constructs an empty list with an initial capacity of ten.
+     */
+    public IntArrayList() {
+        this.elementData = DEFAULTCAPACITY_EMPTY_ELEMENTDATA;
+    }
+
+    /**
+     * Constructs a list containing a copy of the given values, in order.
+     *
+     * @param a the values to copy
+     * @throws NullPointerException if the specified array is null
+     */
+    public IntArrayList(int[] a) {
+        if ((size = a.length) != 0) {
+            elementData = a.clone();
+        } else {
+            elementData = EMPTY_ELEMENTDATA;
+        }
+    }
+
+    /**
+     * Trims the capacity of this list to be its current size.
+     */
+    public void trimToSize() {
+        checkMutable();
+        modCount++;
+        if (size < elementData.length) {
+            elementData = (size == 0)
+              ? EMPTY_ELEMENTDATA
+              : Arrays.copyOf(elementData, size);
+        }
+    }
+
+    /**
+     * Increases the capacity of this list, if necessary, to ensure that
+     * it can hold at least the number of elements specified by the
+     * minimum capacity argument.
+     *
+     * @param   minCapacity   the desired minimum capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        checkMutable();
+        int minExpand = (elementData != DEFAULTCAPACITY_EMPTY_ELEMENTDATA)
+            // any size if not default element table
+            ? 0
+            // larger than default for default empty table. It's already
+            // supposed to be at default size.
+            : DEFAULT_CAPACITY;
+
+        if (minCapacity > minExpand) {
+            ensureExplicitCapacity(minCapacity);
+        }
+    }
+
+    private static int calculateCapacity(int[] elementData, int minCapacity) {
+        if (elementData == DEFAULTCAPACITY_EMPTY_ELEMENTDATA) {
+            return Math.max(DEFAULT_CAPACITY, minCapacity);
+        }
+        return minCapacity;
+    }
+
+    private void ensureCapacityInternal(int minCapacity) {
+        checkMutable();
+        ensureExplicitCapacity(calculateCapacity(elementData, minCapacity));
+    }
+
+    private void ensureExplicitCapacity(int minCapacity) {
+        modCount++;
+        if (minCapacity - elementData.length > 0)
+            grow(minCapacity);
+    }
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in
+     * OutOfMemoryError: Requested array size exceeds VM limit
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Increases the capacity to ensure that it can hold at least the
+     * number of elements specified by the minimum capacity argument.
+     *
+     * @param minCapacity the desired minimum capacity
+     */
+    private void grow(int minCapacity) {
+        // overflow-conscious code
+        int oldCapacity = elementData.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity - minCapacity < 0)
+            newCapacity = minCapacity;
+        if (newCapacity - MAX_ARRAY_SIZE > 0)
+            newCapacity = hugeCapacity(minCapacity);
+        elementData = Arrays.copyOf(elementData, newCapacity);
+    }
+
+    private static int hugeCapacity(int minCapacity) {
+        if (minCapacity < 0) // overflow
+            throw new OutOfMemoryError();
+        return (minCapacity > MAX_ARRAY_SIZE) ?
+            Integer.MAX_VALUE :
+            MAX_ARRAY_SIZE;
+    }
+
+    private void checkMutable() {
+        if (frozen)
+            throw new UnsupportedOperationException("read-only");
+    }
+
+    /**
+     * Returns the number of elements in this list.
+     *
+     * @return the number of elements in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this list contains no elements.
+     *
+     * @return {@code true} if this list contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this list contains the specified value.
+     *
+     * @param v value whose presence in this list is to be tested
+     * @return {@code true} if this list contains the specified value
+     */
+    public boolean contains(int v) {
+        return indexOf(v) >= 0;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value
+     * in this list, or -1 if this list does not contain it.
+     *
+     * @param v value to search for
+     * @return the index of the first occurrence, or -1
+     */
+    public int indexOf(int v) {
+        int[] es = elementData;
+        for (int i = 0; i < size; i++)
+            if (v == es[i])
+                return i;
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last occurrence of the specified value
+     * in this list, or -1 if this list does not contain it.
+     *
+     * @param v value to search for
+     * @return the index of the last occurrence, or -1
+     */
+    public int lastIndexOf(int v) {
+        int[] es = elementData;
+        for (int i = size-1; i >= 0; i--)
+            if (v == es[i])
+                return i;
+        return -1;
+    }
+
+    /**
+     * Returns a shallow copy of this list.  The copy is not read-only.
+     *
+     * @return a clone of this list
+     */
+    public IntArrayList clone() {
+        try {
+            IntArrayList v = (IntArrayList) super.clone();
+            v.elementData = Arrays.copyOf(elementData, size);
+            v.modCount = 0;
+            v.frozen = false;
+            return v;
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Returns an array containing all of the elements in this list in
+     * proper sequence.
+     *
+     * <p>If this list is {@linkplain #freeze read-only}, the returned
+     * array is the backing array of the list, which must not be
+     * modified.  Otherwise it is a new array.
+     *
+     * @return an array containing all of the elements in this list
+     */
+    public int[] toArray() {
+        if (frozen)
+            return elementData;
+        return Arrays.copyOf(elementData, size);
+    }
+
+    /**
+     * Makes this list read-only.  The backing array is trimmed to the
+     * size of the list, and from then on it is shared, without copying,
+     * by {@link #toArray()}.  All methods that would modify the list
+     * throw {@code UnsupportedOperationException}.
+     *
+     * @return this list
+     */
+    public IntArrayList freeze() {
+        if (!frozen) {
+            trimToSize();
+            frozen = true;
+        }
+        return this;
+    }
+
+    /**
+     * Returns {@code true} if this list has been made read-only by
+     * {@link #freeze}.
+     *
+     * @return {@code true} if this list is read-only
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Returns the element at the specified position in this list.
+     *
+     * @param  index index of the element to return
+     * @return the element at the specified position in this list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int get(int index) {
+        rangeCheck(index);
+        return elementData[index];
+    }
+
+    /**
+     * Replaces the element at the specified position in this list with
+     * the specified value.
+     *
+     * @param index index of the element to replace
+     * @param v value to be stored at the specified position
+     * @return the value previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public int set(int index, int v) {
+        checkMutable();
+        rangeCheck(index);
+        int oldValue = elementData[index];
+        elementData[index] = v;
+        return oldValue;
+    }
+
+    /**
+     * Appends the specified value to the end of this list.
+     *
+     * @param v value to be appended to this list
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void add(int v) {
+        ensureCapacityInternal(size + 1);  // Increments modCount!!
+        elementData[size++] = v;
+    }
+
+    /**
+     * Inserts the specified value at the specified position in this
+     * list, shifting the element currently at that position, if any,
+     * and any subsequent elements to the right.
+     *
+     * @param index index at which the specified value is to be inserted
+     * @param v value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void add(int index, int v) {
+        rangeCheckForAdd(index);
+        ensureCapacityInternal(size + 1);  // Increments modCount!!
+        System.arraycopy(elementData, index, elementData, index + 1,
+                         size - index);
+        elementData[index] = v;
+        size++;
+    }
+
+    /**
+     * Removes the element at the specified position in this list,
+     * shifting any subsequent elements to the left.
+     *
+     * @param index the index of the element to be removed
+     * @return the element that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public int removeAt(int index) {
+        checkMutable();
+        rangeCheck(index);
+        modCount++;
+        int oldValue = elementData[index];
+        int numMoved = size - index - 1;
+        if (numMoved > 0)
+            System.arraycopy(elementData, index+1, elementData, index,
+                             numMoved);
+        --size;
+        return oldValue;
+    }
+
+    /**
+     * Removes all of the elements from this list, keeping its capacity.
+     *
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void clear() {
+        checkMutable();
+        modCount++;
+        size = 0;
+    }
+
+    /**
+     * Appends all of the values in the specified array to the end of
+     * this list, in order.
+     *
+     * @param a array containing values to be added to this list
+     * @throws NullPointerException if the specified array is null
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void addAll(int[] a) {
+        addAll(a, 0, a.length);
+    }
+
+    /**
+     * Appends {@code length} values of the specified array, starting at
+     * {@code offset}, to the end of this list, in order.
+     *
+     * @param a array containing values to be added to this list
+     * @param offset the index of the first value to add
+     * @param length the number of values to add
+     * @throws NullPointerException if the specified array is null
+     * @throws IndexOutOfBoundsException if {@code offset} or
+     *         {@code length} is negative, or {@code offset + length}
+     *         is greater than {@code a.length}
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void addAll(int[] a, int offset, int length) {
+        if (offset < 0 || length < 0 || length > a.length - offset)
+            throw new IndexOutOfBoundsException(
+                "offset: " + offset + ", length: " + length + ", array length: " + a.length);
+        ensureCapacityInternal(size + length);  // Increments modCount
+        System.arraycopy(a, offset, elementData, size, length);
+        size += length;
+    }
+
+    /**
+     * Appends all of the elements of the specified list to the end of
+     * this list, in order.
+     *
+     * @param c list containing values to be added to this list
+     * @throws NullPointerException if the specified list is null
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void addAll(IntArrayList c) {
+        addAll(c.elementData, 0, c.size);
+    }
+
+    /**
+     * Removes from this list all of the elements whose index is between
+     * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+     *
+     * @param fromIndex index of first element to be removed
+     * @param toIndex index after last element to be removed
+     * @throws IndexOutOfBoundsException if {@code fromIndex} or
+     *         {@code toIndex} is out of range
+     *         ({@code fromIndex < 0 || fromIndex > toIndex || toIndex > size()})
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        checkMutable();
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > size)
+            throw new IndexOutOfBoundsException(
+                "fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+        modCount++;
+        System.arraycopy(elementData, toIndex, elementData, fromIndex,
+                         size - toIndex);
+        size -= toIndex - fromIndex;
+    }
+
+    /**
+     * Checks if the given index is in range.  If not, throws an appropriate
+     * runtime exception.
+     */
+    private void rangeCheck(int index) {
+        if (index >= size)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    /**
+     * A version of rangeCheck used by add.
+     */
+    private void rangeCheckForAdd(int index) {
+        if (index > size || index < 0)
+            throw new IndexOutOfBoundsException(outOfBoundsMsg(index));
+    }
+
+    private String outOfBoundsMsg(int index) {
+        return "Index: "+index+", Size: "+size;
+    }
+
+    /**
+     * Removes from this list all of its elements that are contained in
+     * the specified list.
+     *
+     * @param c list containing values to be removed from this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the specified list is null
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public boolean removeAll(final IntArrayList c) {
+        Objects.requireNonNull(c);
+        return batchRemove(new IntPredicate() {
+            public boolean test(int v) { return c.contains(v); }
+        }, false);
+    }
+
+    /**
+     * Retains only the elements in this list that are contained in the
+     * specified list.
+     *
+     * @param c list containing values to be retained in this list
+     * @return {@code true} if this list changed as a result of the call
+     * @throws NullPointerException if the specified list is null
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public boolean retainAll(final IntArrayList c) {
+        Objects.requireNonNull(c);
+        return batchRemove(new IntPredicate() {
+            public boolean test(int v) { return c.contains(v); }
+        }, true);
+    }
+
+    /**
+     * Removes all of the elements of this list that satisfy the given
+     * predicate.
+     *
+     * @param filter a predicate which returns {@code true} for elements
+     *        to be removed
+     * @return {@code true} if any elements were removed
+     * @throws NullPointerException if the specified filter is null
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public boolean removeIf(IntPredicate filter) {
+        Objects.requireNonNull(filter);
+        return batchRemove(filter, false);
+    }
+
+    /**
+     * Compacts in place the elements for which {@code filter} returns
+     * {@code complement}.
+     */
+    private boolean batchRemove(IntPredicate filter, boolean complement) {
+        checkMutable();
+        final int[] elementData = this.elementData;
+        int r = 0, w = 0;
+        boolean modified = false;
+        try {
+            for (; r < size; r++)
+                if (filter.test(elementData[r]) == complement)
+                    elementData[w++] = elementData[r];
+        } finally {
+            // Preserve behavioral compatibility with AbstractCollection,
+            // even if filter.test() has thrown.
+            if (r != size) {
+                System.arraycopy(elementData, r,
+                                 elementData, w,
+                                 size - r);
+                w += size - r;
+            }
+            if (w != size) {
+                modCount += size - w;
+                size = w;
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Replaces each element of this list with the result of applying
+     * the operator to that element.
+     *
+     * @param operator the operator to apply to each element
+     * @throws NullPointerException if the specified operator is null
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void replaceAll(IntUnaryOperator operator) {
+        Objects.requireNonNull(operator);
+        checkMutable();
+        final int expectedModCount = modCount;
+        final int[] es = elementData;
+        final int size = this.size;
+        for (int i=0; modCount == expectedModCount && i < size; i++) {
+            es[i] = operator.applyAsInt(es[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        modCount++;
+    }
+
+    /**
+     * Sorts the elements of this list into ascending numerical order,
+     * using the Dual-Pivot Quicksort of {@link Arrays#sort(int[])}.
+     *
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void sort() {
+        checkMutable();
+        DualPivotQuicksort.sort(elementData, 0, size - 1, null, 0, 0);
+        modCount++;
+    }
+
+    /**
+     * Sorts the elements of this list into ascending numerical order
+     * as {@link #sort} does, using {@link Arrays#parallelSort(int[], int, int)}
+     * for large lists.
+     *
+     * @throws UnsupportedOperationException if this list is read-only
+     */
+    public void parallelSort() {
+        checkMutable();
+        Arrays.parallelSort(elementData, 0, size);
+        modCount++;
+    }
+
+    /**
+     * Performs the given action for each element of this list, in order.
+     *
+     * @param action the action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the action modifies
+     *         this list structurally
+     */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final int[] elementData = this.elementData;
+        final int size = this.size;
+        for (int i=0; modCount == expectedModCount && i < size; i++) {
+            action.accept(elementData[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements in this list in proper
+     * sequence.  The iterator is not fail-fast.
+     *
+     * @return an iterator over the elements in this list
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Creates a {@link Spliterator.OfInt} over the elements in this list,
+     * reporting {@link Spliterator#SIZED}, {@link Spliterator#SUBSIZED}
+     * and {@link Spliterator#ORDERED}, and also
+     * {@link Spliterator#IMMUTABLE} if the list is read-only.
+     *
+     * <p>The spliterator covers the backing array as it is when this
+     * method is called, and is not fail-fast.
+     *
+     * @return a {@code Spliterator.OfInt} over the elements in this list
+     */
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(elementData, 0, size,
+                                        frozen ? Spliterator.ORDERED | Spliterator.IMMUTABLE
+                                               : Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} over the elements in this list.
+     *
+     * @return a sequential {@code IntStream} over the elements in this list
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code IntStream} over the elements in
+     * this list.
+     *
+     * @return a possibly parallel {@code IntStream} over the elements in
+     *         this list
+     */
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    /**
+     * Compares the specified object with this list for equality.  Two
+     * lists are equal if they contain the same values in the same
+     * order.
+     *
+     * @param o the object to be compared for equality with this list
+     * @return {@code true} if the specified object is equal to this list
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntArrayList))
+            return false;
+        IntArrayList other = (IntArrayList) o;
+        int n = size;
+        if (other.size != n)
+            return false;
+        int[] es = elementData, os = other.elementData;
+        for (int i = 0; i < n; i++)
+            if (es[i] != os[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this list, computed as
+     * {@link Arrays#hashCode(int[])} of its elements.
+     *
+     * @return the hash code value for this list
+     */
+    public int hashCode() {
+        int[] es = elementData;
+        int result = 1;
+        for (int i = 0; i < size; i++)
+            result = 31 * result + es[i];
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this list, in the form of
+     * {@link Arrays#toString(int[])}.
+     *
+     * @return a string representation of this list
+     */
+    public String toString() {
+        if (size == 0)
+            return "[]";
+        StringBuilder b = new StringBuilder();
+        b.append('[');
+        for (int i = 0; ; i++) {
+            b.append(elementData[i]);
+            if (i == size - 1)
+                return b.append(']').toString();
+            b.append(", ");
+        }
+    }
+
+    /**
+     * Save the state of the {@code IntArrayList} instance to a stream
+     * (that is, serialize it).
+     *
+     * @serialData The size of the list (int), followed by all of its
+     *             elements (each a {@code int}) in the proper order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException{
+        // Write out element count, and any hidden stuff
+        int expectedModCount = modCount;
+        s.defaultWriteObject();
+
+        for (int i=0; i<size; i++) {
+            s.writeInt(elementData[i]);
+        }
+
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Reconstitute the {@code IntArrayList} instance from a stream (that
+     * is, deserialize it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        // Read in size, and any hidden stuff
+        s.defaultReadObject();
+        if (size < 0)
+            throw new java.io.InvalidObjectException("Invalid size: " + size);
+
+        int[] a = (size == 0) ? EMPTY_ELEMENTDATA : new int[size];
+        for (int i=0; i<size; i++) {
+            a[i] = s.readInt();
+        }
+        elementData = a;
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * A set of primitive {@code long} values, backed by an open-addressing
+ * hash table with the same layout as {@link LongObjectHashMap} but
+ * without the value array.  The primitive methods ({@link #add(long)},
+ * {@link #contains(long)}, {@link #remove(long)}) never box, and the
+ * iterator is a {@link PrimitiveIterator.OfLong}.  The class extends
+ * {@link AbstractSet}, so an instance can be used wherever a
+ * {@code Set<Long>} is expected.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterator is <i>fail-fast</i> in the same way as that of
+ * {@link HashSet}.
+ *
+ * @see IntHashSet
+ * @see LongObjectHashMap
+ * @since 1.8
+ */
+public class LongHashSet extends AbstractSet<Long>
+    implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 3358170461930874215L;
+
+    /**
+     * Value 0 marks a free slot in {@link #keys}, so membership of 0
+     * is tracked outside the table.
+     */
+    static final long FREE = 0L;
+
+    /**
+     * Slot keys; {@code FREE} marks an empty slot.  Length is always a
+     * power of two.
+     */
+    transient long[] keys;
+
+    /**
+     * Whether 0 is a member of this set.
+     */
+    transient boolean hasFreeKey;
+
+    /**
+     * The number of elements in this set.
+     */
+    transient int size;
+
+    /**
+     * The number of times this set has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The table size at which the next resize happens.
+     */
+    transient int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty set with the specified initial capacity and
+     * load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in the range (0, 1)
+     */
+    public LongHashSet(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(LongObjectHashMap.tableSizeFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Constructs an empty set with the specified initial capacity and
+     * the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public LongHashSet(int initialCapacity) {
+        this(initialCapacity, LongObjectHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty set with the default initial capacity (16) and
+     * the default load factor (0.75).
+     */
+    public LongHashSet() {
+        this(LongObjectHashMap.DEFAULT_INITIAL_CAPACITY,
+             LongObjectHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs a new set containing the elements in the specified
+     * collection.
+     *
+     * @param c the collection whose elements are to be placed into this set
+     * @throws NullPointerException if the specified collection is null or
+     *         contains a null element
+     */
+    public LongHashSet(Collection<? extends Long> c) {
+        this(c.size(), LongObjectHashMap.DEFAULT_LOAD_FACTOR);
+        addAll(c);
+    }
+
+    private void allocate(int n) {
+        keys = new long[n];
+        threshold = (n == LongObjectHashMap.MAXIMUM_CAPACITY) ?
+            LongObjectHashMap.MAXIMUM_CAPACITY - 1 :
+            Math.min((int)(n * loadFactor), n - 1);
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this set contains no elements.
+     *
+     * @return <tt>true</tt> if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this set contains the specified element.
+     *
+     * @param e element whose presence in this set is to be tested
+     * @return <tt>true</tt> if this set contains the specified element
+     */
+    public boolean contains(long e) {
+        if (e == FREE)
+            return hasFreeKey;
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        long k;
+        for (int i = LongObjectHashMap.spread(e) & mask;;i = (i + 1) & mask) {
+            if ((k = ks[i]) == e)
+                return true;
+            if (k == FREE)
+                return false;
+        }
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param e element to be added to this set
+     * @return <tt>true</tt> if this set did not already contain the specified
+     * element
+     */
+    public boolean add(long e) {
+        if (e == FREE) {
+            if (hasFreeKey)
+                return false;
+            hasFreeKey = true;
+        }
+        else {
+            long[] ks = keys;
+            int mask = ks.length - 1;
+            int i = LongObjectHashMap.spread(e) & mask;
+            for (long k; (k = ks[i]) != FREE; i = (i + 1) & mask) {
+                if (k == e)
+                    return false;
+            }
+            ks[i] = e;
+        }
+        ++modCount;
+        if (++size > threshold)
+            resize();
+        return true;
+    }
+
+    /**
+     * Adds all of the elements in the specified array to this set.
+     *
+     * @param a the elements to be added
+     * @return <tt>true</tt> if this set changed as a result of the call
+     */
+    public boolean addAll(long[] a) {
+        boolean modified = false;
+        for (long e : a)
+            modified |= add(e);
+        return modified;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param e element to be removed from this set, if present
+     * @return <tt>true</tt> if the set contained the specified element
+     */
+    public boolean remove(long e) {
+        if (e == FREE) {
+            if (!hasFreeKey)
+                return false;
+            hasFreeKey = false;
+        }
+        else {
+            long[] ks = keys;
+            int mask = ks.length - 1;
+            long k;
+        for (int i = LongObjectHashMap.spread(e) & mask;;i = (i + 1) & mask) {
+                if ((k = ks[i]) == FREE)
+                    return false;
+                if (k == e) {
+                    shiftKeys(i);
+                    break;
+                }
+            }
+        }
+        ++modCount;
+        --size;
+        return true;
+    }
+
+    /**
+     * Closes the gap left at {@code pos}; see {@link
+     * LongObjectHashMap#shiftKeys}.
+     */
+    final void shiftKeys(int pos) {
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        long k;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == FREE) {
+                    ks[last] = FREE;
+                    return;
+                }
+                int home = LongObjectHashMap.spread(k) & mask;
+                if (last <= pos ? (last >= home || home > pos)
+                                : (last >= home && home > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+        }
+    }
+
+    /**
+     * Doubles the table, rehashing every element into the new array.
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        int oldCap = oldKeys.length;
+        if (oldCap >= LongObjectHashMap.MAXIMUM_CAPACITY) {
+            if (size >= LongObjectHashMap.MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Set is full");
+            return;
+        }
+        allocate(oldCap << 1);
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        long k;
+        for (int j = 0; j < oldCap; ++j) {
+            if ((k = oldKeys[j]) != FREE) {
+                int i = LongObjectHashMap.spread(k) & mask;
+                while (ks[i] != FREE)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+            }
+        }
+    }
+
+    /**
+     * Removes all of the elements from this set.  The table keeps its
+     * current capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, FREE);
+            hasFreeKey = false;
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns a new array containing all of the elements in this set.
+     *
+     * @return an array containing all of the elements in this set
+     */
+    public long[] toLongArray() {
+        long[] a = new long[size];
+        int n = 0;
+        if (hasFreeKey)
+            a[n++] = FREE;
+        for (long k : keys) {
+            if (k != FREE)
+                a[n++] = k;
+        }
+        return a;
+    }
+
+    // Set<Long> methods; these unbox the element
+
+    public boolean contains(Object o) {
+        return (o instanceof Long) && contains(((Long)o).longValue());
+    }
+
+    public boolean add(Long e) {
+        return add(e.longValue());
+    }
+
+    public boolean remove(Object o) {
+        return (o instanceof Long) && remove(((Long)o).longValue());
+    }
+
+    /**
+     * Returns an iterator over the elements in this set.  The elements
+     * are returned in no particular order.
+     *
+     * @return a primitive iterator over the elements in this set
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Walks the table from the last slot down to the first; see
+     * {@code LongObjectHashMap.HashIterator} for how removal through the
+     * iterator keeps every element visible exactly once.
+     */
+    final class Itr implements PrimitiveIterator.OfLong {
+        int pos;               // next slot to examine is pos - 1
+        int last = -1;         // slot of the last returned element
+        int remaining;         // elements still to return
+        int expectedModCount;  // for fast-fail
+        boolean mustReturnFreeKey;
+        long[] wrapped;         // elements moved past the cursor by remove
+        int wrappedCount;
+
+        Itr() {
+            expectedModCount = modCount;
+            pos = keys.length;
+            remaining = size;
+            mustReturnFreeKey = hasFreeKey;
+        }
+
+        public boolean hasNext() {
+            return remaining != 0;
+        }
+
+        public long nextLong() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            --remaining;
+            long[] ks = keys;
+            if (mustReturnFreeKey) {
+                mustReturnFreeKey = false;
+                last = ks.length;
+                return FREE;
+            }
+            for (;;) {
+                if (--pos < 0) {
+                    // elements that wrapped around while removing
+                    last = 0;
+                    return wrapped[--wrappedCount];
+                }
+                if (ks[pos] != FREE)
+                    return ks[last = pos];
+            }
+        }
+
+        public void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last == keys.length) {
+                hasFreeKey = false;
+                ++modCount;
+                --size;
+            }
+            else if (pos >= 0) {
+                shiftKeys(last);
+                ++modCount;
+                --size;
+            }
+            else
+                LongHashSet.this.remove(wrapped[wrappedCount]);
+            expectedModCount = modCount;
+            last = -1;
+        }
+
+        private void shiftKeys(int p) {
+            long[] ks = keys;
+            int mask = ks.length - 1;
+            long k;
+            for (int lst;;) {
+                p = ((lst = p) + 1) & mask;
+                for (;;) {
+                    if ((k = ks[p]) == FREE) {
+                        ks[lst] = FREE;
+                        return;
+                    }
+                    int home = LongObjectHashMap.spread(k) & mask;
+                    if (lst <= p ? (lst >= home || home > p)
+                                 : (lst >= home && home > p))
+                        break;
+                    p = (p + 1) & mask;
+                }
+                if (p < lst) {
+                    if (wrapped == null)
+                        wrapped = new long[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[lst] = k;
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this <tt>LongHashSet</tt> instance.
+     *
+     * @return a copy of this set
+     */
+    @Override
+    public Object clone() {
+        LongHashSet result;
+        try {
+            result = (LongHashSet)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Saves this set to a stream.
+     *
+     * @serialData The <i>size</i> of the set (an int), followed by each
+     *             element (long), in no particular order.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        if (hasFreeKey)
+            s.writeLong(FREE);
+        for (long k : keys) {
+            if (k != FREE)
+                s.writeLong(k);
+        }
+    }
+
+    /**
+     * Reconstitutes this set from a stream.
+     */
+    private void readObject(ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new java.io.InvalidObjectException("Illegal load factor: " +
+                                                     loadFactor);
+        int n = s.readInt();
+        if (n < 0)
+            throw new java.io.InvalidObjectException("Illegal size: " + n);
+        allocate(LongObjectHashMap.tableSizeFor(n, loadFactor));
+        for (int i = 0; i < n; i++)
+            add(s.readLong());
+    }
+}
@@ -0,0 +1,772 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Hash table based implementation of a map from primitive {@code long}
+ * keys to primitive {@code long} values.  Keys and values are held in
+ * two parallel {@code long} arrays using open addressing with linear
+ * probing, in the same way as {@link LongObjectHashMap}, so the map
+ * holds no per-mapping objects at all.
+ *
+ * <p>Because values are primitive, the primitive accessors cannot return
+ * {@code null} for a missing key: {@link #get(long)} and {@link
+ * #remove(long)} return {@code 0} in that case, and {@link
+ * #containsKey(long)} or {@link #getOrDefault(long, long)} should be
+ * used where zero is a legitimate value.  The {@code Map<Long,Long>}
+ * methods inherited from {@link AbstractMap} keep the usual {@code null}
+ * conventions, but box both keys and values; null values are not
+ * permitted.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators returned by the collection views are <i>fail-fast</i>.
+ *
+ * @see HashMap
+ * @see LongObjectHashMap
+ * @since 1.8
+ */
+public class LongLongHashMap extends AbstractMap<Long,Long>
+    implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 2842178930661520437L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, which is the largest power of two array
+     * length that is still addressable.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Key 0 marks a free slot in {@link #keys}, so a mapping for key 0
+     * is held outside the table.
+     */
+    static final long FREE = 0L;
+
+    /**
+     * Slot keys; {@code FREE} marks an empty slot.  Length is always a
+     * power of two.
+     */
+    transient long[] keys;
+
+    /**
+     * Slot values, parallel to {@link #keys}.
+     */
+    transient long[] vals;
+
+    /**
+     * Whether a mapping for key 0 exists, and its value.
+     */
+    transient boolean hasFreeKey;
+    transient long freeVal;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The table size at which the next resize happens.
+     */
+    transient int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty map with the specified initial capacity and
+     * load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in the range (0, 1)
+     */
+    public LongLongHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(IntObjectHashMap.tableSizeFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Constructs an empty map with the specified initial capacity and
+     * the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public LongLongHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (0.75).
+     */
+    public LongLongHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs a new map with the same mappings as the specified
+     * {@code Map}.
+     *
+     * @param   m the map whose mappings are to be placed in this map
+     * @throws  NullPointerException if the specified map is null or
+     *          contains a null key or value
+     */
+    public LongLongHashMap(Map<? extends Long, ? extends Long> m) {
+        this(m.size(), DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    private void allocate(int n) {
+        keys = new long[n];
+        vals = new long[n];
+        threshold = (n == MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY - 1 :
+            Math.min((int)(n * loadFactor), n - 1);
+    }
+
+    /**
+     * Returns the slot holding {@code key}, {@code keys.length} for the
+     * out-of-table free key, or -1 if there is no mapping.
+     */
+    final int indexOf(long key) {
+        long[] ks = keys;
+        if (key == FREE)
+            return hasFreeKey ? ks.length : -1;
+        int mask = ks.length - 1;
+        long k;
+        for (int i = LongObjectHashMap.spread(key) & mask;;i = (i + 1) & mask) {
+            if ((k = ks[i]) == key)
+                return i;
+            if (k == FREE)
+                return -1;
+        }
+    }
+
+    final long valueAt(int i) {
+        return (i == keys.length) ? freeVal : vals[i];
+    }
+
+    final void setValueAt(int i, long value) {
+        if (i == keys.length)
+            freeVal = value;
+        else
+            vals[i] = value;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code 0} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the mapped value, or {@code 0}
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0L);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the mapped value, or {@code defaultValue}
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == FREE)
+            return hasFreeKey ? freeVal : defaultValue;
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        long k;
+        for (int i = LongObjectHashMap.spread(key) & mask;;i = (i + 1) & mask) {
+            if ((k = ks[i]) == key)
+                return vals[i];
+            if (k == FREE)
+                return defaultValue;
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   The key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the specified
+     * key.
+     */
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public long put(long key, long value) {
+        int i = insertionIndex(key);
+        long old = valueAt(i);
+        setValueAt(i, value);
+        return old;
+    }
+
+    /**
+     * Returns the slot for {@code key}, inserting a mapping to {@code 0}
+     * if there is none.  The returned slot is valid until the next
+     * structural modification.
+     */
+    final int insertionIndex(long key) {
+        long[] ks = keys;
+        if (key == FREE) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                freeVal = 0L;
+                ++modCount;
+                ++size;
+            }
+            return ks.length;
+        }
+        int mask = ks.length - 1;
+        int i = LongObjectHashMap.spread(key) & mask;
+        for (long k; (k = ks[i]) != FREE; i = (i + 1) & mask) {
+            if (k == key)
+                return i;
+        }
+        ks[i] = key;
+        vals[i] = 0L;
+        ++modCount;
+        if (++size > threshold) {
+            resize();
+            i = indexOf(key);
+        }
+        return i;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function and
+     * enters it into this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public long computeIfAbsent(long key, LongUnaryOperator mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        int i;
+        if ((i = indexOf(key)) >= 0)
+            return valueAt(i);
+        int mc = modCount;
+        long v = mappingFunction.applyAsLong(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        setValueAt(insertionIndex(key), v);
+        return v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the value
+     * with the result of the given remapping function.  This is the
+     * primitive counterpart of {@link Map#merge}; for example
+     * {@code map.merge(key, 1L, Long::sum)} counts occurrences of keys.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to use if absent
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key
+     * @throws NullPointerException if the remapping function is null
+     */
+    public long merge(long key, long value, LongBinaryOperator remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        int i;
+        if ((i = indexOf(key)) < 0) {
+            setValueAt(insertionIndex(key), value);
+            return value;
+        }
+        long v = remappingFunction.applyAsLong(valueAt(i), value);
+        setValueAt(i, v);
+        return v;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public long remove(long key) {
+        int i;
+        if ((i = indexOf(key)) < 0)
+            return 0L;
+        long old = valueAt(i);
+        removeAt(i);
+        return old;
+    }
+
+    /**
+     * Removes the mapping held in slot {@code i}.
+     */
+    final void removeAt(int i) {
+        if (i == keys.length) {
+            hasFreeKey = false;
+            freeVal = 0L;
+        }
+        else
+            shiftKeys(i);
+        ++modCount;
+        --size;
+    }
+
+    /**
+     * Closes the gap left at {@code pos} by moving later entries of the
+     * same probe run backward, so that every remaining key stays
+     * reachable from its home slot.
+     */
+    final void shiftKeys(int pos) {
+        long[] ks = keys;
+        long[] vs = vals;
+        int mask = ks.length - 1;
+        long k;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == FREE) {
+                    ks[last] = FREE;
+                    vs[last] = 0L;
+                    return;
+                }
+                int home = LongObjectHashMap.spread(k) & mask;
+                if (last <= pos ? (last >= home || home > pos)
+                                : (last >= home && home > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Doubles the table, rehashing every key into the new arrays.
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        long[] oldVals = vals;
+        int oldCap = oldKeys.length;
+        if (oldCap >= MAXIMUM_CAPACITY) {
+            if (size >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Map is full");
+            return;
+        }
+        allocate(oldCap << 1);
+        long[] ks = keys;
+        long[] vs = vals;
+        int mask = ks.length - 1;
+        long k;
+        for (int j = 0; j < oldCap; ++j) {
+            if ((k = oldKeys[j]) != FREE) {
+                int i = LongObjectHashMap.spread(k) & mask;
+                while (ks[i] != FREE)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.  The table keeps its
+     * current capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, FREE);
+            hasFreeKey = false;
+            size = 0;
+        }
+    }
+
+    // Map<Long,Long> methods; these box keys and values
+
+    public Long get(Object key) {
+        int i;
+        return (key instanceof Long &&
+                (i = indexOf(((Long)key).longValue())) >= 0) ? valueAt(i) : null;
+    }
+
+    public Long getOrDefault(Object key, Long defaultValue) {
+        int i;
+        return (key instanceof Long &&
+                (i = indexOf(((Long)key).longValue())) >= 0) ?
+            valueAt(i) : defaultValue;
+    }
+
+    public boolean containsKey(Object key) {
+        return (key instanceof Long) && containsKey(((Long)key).longValue());
+    }
+
+    public Long put(Long key, Long value) {
+        long k = key.longValue(), v = value.longValue();
+        int i = indexOf(k);
+        if (i < 0) {
+            setValueAt(insertionIndex(k), v);
+            return null;
+        }
+        long old = valueAt(i);
+        setValueAt(i, v);
+        return old;
+    }
+
+    public Long remove(Object key) {
+        int i;
+        if (!(key instanceof Long) || (i = indexOf(((Long)key).longValue())) < 0)
+            return null;
+        long old = valueAt(i);
+        removeAt(i);
+        return old;
+    }
+
+    public boolean containsValue(Object value) {
+        return (value instanceof Long) && containsValue(((Long)value).longValue());
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map maps one or more keys to the
+     * specified value.  This scans the whole table.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(long value) {
+        if (hasFreeKey && freeVal == value)
+            return true;
+        long[] ks = keys;
+        long[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            if (ks[i] != FREE && vs[i] == value)
+                return true;
+        }
+        return false;
+    }
+
+    transient Set<Map.Entry<Long,Long>> entrySet;
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set is backed by the map, so changes to the map are reflected
+     * in the set, and vice-versa.  Entries are created on demand while
+     * iterating.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    public Set<Map.Entry<Long,Long>> entrySet() {
+        Set<Map.Entry<Long,Long>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Long,Long>> {
+        public final int size()                 { return size; }
+        public final void clear()               { LongLongHashMap.this.clear(); }
+        public final Iterator<Map.Entry<Long,Long>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object key = e.getKey(), value = e.getValue();
+            int i;
+            return (key instanceof Long) && (value instanceof Long) &&
+                (i = indexOf(((Long)key).longValue())) >= 0 &&
+                valueAt(i) == ((Long)value).longValue();
+        }
+        public final boolean remove(Object o) {
+            if (contains(o)) {
+                LongLongHashMap.this.remove(((Map.Entry<?,?>)o).getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Entry view of a single slot, valid until the next structural
+     * modification of the map.
+     */
+    final class Entry implements Map.Entry<Long,Long> {
+        final long key;
+        final int index;
+        Entry(long key, int index) { this.key = key; this.index = index; }
+        public final Long getKey()           { return key; }
+        public final Long getValue()         { return valueAt(index); }
+        public final Long setValue(Long value) {
+            long old = valueAt(index);
+            setValueAt(index, value.longValue());
+            return old;
+        }
+        public final int hashCode() {
+            return Long.hashCode(key) ^ Long.hashCode(valueAt(index));
+        }
+        public final boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return Objects.equals(key, e.getKey()) &&
+                Objects.equals(getValue(), e.getValue());
+        }
+        public final String toString() { return key + "=" + valueAt(index); }
+    }
+
+    /**
+     * Walks the table from the last slot down to the first; see
+     * {@code IntObjectHashMap.HashIterator} for how removal through the
+     * iterator keeps every entry visible exactly once.
+     */
+    final class EntryIterator implements Iterator<Map.Entry<Long,Long>> {
+        int pos;               // next slot to examine is pos - 1
+        int last = -1;         // slot of the last returned entry
+        int remaining;         // entries still to return
+        int expectedModCount;  // for fast-fail
+        boolean mustReturnFreeKey;
+        long[] wrapped;        // keys moved past the cursor by remove
+        int wrappedCount;
+
+        EntryIterator() {
+            expectedModCount = modCount;
+            pos = keys.length;
+            remaining = size;
+            mustReturnFreeKey = hasFreeKey;
+        }
+
+        public final boolean hasNext() {
+            return remaining != 0;
+        }
+
+        public final Map.Entry<Long,Long> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            --remaining;
+            long[] ks = keys;
+            if (mustReturnFreeKey) {
+                mustReturnFreeKey = false;
+                return new Entry(FREE, last = ks.length);
+            }
+            for (;;) {
+                if (--pos < 0) {
+                    long k = wrapped[--wrappedCount];
+                    return new Entry(k, last = indexOf(k));
+                }
+                if (ks[pos] != FREE)
+                    return new Entry(ks[pos], last = pos);
+            }
+        }
+
+        public final void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last == keys.length) {
+                hasFreeKey = false;
+                freeVal = 0L;
+            }
+            else if (pos >= 0)
+                shiftKeys(last);
+            else
+                LongLongHashMap.this.shiftKeys(last);
+            ++modCount;
+            --size;
+            expectedModCount = modCount;
+            last = -1;
+        }
+
+        private void shiftKeys(int p) {
+            long[] ks = keys;
+            long[] vs = vals;
+            int mask = ks.length - 1;
+            long k;
+            for (int lst;;) {
+                p = ((lst = p) + 1) & mask;
+                for (;;) {
+                    if ((k = ks[p]) == FREE) {
+                        ks[lst] = FREE;
+                        vs[lst] = 0L;
+                        return;
+                    }
+                    int home = LongObjectHashMap.spread(k) & mask;
+                    if (lst <= p ? (lst >= home || home > p)
+                                 : (lst >= home && home > p))
+                        break;
+                    p = (p + 1) & mask;
+                }
+                if (p < lst) {
+                    if (wrapped == null)
+                        wrapped = new long[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[lst] = k;
+                vs[lst] = vs[p];
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this <tt>LongLongHashMap</tt> instance.
+     *
+     * @return a copy of this map
+     */
+    @Override
+    public Object clone() {
+        LongLongHashMap result;
+        try {
+            result = (LongLongHashMap)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        result.vals = vals.clone();
+        result.entrySet = null;
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Saves this map to a stream.
+     *
+     * @serialData The <i>size</i> of the map (an int), followed by the
+     *             key (long) and value (long) of each mapping, in no
+     *             particular order.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        if (hasFreeKey) {
+            s.writeLong(FREE);
+            s.writeLong(freeVal);
+        }
+        long[] ks = keys;
+        long[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            if (ks[i] != FREE) {
+                s.writeLong(ks[i]);
+                s.writeLong(vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitutes this map from a stream.
+     */
+    private void readObject(ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new java.io.InvalidObjectException("Illegal load factor: " +
+                                                     loadFactor);
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new java.io.InvalidObjectException("Illegal mappings count: " +
+                                                     mappings);
+        allocate(IntObjectHashMap.tableSizeFor(mappings, loadFactor));
+        for (int i = 0; i < mappings; i++) {
+            long key = s.readLong();
+            put(key, s.readLong());
+        }
+    }
+}
@@ -0,0 +1,799 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.function.LongFunction;
+
+/**
+ * Hash table based implementation of a map whose keys are primitive
+ * {@code int} values.  Keys and values are held in two parallel arrays
+ * using open addressing with linear probing, so a mapping costs no
+ * {@code Node} object and no boxed key.  The table sizing follows the
+ * same power-of-two rule as {@link HashMap} ({@code tableSizeFor}), and
+ * removals use backward-shift deletion, so the table never accumulates
+ * tombstones.
+ *
+ * <p>The primitive methods ({@link #get(long)}, {@link #put(long, Object)},
+ * {@link #getOrDefault(long, Object)}, {@link #computeIfAbsent(long,
+ * LongFunction)} and so on) never box.  The class also extends
+ * {@link AbstractMap}, so an instance can be handed to any code that
+ * expects a {@code Map<Long,V>}; those methods box their keys and
+ * should be avoided on hot paths.  Null values are permitted.
+ *
+ * <p>An instance has two parameters that affect its performance:
+ * <i>initial capacity</i> and <i>load factor</i>, with the same meaning
+ * as for {@code HashMap}.  Because collisions are resolved in the table
+ * itself, the load factor must be less than one.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * The iterators returned by the collection views are <i>fail-fast</i> in
+ * the same way as those of {@code HashMap}.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see HashMap
+ * @see IntObjectHashMap
+ * @since 1.8
+ */
+public class LongObjectHashMap<V> extends AbstractMap<Long,V>
+    implements Cloneable, Serializable {
+
+    private static final long serialVersionUID = 6213078920486735519L;
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, which is the largest power of two array
+     * length that is still addressable.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Key 0 marks a free slot in {@link #keys}, so a mapping for key 0
+     * is held outside the table.
+     */
+    static final long FREE = 0;
+
+    /**
+     * Slot keys; {@code FREE} marks an empty slot.  Length is always a
+     * power of two.
+     */
+    transient long[] keys;
+
+    /**
+     * Slot values, parallel to {@link #keys}.
+     */
+    transient Object[] vals;
+
+    /**
+     * Whether a mapping for key 0 exists, and its value.
+     */
+    transient boolean hasFreeKey;
+    transient Object freeVal;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    transient int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * The table size at which the next resize happens.
+     */
+    transient int threshold;
+
+    /**
+     * The load factor for the hash table.
+     *
+     * @serial
+     */
+    final float loadFactor;
+
+    /**
+     * Mixes the bits of a key before masking.  Unlike {@link
+     * HashMap#hash}, which relies on trees to absorb bad distributions,
+     * linear probing needs the low bits of every key to be well mixed,
+     * so the key is first multiplied by the golden ratio and the high
+     * bits are then folded downward.
+     */
+    static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int x = (int)(h ^ (h >>> 32));
+        return x ^ (x >>> 16);
+    }
+
+    /**
+     * Constructs an empty map with the specified initial capacity and
+     * load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in the range (0, 1)
+     */
+    public LongObjectHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * Constructs an empty map with the specified initial capacity and
+     * the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity.
+     * @throws IllegalArgumentException if the initial capacity is negative.
+     */
+    public LongObjectHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (0.75).
+     */
+    public LongObjectHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs a new map with the same mappings as the specified
+     * {@code Map}.
+     *
+     * @param   m the map whose mappings are to be placed in this map
+     * @throws  NullPointerException if the specified map is null or
+     *          contains a null key
+     */
+    public LongObjectHashMap(Map<? extends Long, ? extends V> m) {
+        this(m.size(), DEFAULT_LOAD_FACTOR);
+        putAll(m);
+    }
+
+    /**
+     * Returns the table length needed to hold {@code expected} mappings
+     * without resizing at the given load factor.
+     */
+    static int tableSizeFor(int expected, float loadFactor) {
+        float ft = (float)expected / loadFactor + 1.0f;
+        int cap = (ft < (float)MAXIMUM_CAPACITY) ? (int)ft : MAXIMUM_CAPACITY;
+        return Math.max(HashMap.tableSizeFor(cap), 2);
+    }
+
+    private void allocate(int n) {
+        keys = new long[n];
+        vals = new Object[n];
+        threshold = (n == MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY - 1 :
+            Math.min((int)(n * loadFactor), n - 1);
+    }
+
+    /**
+     * Returns the slot holding {@code key}, {@code keys.length} for the
+     * out-of-table free key, or -1 if there is no mapping.
+     */
+    final int indexOf(long key) {
+        long[] ks = keys;
+        if (key == FREE)
+            return hasFreeKey ? ks.length : -1;
+        int mask = ks.length - 1;
+        long k;
+        for (int i = spread(key) & mask;;i = (i + 1) & mask) {
+            if ((k = ks[i]) == key)
+                return i;
+            if (k == FREE)
+                return -1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    final V valueAt(int i) {
+        return (V)((i == keys.length) ? freeVal : vals[i]);
+    }
+
+    final void setValueAt(int i, Object value) {
+        if (i == keys.length)
+            freeVal = value;
+        else
+            vals[i] = value;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the mapped value, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == FREE)
+            return (V)freeVal;
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        long k;
+        for (int i = spread(key) & mask;;i = (i + 1) & mask) {
+            if ((k = ks[i]) == key)
+                return (V)vals[i];
+            if (k == FREE)
+                return null;
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the mapped value, or {@code defaultValue}
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        int i;
+        return ((i = indexOf(key)) < 0) ? defaultValue : valueAt(i);
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   The key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the specified
+     * key.
+     */
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public V put(long key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or
+     * is mapped to {@code null}) associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the key, or {@code null}
+     */
+    public V putIfAbsent(long key, V value) {
+        return putVal(key, value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V putVal(long key, V value, boolean onlyIfAbsent) {
+        Object old;
+        if (key == FREE) {
+            if (hasFreeKey) {
+                if ((old = freeVal) == null || !onlyIfAbsent)
+                    freeVal = value;
+                return (V)old;
+            }
+            hasFreeKey = true;
+            freeVal = value;
+        }
+        else {
+            long[] ks = keys;
+            int mask = ks.length - 1;
+            int i = spread(key) & mask;
+            for (long k; (k = ks[i]) != FREE; i = (i + 1) & mask) {
+                if (k == key) {
+                    if ((old = vals[i]) == null || !onlyIfAbsent)
+                        vals[i] = value;
+                    return (V)old;
+                }
+            }
+            ks[i] = key;
+            vals[i] = value;
+        }
+        ++modCount;
+        if (++size > threshold)
+            resize();
+        return null;
+    }
+
+    /**
+     * If the specified key is not already associated with a value (or is
+     * mapped to {@code null}), attempts to compute its value using the
+     * given mapping function and enters it into this map unless
+     * {@code null}.  Unlike {@link Map#computeIfAbsent}, the key is
+     * never boxed.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public V computeIfAbsent(long key,
+                             LongFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        int i;
+        V v;
+        if ((i = indexOf(key)) >= 0 && (v = valueAt(i)) != null)
+            return v;
+        int mc = modCount;
+        if ((v = mappingFunction.apply(key)) == null)
+            return null;
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        if (i >= 0)
+            setValueAt(i, v);
+        else
+            putVal(key, v, false);
+        return v;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+     */
+    public V remove(long key) {
+        int i;
+        if ((i = indexOf(key)) < 0)
+            return null;
+        V old = valueAt(i);
+        removeAt(i);
+        return old;
+    }
+
+    /**
+     * Removes the mapping held in slot {@code i}.
+     */
+    final void removeAt(int i) {
+        if (i == keys.length) {
+            hasFreeKey = false;
+            freeVal = null;
+        }
+        else
+            shiftKeys(i);
+        ++modCount;
+        --size;
+    }
+
+    /**
+     * Closes the gap left at {@code pos} by moving later entries of the
+     * same probe run backward, so that every remaining key stays
+     * reachable from its home slot.
+     */
+    final void shiftKeys(int pos) {
+        long[] ks = keys;
+        Object[] vs = vals;
+        int mask = ks.length - 1;
+        long k;
+        for (int last;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = ks[pos]) == FREE) {
+                    ks[last] = FREE;
+                    vs[last] = null;
+                    return;
+                }
+                int home = spread(k) & mask;
+                if (last <= pos ? (last >= home || home > pos)
+                                : (last >= home && home > pos))
+                    break;
+                pos = (pos + 1) & mask;
+            }
+            ks[last] = k;
+            vs[last] = vs[pos];
+        }
+    }
+
+    /**
+     * Doubles the table, rehashing every key into the new arrays.
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int oldCap = oldKeys.length;
+        if (oldCap >= MAXIMUM_CAPACITY) {
+            if (size >= MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Map is full");
+            return;
+        }
+        allocate(oldCap << 1);
+        long[] ks = keys;
+        Object[] vs = vals;
+        int mask = ks.length - 1;
+        long k;
+        for (int j = 0; j < oldCap; ++j) {
+            if ((k = oldKeys[j]) != FREE) {
+                int i = spread(k) & mask;
+                while (ks[i] != FREE)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.  The table keeps its
+     * current capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            ++modCount;
+            Arrays.fill(keys, FREE);
+            Arrays.fill(vals, null);
+            hasFreeKey = false;
+            freeVal = null;
+            size = 0;
+        }
+    }
+
+    // Map<Long,V> methods; these box and unbox the key
+
+    public V get(Object key) {
+        return (key instanceof Long) ? get(((Long)key).longValue()) : null;
+    }
+
+    public V getOrDefault(Object key, V defaultValue) {
+        return (key instanceof Long) ?
+            getOrDefault(((Long)key).longValue(), defaultValue) :
+            defaultValue;
+    }
+
+    public boolean containsKey(Object key) {
+        return (key instanceof Long) && containsKey(((Long)key).longValue());
+    }
+
+    public V put(Long key, V value) {
+        return putVal(key.longValue(), value, false);
+    }
+
+    public V putIfAbsent(Long key, V value) {
+        return putVal(key.longValue(), value, true);
+    }
+
+    public V remove(Object key) {
+        return (key instanceof Long) ? remove(((Long)key).longValue()) : null;
+    }
+
+    public boolean containsValue(Object value) {
+        if (hasFreeKey && Objects.equals(value, freeVal))
+            return true;
+        long[] ks = keys;
+        Object[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            if (ks[i] != FREE && Objects.equals(value, vs[i]))
+                return true;
+        }
+        return false;
+    }
+
+    transient Set<Map.Entry<Long,V>> entrySet;
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set is backed by the map, so changes to the map are reflected
+     * in the set, and vice-versa.  Entries are created on demand while
+     * iterating.
+     *
+     * @return a set view of the mappings contained in this map
+     */
+    public Set<Map.Entry<Long,V>> entrySet() {
+        Set<Map.Entry<Long,V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<Long,V>> {
+        public final int size()                 { return size; }
+        public final void clear()               { LongObjectHashMap.this.clear(); }
+        public final Iterator<Map.Entry<Long,V>> iterator() {
+            return new EntryIterator();
+        }
+        public final boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object key = e.getKey();
+            int i;
+            return (key instanceof Long) &&
+                (i = indexOf(((Long)key).longValue())) >= 0 &&
+                Objects.equals(valueAt(i), e.getValue());
+        }
+        public final boolean remove(Object o) {
+            if (contains(o)) {
+                LongObjectHashMap.this.remove(((Map.Entry<?,?>)o).getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Entry view of a single slot.  Like {@code HashMap.Node}, an entry
+     * obtained from an iterator is only valid until the next structural
+     * modification of the map.
+     */
+    final class Entry implements Map.Entry<Long,V> {
+        final long key;
+        final int index;
+        Entry(long key, int index) { this.key = key; this.index = index; }
+        public final Long getKey()        { return key; }
+        public final V getValue()            { return valueAt(index); }
+        public final V setValue(V value) {
+            V old = valueAt(index);
+            setValueAt(index, value);
+            return old;
+        }
+        public final int hashCode() {
+            return Long.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+        public final boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return Objects.equals(key, e.getKey()) &&
+                Objects.equals(getValue(), e.getValue());
+        }
+        public final String toString() { return key + "=" + getValue(); }
+    }
+
+    /**
+     * Walks the table from the last slot down to the first.  Removing
+     * through the iterator shifts later entries backward into slots
+     * that were already visited; only an entry that wraps around from
+     * the front of the table can be skipped that way, and such entries
+     * are queued in {@code wrapped} and returned at the end.
+     */
+    abstract class HashIterator {
+        int pos;               // next slot to examine is pos - 1
+        int last = -1;         // slot of the last returned entry
+        int remaining;         // entries still to return
+        int expectedModCount;  // for fast-fail
+        boolean mustReturnFreeKey;
+        long[] wrapped;         // keys moved past the cursor by remove
+        int wrappedCount;
+        long lastKey;           // key of the last returned entry
+
+        HashIterator() {
+            expectedModCount = modCount;
+            pos = keys.length;
+            remaining = size;
+            mustReturnFreeKey = hasFreeKey;
+        }
+
+        public final boolean hasNext() {
+            return remaining != 0;
+        }
+
+        final int nextIndex() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            --remaining;
+            long[] ks = keys;
+            if (mustReturnFreeKey) {
+                mustReturnFreeKey = false;
+                lastKey = FREE;
+                return last = ks.length;
+            }
+            for (;;) {
+                if (--pos < 0) {
+                    // entries that wrapped around while removing
+                    lastKey = wrapped[--wrappedCount];
+                    return last = indexOf(lastKey);
+                }
+                if (ks[pos] != FREE) {
+                    lastKey = ks[pos];
+                    return last = pos;
+                }
+            }
+        }
+
+        public final void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (last == keys.length) {
+                hasFreeKey = false;
+                freeVal = null;
+            }
+            else if (pos >= 0)
+                shiftKeys(last);
+            else {
+                // a wrapped entry; it now lives in an already visited slot
+                LongObjectHashMap.this.shiftKeys(last);
+            }
+            ++modCount;
+            --size;
+            expectedModCount = modCount;
+            last = -1;
+        }
+
+        /**
+         * Variant of {@link LongObjectHashMap#shiftKeys} that records
+         * entries moving from unvisited slots into visited ones.
+         */
+        private void shiftKeys(int p) {
+            long[] ks = keys;
+            Object[] vs = vals;
+            int mask = ks.length - 1;
+            long k;
+            for (int lst;;) {
+                p = ((lst = p) + 1) & mask;
+                for (;;) {
+                    if ((k = ks[p]) == FREE) {
+                        ks[lst] = FREE;
+                        vs[lst] = null;
+                        return;
+                    }
+                    int home = spread(k) & mask;
+                    if (lst <= p ? (lst >= home || home > p)
+                                 : (lst >= home && home > p))
+                        break;
+                    p = (p + 1) & mask;
+                }
+                if (p < lst) {
+                    if (wrapped == null)
+                        wrapped = new long[2];
+                    else if (wrappedCount == wrapped.length)
+                        wrapped = Arrays.copyOf(wrapped, wrappedCount << 1);
+                    wrapped[wrappedCount++] = k;
+                }
+                ks[lst] = k;
+                vs[lst] = vs[p];
+            }
+        }
+    }
+
+    final class EntryIterator extends HashIterator
+        implements Iterator<Map.Entry<Long,V>> {
+        public final Map.Entry<Long,V> next() {
+            int i = nextIndex();
+            return new Entry(lastKey, i);
+        }
+    }
+
+    /**
+     * Returns a shallow copy of this <tt>LongObjectHashMap</tt> instance:
+     * the values themselves are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object clone() {
+        LongObjectHashMap<V> result;
+        try {
+            result = (LongObjectHashMap<V>)super.clone();
+        } catch (CloneNotSupportedException e) {
+            // this shouldn't happen, since we are Cloneable
+            throw new InternalError(e);
+        }
+        result.keys = keys.clone();
+        result.vals = vals.clone();
+        result.entrySet = null;
+        result.modCount = 0;
+        return result;
+    }
+
+    /**
+     * Saves this map to a stream.
+     *
+     * @serialData The <i>size</i> of the map (an int), followed by the
+     *             key (long) and value (Object) of each mapping, in no
+     *             particular order.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(size);
+        if (hasFreeKey) {
+            s.writeLong(FREE);
+            s.writeObject(freeVal);
+        }
+        long[] ks = keys;
+        Object[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            if (ks[i] != FREE) {
+                s.writeLong(ks[i]);
+                s.writeObject(vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitutes this map from a stream.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new java.io.InvalidObjectException("Illegal load factor: " +
+                                                     loadFactor);
+        int mappings = s.readInt();
+        if (mappings < 0)
+            throw new java.io.InvalidObjectException("Illegal mappings count: " +
+                                                     mappings);
+        allocate(tableSizeFor(mappings, loadFactor));
+        for (int i = 0; i < mappings; i++) {
+            long key = s.readLong();
+            putVal(key, (V)s.readObject(), false);
+        }
+    }
+}
@@ -326,6 +326,33 @@ public interface Spliterator<T> {
         do { } while (tryAdvance(action));
     }
 
+    /**
+     * If this Spliterator holds its remaining elements in arrays, performs
+     * the given action for each run of them, sequentially in the current
+     * thread and in encounter order, until all elements have been processed
+     * or the action throws an exception, and returns {@code true}.
+     * Otherwise returns {@code false} without traversing any element, in
+     * which case the caller may fall back to {@link #forEachRemaining}.
+     * Exceptions thrown by the action are relayed to the caller.
+     *
+     * <p>Each run is passed as an array together with the range of indexes
+     * of the elements in it.  The array may be the backing storage of the
+     * source, so the action must not modify it, and must not retain it once
+     * it returns.
+     *
+     * @implSpec
+     * The default implementation returns {@code false}.
+     *
+     * @param action The action
+     * @return {@code true} if the remaining elements were traversed, else
+     * {@code false}
+     * @throws NullPointerException if the specified action is null
+     * @since 1.8
+     */
+    default boolean forEachRemainingChunk(ChunkConsumer action) {
+        return false;
+    }
+
     /**
      * If this spliterator can be partitioned, returns a Spliterator
      * covering elements, that will, upon return from this method, not
@@ -654,6 +681,26 @@ public interface Spliterator<T> {
             do { } while (tryAdvance(action));
         }
 
+        /**
+         * If this Spliterator holds its remaining elements in {@code int}
+         * arrays, performs the given action for each run of them and returns
+         * {@code true}; otherwise returns {@code false} without traversing
+         * any element.
+         *
+         * @implSpec
+         * The default implementation returns {@code false}.
+         *
+         * @param action The action
+         * @return {@code true} if the remaining elements were traversed, else
+         * {@code false}
+         * @throws NullPointerException if the specified action is null
+         * @see Spliterator#forEachRemainingChunk(Spliterator.ChunkConsumer)
+         */
+        @SuppressWarnings("overloads")
+        default boolean forEachRemainingChunk(IntChunkConsumer action) {
+            return false;
+        }
+
         /**
          * {@inheritDoc}
          * @implSpec
@@ -718,6 +765,26 @@ public interface Spliterator<T> {
             do { } while (tryAdvance(action));
         }
 
+        /**
+         * If this Spliterator holds its remaining elements in {@code long}
+         * arrays, performs the given action for each run of them and returns
+         * {@code true}; otherwise returns {@code false} without traversing
+         * any element.
+         *
+         * @implSpec
+         * The default implementation returns {@code false}.
+         *
+         * @param action The action
+         * @return {@code true} if the remaining elements were traversed, else
+         * {@code false}
+         * @throws NullPointerException if the specified action is null
+         * @see Spliterator#forEachRemainingChunk(Spliterator.ChunkConsumer)
+         */
+        @SuppressWarnings("overloads")
+        default boolean forEachRemainingChunk(LongChunkConsumer action) {
+            return false;
+        }
+
         /**
          * {@inheritDoc}
          * @implSpec
@@ -782,6 +849,26 @@ public interface Spliterator<T> {
             do { } while (tryAdvance(action));
         }
 
+        /**
+         * If this Spliterator holds its remaining elements in {@code double}
+         * arrays, performs the given action for each run of them and returns
+         * {@code true}; otherwise returns {@code false} without traversing
+         * any element.
+         *
+         * @implSpec
+         * The default implementation returns {@code false}.
+         *
+         * @param action The action
+         * @return {@code true} if the remaining elements were traversed, else
+         * {@code false}
+         * @throws NullPointerException if the specified action is null
+         * @see Spliterator#forEachRemainingChunk(Spliterator.ChunkConsumer)
+         */
+        @SuppressWarnings("overloads")
+        default boolean forEachRemainingChunk(DoubleChunkConsumer action) {
+            return false;
+        }
+
         /**
          * {@inheritDoc}
          * @implSpec
@@ -829,4 +916,76 @@ public interface Spliterator<T> {
             }
         }
     }
+
+    /**
+     * An action performed on a run of elements held in an array, as passed
+     * to {@link Spliterator#forEachRemainingChunk(Spliterator.ChunkConsumer)}.
+     * @since 1.8
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        /**
+         * Performs this action on the elements {@code array[from]}
+         * (inclusive) through {@code array[to]} (exclusive).
+         *
+         * @param array the array holding the elements
+         * @param from the index of the first element, inclusive
+         * @param to the index of the last element, exclusive
+         */
+        void accept(Object[] array, int from, int to);
+    }
+
+    /**
+     * An action performed on a run of {@code int} values held in an array,
+     * as passed to {@link Spliterator.OfInt#forEachRemainingChunk}.
+     * @since 1.8
+     */
+    @FunctionalInterface
+    public interface IntChunkConsumer {
+        /**
+         * Performs this action on the values {@code array[from]}
+         * (inclusive) through {@code array[to]} (exclusive).
+         *
+         * @param array the array holding the values
+         * @param from the index of the first value, inclusive
+         * @param to the index of the last value, exclusive
+         */
+        void accept(int[] array, int from, int to);
+    }
+
+    /**
+     * An action performed on a run of {@code long} values held in an array,
+     * as passed to {@link Spliterator.OfLong#forEachRemainingChunk}.
+     * @since 1.8
+     */
+    @FunctionalInterface
+    public interface LongChunkConsumer {
+        /**
+         * Performs this action on the values {@code array[from]}
+         * (inclusive) through {@code array[to]} (exclusive).
+         *
+         * @param array the array holding the values
+         * @param from the index of the first value, inclusive
+         * @param to the index of the last value, exclusive
+         */
+        void accept(long[] array, int from, int to);
+    }
+
+    /**
+     * An action performed on a run of {@code double} values held in an array,
+     * as passed to {@link Spliterator.OfDouble#forEachRemainingChunk}.
+     * @since 1.8
+     */
+    @FunctionalInterface
+    public interface DoubleChunkConsumer {
+        /**
+         * Performs this action on the values {@code array[from]}
+         * (inclusive) through {@code array[to]} (exclusive).
+         *
+         * @param array the array holding the values
+         * @param from the index of the first value, inclusive
+         * @param to the index of the last value, exclusive
+         */
+        void accept(double[] array, int from, int to);
+    }
 }
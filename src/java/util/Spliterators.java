@@ -949,6 +949,18 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public boolean forEachRemainingChunk(Spliterator.ChunkConsumer action) {
+            Object[] a; int i, hi;
+            if (action == null)
+                throw new NullPointerException();
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+            return true;
+        }
+
         @Override
         public boolean tryAdvance(Consumer<? super T> action) {
             if (action == null)
@@ -1033,6 +1045,18 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public boolean forEachRemainingChunk(Spliterator.IntChunkConsumer action) {
+            int[] a; int i, hi;
+            if (action == null)
+                throw new NullPointerException();
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+            return true;
+        }
+
         @Override
         public boolean tryAdvance(IntConsumer action) {
             if (action == null)
@@ -1116,6 +1140,18 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public boolean forEachRemainingChunk(Spliterator.LongChunkConsumer action) {
+            long[] a; int i, hi;
+            if (action == null)
+                throw new NullPointerException();
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+            return true;
+        }
+
         @Override
         public boolean tryAdvance(LongConsumer action) {
             if (action == null)
@@ -1199,6 +1235,18 @@ public final class Spliterators {
             }
         }
 
+        @Override
+        public boolean forEachRemainingChunk(Spliterator.DoubleChunkConsumer action) {
+            double[] a; int i, hi;
+            if (action == null)
+                throw new NullPointerException();
+            if ((a = array).length >= (hi = fence) &&
+                (i = index) >= 0 && i < (index = hi)) {
+                action.accept(a, i, hi);
+            }
+            return true;
+        }
+
         @Override
         public boolean tryAdvance(DoubleConsumer action) {
             if (action == null)
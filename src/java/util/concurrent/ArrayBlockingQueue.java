@@ -219,6 +219,45 @@ public class ArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQ
         }
     }
 
+    /**
+     * Inserts elements of the given collection under one acquisition
+     * of the lock, for as long as there is room.
+     *
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null
+     * @throws IllegalArgumentException if the specified collection is
+     *         this queue
+     */
+    public int offerAll(Collection<? extends E> c) {
+        if (c == this)
+            throw new IllegalArgumentException();
+        // 锁外检查null
+        Object[] a = c.toArray();
+        for (Object o : a)
+            checkNotNull(o);
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            final Object[] items = this.items;
+            int n = Math.min(a.length, items.length - count);
+            // 先全部放进数组，不逐个signal
+            for (int i = 0; i < n; i++) {
+                items[putIndex] = a[i];
+                if (++putIndex == items.length)
+                    putIndex = 0;
+            }
+            count += n;
+            // 最后统一唤醒一次：一个元素signal，多个元素signalAll，
+            // 多醒的take发现队列空了会重新await
+            if (n == 1)
+                notEmpty.signal();
+            else if (n > 1)
+                notEmpty.signalAll();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
 
     // 区别，加锁是interrupt的，其次带时间阻塞
     public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The aggregate completion handle returned by
+ * {@link ExecutorService#submitBatch}: a {@code CompletableFuture} that
+ * completes when every task of the batch has run.  Each task is wrapped
+ * in a small {@link Task} that counts down a shared counter, in place of
+ * the {@code FutureTask} that {@code submit} would allocate, and the
+ * last task to finish completes the future.  If any task threw, the
+ * future completes exceptionally with the first exception, to which
+ * later ones are added as suppressed.  Cancelling the future does not
+ * stop the tasks.
+ */
+final class BatchCompletion extends CompletableFuture<Void> {
+
+    private final AtomicInteger pending;
+    private volatile Throwable failure;
+
+    BatchCompletion(int size) {
+        pending = new AtomicInteger(size);
+        if (size == 0)
+            complete(null);
+    }
+
+    /**
+     * Wraps each task of a batch, checking for nulls before anything
+     * is submitted.  The batch must have been created with the length
+     * of the array.
+     */
+    List<Runnable> wrap(Object[] tasks) {
+        Task[] ts = new Task[tasks.length];
+        for (int i = 0; i < tasks.length; ++i) {
+            if (tasks[i] == null)
+                throw new NullPointerException();
+            ts[i] = new Task(this, (Runnable)tasks[i]);
+        }
+        return Arrays.<Runnable>asList(ts);
+    }
+
+    private void onFailure(Throwable ex) {
+        synchronized (this) {
+            Throwable f = failure;
+            if (f == null)
+                failure = ex;
+            else if (f != ex)
+                f.addSuppressed(ex);
+        }
+    }
+
+    private void onDone() {
+        if (pending.decrementAndGet() == 0) {
+            Throwable f = failure;
+            if (f == null)
+                complete(null);
+            else
+                completeExceptionally(f);
+        }
+    }
+
+    /**
+     * One task of a batch.  Exceptions are reported through the batch
+     * rather than rethrown, as with {@code FutureTask}.
+     */
+    static final class Task implements Runnable {
+        final BatchCompletion batch;
+        final Runnable task;
+        /** Set like FutureTask.submitTime, for executor metrics. */
+        long submitTime;
+
+        Task(BatchCompletion batch, Runnable task) {
+            this.batch = batch;
+            this.task = task;
+        }
+
+        public void run() {
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                batch.onFailure(ex);
+            } finally {
+                batch.onDone();
+            }
+        }
+
+        public String toString() {
+            return super.toString() + "[" + task + "]";
+        }
+    }
+}
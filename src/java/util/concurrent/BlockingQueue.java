@@ -373,4 +373,42 @@ public interface BlockingQueue<E> extends Queue<E> {
      *         it from being added to the specified collection
      */
     int drainTo(Collection<? super E> c, int maxElements);
+
+    /**
+     * Inserts elements of the given collection, in iteration order,
+     * for as long as it is possible to do so immediately without
+     * violating capacity restrictions, and returns the number inserted.
+     * The elements inserted are thus the first {@code n} of the
+     * collection's iteration order, where {@code n} is the result.
+     * This is the bulk counterpart of {@link #offer(Object) offer}:
+     * implementations may insert all elements under a single lock
+     * acquisition and wake waiting consumers once, which is how
+     * executors submit batches of tasks.
+     *
+     * <p>The default implementation calls {@code offer} for each
+     * element in turn, stopping at the first that is not accepted.
+     *
+     * @param c the elements to insert
+     * @return the number of elements inserted
+     * @throws ClassCastException if the class of an element prevents
+     *         it from being added to this queue
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null; elements before the null one may
+     *         have been inserted
+     * @throws IllegalArgumentException if the specified collection is
+     *         this queue, or some property of an element prevents it
+     *         from being added to this queue
+     * @since 1.8
+     */
+    default int offerAll(Collection<? extends E> c) {
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        for (E e : c) {
+            if (!offer(e))
+                break;
+            ++n;
+        }
+        return n;
+    }
 }
@@ -0,0 +1,1242 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A concurrent map that bounds its contents by entry count, by total
+ * weight, or by age, evicting entries as needed.  It is meant to replace
+ * the usual {@code Collections.synchronizedMap(new LinkedHashMap(...,
+ * true))} with {@code removeEldestEntry}, whose single lock serializes
+ * every read because an access-ordered {@code LinkedHashMap} reorders
+ * its list on {@code get}.
+ *
+ * <p>Mappings are held in a {@link ConcurrentHashMap}, so retrievals and
+ * updates proceed concurrently.  The eviction policy is maintained
+ * separately under a lock that callers never wait for: reads are
+ * recorded in lossy ring buffers striped by thread, in the same manner
+ * as the cells of {@code Striped64}, and writes are queued.  Whichever
+ * thread next acquires the policy lock with {@code tryLock} replays the
+ * buffers.  Dropping a read record only makes the recency information
+ * slightly less precise.
+ *
+ * <p>When a size or weight bound is set, the policy is W-TinyLFU: new
+ * entries enter a small LRU admission window (1% of the bound); entries
+ * leaving the window compete with the least recently used entry of the
+ * main space, and the one with the higher estimated access frequency
+ * stays.  Frequencies are estimated by a count-min sketch of 4-bit
+ * counters that is periodically halved so that old popularity fades.
+ * The main space is a segmented LRU: entries read again while in the
+ * probation segment are promoted to the protected segment.
+ *
+ * <p>Expired entries are never returned, and are removed during policy
+ * maintenance.  The bound may be exceeded briefly until the next
+ * maintenance; {@link #cleanUp} forces one.  Neither keys nor values may
+ * be {@code null}.  Hit, miss and eviction counts are always recorded
+ * and are available through {@link #stats}.
+ *
+ * <p>Instances are created with a {@link Builder}:
+ * <pre> {@code
+ * BoundedConcurrentCache<String, Session> sessions =
+ *     new BoundedConcurrentCache.Builder<String, Session>()
+ *         .maximumSize(100_000)
+ *         .expireAfterAccess(30, TimeUnit.MINUTES)
+ *         .build();}</pre>
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ *
+ * @see java.util.LinkedHashMap#removeEldestEntry
+ * @since 1.8
+ */
+public class BoundedConcurrentCache<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /* ---------------- Constants -------------- */
+
+    /** Number of CPUS, to size the read buffer stripes. */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Upper bound on the number of read buffer stripes. */
+    static final int MAX_READ_BUFFERS = 64;
+
+    /** Percentage of the bound given to the admission window. */
+    static final double WINDOW_PERCENT = 0.01;
+
+    /** Percentage of the main space given to the protected segment. */
+    static final double PROTECTED_PERCENT = 0.80;
+
+    /** Maximum number of queued writes replayed per maintenance pass. */
+    static final int WRITE_BUFFER_DRAIN = 4096;
+
+    /** Queue membership of a node, guarded by the policy lock. */
+    static final byte NONE = 0, WINDOW = 1, PROBATION = 2, PROTECTED = 3;
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * A mapping.  Value, weight and timestamps are written inside a
+     * {@code ConcurrentHashMap} compute on the node's key; the queue
+     * fields are only touched under the policy lock.
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile int weight;
+        volatile long accessTime;
+        volatile long writeTime;
+        volatile boolean dead;     // removed from the map
+
+        // guarded by evictionLock
+        int policyWeight;
+        byte queue;
+        Node<K,V> prev, next;              // access order
+        Node<K,V> prevWrite, nextWrite;    // write order
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.accessTime = this.writeTime = now;
+        }
+    }
+
+    /**
+     * Intrusive LRU list over the access links of nodes.
+     */
+    static final class AccessDeque<K,V> {
+        Node<K,V> head, tail;
+        long weight;
+
+        void addLast(Node<K,V> n) {
+            Node<K,V> t = tail;
+            n.prev = t;
+            n.next = null;
+            if (t == null)
+                head = n;
+            else
+                t.next = n;
+            tail = n;
+        }
+
+        void unlink(Node<K,V> n) {
+            Node<K,V> p = n.prev, s = n.next;
+            if (p == null)
+                head = s;
+            else
+                p.next = s;
+            if (s == null)
+                tail = p;
+            else
+                s.prev = p;
+            n.prev = n.next = null;
+        }
+
+        void moveToBack(Node<K,V> n) {
+            if (n != tail) {
+                unlink(n);
+                addLast(n);
+            }
+        }
+    }
+
+    /**
+     * Intrusive list over the write links of nodes, oldest write first.
+     */
+    static final class WriteDeque<K,V> {
+        Node<K,V> head, tail;
+
+        void addLast(Node<K,V> n) {
+            Node<K,V> t = tail;
+            n.prevWrite = t;
+            n.nextWrite = null;
+            if (t == null)
+                head = n;
+            else
+                t.nextWrite = n;
+            tail = n;
+        }
+
+        void unlink(Node<K,V> n) {
+            Node<K,V> p = n.prevWrite, s = n.nextWrite;
+            if (p == null)
+                head = s;
+            else
+                p.nextWrite = s;
+            if (s == null)
+                tail = p;
+            else
+                s.prevWrite = p;
+            n.prevWrite = n.nextWrite = null;
+        }
+    }
+
+    /* ---------------- Read buffers -------------- */
+
+    static final int OFFER_SUCCESS = 0, OFFER_FULL = 1, OFFER_FAILED = 2;
+
+    /**
+     * A bounded, lossy ring of recently read nodes.  Producers claim a
+     * slot by CAS on {@code writeCounter}; the buffer is drained only
+     * under the policy lock.  Padded like {@code Striped64.Cell}, since
+     * stripes are written by different threads.
+     */
+    @sun.misc.Contended static final class ReadBuffer {
+        static final int SIZE = 16;
+        static final int MASK = SIZE - 1;
+        final Object[] ring = new Object[SIZE];
+        volatile long writeCounter;
+        volatile long readCounter;  // advanced under the policy lock
+
+        int offer(Node<?,?> n) {
+            long head = readCounter, tail = writeCounter;
+            if (tail - head >= SIZE)
+                return OFFER_FULL;
+            if (!U.compareAndSwapLong(this, WRITE_COUNTER, tail, tail + 1L))
+                return OFFER_FAILED;
+            U.putOrderedObject(ring, ((long)((int)tail & MASK) << RSHIFT) + RBASE, n);
+            return (tail + 1L - head >= SIZE) ? OFFER_FULL : OFFER_SUCCESS;
+        }
+
+        @SuppressWarnings("unchecked")
+        <K,V> void drainTo(BoundedConcurrentCache<K,V> cache) {
+            long head = readCounter, tail = writeCounter;
+            for (; head != tail; ++head) {
+                long off = ((long)((int)head & MASK) << RSHIFT) + RBASE;
+                Object n = U.getObjectVolatile(ring, off);
+                if (n == null)
+                    break;  // claimed but not yet published
+                U.putObject(ring, off, null);
+                cache.onAccess((Node<K,V>)n);
+            }
+            readCounter = head;
+        }
+
+        private static final long WRITE_COUNTER;
+        static {
+            try {
+                WRITE_COUNTER = U.objectFieldOffset
+                    (ReadBuffer.class.getDeclaredField("writeCounter"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /* ---------------- Frequency sketch -------------- */
+
+    /**
+     * A count-min sketch of popularity with four 4-bit counters per key,
+     * all held in the same long so that an update touches one cache
+     * line.  After {@code sampleSize} increments every counter is
+     * halved.
+     */
+    static final class FrequencySketch {
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        final long[] table;
+        final int tableMask;
+        final int sampleSize;
+        int size;
+
+        FrequencySketch(long maximum) {
+            int n = (int)Math.min(Math.max(maximum, 16L), 1L << 24);
+            n = Integer.highestOneBit(n - 1) << 1;
+            table = new long[n];
+            tableMask = n - 1;
+            sampleSize = 10 * n;
+        }
+
+        static int spread(int h) {
+            h = ((h >>> 16) ^ h) * 0x45d9f3b;
+            h = ((h >>> 16) ^ h) * 0x45d9f3b;
+            return (h >>> 16) ^ h;
+        }
+
+        int indexOf(int h, int depth) {
+            long x = (h + SEEDS[depth]) * SEEDS[depth];
+            x += (x >>> 32);
+            return ((int)x) & tableMask;
+        }
+
+        int frequency(Object key) {
+            int h = spread(key.hashCode());
+            int start = (h & 3) << 2, freq = 15;
+            for (int i = 0; i < 4; ++i) {
+                int c = (int)((table[indexOf(h, i)] >>> ((start + i) << 2)) & 0xfL);
+                freq = Math.min(freq, c);
+            }
+            return freq;
+        }
+
+        void increment(Object key) {
+            int h = spread(key.hashCode());
+            int start = (h & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; ++i) {
+                int j = indexOf(h, i), offset = (start + i) << 2;
+                long mask = 0xfL << offset;
+                if ((table[j] & mask) != mask) {
+                    table[j] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++size == sampleSize) {
+                for (int i = 0; i < table.length; ++i)
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                size >>>= 1;
+            }
+        }
+    }
+
+    /* ---------------- Fields -------------- */
+
+    final ConcurrentHashMap<K,Node<K,V>> data;
+    final ReentrantLock evictionLock = new ReentrantLock();
+    final ConcurrentLinkedQueue<Node<K,V>> writeBuffer =
+        new ConcurrentLinkedQueue<Node<K,V>>();
+    final ReadBuffer[] readBuffers;
+
+    final ToIntBiFunction<? super K, ? super V> weigher;
+    final long maximum;              // Long.MAX_VALUE if unbounded
+    final long expireAfterWriteNanos;  // 0 if disabled
+    final long expireAfterAccessNanos; // 0 if disabled
+
+    // policy state, guarded by evictionLock
+    final FrequencySketch sketch;    // null if unbounded
+    final AccessDeque<K,V> window = new AccessDeque<K,V>();
+    final AccessDeque<K,V> probation = new AccessDeque<K,V>();
+    final AccessDeque<K,V> protectedQ = new AccessDeque<K,V>();
+    final WriteDeque<K,V> writeOrder = new WriteDeque<K,V>();
+    final long windowMaximum;
+    final long protectedMaximum;
+    long weightedSize;
+
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+    final LongAdder evictionWeight = new LongAdder();
+
+    BoundedConcurrentCache(Builder<K,V> b) {
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(b.initialCapacity);
+        this.weigher = b.weigher;
+        this.maximum = (b.maximumWeight >= 0L) ? b.maximumWeight :
+            (b.maximumSize >= 0L) ? b.maximumSize : Long.MAX_VALUE;
+        this.expireAfterWriteNanos = b.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = b.expireAfterAccessNanos;
+        if (maximum == Long.MAX_VALUE) {
+            sketch = null;
+            windowMaximum = protectedMaximum = Long.MAX_VALUE;
+        }
+        else {
+            sketch = new FrequencySketch(maximum);
+            long w = Math.min(maximum, Math.max(1L, (long)(maximum * WINDOW_PERCENT)));
+            windowMaximum = w;
+            protectedMaximum = (long)((maximum - w) * PROTECTED_PERCENT);
+        }
+        int n = 1;
+        while (n < NCPU && n < MAX_READ_BUFFERS)
+            n <<= 1;
+        ReadBuffer[] rb = new ReadBuffer[n];
+        for (int i = 0; i < n; ++i)
+            rb[i] = new ReadBuffer();
+        readBuffers = rb;
+    }
+
+    /**
+     * Configures and creates {@link BoundedConcurrentCache} instances.
+     * At least one bound (size, weight or expiration) is normally set; a
+     * cache without any bound behaves like a {@code ConcurrentHashMap}
+     * that keeps statistics.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    public static final class Builder<K,V> {
+        int initialCapacity = 16;
+        long maximumSize = -1L;
+        long maximumWeight = -1L;
+        ToIntBiFunction<? super K, ? super V> weigher;
+        long expireAfterWriteNanos;
+        long expireAfterAccessNanos;
+
+        /** Creates a builder with no bounds. */
+        public Builder() {}
+
+        /**
+         * Sets the initial capacity of the underlying map.
+         *
+         * @param initialCapacity the initial capacity
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         */
+        public Builder<K,V> initialCapacity(int initialCapacity) {
+            if (initialCapacity < 0)
+                throw new IllegalArgumentException();
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Bounds the cache to the given number of entries.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         * @throws IllegalStateException if a weight bound is already set
+         */
+        public Builder<K,V> maximumSize(long maximumSize) {
+            if (maximumSize < 0L)
+                throw new IllegalArgumentException();
+            if (maximumWeight >= 0L)
+                throw new IllegalStateException("maximumWeight already set");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Bounds the cache to the given total weight of entries, as
+         * computed by the {@link #weigher}.
+         *
+         * @param maximumWeight the maximum total weight
+         * @return this builder
+         * @throws IllegalArgumentException if negative
+         * @throws IllegalStateException if a size bound is already set
+         */
+        public Builder<K,V> maximumWeight(long maximumWeight) {
+            if (maximumWeight < 0L)
+                throw new IllegalArgumentException();
+            if (maximumSize >= 0L)
+                throw new IllegalStateException("maximumSize already set");
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * Sets the function that computes the weight of an entry.  It is
+         * called when an entry is inserted or its value replaced, and
+         * must return a non-negative value.
+         *
+         * @param weigher the weigher
+         * @return this builder
+         */
+        public Builder<K,V> weigher(ToIntBiFunction<? super K, ? super V> weigher) {
+            if (weigher == null)
+                throw new NullPointerException();
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Expires each entry the given time after it was created or its
+         * value last replaced.
+         *
+         * @param duration the time to live
+         * @param unit the unit of {@code duration}
+         * @return this builder
+         * @throws IllegalArgumentException if not positive
+         */
+        public Builder<K,V> expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration <= 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Expires each entry the given time after it was last read or
+         * written.
+         *
+         * @param duration the idle time
+         * @param unit the unit of {@code duration}
+         * @return this builder
+         * @throws IllegalArgumentException if not positive
+         */
+        public Builder<K,V> expireAfterAccess(long duration, TimeUnit unit) {
+            if (duration <= 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Returns a new, empty cache with this builder's settings.
+         *
+         * @param <K1> the key type of the cache
+         * @param <V1> the value type of the cache
+         * @return the cache
+         * @throws IllegalStateException if a weigher was set without a
+         *         weight bound, or a weight bound without a weigher
+         */
+        @SuppressWarnings("unchecked")
+        public <K1 extends K, V1 extends V> BoundedConcurrentCache<K1,V1> build() {
+            if ((weigher != null) != (maximumWeight >= 0L))
+                throw new IllegalStateException("weigher requires maximumWeight");
+            return new BoundedConcurrentCache<K1,V1>((Builder<K1,V1>)this);
+        }
+    }
+
+    /* ---------------- Helpers -------------- */
+
+    static long now() {
+        return System.nanoTime();
+    }
+
+    final int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0)
+            throw new IllegalArgumentException("Negative weight: " + w);
+        return w;
+    }
+
+    final boolean hasExpired(Node<K,V> n, long now) {
+        return (expireAfterAccessNanos > 0L &&
+                now - n.accessTime >= expireAfterAccessNanos) ||
+               (expireAfterWriteNanos > 0L &&
+                now - n.writeTime >= expireAfterWriteNanos);
+    }
+
+    /**
+     * Records a read of {@code n} in this thread's read buffer, and runs
+     * maintenance if the buffer filled up.
+     */
+    final void afterRead(Node<K,V> n, long now) {
+        if (expireAfterAccessNanos > 0L)
+            n.accessTime = now;
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit(); // force initialization
+            h = ThreadLocalRandom.getProbe();
+        }
+        int r = readBuffers[h & (readBuffers.length - 1)].offer(n);
+        if (r == OFFER_FAILED)
+            ThreadLocalRandom.advanceProbe(h);
+        else if (r == OFFER_FULL)
+            tryMaintenance();
+    }
+
+    /**
+     * Queues a node whose membership or weight changed, then runs
+     * maintenance if the policy lock is free.
+     */
+    final void afterWrite(Node<K,V> n) {
+        writeBuffer.offer(n);
+        tryMaintenance();
+    }
+
+    /**
+     * Runs maintenance unless another thread is already doing so.  The
+     * queue is rechecked after unlocking so that writes queued during a
+     * pass are not left behind.
+     */
+    final void tryMaintenance() {
+        final ReentrantLock lock = evictionLock;
+        do {
+            if (!lock.tryLock())
+                return;
+            try {
+                maintenance();
+            } finally {
+                lock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    /**
+     * Replays buffered reads and writes, then expires and evicts.
+     * Called with the policy lock held.
+     */
+    final void maintenance() {
+        for (ReadBuffer b : readBuffers)
+            b.drainTo(this);
+        Node<K,V> n;
+        for (int i = 0; i < WRITE_BUFFER_DRAIN && (n = writeBuffer.poll()) != null; ++i)
+            onWrite(n);
+        expireEntries();
+        evictEntries();
+    }
+
+    /* ---------------- Policy (under evictionLock) -------------- */
+
+    final AccessDeque<K,V> queueOf(Node<K,V> n) {
+        switch (n.queue) {
+        case WINDOW:    return window;
+        case PROBATION: return probation;
+        default:        return protectedQ;
+        }
+    }
+
+    /**
+     * Applies a queued write: links a new node into the window, adjusts
+     * the weight of a replaced value, or unlinks a removed node.
+     */
+    final void onWrite(Node<K,V> n) {
+        if (n.dead) {
+            if (n.queue != NONE)
+                unlinkNode(n);
+            return;
+        }
+        int w = n.weight;
+        if (n.queue == NONE) {
+            n.queue = WINDOW;
+            n.policyWeight = w;
+            window.addLast(n);
+            window.weight += w;
+            weightedSize += w;
+            if (expireAfterWriteNanos > 0L)
+                writeOrder.addLast(n);
+            if (sketch != null)
+                sketch.increment(n.key);
+            return;
+        }
+        int delta = w - n.policyWeight;
+        n.policyWeight = w;
+        queueOf(n).weight += delta;
+        weightedSize += delta;
+        if (expireAfterWriteNanos > 0L) {
+            writeOrder.unlink(n);
+            writeOrder.addLast(n);
+        }
+        onAccess(n);
+    }
+
+    /**
+     * Applies a recorded read: bumps the frequency estimate and updates
+     * recency.  A read in probation promotes the node to protected,
+     * demoting the least recently used protected node if needed.
+     */
+    final void onAccess(Node<K,V> n) {
+        if (n.queue == NONE || n.dead)
+            return;
+        if (sketch != null)
+            sketch.increment(n.key);
+        switch (n.queue) {
+        case WINDOW:
+            window.moveToBack(n);
+            break;
+        case PROBATION:
+            probation.unlink(n);
+            probation.weight -= n.policyWeight;
+            n.queue = PROTECTED;
+            protectedQ.addLast(n);
+            protectedQ.weight += n.policyWeight;
+            Node<K,V> d;
+            while (protectedQ.weight > protectedMaximum &&
+                   (d = protectedQ.head) != null && d != n) {
+                protectedQ.unlink(d);
+                protectedQ.weight -= d.policyWeight;
+                d.queue = PROBATION;
+                probation.addLast(d);
+                probation.weight += d.policyWeight;
+            }
+            break;
+        default:
+            protectedQ.moveToBack(n);
+            break;
+        }
+    }
+
+    final void unlinkNode(Node<K,V> n) {
+        AccessDeque<K,V> q = queueOf(n);
+        q.unlink(n);
+        q.weight -= n.policyWeight;
+        weightedSize -= n.policyWeight;
+        if (expireAfterWriteNanos > 0L)
+            writeOrder.unlink(n);
+        n.queue = NONE;
+    }
+
+    /**
+     * Removes {@code n} from the map if it is still the mapping of its
+     * key, and from the policy.
+     */
+    final void evict(Node<K,V> n) {
+        boolean[] removed = new boolean[1];
+        data.computeIfPresent(n.key, (k, cur) -> {
+            if (cur != n)
+                return cur;
+            n.dead = true;
+            removed[0] = true;
+            return null;
+        });
+        unlinkNode(n);
+        if (removed[0]) {
+            evictionCount.increment();
+            evictionWeight.add(n.policyWeight);
+        }
+    }
+
+    final void expireEntries() {
+        if (expireAfterAccessNanos <= 0L && expireAfterWriteNanos <= 0L)
+            return;
+        long now = now();
+        if (expireAfterAccessNanos > 0L) {
+            expireQueue(window, now);
+            expireQueue(probation, now);
+            expireQueue(protectedQ, now);
+        }
+        if (expireAfterWriteNanos > 0L) {
+            Node<K,V> n;
+            while ((n = writeOrder.head) != null &&
+                   now - n.writeTime >= expireAfterWriteNanos)
+                evict(n);
+        }
+    }
+
+    private void expireQueue(AccessDeque<K,V> q, long now) {
+        Node<K,V> n;
+        while ((n = q.head) != null &&
+               now - n.accessTime >= expireAfterAccessNanos)
+            evict(n);
+    }
+
+    /**
+     * Moves overflow from the window into probation, then evicts from
+     * the main space until the bound holds.  The candidate (the newest
+     * probation entry, just out of the window) is compared against the
+     * victim (the oldest probation entry), and the less frequently used
+     * of the two is evicted.
+     */
+    final void evictEntries() {
+        if (sketch == null)
+            return;
+        Node<K,V> n;
+        while (window.weight > windowMaximum && (n = window.head) != null) {
+            window.unlink(n);
+            window.weight -= n.policyWeight;
+            n.queue = PROBATION;
+            probation.addLast(n);
+            probation.weight += n.policyWeight;
+        }
+        while (weightedSize > maximum) {
+            Node<K,V> victim = probation.head, candidate = probation.tail;
+            if (victim == null) {
+                if ((victim = protectedQ.head) == null &&
+                    (victim = window.head) == null)
+                    break;
+                evict(victim);
+            }
+            else if (victim == candidate)
+                evict(victim);
+            else if (candidate.policyWeight > maximum)
+                evict(candidate);
+            else if (sketch.frequency(candidate.key) > sketch.frequency(victim.key))
+                evict(victim);
+            else
+                evict(candidate);
+        }
+    }
+
+    /* ---------------- Map operations -------------- */
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this cache contains no unexpired mapping for the
+     * key.  Records a hit or a miss.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        Node<K,V> n = data.get(key);
+        long now;
+        if (n == null || hasExpired(n, now = now())) {
+            missCount.increment();
+            if (n != null)
+                tryMaintenance();
+            return null;
+        }
+        V v = n.value;
+        hitCount.increment();
+        afterRead(n, now);
+        return v;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        Node<K,V> n = data.get(key);
+        return n != null && !hasExpired(n, now());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        long now = now();
+        for (Node<K,V> n : data.values()) {
+            if (value.equals(n.value) && !hasExpired(n, now))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Associates the value with the key, replacing and returning any
+     * previous value.  The entry counts as both written and read.
+     *
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int w = weigh(key, value);
+        long now = now();
+        @SuppressWarnings("unchecked")
+        Object[] result = new Object[2];  // old value, changed node
+        data.compute(key, (k, n) -> {
+            if (n == null || hasExpired(n, now)) {
+                if (n != null)
+                    n.dead = true;  // replaced by a fresh node
+                Node<K,V> f = new Node<K,V>(k, value, w, now);
+                result[1] = (n == null) ? f : new Object[] { n, f };
+                return f;
+            }
+            result[0] = n.value;
+            if (!onlyIfAbsent) {
+                n.value = value;
+                n.weight = w;
+                n.writeTime = n.accessTime = now;
+                result[1] = n;
+            }
+            return n;
+        });
+        afterCompute(result[1], now);
+        @SuppressWarnings("unchecked") V old = (V)result[0];
+        return old;
+    }
+
+    /**
+     * Queues the nodes changed by a compute: a single node, or a pair
+     * of an expired node and its replacement.
+     */
+    @SuppressWarnings("unchecked")
+    final void afterCompute(Object changed, long now) {
+        if (changed instanceof Node)
+            afterWrite((Node<K,V>)changed);
+        else if (changed != null) {
+            Object[] pair = (Object[])changed;
+            writeBuffer.offer((Node<K,V>)pair[0]);
+            afterWrite((Node<K,V>)pair[1]);
+        }
+    }
+
+    /**
+     * Returns the value for the key, computing and inserting it with
+     * {@code mappingFunction} if absent or expired.  The function is
+     * invoked at most once per call, atomically, as by
+     * {@link ConcurrentHashMap#computeIfAbsent}.
+     *
+     * @throws NullPointerException if the specified key or mappingFunction
+     *         is null
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        long now = now();
+        Node<K,V> n = data.get(key);
+        if (n != null && !hasExpired(n, now)) {
+            hitCount.increment();
+            afterRead(n, now);
+            return n.value;
+        }
+        Object[] result = new Object[2];  // value, changed node
+        data.compute(key, (k, cur) -> {
+            if (cur != null && !hasExpired(cur, now)) {
+                result[0] = cur.value;
+                return cur;
+            }
+            V v = mappingFunction.apply(k);
+            if (v == null) {
+                if (cur != null) {
+                    cur.dead = true;
+                    result[1] = cur;
+                }
+                return null;
+            }
+            if (cur != null)
+                cur.dead = true;
+            Node<K,V> f = new Node<K,V>(k, v, weigh(k, v), now);
+            result[0] = v;
+            result[1] = (cur == null) ? f : new Object[] { cur, f };
+            return f;
+        });
+        if (result[1] == null && result[0] != null)
+            hitCount.increment();
+        else
+            missCount.increment();
+        afterCompute(result[1], now);
+        @SuppressWarnings("unchecked") V v = (V)result[0];
+        return v;
+    }
+
+    /**
+     * Implementation for the four public remove/replace methods:
+     * replaces the value with {@code value}, or removes the mapping if
+     * {@code value} is null, conditionally upon a match of the current
+     * value against {@code cv} if non-null.
+     */
+    final V replaceNode(Object key, V value, Object cv) {
+        if (key == null)
+            throw new NullPointerException();
+        @SuppressWarnings("unchecked") K k0 = (K)key;
+        int w = (value == null) ? 0 : weigh(k0, value);
+        long now = now();
+        Object[] result = new Object[2];  // old value, changed node
+        data.computeIfPresent(k0, (k, n) -> {
+            boolean expired = hasExpired(n, now);
+            if (!expired && cv != null && !cv.equals(n.value))
+                return n;
+            result[1] = n;
+            if (expired || value == null) {
+                if (!expired)
+                    result[0] = n.value;
+                n.dead = true;
+                return null;
+            }
+            result[0] = n.value;
+            n.value = value;
+            n.weight = w;
+            n.writeTime = n.accessTime = now;
+            return n;
+        });
+        afterCompute(result[1], now);
+        @SuppressWarnings("unchecked") V old = (V)result[0];
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        return replaceNode(key, null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && replaceNode(key, null, value) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return replaceNode(key, newValue, oldValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        return replaceNode(key, value, null);
+    }
+
+    /**
+     * Returns the number of mappings, which may briefly include entries
+     * beyond the bound or past their expiration until the next
+     * maintenance.
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * Returns the number of mappings, as a long; see {@link #size}.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        return data.mappingCount();
+    }
+
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * Removes all of the mappings from this cache.  Removals are not
+     * counted as evictions.
+     */
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance();
+            for (Node<K,V> n : data.values()) {
+                data.computeIfPresent(n.key, (k, cur) -> {
+                    if (cur != n)
+                        return cur;
+                    n.dead = true;
+                    return null;
+                });
+                if (n.queue != NONE)
+                    unlinkNode(n);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Performs any pending maintenance: replays buffered reads and
+     * writes, removes expired entries, and evicts down to the bound.
+     * Waits for the policy lock if another thread holds it.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            Node<K,V> n;
+            maintenance();
+            while ((n = writeBuffer.poll()) != null)
+                onWrite(n);
+            evictEntries();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total weight of the entries known to the policy, which
+     * equals the entry count for a cache without a weigher.
+     *
+     * @return the weighted size
+     */
+    public long weightedSize() {
+        evictionLock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /* ---------------- Statistics -------------- */
+
+    /**
+     * Returns a snapshot of this cache's cumulative statistics.  Reading
+     * the counters takes no lock.
+     *
+     * @return the current statistics
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(),
+                         evictionCount.sum(), evictionWeight.sum());
+    }
+
+    /**
+     * Immutable snapshot of cache statistics.  A hit is a lookup that
+     * found an unexpired entry; {@code computeIfAbsent} counts a miss
+     * when it computes a value.
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long evictionWeight;
+
+        Stats(long hitCount, long missCount, long evictionCount, long evictionWeight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.evictionWeight = evictionWeight;
+        }
+
+        /** @return the number of lookups that found an entry */
+        public long hitCount()       { return hitCount; }
+        /** @return the number of lookups that found no entry */
+        public long missCount()      { return missCount; }
+        /** @return the number of entries evicted by size, weight or age */
+        public long evictionCount()  { return evictionCount; }
+        /** @return the total weight of evicted entries */
+        public long evictionWeight() { return evictionWeight; }
+
+        /**
+         * Returns the ratio of hits to lookups, or {@code 1.0} if there
+         * were no lookups.
+         *
+         * @return the hit rate
+         */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return (requests == 0L) ? 1.0 : (double)hitCount / requests;
+        }
+
+        public String toString() {
+            return "Stats[hits=" + hitCount + ", misses=" + missCount +
+                ", evictions=" + evictionCount + ", evictionWeight=" +
+                evictionWeight + "]";
+        }
+    }
+
+    /* ---------------- Views -------------- */
+
+    private transient Set<Map.Entry<K,V>> entrySet;
+
+    /**
+     * Returns a {@link Set} view of the unexpired mappings.  The view's
+     * iterators are weakly consistent and do not affect recency or
+     * statistics.
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySet());
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public int size()        { return BoundedConcurrentCache.this.size(); }
+        public void clear()      { BoundedConcurrentCache.this.clear(); }
+        public Iterator<Map.Entry<K,V>> iterator() { return new EntryIterator(); }
+        public boolean contains(Object o) {
+            Object k, v; Map.Entry<?,?> e; Node<K,V> n;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (n = data.get(k)) != null &&
+                    !hasExpired(n, now()) && v.equals(n.value));
+        }
+        public boolean remove(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    BoundedConcurrentCache.this.remove(k, v));
+        }
+    }
+
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        final Iterator<Node<K,V>> it = data.values().iterator();
+        final long now = now();
+        Map.Entry<K,V> next, lastReturned;
+
+        EntryIterator() { advance(); }
+
+        private void advance() {
+            next = null;
+            while (it.hasNext()) {
+                Node<K,V> n = it.next();
+                V v = n.value;
+                if (!hasExpired(n, now)) {
+                    next = new WriteThroughEntry(n.key, v);
+                    return;
+                }
+            }
+        }
+
+        public boolean hasNext() { return next != null; }
+
+        public Map.Entry<K,V> next() {
+            Map.Entry<K,V> e = next;
+            if (e == null)
+                throw new NoSuchElementException();
+            lastReturned = e;
+            advance();
+            return e;
+        }
+
+        public void remove() {
+            Map.Entry<K,V> e = lastReturned;
+            if (e == null)
+                throw new IllegalStateException();
+            lastReturned = null;
+            BoundedConcurrentCache.this.remove(e.getKey(), e.getValue());
+        }
+    }
+
+    final class WriteThroughEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = 3194563489209814563L;
+        WriteThroughEntry(K k, V v) { super(k, v); }
+        public V setValue(V value) {
+            if (value == null) throw new NullPointerException();
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long RBASE;
+    private static final int RSHIFT;
+
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> ak = Object[].class;
+            RBASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            RSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
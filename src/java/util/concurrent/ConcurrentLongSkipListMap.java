@@ -0,0 +1,1691 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * A scalable concurrent sorted map from primitive {@code long} keys to
+ * values, modeled on {@link ConcurrentSkipListMap} but storing the keys
+ * unboxed.  A {@code ConcurrentSkipListMap<Long,V>} holds a boxed
+ * {@code Long} per key and compares keys through
+ * {@link Long#compareTo}; this class keeps the key in the node itself
+ * and compares with primitive operators, so that lookups never allocate
+ * and each mapping costs one object less.
+ *
+ * <p>As in {@code ConcurrentSkipListMap}, the {@code containsKey},
+ * {@code get}, {@code put} and {@code remove} operations take expected
+ * average <i>log(n)</i> time, and may be performed concurrently by
+ * multiple threads.  Keys are ordered by their signed numeric value.
+ * Iteration, {@link #forEach(EntryConsumer) forEach} and {@link #size}
+ * are weakly consistent, and {@code size} is not a constant-time
+ * operation.
+ *
+ * <p>The range-batch operations of {@code ConcurrentSkipListMap} are
+ * provided too.  {@link #putAll} of another such map links each run of
+ * keys that falls between two existing keys with a single
+ * compare-and-set and indexes it in one pass; {@link #removeRange}
+ * removes a range in a single sweep; and {@link #rangeSnapshot} returns
+ * a copy of a range, read repeatedly until two reads agree.
+ *
+ * <p>Relational queries such as {@link #floorEntry} return
+ * {@link Entry} snapshots of the mappings at the time they were
+ * produced.  Like most other concurrent collections, this class does
+ * not permit the use of {@code null} values.
+ *
+ * @param <V> the type of mapped values
+ * @see ConcurrentSkipListMap
+ * @since 1.8
+ */
+public class ConcurrentLongSkipListMap<V> {
+
+    /*
+     * The algorithm is that of ConcurrentSkipListMap, which see: a
+     * base-level linked list of nodes, deleted by nulling the value,
+     * appending a marker node and unlinking, with index levels above
+     * it whose heights are chosen at random on insertion.  Keys are
+     * compared with primitive operators instead of a comparator, and
+     * since no key is ever null, ranges are always bounded.
+     */
+
+    /**
+     * Special value used to identify base-level header.
+     */
+    private static final Object BASE_HEADER = new Object();
+
+    /**
+     * The topmost head index of the skiplist.
+     */
+    private transient volatile HeadIndex<V> head;
+
+    /**
+     * Creates a new, empty map.
+     */
+    public ConcurrentLongSkipListMap() {
+        head = new HeadIndex<V>(new Node<V>(0L, BASE_HEADER, null), null, null, 1);
+    }
+
+    /**
+     * Creates a new map containing the same mappings as the given map.
+     *
+     * @param m the map whose mappings are to be placed in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public ConcurrentLongSkipListMap(ConcurrentLongSkipListMap<? extends V> m) {
+        this();
+        putAll(m);
+    }
+
+    private boolean casHead(HeadIndex<V> cmp, HeadIndex<V> val) {
+        return UNSAFE.compareAndSwapObject(this, headOffset, cmp, val);
+    }
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * A base-level node.  The value is an Object rather than V so that
+     * markers (value == this) and the header (value == BASE_HEADER)
+     * can be told apart.
+     */
+    static final class Node<V> {
+        final long key;
+        volatile Object value;
+        volatile Node<V> next;
+
+        Node(long key, Object value, Node<V> next) {
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        /**
+         * Creates a new marker node.
+         */
+        Node(Node<V> next) {
+            this.key = 0L;
+            this.value = this;
+            this.next = next;
+        }
+
+        boolean casValue(Object cmp, Object val) {
+            return UNSAFE.compareAndSwapObject(this, valueOffset, cmp, val);
+        }
+
+        boolean casNext(Node<V> cmp, Node<V> val) {
+            return UNSAFE.compareAndSwapObject(this, nextOffset, cmp, val);
+        }
+
+        boolean isBaseHeader() {
+            return value == BASE_HEADER;
+        }
+
+        /**
+         * Tries to append a deletion marker to this node.
+         */
+        boolean appendMarker(Node<V> f) {
+            return casNext(f, new Node<V>(f));
+        }
+
+        /**
+         * Helps out a deletion by appending a marker or unlinking from
+         * predecessor b, given that this node's value is null.
+         */
+        void helpDelete(Node<V> b, Node<V> f) {
+            if (f == next && this == b.next) {
+                if (f == null || f.value != f) // not already marked
+                    casNext(f, new Node<V>(f));
+                else
+                    b.casNext(this, f.next);
+            }
+        }
+
+        /**
+         * Returns the value if this node holds a valid mapping, else null.
+         */
+        V getValidValue() {
+            Object v = value;
+            if (v == this || v == BASE_HEADER)
+                return null;
+            @SuppressWarnings("unchecked") V vv = (V)v;
+            return vv;
+        }
+
+        /**
+         * Returns an entry holding the current mapping if this node holds
+         * a valid value, else null.
+         */
+        Entry<V> createSnapshot() {
+            Object v = value;
+            if (v == null || v == this || v == BASE_HEADER)
+                return null;
+            @SuppressWarnings("unchecked") V vv = (V)v;
+            return new Entry<V>(key, vv);
+        }
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe UNSAFE;
+        private static final long valueOffset;
+        private static final long nextOffset;
+        static {
+            try {
+                UNSAFE = sun.misc.Unsafe.getUnsafe();
+                Class<?> k = Node.class;
+                valueOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("value"));
+                nextOffset = UNSAFE.objectFieldOffset(k.getDeclaredField("next"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /* ---------------- Indexing -------------- */
+
+    static class Index<V> {
+        final Node<V> node;
+        final Index<V> down;
+        volatile Index<V> right;
+
+        Index(Node<V> node, Index<V> down, Index<V> right) {
+            this.node = node;
+            this.down = down;
+            this.right = right;
+        }
+
+        final boolean casRight(Index<V> cmp, Index<V> val) {
+            return UNSAFE.compareAndSwapObject(this, rightOffset, cmp, val);
+        }
+
+        final boolean indexesDeletedNode() {
+            return node.value == null;
+        }
+
+        /**
+         * Tries to CAS newSucc as successor, failing if this index's
+         * node is deleted.
+         */
+        final boolean link(Index<V> succ, Index<V> newSucc) {
+            Node<V> n = node;
+            newSucc.right = succ;
+            return n.value != null && casRight(succ, newSucc);
+        }
+
+        /**
+         * Tries to CAS right field to skip over apparent successor
+         * succ, failing if this index's node is deleted.
+         */
+        final boolean unlink(Index<V> succ) {
+            return node.value != null && casRight(succ, succ.right);
+        }
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe UNSAFE;
+        private static final long rightOffset;
+        static {
+            try {
+                UNSAFE = sun.misc.Unsafe.getUnsafe();
+                rightOffset = UNSAFE.objectFieldOffset
+                    (Index.class.getDeclaredField("right"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    static final class HeadIndex<V> extends Index<V> {
+        final int level;
+        HeadIndex(Node<V> node, Index<V> down, Index<V> right, int level) {
+            super(node, down, right);
+            this.level = level;
+        }
+    }
+
+    /* ---------------- Traversal -------------- */
+
+    /**
+     * Returns a base-level node with key strictly less than the given
+     * key, or the base-level header if there is no such node, unlinking
+     * indexes to deleted nodes found along the way.
+     */
+    private Node<V> findPredecessor(long key) {
+        for (;;) {
+            for (Index<V> q = head, r = q.right, d;;) {
+                if (r != null) {
+                    Node<V> n = r.node;
+                    if (n.value == null) {
+                        if (!q.unlink(r))
+                            break;           // restart
+                        r = q.right;         // reread r
+                        continue;
+                    }
+                    if (key > n.key) {
+                        q = r;
+                        r = r.right;
+                        continue;
+                    }
+                }
+                if ((d = q.down) == null)
+                    return q.node;
+                q = d;
+                r = d.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the node holding the key, or null if none, helping to
+     * delete the deleted nodes seen along the way.
+     */
+    private Node<V> findNode(long key) {
+        outer: for (;;) {
+            for (Node<V> b = findPredecessor(key), n = b.next;;) {
+                Object v;
+                if (n == null)
+                    break outer;
+                Node<V> f = n.next;
+                if (n != b.next)                // inconsistent read
+                    break;
+                if ((v = n.value) == null) {    // n is deleted
+                    n.helpDelete(b, f);
+                    break;
+                }
+                if (b.value == null || v == n)  // b is deleted
+                    break;
+                if (key == n.key)
+                    return n;
+                if (key < n.key)
+                    break outer;
+                b = n;
+                n = f;
+            }
+        }
+        return null;
+    }
+
+    private V doGet(long key) {
+        outer: for (;;) {
+            for (Node<V> b = findPredecessor(key), n = b.next;;) {
+                Object v;
+                if (n == null)
+                    break outer;
+                Node<V> f = n.next;
+                if (n != b.next)
+                    break;
+                if ((v = n.value) == null) {
+                    n.helpDelete(b, f);
+                    break;
+                }
+                if (b.value == null || v == n)
+                    break;
+                if (key == n.key) {
+                    @SuppressWarnings("unchecked") V vv = (V)v;
+                    return vv;
+                }
+                if (key < n.key)
+                    break outer;
+                b = n;
+                n = f;
+            }
+        }
+        return null;
+    }
+
+    /* ---------------- Insertion -------------- */
+
+    /**
+     * Inserts or, unless onlyIfAbsent, replaces the mapping of the key,
+     * and returns the old value, or null if newly inserted.
+     */
+    private V doPut(long key, V value, boolean onlyIfAbsent) {
+        Node<V> z;             // added node
+        outer: for (;;) {
+            for (Node<V> b = findPredecessor(key), n = b.next;;) {
+                if (n != null) {
+                    Object v;
+                    Node<V> f = n.next;
+                    if (n != b.next)               // inconsistent read
+                        break;
+                    if ((v = n.value) == null) {   // n is deleted
+                        n.helpDelete(b, f);
+                        break;
+                    }
+                    if (b.value == null || v == n) // b is deleted
+                        break;
+                    if (key > n.key) {
+                        b = n;
+                        n = f;
+                        continue;
+                    }
+                    if (key == n.key) {
+                        if (onlyIfAbsent || n.casValue(v, value)) {
+                            @SuppressWarnings("unchecked") V vv = (V)v;
+                            return vv;
+                        }
+                        break; // restart if lost race to replace value
+                    }
+                    // else key < n.key; insert before n
+                }
+                z = new Node<V>(key, value, n);
+                if (!b.casNext(n, z))
+                    break;         // restart if lost race to append to b
+                break outer;
+            }
+        }
+
+        int rnd = ThreadLocalRandom.nextSecondarySeed();
+        if ((rnd & 0x80000001) == 0) { // test highest and lowest bits
+            int level = 1, max;
+            while (((rnd >>>= 1) & 1) != 0)
+                ++level;
+            Index<V> idx = null;
+            HeadIndex<V> h = head;
+            if (level <= (max = h.level)) {
+                for (int i = 1; i <= level; ++i)
+                    idx = new Index<V>(z, idx, null);
+            }
+            else { // try to grow by one level
+                level = max + 1; // hold in array and later pick the one to use
+                @SuppressWarnings("unchecked")
+                Index<V>[] idxs = (Index<V>[])new Index<?>[level+1];
+                for (int i = 1; i <= level; ++i)
+                    idxs[i] = idx = new Index<V>(z, idx, null);
+                for (;;) {
+                    h = head;
+                    int oldLevel = h.level;
+                    if (level <= oldLevel) // lost race to add level
+                        break;
+                    HeadIndex<V> newh = h;
+                    Node<V> oldbase = h.node;
+                    for (int j = oldLevel+1; j <= level; ++j)
+                        newh = new HeadIndex<V>(oldbase, newh, idxs[j], j);
+                    if (casHead(h, newh)) {
+                        h = newh;
+                        idx = idxs[level = oldLevel];
+                        break;
+                    }
+                }
+            }
+            // find insertion points and splice in
+            splice: for (int insertionLevel = level;;) {
+                int j = h.level;
+                for (Index<V> q = h, r = q.right, t = idx;;) {
+                    if (q == null || t == null)
+                        break splice;
+                    if (r != null) {
+                        Node<V> n = r.node;
+                        if (n.value == null) {
+                            if (!q.unlink(r))
+                                break;
+                            r = q.right;
+                            continue;
+                        }
+                        if (key > n.key) {
+                            q = r;
+                            r = r.right;
+                            continue;
+                        }
+                    }
+                    if (j == insertionLevel) {
+                        if (!q.link(r, t))
+                            break; // restart
+                        if (t.node.value == null) {
+                            findNode(key);
+                            break splice;
+                        }
+                        if (--insertionLevel == 0)
+                            break splice;
+                    }
+                    if (--j >= insertionLevel && j < level)
+                        t = t.down;
+                    q = q.down;
+                    r = q.right;
+                }
+            }
+        }
+        return null;
+    }
+
+    /* ---------------- Deletion -------------- */
+
+    /**
+     * Removes the mapping of the key if its value equals the given
+     * value, or any value if that is null, and returns the old value,
+     * or null if there was no such mapping.
+     */
+    final V doRemove(long key, Object value) {
+        outer: for (;;) {
+            for (Node<V> b = findPredecessor(key), n = b.next;;) {
+                Object v;
+                if (n == null)
+                    break outer;
+                Node<V> f = n.next;
+                if (n != b.next)                    // inconsistent read
+                    break;
+                if ((v = n.value) == null) {        // n is deleted
+                    n.helpDelete(b, f);
+                    break;
+                }
+                if (b.value == null || v == n)      // b is deleted
+                    break;
+                if (key < n.key)
+                    break outer;
+                if (key > n.key) {
+                    b = n;
+                    n = f;
+                    continue;
+                }
+                if (value != null && !value.equals(v))
+                    break outer;
+                if (!n.casValue(v, null))
+                    break;
+                if (!n.appendMarker(f) || !b.casNext(n, f))
+                    findNode(key);                  // retry via findNode
+                else {
+                    findPredecessor(key);           // clean index
+                    if (head.right == null)
+                        tryReduceLevel();
+                }
+                @SuppressWarnings("unchecked") V vv = (V)v;
+                return vv;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Possibly reduces the head level if it has no nodes, as
+     * ConcurrentSkipListMap does: only if the topmost three levels look
+     * empty, backing out if the removed level looks non-empty after.
+     */
+    private void tryReduceLevel() {
+        HeadIndex<V> h = head;
+        HeadIndex<V> d;
+        HeadIndex<V> e;
+        if (h.level > 3 &&
+            (d = (HeadIndex<V>)h.down) != null &&
+            (e = (HeadIndex<V>)d.down) != null &&
+            e.right == null &&
+            d.right == null &&
+            h.right == null &&
+            casHead(h, d) && // try to set
+            h.right != null) // recheck
+            casHead(d, h);   // try to backout
+    }
+
+    /* ---------------- Range operations -------------- */
+
+    /**
+     * Ascending traversal of the mappings of a map, for doPutAllSorted.
+     */
+    static final class Cursor {
+        private Node<?> next;
+        long key;
+        Object value;
+
+        Cursor(ConcurrentLongSkipListMap<?> m) {
+            next = m.head.node.next;
+        }
+
+        /** Moves to the next mapping, returning false if there is none. */
+        boolean advance() {
+            for (Node<?> n = next; n != null; n = n.next) {
+                Object v = n.value;
+                if (v != null && v != n && v != BASE_HEADER) {
+                    key = n.key;
+                    value = v;
+                    next = n.next;
+                    return true;
+                }
+            }
+            next = null;
+            return false;
+        }
+    }
+
+    /**
+     * Inserts the mappings of a map in ascending order.  Each time the
+     * next key is located in the gap b < key < n, all of the following
+     * keys that also fall into that gap are chained privately and
+     * linked after b with one CAS, then indexed in one pass.
+     */
+    private void doPutAllSorted(ConcurrentLongSkipListMap<? extends V> m) {
+        Cursor e = new Cursor(m);
+        if (!e.advance())
+            return;
+        for (;;) {
+            long key = e.key;
+            Object value = e.value;
+            outer: for (;;) {
+                for (Node<V> b = findPredecessor(key), n = b.next;;) {
+                    if (n != null) {
+                        Object v;
+                        Node<V> f = n.next;
+                        if (n != b.next)
+                            break;
+                        if ((v = n.value) == null) {
+                            n.helpDelete(b, f);
+                            break;
+                        }
+                        if (b.value == null || v == n)
+                            break;
+                        if (key > n.key) {
+                            b = n;
+                            n = f;
+                            continue;
+                        }
+                        if (key == n.key) {
+                            // replace, then go on looking from n
+                            if (!n.casValue(v, value))
+                                break;
+                            if (!e.advance())
+                                return;
+                            key = e.key;
+                            value = e.value;
+                            b = n;
+                            n = f;
+                            continue;
+                        }
+                    }
+                    // b < key < n: chain every following key below n
+                    Node<V> first = new Node<V>(key, value, null), last = first;
+                    int count = 1;
+                    boolean more;
+                    while ((more = e.advance()) && (n == null || e.key < n.key)) {
+                        Node<V> z = new Node<V>(e.key, e.value, null);
+                        last.next = z;
+                        last = z;
+                        ++count;
+                    }
+                    last.next = n;
+                    if (b.casNext(n, first))
+                        buildIndexes(first, count);
+                    else {
+                        // b changed under us, which is rare; fall back
+                        Node<V> z = first;
+                        for (int i = 0; i < count; ++i, z = z.next) {
+                            @SuppressWarnings("unchecked") V zv = (V)z.value;
+                            doPut(z.key, zv, false);
+                        }
+                    }
+                    if (!more)
+                        return;
+                    break outer;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes count consecutive nodes just linked from first on, as
+     * ConcurrentSkipListMap.buildIndexes does: levels follow from the
+     * nodes' positions rather than random draws, each level is chained
+     * privately and then spliced in with one CAS, bottom up, stopping
+     * at the first level that cannot be spliced.
+     */
+    private void buildIndexes(Node<V> first, int count) {
+        int phase = ThreadLocalRandom.nextSecondarySeed() & ((1 << 30) - 1);
+        @SuppressWarnings("unchecked")
+        Index<V>[] firsts = (Index<V>[])new Index<?>[32];
+        @SuppressWarnings("unchecked")
+        Index<V>[] lasts = (Index<V>[])new Index<?>[32];
+        int maxLevel = 0;
+        Node<V> z = first, lastNode = first;
+        for (int i = 0; i < count; ++i, z = z.next) {
+            lastNode = z;
+            int level = Integer.numberOfTrailingZeros(((i + phase) & ((1 << 30) - 1)) | (1 << 30)) - 1;
+            Index<V> idx = null;
+            for (int j = 1; j <= level; ++j) {
+                idx = new Index<V>(z, idx, null);
+                if (lasts[j] == null)
+                    firsts[j] = idx;
+                else
+                    lasts[j].right = idx;
+                lasts[j] = idx;
+            }
+            if (level > maxLevel)
+                maxLevel = level;
+        }
+        if (maxLevel == 0)
+            return;
+        long lo = first.key, hi = lastNode.key;
+
+        // preds[j] is the rightmost index of level j with key below lo
+        HeadIndex<V> h = head;
+        int top = h.level;
+        @SuppressWarnings("unchecked")
+        Index<V>[] preds = (Index<V>[])new Index<?>[top + 1];
+        for (Index<V> q = h, r = q.right;;) {
+            if (r != null) {
+                Node<V> n = r.node;
+                if (n.value == null) {
+                    if (!q.unlink(r))
+                        return;
+                    r = q.right;
+                    continue;
+                }
+                if (lo > n.key) {
+                    q = r;
+                    r = r.right;
+                    continue;
+                }
+            }
+            preds[top] = q;
+            if (--top == 0)
+                break;
+            q = q.down;
+            r = q.right;
+        }
+
+        // splice bottom up; the right of each pred must still lie past hi
+        int linked = 0;
+        for (int j = 1; j <= Math.min(maxLevel, h.level); ++j) {
+            Index<V> q = preds[j], r = q.right;
+            if (r != null && r.node.key <= hi)
+                break;
+            lasts[j].right = r;
+            if (q.node.value == null || !q.casRight(r, firsts[j]))
+                break;
+            linked = j;
+        }
+        // levels above the current height grow new heads
+        if (linked == h.level && maxLevel > h.level) {
+            HeadIndex<V> newh = h;
+            for (int j = h.level + 1; j <= maxLevel; ++j)
+                newh = new HeadIndex<V>(h.node, newh, firsts[j], j);
+            casHead(h, newh);
+        }
+    }
+
+    /**
+     * Removes the mappings with keys in the given range in one sweep,
+     * deleting each node as doRemove does, then clears their indexes
+     * once.  Returns the number of mappings removed.
+     */
+    final int doRemoveRange(long lo, boolean loInclusive, long hi, boolean hiInclusive) {
+        int removed = 0;
+        outer: for (;;) {
+            for (Node<V> b = findPredecessor(lo), n = b.next;;) {
+                Object v;
+                if (n == null)
+                    break outer;
+                Node<V> f = n.next;
+                if (n != b.next)
+                    break;
+                if ((v = n.value) == null) {
+                    n.helpDelete(b, f);
+                    break;
+                }
+                if (b.value == null || v == n)
+                    break;
+                long k = n.key;
+                if (k < lo || (k == lo && !loInclusive)) {
+                    b = n;
+                    n = f;
+                    continue;
+                }
+                if (k > hi || (k == hi && !hiInclusive))
+                    break outer;
+                if (!n.casValue(v, null))
+                    break;
+                ++removed;
+                // if unlinking fails, relocate, helping the deletion
+                if (!n.appendMarker(f) || !b.casNext(n, f))
+                    break;
+                n = f;
+            }
+        }
+        if (removed > 0) {
+            clearIndexRange(hi);
+            if (head.right == null)
+                tryReduceLevel();
+        }
+        return removed;
+    }
+
+    /**
+     * Unlinks the indexes to deleted nodes with keys up to hi.
+     */
+    private void clearIndexRange(long hi) {
+        restart: for (;;) {
+            for (Index<V> q = head, r = q.right, d;;) {
+                if (r != null) {
+                    Node<V> n = r.node;
+                    if (n.value == null) {
+                        if (!q.unlink(r))
+                            continue restart;
+                        r = q.right;
+                        continue;
+                    }
+                    if (n.key <= hi) {
+                        q = r;
+                        r = r.right;
+                        continue;
+                    }
+                }
+                if ((d = q.down) == null)
+                    return;
+                q = d;
+                r = d.right;
+            }
+        }
+    }
+
+    /**
+     * Collects the nodes in the given range together with their values
+     * at the time, alternately.
+     */
+    private ArrayList<Object> collectRange(long lo, boolean loInclusive,
+                                           long hi, boolean hiInclusive) {
+        ArrayList<Object> nodes = new ArrayList<Object>();
+        for (Node<V> n = findNear(lo, loInclusive ? (GT|EQ) : GT);
+             n != null; n = n.next) {
+            Object v = n.value;
+            if (v == null || v == n || v == BASE_HEADER)
+                continue;
+            if (n.key > hi || (n.key == hi && !hiInclusive))
+                break;
+            nodes.add(n);
+            nodes.add(v);
+        }
+        return nodes;
+    }
+
+    /* ---------------- First and last elements -------------- */
+
+    final Node<V> findFirst() {
+        for (Node<V> b, n;;) {
+            if ((n = (b = head.node).next) == null)
+                return null;
+            if (n.value != null)
+                return n;
+            n.helpDelete(b, n.next);
+        }
+    }
+
+    private Entry<V> doRemoveFirstEntry() {
+        for (Node<V> b, n;;) {
+            if ((n = (b = head.node).next) == null)
+                return null;
+            Node<V> f = n.next;
+            if (n != b.next)
+                continue;
+            Object v = n.value;
+            if (v == null) {
+                n.helpDelete(b, f);
+                continue;
+            }
+            if (!n.casValue(v, null))
+                continue;
+            if (!n.appendMarker(f) || !b.casNext(n, f))
+                findFirst(); // retry
+            clearIndexToFirst();
+            @SuppressWarnings("unchecked") V vv = (V)v;
+            return new Entry<V>(n.key, vv);
+        }
+    }
+
+    private void clearIndexToFirst() {
+        for (;;) {
+            for (Index<V> q = head;;) {
+                Index<V> r = q.right;
+                if (r != null && r.indexesDeletedNode() && !q.unlink(r))
+                    break;
+                if ((q = q.down) == null) {
+                    if (head.right == null)
+                        tryReduceLevel();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Entry<V> doRemoveLastEntry() {
+        for (;;) {
+            Node<V> b = findPredecessorOfLast();
+            Node<V> n = b.next;
+            if (n == null) {
+                if (b.isBaseHeader())               // empty
+                    return null;
+                else
+                    continue; // all b's successors are deleted; retry
+            }
+            for (;;) {
+                Node<V> f = n.next;
+                if (n != b.next)                    // inconsistent read
+                    break;
+                Object v = n.value;
+                if (v == null) {                    // n is deleted
+                    n.helpDelete(b, f);
+                    break;
+                }
+                if (b.value == null || v == n)      // b is deleted
+                    break;
+                if (f != null) {
+                    b = n;
+                    n = f;
+                    continue;
+                }
+                if (!n.casValue(v, null))
+                    break;
+                long key = n.key;
+                if (!n.appendMarker(f) || !b.casNext(n, f))
+                    findNode(key);                  // retry via findNode
+                else {                              // clean index
+                    findPredecessor(key);
+                    if (head.right == null)
+                        tryReduceLevel();
+                }
+                @SuppressWarnings("unchecked") V vv = (V)v;
+                return new Entry<V>(key, vv);
+            }
+        }
+    }
+
+    final Node<V> findLast() {
+        Index<V> q = head;
+        for (;;) {
+            Index<V> d, r;
+            if ((r = q.right) != null) {
+                if (r.indexesDeletedNode()) {
+                    q.unlink(r);
+                    q = head; // restart
+                }
+                else
+                    q = r;
+            } else if ((d = q.down) != null) {
+                q = d;
+            } else {
+                for (Node<V> b = q.node, n = b.next;;) {
+                    if (n == null)
+                        return b.isBaseHeader() ? null : b;
+                    Node<V> f = n.next;            // inconsistent read
+                    if (n != b.next)
+                        break;
+                    Object v = n.value;
+                    if (v == null) {                 // n is deleted
+                        n.helpDelete(b, f);
+                        break;
+                    }
+                    if (b.value == null || v == n)      // b is deleted
+                        break;
+                    b = n;
+                    n = f;
+                }
+                q = head; // restart
+            }
+        }
+    }
+
+    private Node<V> findPredecessorOfLast() {
+        for (;;) {
+            for (Index<V> q = head;;) {
+                Index<V> d, r;
+                if ((r = q.right) != null) {
+                    if (r.indexesDeletedNode()) {
+                        q.unlink(r);
+                        break;    // must restart
+                    }
+                    // proceed as far across as possible without overshooting
+                    if (r.node.next != null) {
+                        q = r;
+                        continue;
+                    }
+                }
+                if ((d = q.down) != null)
+                    q = d;
+                else
+                    return q.node;
+            }
+        }
+    }
+
+    /* ---------------- Relational operations -------------- */
+
+    // Control values OR'ed as arguments to findNear
+
+    private static final int EQ = 1;
+    private static final int LT = 2;
+    private static final int GT = 0; // Actually checked as !LT
+
+    /**
+     * Returns the nearest node to the key fitting the relation, an OR'ed
+     * combination of EQ, LT and GT, or null if none.
+     */
+    final Node<V> findNear(long key, int rel) {
+        for (;;) {
+            for (Node<V> b = findPredecessor(key), n = b.next;;) {
+                Object v;
+                if (n == null)
+                    return ((rel & LT) == 0 || b.isBaseHeader()) ? null : b;
+                Node<V> f = n.next;
+                if (n != b.next)                  // inconsistent read
+                    break;
+                if ((v = n.value) == null) {      // n is deleted
+                    n.helpDelete(b, f);
+                    break;
+                }
+                if (b.value == null || v == n)      // b is deleted
+                    break;
+                long k = n.key;
+                if ((key == k && (rel & EQ) != 0) ||
+                    (key <  k && (rel & LT) == 0))
+                    return n;
+                if ( key <= k && (rel & LT) != 0)
+                    return b.isBaseHeader() ? null : b;
+                b = n;
+                n = f;
+            }
+        }
+    }
+
+    final Entry<V> getNear(long key, int rel) {
+        for (;;) {
+            Node<V> n = findNear(key, rel);
+            if (n == null)
+                return null;
+            Entry<V> e = n.createSnapshot();
+            if (e != null)
+                return e;
+        }
+    }
+
+    /* ---------------- Map operations -------------- */
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        return doGet(key) != null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value mapped to the key, or {@code null} if none
+     */
+    public V get(long key) {
+        return doGet(key);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or the
+     * given default value if this map contains no mapping for the key.
+     *
+     * @param key the key
+     * @param defaultValue the value to return if this map contains
+     *        no mapping for the given key
+     * @return the mapping for the key, if present; else the default value
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        V v;
+        return (v = doGet(key)) == null ? defaultValue : v;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified value is null
+     */
+    public V put(long key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return doPut(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified value is null
+     */
+    public V putIfAbsent(long key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return doPut(key, value, true);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function
+     * and enters it into this map unless {@code null}.  The function
+     * is <em>NOT</em> guaranteed to be applied once atomically only
+     * if the value is not present.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mappingFunction is null
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v, p, r;
+        if ((v = doGet(key)) == null &&
+            (r = mappingFunction.apply(key)) != null)
+            v = (p = doPut(key, r, true)) == null ? r : p;
+        return v;
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this map,
+     * replacing the values of keys already present.  Since the source
+     * is sorted, each run of its keys that falls between two keys of
+     * this map is linked with a single compare-and-set and indexed in
+     * one pass, which is considerably cheaper than putting the keys
+     * one at a time.  Each mapping is inserted atomically, but the
+     * operation as a whole is not.
+     *
+     * @param m mappings to be stored in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public void putAll(ConcurrentLongSkipListMap<? extends V> m) {
+        doPutAllSorted(m);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key for which mapping should be removed
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     */
+    public V remove(long key) {
+        return doRemove(key, null);
+    }
+
+    /**
+     * Removes the entry for a key only if currently mapped to a given value.
+     *
+     * @param key key with which the specified value is associated
+     * @param value value expected to be associated with the specified key
+     * @return {@code true} if the value was removed
+     */
+    public boolean remove(long key, Object value) {
+        return value != null && doRemove(key, value) != null;
+    }
+
+    /**
+     * Replaces the entry for a key only if currently mapped to a given value.
+     *
+     * @param key key with which the specified value is associated
+     * @param oldValue value expected to be associated with the specified key
+     * @param newValue value to be associated with the specified key
+     * @return {@code true} if the value was replaced
+     * @throws NullPointerException if either value is null
+     */
+    public boolean replace(long key, V oldValue, V newValue) {
+        if (oldValue == null || newValue == null)
+            throw new NullPointerException();
+        for (;;) {
+            Node<V> n; Object v;
+            if ((n = findNode(key)) == null)
+                return false;
+            if ((v = n.value) != null) {
+                if (!oldValue.equals(v))
+                    return false;
+                if (n.casValue(v, newValue))
+                    return true;
+            }
+        }
+    }
+
+    /**
+     * Replaces the entry for a key only if currently mapped to some value.
+     *
+     * @param key key with which the specified value is associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified value is null
+     */
+    public V replace(long key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        for (;;) {
+            Node<V> n; Object v;
+            if ((n = findNode(key)) == null)
+                return null;
+            if ((v = n.value) != null && n.casValue(v, value)) {
+                @SuppressWarnings("unchecked") V vv = (V)v;
+                return vv;
+            }
+        }
+    }
+
+    /**
+     * Removes all of the mappings whose keys range from {@code fromKey}
+     * to {@code toKey}.  The range is located once and then removed in a
+     * single sweep, so this is considerably cheaper than removing each
+     * key separately.  Each mapping is removed atomically, but the
+     * operation as a whole is not: mappings inserted into the range
+     * concurrently may or may not be removed.
+     *
+     * @param fromKey low endpoint of the keys to remove
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be removed
+     * @param toKey high endpoint of the keys to remove
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be removed
+     * @return the number of mappings removed by this call
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     */
+    public int removeRange(long fromKey, boolean fromInclusive,
+                           long toKey, boolean toInclusive) {
+        if (fromKey > toKey)
+            throw new IllegalArgumentException("inconsistent range");
+        return doRemoveRange(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    /**
+     * Removes all of the mappings whose keys range from {@code fromKey},
+     * inclusive, to {@code toKey}, exclusive.
+     * Equivalent to {@code removeRange(fromKey, true, toKey, false)}.
+     *
+     * @param fromKey low endpoint (inclusive) of the keys to remove
+     * @param toKey high endpoint (exclusive) of the keys to remove
+     * @return the number of mappings removed by this call
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     */
+    public int removeRange(long fromKey, long toKey) {
+        return removeRange(fromKey, true, toKey, false);
+    }
+
+    /**
+     * Returns the mappings whose keys range from {@code fromKey} to
+     * {@code toKey}, as {@link ConcurrentSkipListMap#rangeSnapshot
+     * ConcurrentSkipListMap.rangeSnapshot} does: the range is traversed
+     * repeatedly until two consecutive traversals find exactly the same
+     * mappings, holding identical value objects.  Every key returned was
+     * mapped throughout the interval between the two traversals, and held
+     * the returned value when each traversal read it; but a value that is
+     * replaced and then restored to the same object in between goes
+     * unnoticed, so the result is a snapshot of one instant only if
+     * values are never restored this way.  Under continuous updates to
+     * the range the call retries until a quiet interval occurs.
+     *
+     * @param fromKey low endpoint of the keys in the returned list
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be included
+     * @param toKey high endpoint of the keys in the returned list
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be included
+     * @return an immutable list of the mappings in the range, in
+     *         ascending key order
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     */
+    public List<Entry<V>> rangeSnapshot(long fromKey, boolean fromInclusive,
+                                        long toKey, boolean toInclusive) {
+        if (fromKey > toKey)
+            throw new IllegalArgumentException("inconsistent range");
+        // nodes compare by identity, so a key removed and put back is a
+        // new node and is not mistaken for an unchanged mapping
+        ArrayList<Object> prev = collectRange(fromKey, fromInclusive, toKey, toInclusive);
+        for (;;) {
+            ArrayList<Object> cur = collectRange(fromKey, fromInclusive, toKey, toInclusive);
+            int n = cur.size();
+            boolean same = (n == prev.size());
+            for (int i = 0; same && i < n; ++i)
+                same = (cur.get(i) == prev.get(i));
+            if (same) {
+                List<Entry<V>> list = new ArrayList<Entry<V>>(n >>> 1);
+                for (int i = 0; i < n; i += 2) {
+                    @SuppressWarnings("unchecked") Node<V> node = (Node<V>)cur.get(i);
+                    @SuppressWarnings("unchecked") V v = (V)cur.get(i + 1);
+                    list.add(new Entry<V>(node.key, v));
+                }
+                return Collections.unmodifiableList(list);
+            }
+            prev = cur;
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.  This is not
+     * a constant-time operation: it traverses the whole map, and its
+     * result may be inaccurate if the map is modified meanwhile.
+     *
+     * @return the number of elements in this map
+     */
+    public int size() {
+        long count = 0;
+        for (Node<V> n = findFirst(); n != null; n = n.next) {
+            if (n.getValidValue() != null)
+                ++count;
+        }
+        return (count >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) count;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return findFirst() == null;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        for (;;) {
+            Node<V> b, n;
+            HeadIndex<V> h = head, d = (HeadIndex<V>)h.down;
+            if (d != null)
+                casHead(h, d);            // remove levels
+            else if ((b = h.node) != null && (n = b.next) != null) {
+                Node<V> f = n.next;     // remove values
+                if (n == b.next) {
+                    Object v = n.value;
+                    if (v == null)
+                        n.helpDelete(b, f);
+                    else if (n.casValue(v, null) && n.appendMarker(f))
+                        b.casNext(n, f);
+                }
+            }
+            else
+                break;
+        }
+    }
+
+    /**
+     * Returns the first (lowest) key currently in this map.
+     *
+     * @return the first key
+     * @throws NoSuchElementException if this map is empty
+     */
+    public long firstKey() {
+        Node<V> n = findFirst();
+        if (n == null)
+            throw new NoSuchElementException();
+        return n.key;
+    }
+
+    /**
+     * Returns the last (highest) key currently in this map.
+     *
+     * @return the last key
+     * @throws NoSuchElementException if this map is empty
+     */
+    public long lastKey() {
+        Node<V> n = findLast();
+        if (n == null)
+            throw new NoSuchElementException();
+        return n.key;
+    }
+
+    /**
+     * Returns a snapshot of the mapping with the greatest key strictly
+     * less than the given key, or {@code null} if there is no such key.
+     *
+     * @param key the key
+     * @return the mapping, or {@code null} if none
+     */
+    public Entry<V> lowerEntry(long key) {
+        return getNear(key, LT);
+    }
+
+    /**
+     * Returns a snapshot of the mapping with the greatest key less than
+     * or equal to the given key, or {@code null} if there is no such key.
+     *
+     * @param key the key
+     * @return the mapping, or {@code null} if none
+     */
+    public Entry<V> floorEntry(long key) {
+        return getNear(key, LT|EQ);
+    }
+
+    /**
+     * Returns a snapshot of the mapping with the least key greater than
+     * or equal to the given key, or {@code null} if there is no such key.
+     *
+     * @param key the key
+     * @return the mapping, or {@code null} if none
+     */
+    public Entry<V> ceilingEntry(long key) {
+        return getNear(key, GT|EQ);
+    }
+
+    /**
+     * Returns a snapshot of the mapping with the least key strictly
+     * greater than the given key, or {@code null} if there is no such key.
+     *
+     * @param key the key
+     * @return the mapping, or {@code null} if none
+     */
+    public Entry<V> higherEntry(long key) {
+        return getNear(key, GT);
+    }
+
+    /**
+     * Returns a snapshot of the mapping with the least key in this map,
+     * or {@code null} if the map is empty.
+     *
+     * @return the mapping, or {@code null} if this map is empty
+     */
+    public Entry<V> firstEntry() {
+        for (;;) {
+            Node<V> n = findFirst();
+            if (n == null)
+                return null;
+            Entry<V> e = n.createSnapshot();
+            if (e != null)
+                return e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the mapping with the greatest key in this
+     * map, or {@code null} if the map is empty.
+     *
+     * @return the mapping, or {@code null} if this map is empty
+     */
+    public Entry<V> lastEntry() {
+        for (;;) {
+            Node<V> n = findLast();
+            if (n == null)
+                return null;
+            Entry<V> e = n.createSnapshot();
+            if (e != null)
+                return e;
+        }
+    }
+
+    /**
+     * Removes and returns the mapping with the least key in this map,
+     * or {@code null} if the map is empty.
+     *
+     * @return the removed mapping, or {@code null} if this map is empty
+     */
+    public Entry<V> pollFirstEntry() {
+        return doRemoveFirstEntry();
+    }
+
+    /**
+     * Removes and returns the mapping with the greatest key in this map,
+     * or {@code null} if the map is empty.
+     *
+     * @return the removed mapping, or {@code null} if this map is empty
+     */
+    public Entry<V> pollLastEntry() {
+        return doRemoveLastEntry();
+    }
+
+    /* ---------------- Traversal -------------- */
+
+    /**
+     * Performs the given action for each mapping in this map, in
+     * ascending key order.  The traversal is weakly consistent.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     */
+    public void forEach(EntryConsumer<? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        V v;
+        for (Node<V> n = findFirst(); n != null; n = n.next) {
+            if ((v = n.getValidValue()) != null)
+                action.accept(n.key, v);
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping whose key ranges from
+     * {@code fromKey} to {@code toKey}, in ascending key order.  The
+     * range is located once, and the traversal is weakly consistent;
+     * use {@link #rangeSnapshot} for a consistent view.
+     *
+     * @param fromKey low endpoint of the keys to visit
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be included
+     * @param toKey high endpoint of the keys to visit
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be included
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     */
+    public void forEach(long fromKey, boolean fromInclusive,
+                        long toKey, boolean toInclusive,
+                        EntryConsumer<? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (fromKey > toKey)
+            throw new IllegalArgumentException("inconsistent range");
+        V v;
+        for (Node<V> n = findNear(fromKey, fromInclusive ? (GT|EQ) : GT);
+             n != null; n = n.next) {
+            if ((v = n.getValidValue()) == null)
+                continue;
+            if (n.key > toKey || (n.key == toKey && !toInclusive))
+                break;
+            action.accept(n.key, v);
+        }
+    }
+
+    /**
+     * Returns an iterator over the keys of this map, in ascending order.
+     * The iterator is weakly consistent, and supports {@code remove}.
+     *
+     * @return an iterator over the keys of this map
+     */
+    public PrimitiveIterator.OfLong keyIterator() {
+        return new KeyIterator();
+    }
+
+    final class KeyIterator implements PrimitiveIterator.OfLong {
+        /** the last node returned by next() */
+        Node<V> lastReturned;
+        /** the next node to return from next(); */
+        Node<V> next;
+
+        KeyIterator() {
+            while ((next = findFirst()) != null) {
+                Object x = next.value;
+                if (x != null && x != next)
+                    break;
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public long nextLong() {
+            Node<V> n = next;
+            if (n == null)
+                throw new NoSuchElementException();
+            lastReturned = n;
+            while ((next = next.next) != null) {
+                Object x = next.value;
+                if (x != null && x != next)
+                    break;
+            }
+            return n.key;
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            while (hasNext())
+                action.accept(nextLong());
+        }
+
+        public void remove() {
+            Node<V> l = lastReturned;
+            if (l == null)
+                throw new IllegalStateException();
+            ConcurrentLongSkipListMap.this.remove(l.key);
+            lastReturned = null;
+        }
+    }
+
+    /**
+     * Returns a string representation of this map, in the form of
+     * {@link java.util.AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        V v;
+        for (Node<V> n = findFirst(); n != null; n = n.next) {
+            if ((v = n.getValidValue()) == null)
+                continue;
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(n.key).append('=').append(v);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * An immutable snapshot of a mapping of a
+     * {@code ConcurrentLongSkipListMap}.  Later changes to the map do
+     * not affect it.
+     *
+     * @param <V> the type of the value
+     */
+    public static final class Entry<V> {
+        private final long key;
+        private final V value;
+
+        Entry(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * Returns the key of this mapping.
+         *
+         * @return the key
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the value of this mapping.
+         *
+         * @return the value
+         */
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Compares the specified object with this entry for equality:
+         * it is equal if it is an {@code Entry} with the same key and an
+         * equal value.
+         *
+         * @param o object to be compared for equality with this entry
+         * @return {@code true} if the specified object is equal to this entry
+         */
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?> e = (Entry<?>)o;
+            return key == e.key && value.equals(e.value);
+        }
+
+        /**
+         * Returns the hash code of this entry, computed as that of a
+         * {@code Map.Entry<Long,V>} with the same key and value is.
+         *
+         * @return the hash code of this entry
+         */
+        public int hashCode() {
+            return Long.hashCode(key) ^ value.hashCode();
+        }
+
+        /**
+         * Returns the key and value of this entry, separated by {@code =}.
+         *
+         * @return a string representation of this entry
+         */
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * An action performed on the key and value of a mapping.
+     *
+     * @param <V> the type of the value
+     * @see ConcurrentLongSkipListMap#forEach(EntryConsumer)
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Performs this action on the given mapping.
+         *
+         * @param key the key
+         * @param value the value
+         */
+        void accept(long key, V value);
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe UNSAFE;
+    private static final long headOffset;
+    static {
+        try {
+            UNSAFE = sun.misc.Unsafe.getUnsafe();
+            headOffset = UNSAFE.objectFieldOffset
+                (ConcurrentLongSkipListMap.class.getDeclaredField("head"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -790,6 +790,271 @@ public class ConcurrentSkipListMap<K,V> extends AbstractMap<K,V> implements Conc
             casHead(d, h);   // try to backout
     }
 
+    /* ---------------- 批量操作 -------------- */
+
+    /**
+     * Returns true if a sorted map with the given comparator orders its
+     * keys the same way as this map.
+     */
+    private boolean sameOrder(Comparator<?> c) {
+        return c == comparator || (c != null && c.equals(comparator));
+    }
+
+    // putAll(SortedMap)实际调用此方法
+    // 按顺序遍历源map，每次定位到新key所在的间隙b<key<n
+    // 把源map中所有落在这个间隙里的key先串成一条私有的链表，再一次CAS挂到b后面
+    // 而不是像doPut那样每个key都从头索引往下找一遍再CAS一次
+    private void doPutAllSorted(SortedMap<K, ? extends V> map) {
+        Comparator<? super K> cmp = comparator;
+        Iterator<? extends Map.Entry<? extends K, ? extends V>> it =
+            map.entrySet().iterator();
+        Map.Entry<? extends K, ? extends V> e = it.hasNext() ? it.next() : null;
+        while (e != null) {
+            K key = e.getKey();
+            V value = e.getValue();
+            if (key == null || value == null)
+                throw new NullPointerException();
+            outer: for (;;) {
+                // 与doPut相同的定位过程和检查
+                for (Node<K,V> b = findPredecessor(key, cmp), n = b.next;;) {
+                    if (n != null) {
+                        Object v; int c;
+                        Node<K,V> f = n.next;
+                        if (n != b.next) break;
+                        if ((v = n.value) == null) {
+                            n.helpDelete(b, f);
+                            break;
+                        }
+                        if (b.value == null || v == n) break;
+                        if ((c = cpr(cmp, key, n.key)) > 0) {
+                            b = n;
+                            n = f;
+                            continue;
+                        }
+                        if (c == 0) {
+                            // key已存在，替换值，然后接着从n往后找下一个key的位置
+                            if (!n.casValue(v, value)) break;
+                            if ((e = it.hasNext() ? it.next() : null) == null)
+                                return;
+                            key = e.getKey();
+                            value = e.getValue();
+                            if (key == null || value == null)
+                                throw new NullPointerException();
+                            b = n;
+                            n = f;
+                            continue;
+                        }
+                    }
+                    // 到这里b<key<n，把源map中所有小于n的key串成一条链
+                    // 链上的节点还没有发布出去，直接写next就行
+                    Node<K,V> first = new Node<K,V>(key, value, null), last = first;
+                    int count = 1;
+                    e = null;
+                    while (it.hasNext()) {
+                        Map.Entry<? extends K, ? extends V> x = it.next();
+                        K k = x.getKey();
+                        V xv = x.getValue();
+                        if (k == null || xv == null)
+                            throw new NullPointerException();
+                        if (n != null && cpr(cmp, k, n.key) >= 0) {
+                            e = x;
+                            break;
+                        }
+                        Node<K,V> z = new Node<K,V>(k, xv, null);
+                        last.next = z;
+                        last = z;
+                        ++count;
+                    }
+                    last.next = n;
+                    // 一次CAS把整条链挂上去，成功后一次性建好这条链的索引
+                    if (b.casNext(n, first))
+                        buildIndexes(first, count);
+                    else {
+                        // 其它线程改了b的next，这种情况很少，退回到逐个doPut
+                        Node<K,V> z = first;
+                        for (int i = 0; i < count; ++i, z = z.next) {
+                            @SuppressWarnings("unchecked") V zv = (V)z.value;
+                            doPut(z.key, zv, false);
+                        }
+                    }
+                    break outer;
+                }
+            }
+        }
+    }
+
+    // 给刚挂到数据链表上的count个连续节点建索引
+    // 不再逐个取随机数，而是按在链中的位置决定层级：第i个节点的层级是(i+phase)末尾0的个数减1
+    // 这样有索引的节点占1/4，每高一层减半，与doPut的随机层级分布相同，phase随机是为了短链也能分到索引
+    // 每一层先在链内部用right串好，再找到这一层中链前面的索引，一次CAS把整层接进去
+    // 从第1层往上接，某一层接不上（有其它线程在这个区间插入了索引）就不再接更高的层
+    // 索引只影响查找速度，不影响正确性，放弃的层只是少了几个索引
+    private void buildIndexes(Node<K,V> first, int count) {
+        Comparator<? super K> cmp = comparator;
+        int phase = ThreadLocalRandom.nextSecondarySeed() & ((1 << 30) - 1);
+        // firsts[j]和lasts[j]是第j层链内索引的头和尾
+        @SuppressWarnings("unchecked")
+        Index<K,V>[] firsts = (Index<K,V>[])new Index<?,?>[32];
+        @SuppressWarnings("unchecked")
+        Index<K,V>[] lasts = (Index<K,V>[])new Index<?,?>[32];
+        int maxLevel = 0;
+        Node<K,V> z = first, lastNode = first;
+        for (int i = 0; i < count; ++i, z = z.next) {
+            lastNode = z;
+            int level = Integer.numberOfTrailingZeros(((i + phase) & ((1 << 30) - 1)) | (1 << 30)) - 1;
+            Index<K,V> idx = null;
+            for (int j = 1; j <= level; ++j) {
+                idx = new Index<K,V>(z, idx, null);
+                if (lasts[j] == null)
+                    firsts[j] = idx;
+                else
+                    lasts[j].right = idx;
+                lasts[j] = idx;
+            }
+            if (level > maxLevel)
+                maxLevel = level;
+        }
+        if (maxLevel == 0)
+            return;
+        K lo = first.key, hi = lastNode.key;
+
+        // 找到每一层中key小于lo的最右索引，preds[j]为第j层的前驱
+        HeadIndex<K,V> h = head;
+        int top = h.level;
+        @SuppressWarnings("unchecked")
+        Index<K,V>[] preds = (Index<K,V>[])new Index<?,?>[top + 1];
+        for (Index<K,V> q = h, r = q.right;;) {
+            if (r != null) {
+                Node<K,V> n = r.node;
+                if (n.value == null) {
+                    if (!q.unlink(r)) return;
+                    r = q.right;
+                    continue;
+                }
+                if (cpr(cmp, lo, n.key) > 0) {
+                    q = r;
+                    r = r.right;
+                    continue;
+                }
+            }
+            preds[top] = q;
+            if (--top == 0) break;
+            q = q.down;
+            r = q.right;
+        }
+
+        // 自下而上逐层接入，前驱的右边必须仍然在hi之后
+        int linked = 0;
+        for (int j = 1; j <= Math.min(maxLevel, h.level); ++j) {
+            Index<K,V> q = preds[j], r = q.right;
+            if (r != null && cpr(cmp, r.node.key, hi) <= 0)
+                break;
+            lasts[j].right = r;
+            if (q.node.value == null || !q.casRight(r, firsts[j]))
+                break;
+            linked = j;
+        }
+        // 超出当前高度的层直接长出新的头索引，下面各层都接好了才这样做
+        if (linked == h.level && maxLevel > h.level) {
+            HeadIndex<K,V> newh = h;
+            for (int j = h.level + 1; j <= maxLevel; ++j)
+                newh = new HeadIndex<K,V>(h.node, newh, firsts[j], j);
+            casHead(h, newh);
+        }
+    }
+
+    // 删除key在[lo,hi]范围内的所有节点，lo/hi为null表示不限，返回删除的个数
+    // 与doRemove的单个删除过程相同（先把value置null，再加marker，再从b上摘掉）
+    // 只是删完一个接着删后面的，不必每个key都从头索引重新定位
+    // 索引最后一次性清理
+    final int doRemoveRange(K lo, boolean loInclusive, K hi, boolean hiInclusive) {
+        Comparator<? super K> cmp = comparator;
+        int removed = 0;
+        outer: for (;;) {
+            for (Node<K,V> b = (lo == null) ? head.node : findPredecessor(lo, cmp),
+                     n = b.next;;) {
+                Object v; int c;
+                if (n == null) break outer;
+                Node<K,V> f = n.next;
+                if (n != b.next) break;
+                if ((v = n.value) == null) {
+                    n.helpDelete(b, f);
+                    break;
+                }
+                if (b.value == null || v == n) break;
+                // 还没到范围内，往后走
+                if (lo != null &&
+                    ((c = cpr(cmp, n.key, lo)) < 0 || (c == 0 && !loInclusive))) {
+                    b = n;
+                    n = f;
+                    continue;
+                }
+                // 已经过了范围，结束
+                if (hi != null &&
+                    ((c = cpr(cmp, n.key, hi)) > 0 || (c == 0 && !hiInclusive)))
+                    break outer;
+                if (!n.casValue(v, null)) break;
+                ++removed;
+                // 摘除失败就从头定位一次，定位过程中会协助删除
+                if (!n.appendMarker(f) || !b.casNext(n, f)) break;
+                n = f;
+            }
+        }
+        if (removed > 0) {
+            clearIndexRange(lo, hi);
+            if (head.right == null)
+                tryReduceLevel();
+        }
+        return removed;
+    }
+
+    // 清理每一层中指向[lo,hi]范围内已删除节点的索引
+    private void clearIndexRange(K lo, K hi) {
+        Comparator<? super K> cmp = comparator;
+        restart: for (;;) {
+            for (Index<K,V> q = head, r = q.right, d;;) {
+                if (r != null) {
+                    Node<K,V> n = r.node;
+                    if (n.value == null) {
+                        if (!q.unlink(r)) continue restart;
+                        r = q.right;
+                        continue;
+                    }
+                    // 范围前面的和范围内还活着的（并发插入的）都跳过
+                    if (hi == null || cpr(cmp, n.key, hi) <= 0) {
+                        q = r;
+                        r = r.right;
+                        continue;
+                    }
+                }
+                if ((d = q.down) == null) return;
+                q = d;
+                r = d.right;
+            }
+        }
+    }
+
+    // 收集范围内的节点及其当时的值，交替存放在list中，lo/hi为null表示不限
+    private ArrayList<Object> collectRange(K lo, boolean loInclusive,
+                                           K hi, boolean hiInclusive) {
+        Comparator<? super K> cmp = comparator;
+        ArrayList<Object> nodes = new ArrayList<Object>();
+        for (Node<K,V> n = (lo == null) ? findFirst() :
+                 findNear(lo, loInclusive ? (GT|EQ) : GT, cmp);
+             n != null; n = n.next) {
+            Object v = n.value;
+            if (v == null || v == n || v == BASE_HEADER)
+                continue;
+            int c;
+            if (hi != null &&
+                ((c = cpr(cmp, n.key, hi)) > 0 || (c == 0 && !hiInclusive)))
+                break;
+            nodes.add(n);
+            nodes.add(v);
+        }
+        return nodes;
+    }
+
     /* ---------------- Finding and removing first element -------------- */
 
     /**
@@ -1285,6 +1550,33 @@ public class ConcurrentSkipListMap<K,V> extends AbstractMap<K,V> implements Conc
         return doPut(key, value, false);
     }
 
+    /**
+     * Copies all of the mappings from the specified map to this map.
+     * If the specified map is a {@link SortedMap} ordered by the same
+     * comparator as this map, each run of keys that falls between two
+     * adjacent keys of this map is linked in with a single atomic
+     * step and indexed in one pass, rather than being searched for and
+     * inserted one key at a time.
+     *
+     * <p>As with {@link #put}, each individual mapping is added
+     * atomically, but the operation as a whole is not: concurrent
+     * readers may observe only some of the new mappings.
+     *
+     * @param m mappings to be stored in this map
+     * @throws ClassCastException if the class of a key in the specified
+     *         map prevents it from being stored in this map
+     * @throws NullPointerException if the specified map is null, or if
+     *         it contains a null key or value
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if (m instanceof SortedMap &&
+            sameOrder(((SortedMap<?,?>)m).comparator()))
+            doPutAllSorted((SortedMap<K, ? extends V>)m);
+        else
+            super.putAll(m);
+    }
+
     /**
      * （1）寻找目标节点之前最近的一个索引对应的数据节点（数据节点都是在最底层的链表上）；
      *
@@ -1388,6 +1680,56 @@ public class ConcurrentSkipListMap<K,V> extends AbstractMap<K,V> implements Conc
         }
     }
 
+    /**
+     * Removes all of the mappings whose keys range from {@code fromKey}
+     * to {@code toKey}.  The range is located once and then removed in a
+     * single sweep, so this is considerably cheaper than removing each
+     * key separately.  Each mapping is removed atomically, but the
+     * operation as a whole is not: mappings inserted into the range
+     * concurrently may or may not be removed.
+     *
+     * @param fromKey low endpoint of the keys to remove
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be removed
+     * @param toKey high endpoint of the keys to remove
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be removed
+     * @return the number of mappings removed by this call
+     * @throws ClassCastException if {@code fromKey} and {@code toKey}
+     *         cannot be compared to one another using this map's comparator
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     * @since 1.8
+     */
+    public int removeRange(K fromKey, boolean fromInclusive,
+                           K toKey, boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        if (cpr(comparator, fromKey, toKey) > 0)
+            throw new IllegalArgumentException("inconsistent range");
+        return doRemoveRange(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    /**
+     * Removes all of the mappings whose keys range from {@code fromKey},
+     * inclusive, to {@code toKey}, exclusive.
+     * Equivalent to {@code removeRange(fromKey, true, toKey, false)}.
+     *
+     * @param fromKey low endpoint (inclusive) of the keys to remove
+     * @param toKey high endpoint (exclusive) of the keys to remove
+     * @return the number of mappings removed by this call
+     * @throws ClassCastException if {@code fromKey} and {@code toKey}
+     *         cannot be compared to one another using this map's comparator
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     * @since 1.8
+     */
+    public int removeRange(K fromKey, K toKey) {
+        return removeRange(fromKey, true, toKey, false);
+    }
+
     /**
      * If the specified key is not already associated with a value,
      * attempts to compute its value using the given mapping function
@@ -1792,6 +2134,72 @@ public class ConcurrentSkipListMap<K,V> extends AbstractMap<K,V> implements Conc
         return tailMap(fromKey, true);
     }
 
+    /**
+     * Returns an immutable, ascending list of the mappings whose keys
+     * range from {@code fromKey} to {@code toKey}, read repeatedly until
+     * two reads agree.
+     *
+     * <p>Iterators over this map and its views are weakly consistent:
+     * a single pass may see an update near the end of the range without
+     * seeing an earlier update near its start.  This method instead
+     * traverses the range repeatedly until two consecutive traversals
+     * find exactly the same mappings, holding identical value objects.
+     * Since removing a key and putting it back creates a new mapping,
+     * every key returned was mapped throughout the interval between the
+     * two traversals, and held the returned value when each traversal
+     * read it.  Values are compared by identity only, so a value that is
+     * replaced and then restored to the same object between the two
+     * reads goes unnoticed, as do keys inserted and removed again within
+     * the interval.  The result is thus a snapshot of one instant only
+     * if values are never restored this way, for instance when every
+     * update stores a newly created object; shared instances such as
+     * {@code Boolean} or cached {@code Integer} values do not qualify.
+     * Under continuous updates to the range the call retries until a
+     * quiet interval occurs, so it is intended for ranges that are read
+     * much more often than they are written.
+     *
+     * @param fromKey low endpoint of the keys in the returned list
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be included
+     * @param toKey high endpoint of the keys in the returned list
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be included
+     * @return an immutable list of the mappings in the range
+     * @throws ClassCastException if {@code fromKey} and {@code toKey}
+     *         cannot be compared to one another using this map's comparator
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     * @since 1.8
+     */
+    public List<Map.Entry<K,V>> rangeSnapshot(K fromKey, boolean fromInclusive,
+                                              K toKey, boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        if (cpr(comparator, fromKey, toKey) > 0)
+            throw new IllegalArgumentException("inconsistent range");
+        // 反复收集，直到相邻两次收集到的节点和值完全相同
+        // 节点是按引用比较的，删除后重新插入同一个key会是一个新节点，不会被误认为没有变化
+        ArrayList<Object> prev = collectRange(fromKey, fromInclusive, toKey, toInclusive);
+        for (;;) {
+            ArrayList<Object> cur = collectRange(fromKey, fromInclusive, toKey, toInclusive);
+            int n = cur.size();
+            boolean same = (n == prev.size());
+            for (int i = 0; same && i < n; ++i)
+                same = (cur.get(i) == prev.get(i));
+            if (same) {
+                List<Map.Entry<K,V>> list = new ArrayList<Map.Entry<K,V>>(n >>> 1);
+                for (int i = 0; i < n; i += 2) {
+                    @SuppressWarnings("unchecked") Node<K,V> node = (Node<K,V>)cur.get(i);
+                    @SuppressWarnings("unchecked") V v = (V)cur.get(i + 1);
+                    list.add(new AbstractMap.SimpleImmutableEntry<K,V>(node.key, v));
+                }
+                return Collections.unmodifiableList(list);
+            }
+            prev = cur;
+        }
+    }
+
     /* ---------------- Relational operations -------------- */
 
     /**
@@ -2553,13 +2961,8 @@ public class ConcurrentSkipListMap<K,V> extends AbstractMap<K,V> implements Conc
         }
 
         public void clear() {
-            Comparator<? super K> cmp = m.comparator;
-            for (ConcurrentSkipListMap.Node<K,V> n = loNode(cmp);
-                 isBeforeEnd(n, cmp);
-                 n = n.next) {
-                if (n.getValidValue() != null)
-                    m.remove(n.key);
-            }
+            // 整个范围一次删完，不再逐个key调用remove
+            m.doRemoveRange(lo, loInclusive, hi, hiInclusive);
         }
 
         /* ----------------  ConcurrentMap API methods -------------- */
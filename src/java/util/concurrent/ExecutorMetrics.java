@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.atomic.LongHistogram;
+import java.util.function.BiConsumer;
+import sun.misc.ExecutorMetricsHook;
+
+/**
+ * Runtime metrics of a {@link ThreadPoolExecutor} or
+ * {@link ForkJoinPool}, obtained from
+ * {@link ThreadPoolExecutor#enableMetrics} or
+ * {@link ForkJoinPool#enableMetrics}.
+ *
+ * <p>While metrics are enabled, the pool records for each task the
+ * delay between its submission and the start of its execution, and the
+ * time it took to run, in {@link LongHistogram}s of nanoseconds; it
+ * counts rejected submissions; and each worker accumulates the time it
+ * spent parked waiting for work.  Recording uses striped counters and
+ * per-worker fields only, so it adds two {@link System#nanoTime} calls
+ * and a few uncontended atomic increments per task, and never takes the
+ * pool's main lock.  {@link #snapshot} is likewise lock-free: it reads
+ * the worker registry that {@code ForkJoinPool} publishes, or one that
+ * {@code ThreadPoolExecutor} maintains alongside its
+ * {@code mainLock}-guarded worker set while metrics are enabled.
+ *
+ * <p>Submission times are carried by the task objects the pools create
+ * themselves: the {@link FutureTask}s of {@code submit},
+ * {@code invokeAll} and {@code invokeAny}, the tasks of
+ * {@link ExecutorService#submitBatch submitBatch}, and the adaptors that
+ * {@code ForkJoinPool} wraps around submitted {@code Runnable}s and
+ * {@code Callable}s.  Runnables passed directly to
+ * {@code ThreadPoolExecutor.execute}, and {@code ForkJoinTask}s forked
+ * or submitted as-is, contribute to execution time but not to queue
+ * delay.
+ *
+ * <p>Enabled metrics are registered by name and exported through the
+ * platform {@code java.lang.management.ExecutorMXBean}; see
+ * {@link #registered}.  Metrics refer to their executor weakly, so
+ * neither the registry nor an exported MXBean keeps a pool that is
+ * never shut down from being collected; the metrics of a collected pool
+ * are unregistered the next time metrics are registered or listed.
+ *
+ * @since 1.8
+ */
+public final class ExecutorMetrics {
+
+    /**
+     * Enabled metrics by name.  Metrics hold their executor weakly, so
+     * pools may be collected; see {@link #expunge}.
+     */
+    private static final ConcurrentHashMap<String,ExecutorMetrics>
+        registry = new ConcurrentHashMap<String,ExecutorMetrics>();
+
+    /** References to executors that have been collected. */
+    private static final ReferenceQueue<Executor> collected =
+        new ReferenceQueue<Executor>();
+
+    final String name;
+    final String type;
+    final ExecutorRef executor;
+    final LongHistogram queueDelay = new LongHistogram();
+    final LongHistogram executionTime = new LongHistogram();
+    final LongAdder rejected = new LongAdder();
+    /** Totals of workers that have exited. */
+    final LongAdder retiredCompleted = new LongAdder();
+    final LongAdder retiredParkedNanos = new LongAdder();
+
+    ExecutorMetrics(String name, Executor executor) {
+        this.name = name;
+        this.type = executor.getClass().getSimpleName();
+        this.executor = new ExecutorRef(executor, this);
+    }
+
+    /**
+     * The weak reference from metrics to their executor, which leads
+     * back to the metrics once the executor is collected.
+     */
+    static final class ExecutorRef extends WeakReference<Executor> {
+        final ExecutorMetrics metrics;
+
+        ExecutorRef(Executor executor, ExecutorMetrics metrics) {
+            super(executor, collected);
+            this.metrics = metrics;
+        }
+    }
+
+    /** Unregisters the metrics of collected executors. */
+    private static void expunge() {
+        for (Reference<? extends Executor> r; (r = collected.poll()) != null; )
+            ((ExecutorRef)r).metrics.unregister();
+    }
+
+    private static void notifyListener(ExecutorMetrics m, boolean registered) {
+        BiConsumer<ExecutorMetrics,Boolean> l = ExecutorMetricsHook.getListener();
+        if (l != null)
+            l.accept(m, registered);
+    }
+
+    /**
+     * Registers new metrics for the given pool under the given name.
+     *
+     * @throws IllegalArgumentException if the name is in use
+     */
+    static ExecutorMetrics register(String name, Executor executor) {
+        if (name == null)
+            throw new NullPointerException();
+        expunge();
+        ExecutorMetrics m = new ExecutorMetrics(name, executor), prev;
+        while ((prev = registry.putIfAbsent(name, m)) != null) {
+            if (prev.executor.get() != null)
+                throw new IllegalArgumentException("Executor metrics name in use: " + name);
+            prev.unregister();   // collected but not yet enqueued; retry
+        }
+        notifyListener(m, true);
+        return m;
+    }
+
+    /**
+     * Removes these metrics from the registry; called on termination
+     * or when metrics are disabled.
+     */
+    void unregister() {
+        if (registry.remove(name, this))
+            notifyListener(this, false);
+    }
+
+    /**
+     * Returns the metrics of all executors that currently have metrics
+     * enabled, in no particular order.
+     *
+     * @return the registered metrics
+     */
+    public static List<ExecutorMetrics> registered() {
+        expunge();
+        return new ArrayList<ExecutorMetrics>(registry.values());
+    }
+
+    /**
+     * Returns whether these metrics are currently registered, that is,
+     * enabled on an executor that has not terminated or been collected.
+     *
+     * @return {@code true} if these metrics are registered
+     */
+    public boolean isRegistered() {
+        return registry.get(name) == this && executor.get() != null;
+    }
+
+    /**
+     * Returns the name under which these metrics are registered.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the simple class name of the instrumented executor.
+     *
+     * @return the executor type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the histogram of delays, in nanoseconds, between the
+     * submission of a task and the start of its execution.
+     *
+     * @return the queue delay histogram
+     */
+    public LongHistogram queueDelay() {
+        return queueDelay;
+    }
+
+    /**
+     * Returns the histogram of task execution times, in nanoseconds.
+     * For {@code ForkJoinPool} each sample is a top-level task taken by
+     * a worker, including the local subtasks it ran before looking for
+     * more work.
+     *
+     * @return the execution time histogram
+     */
+    public LongHistogram executionTime() {
+        return executionTime;
+    }
+
+    /**
+     * Returns the number of submissions rejected since metrics were
+     * enabled.
+     *
+     * @return the rejection count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns a snapshot of the pool and its workers.  Takes no locks;
+     * the values are read individually and may not be mutually
+     * consistent while the pool is active.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot snapshot() {
+        Snapshot s = new Snapshot(this);
+        Executor e = executor.get();
+        if (e instanceof ThreadPoolExecutor)
+            ((ThreadPoolExecutor)e).collectMetrics(s);
+        else if (e instanceof ForkJoinPool)
+            ((ForkJoinPool)e).collectMetrics(s);
+        for (WorkerStats w : s.workers) {
+            if (w.active)
+                s.activeCount++;
+            s.completedTaskCount += w.completedTaskCount;
+            s.parkedNanos += w.parkedNanos;
+        }
+        s.completedTaskCount += retiredCompleted.sum();
+        s.parkedNanos += retiredParkedNanos.sum();
+        return s;
+    }
+
+    /**
+     * Sets the submission time of a task that can carry one.
+     */
+    static void stamp(Object task, long now) {
+        if (task instanceof FutureTask)
+            ((FutureTask<?>)task).submitTime = now;
+        else if (task instanceof BatchCompletion.Task)
+            ((BatchCompletion.Task)task).submitTime = now;
+    }
+
+    /**
+     * Returns the time of the task's submission if it carries one,
+     * else zero.
+     */
+    static long submitTimeOf(Object task) {
+        if (task instanceof FutureTask)
+            return ((FutureTask<?>)task).submitTime;
+        if (task instanceof BatchCompletion.Task)
+            return ((BatchCompletion.Task)task).submitTime;
+        if (task instanceof ForkJoinTask)
+            return ForkJoinTask.submitTimeOf((ForkJoinTask<?>)task);
+        return 0L;
+    }
+
+    /**
+     * Records the start of a task that is about to run, and returns the
+     * start time to pass to {@link #afterExecute}.
+     */
+    final long beforeExecute(Object task) {
+        long now = System.nanoTime(), t;
+        if ((t = submitTimeOf(task)) != 0L)
+            queueDelay.record(now - t);
+        return now;
+    }
+
+    final void afterExecute(long start) {
+        executionTime.record(System.nanoTime() - start);
+    }
+
+    public String toString() {
+        return getType() + "[" + name + "]";
+    }
+
+    /**
+     * An immutable snapshot of executor metrics.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final String type;
+        private final long timestamp;
+        int poolSize;
+        int activeCount;
+        long queuedTaskCount;
+        long completedTaskCount;
+        long stealCount;
+        long parkedNanos;
+        private final long rejectedCount;
+        private final LongHistogram.Snapshot queueDelay;
+        private final LongHistogram.Snapshot executionTime;
+        final ArrayList<WorkerStats> workers = new ArrayList<WorkerStats>();
+
+        Snapshot(ExecutorMetrics m) {
+            this.name = m.name;
+            this.type = m.type;
+            this.timestamp = System.currentTimeMillis();
+            this.rejectedCount = m.rejected.sum();
+            this.queueDelay = m.queueDelay.snapshot();
+            this.executionTime = m.executionTime.snapshot();
+        }
+
+        /** @return the registered name of the executor */
+        public String getName()                 { return name; }
+        /** @return the simple class name of the executor */
+        public String getType()                 { return type; }
+        /** @return the time of the snapshot, in milliseconds since the epoch */
+        public long getTimestamp()              { return timestamp; }
+        /** @return the number of worker threads */
+        public int getPoolSize()                { return poolSize; }
+        /** @return the number of workers running a task */
+        public int getActiveCount()             { return activeCount; }
+        /** @return an estimate of the number of queued tasks */
+        public long getQueuedTaskCount()        { return queuedTaskCount; }
+        /** @return the number of tasks completed by workers */
+        public long getCompletedTaskCount()     { return completedTaskCount; }
+        /** @return the number of tasks taken from other workers' queues */
+        public long getStealCount()             { return stealCount; }
+        /** @return the total time workers spent parked, in nanoseconds */
+        public long getParkedNanos()            { return parkedNanos; }
+        /** @return the number of rejected submissions */
+        public long getRejectedCount()          { return rejectedCount; }
+        /** @return the queue delay histogram, in nanoseconds */
+        public LongHistogram.Snapshot getQueueDelay()    { return queueDelay; }
+        /** @return the execution time histogram, in nanoseconds */
+        public LongHistogram.Snapshot getExecutionTime() { return executionTime; }
+        /** @return the live workers */
+        public List<WorkerStats> getWorkers() {
+            return Collections.unmodifiableList(workers);
+        }
+
+        public String toString() {
+            return type + "[" + name +
+                ", poolSize=" + poolSize +
+                ", active=" + activeCount +
+                ", queued=" + queuedTaskCount +
+                ", completed=" + completedTaskCount +
+                ", steals=" + stealCount +
+                ", rejected=" + rejectedCount +
+                ", queueDelay=" + queueDelay +
+                ", executionTime=" + executionTime + "]";
+        }
+    }
+
+    /**
+     * Counters of one worker thread at the time of a snapshot.  For
+     * {@code ThreadPoolExecutor}, which has no stealing, the steal
+     * count is zero.  For {@code ForkJoinPool}, completed tasks are the
+     * top-level tasks the worker ran while metrics were enabled, and
+     * the steal count is reset whenever the worker's steals are folded
+     * into the pool total.
+     */
+    public static final class WorkerStats {
+        private final String name;
+        final boolean active;
+        final long completedTaskCount;
+        private final long stealCount;
+        final long parkedNanos;
+
+        WorkerStats(String name, boolean active, long completedTaskCount,
+                    long stealCount, long parkedNanos) {
+            this.name = name;
+            this.active = active;
+            this.completedTaskCount = completedTaskCount;
+            this.stealCount = stealCount;
+            this.parkedNanos = parkedNanos;
+        }
+
+        /** @return the worker thread's name */
+        public String getName()             { return name; }
+        /** @return whether the worker was running a task */
+        public boolean isActive()           { return active; }
+        /** @return the number of tasks this worker completed */
+        public long getCompletedTaskCount() { return completedTaskCount; }
+        /** @return the number of tasks this worker stole */
+        public long getStealCount()         { return stealCount; }
+        /** @return the time this worker spent parked, in nanoseconds */
+        public long getParkedNanos()        { return parkedNanos; }
+
+        public String toString() {
+            return name + "[active=" + active +
+                ", completed=" + completedTaskCount +
+                ", steals=" + stealCount +
+                ", parkedNanos=" + parkedNanos + "]";
+        }
+    }
+}
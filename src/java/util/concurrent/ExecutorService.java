@@ -70,4 +70,37 @@ public interface ExecutorService extends Executor {
      * 在指定时间内如果有任务已完成，则返回任意一个已完成任务的执行结果，未执行完成的任务将被取消
      */
     <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException;
+
+    /**
+     * 批量执行任务，不为每个任务创建Future
+     * 默认实现是逐个调用execute()，ThreadPoolExecutor、ForkJoinPool、ScheduledThreadPoolExecutor
+     * 覆盖成一次加锁入队、一次唤醒
+     * 有任务被拒绝时和execute()一样由拒绝策略处理，拒绝策略抛出的异常直接抛出，前面的任务已经提交
+     *
+     * @throws NullPointerException 如果tasks或其中某个任务为null，此时一个任务都不会提交
+     * @since 1.8
+     */
+    default void executeAll(Collection<? extends Runnable> tasks) {
+        Object[] a = tasks.toArray();
+        for (Object t : a)
+            if (t == null) throw new NullPointerException();
+        for (Object t : a)
+            execute((Runnable)t);
+    }
+
+    /**
+     * 批量提交任务，返回一个聚合的CompletableFuture，所有任务都执行完了才完成，代替submit()的N个Future
+     * 有任务抛异常时，以第一个异常异常完成（其余任务照常执行，后面的异常加到suppressed里）
+     * 取消返回的future不会取消任务；被DiscardPolicy丢弃的任务永远不会执行，future也就永远不会完成，这一点和submit()一样
+     *
+     * @throws NullPointerException 如果tasks或其中某个任务为null，此时一个任务都不会提交
+     * @since 1.8
+     */
+    default CompletableFuture<Void> submitBatch(Collection<? extends Runnable> tasks) {
+        Object[] a = tasks.toArray();
+        BatchCompletion b = new BatchCompletion(a.length);
+        if (a.length > 0)
+            executeAll(b.wrap(a));
+        return b;
+    }
 }
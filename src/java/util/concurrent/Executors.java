@@ -78,6 +78,46 @@ public class Executors {
                                       threadFactory);
     }
 
+    /**
+     * Creates a thread pool of a fixed number of threads operating off
+     * a {@link StripedBlockingQueue}: an unbounded queue sharded per
+     * submitting thread, from which idle workers steal.  It behaves as
+     * {@link #newFixedThreadPool(int)}, but submitters and workers do
+     * not all contend on the same pair of queue locks, so it scales to
+     * many cores submitting many small tasks.  Tasks submitted by
+     * different threads may run in any order.
+     *
+     * @param nThreads the number of threads in the pool
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @since 1.8
+     */
+    public static ExecutorService newStripedThreadPool(int nThreads) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new StripedBlockingQueue<Runnable>());
+    }
+
+    /**
+     * Creates a thread pool of a fixed number of threads operating off
+     * a {@link StripedBlockingQueue}, using the provided ThreadFactory
+     * to create new threads when needed.
+     *
+     * @param nThreads the number of threads in the pool
+     * @param threadFactory the factory to use when creating new threads
+     * @return the newly created thread pool
+     * @throws NullPointerException if threadFactory is null
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @see #newStripedThreadPool(int)
+     * @since 1.8
+     */
+    public static ExecutorService newStripedThreadPool(int nThreads, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(nThreads, nThreads,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new StripedBlockingQueue<Runnable>(),
+                                      threadFactory);
+    }
+
     /**
      * Creates an Executor that uses a single worker thread operating
      * off an unbounded queue. (Note however that if this single
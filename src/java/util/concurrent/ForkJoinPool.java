@@ -158,6 +158,8 @@ public class ForkJoinPool extends AbstractExecutorService {
         volatile Thread parker;    // == owner during call to park; else null
         volatile ForkJoinTask<?> currentJoin;  // task being joined in awaitJoin
         volatile ForkJoinTask<?> currentSteal; // mainly used by helpStealer
+        volatile long parkedNanos; // time parked, if metrics enabled
+        volatile long completedTasks; // top-level tasks, if metrics enabled
 
         WorkQueue(ForkJoinPool pool, ForkJoinWorkerThread owner) {
             this.pool = pool;
@@ -399,9 +401,16 @@ public class ForkJoinPool extends AbstractExecutorService {
         final void runTask(ForkJoinTask<?> task) {
             if (task != null) {
                 scanState &= ~SCANNING; // mark as busy
+                ForkJoinPool p; ExecutorMetrics m;
+                long start = ((p = pool) != null && (m = p.metrics) != null) ?
+                    m.beforeExecute(task) : 0L;
                 (currentSteal = task).doExec();
                 U.putOrderedObject(this, QCURRENTSTEAL, null); // release for GC
                 execLocalTasks();
+                if (start != 0L && (m = p.metrics) != null) {
+                    m.afterExecute(start);
+                    ++completedTasks;   // written only by owner
+                }
                 ForkJoinWorkerThread thread = owner;
                 if (++nsteals < 0)      // collect on overflow
                     transferStealCount(pool);
@@ -742,6 +751,7 @@ public class ForkJoinPool extends AbstractExecutorService {
     final UncaughtExceptionHandler ueh;  // per-worker UEH
     final String workerNamePrefix;       // to create worker name string
     volatile AtomicLong stealCounter;    // also used as sync monitor
+    volatile ExecutorMetrics metrics;    // null unless enabled
 
     /**
      * Acquires the runState lock; returns current (locked) runState.
@@ -938,6 +948,11 @@ public class ForkJoinPool extends AbstractExecutorService {
                                            (SP_MASK & c))));
         if (w != null) {
             w.qlock = -1;                             // ensure set
+            ExecutorMetrics m;
+            if ((m = metrics) != null) {              // retire metrics
+                m.retiredCompleted.add(w.completedTasks);
+                m.retiredParkedNanos.add(w.parkedNanos);
+            }
             w.transferStealCount(this);
             w.cancelAll();                            // cancel remaining tasks
         }
@@ -1166,8 +1181,11 @@ public class ForkJoinPool extends AbstractExecutorService {
                 Thread wt = Thread.currentThread();
                 U.putObject(wt, PARKBLOCKER, this);   // emulate LockSupport
                 w.parker = wt;
+                long parkStart = (metrics != null) ? System.nanoTime() : 0L;
                 if (w.scanState < 0 && ctl == c)      // recheck before park
                     U.park(false, parkTime);
+                if (parkStart != 0L)
+                    w.parkedNanos += System.nanoTime() - parkStart;
                 U.putOrderedObject(w, QPARKER, null);
                 U.putObject(wt, PARKBLOCKER, null);
                 if (w.scanState >= 0)
@@ -1612,6 +1630,9 @@ public class ForkJoinPool extends AbstractExecutorService {
                     rs = lockRunState();          // done
                     unlockRunState(rs, (rs & ~RSLOCK) | TERMINATED);
                     synchronized (this) { notifyAll(); } // for awaitTermination
+                    ExecutorMetrics em;
+                    if ((em = metrics) != null)
+                        em.unregister();
                 }
                 break;
             }
@@ -1671,6 +1692,9 @@ public class ForkJoinPool extends AbstractExecutorService {
             boolean move = false;
             if ((rs = runState) < 0) {
                 tryTerminate(false, false);     // help terminate
+                ExecutorMetrics em;
+                if ((em = metrics) != null)
+                    em.rejected.increment();
                 throw new RejectedExecutionException();
             }
             else if ((rs & STARTED) == 0 ||     // initialize
@@ -1765,6 +1789,43 @@ public class ForkJoinPool extends AbstractExecutorService {
         externalSubmit(task);
     }
 
+    /**
+     * Adds the given tasks to the submitter's current submission queue,
+     * holding its lock once for as many as fit without resizing and
+     * signalling at most once per acquisition; workers that find more
+     * tasks signal others as they scan.  Falls back to externalSubmit
+     * to initialize or grow the queue.
+     *
+     * @param tasks the tasks. Caller must ensure non-null elements.
+     */
+    final void externalPushAll(ForkJoinTask<?>[] tasks) {
+        for (int i = 0, len = tasks.length; i < len;) {
+            WorkQueue[] ws; WorkQueue q; int m;
+            int r = ThreadLocalRandom.getProbe();
+            int rs = runState;
+            if ((ws = workQueues) != null && (m = (ws.length - 1)) >= 0 &&
+                (q = ws[m & r & SQMASK]) != null && r != 0 && rs > 0 &&
+                U.compareAndSwapInt(q, QLOCK, 0, 1)) {
+                ForkJoinTask<?>[] a; int am, n, s, b;
+                if ((a = q.array) != null &&
+                    (am = a.length - 1) > (n = (s = q.top) - (b = q.base))) {
+                    do {
+                        U.putOrderedObject(a, ((am & s) << ASHIFT) + ABASE,
+                                           tasks[i++]);
+                        ++s;
+                    } while (i < len && am > s - b);
+                    U.putOrderedInt(q, QTOP, s);
+                    U.putIntVolatile(q, QLOCK, 0);
+                    if (n <= 1)
+                        signalWork(ws, q);
+                    continue;
+                }
+                U.compareAndSwapInt(q, QLOCK, 1, 0);
+            }
+            externalSubmit(tasks[i++]);
+        }
+    }
+
     /**
      * Returns common pool queue for an external thread.
      */
@@ -1991,9 +2052,41 @@ public class ForkJoinPool extends AbstractExecutorService {
             job = (ForkJoinTask<?>) task;
         else
             job = new ForkJoinTask.RunnableExecuteAction(task);
+        if (metrics != null)
+            ForkJoinTask.stampSubmitTime(job);
         externalPush(job);
     }
 
+    /**
+     * Arranges for asynchronous execution of all the given tasks,
+     * adding them to a submission queue under one lock acquisition and
+     * waking at most one idle worker, which wakes others as it finds
+     * more work.
+     *
+     * @throws NullPointerException if tasks or any task is null, in
+     *         which case no task is executed
+     * @throws RejectedExecutionException if the tasks cannot be
+     *         scheduled for execution; earlier tasks may have been
+     * @since 1.8
+     */
+    public void executeAll(Collection<? extends Runnable> tasks) {
+        Object[] a = tasks.toArray();
+        ForkJoinTask<?>[] jobs = new ForkJoinTask<?>[a.length];
+        for (int i = 0; i < a.length; ++i) {
+            Object t = a[i];
+            if (t == null)
+                throw new NullPointerException();
+            if (t instanceof ForkJoinTask<?>) // avoid re-wrap
+                jobs[i] = (ForkJoinTask<?>) t;
+            else if (metrics != null)
+                ForkJoinTask.stampSubmitTime
+                    (jobs[i] = new ForkJoinTask.RunnableExecuteAction((Runnable) t));
+            else
+                jobs[i] = new ForkJoinTask.RunnableExecuteAction((Runnable) t);
+        }
+        externalPushAll(jobs);
+    }
+
     /**
      * Submits a ForkJoinTask for execution.
      *
@@ -2018,6 +2111,8 @@ public class ForkJoinPool extends AbstractExecutorService {
      */
     public <T> ForkJoinTask<T> submit(Callable<T> task) {
         ForkJoinTask<T> job = new ForkJoinTask.AdaptedCallable<T>(task);
+        if (metrics != null)
+            ForkJoinTask.stampSubmitTime(job);
         externalPush(job);
         return job;
     }
@@ -2029,6 +2124,8 @@ public class ForkJoinPool extends AbstractExecutorService {
      */
     public <T> ForkJoinTask<T> submit(Runnable task, T result) {
         ForkJoinTask<T> job = new ForkJoinTask.AdaptedRunnable<T>(task, result);
+        if (metrics != null)
+            ForkJoinTask.stampSubmitTime(job);
         externalPush(job);
         return job;
     }
@@ -2046,6 +2143,8 @@ public class ForkJoinPool extends AbstractExecutorService {
             job = (ForkJoinTask<?>) task;
         else
             job = new ForkJoinTask.AdaptedRunnableAction(task);
+        if (metrics != null)
+            ForkJoinTask.stampSubmitTime(job);
         externalPush(job);
         return job;
     }
@@ -2319,6 +2418,83 @@ public class ForkJoinPool extends AbstractExecutorService {
         return count;
     }
 
+    /**
+     * Enables metrics for this pool, registering them under the given
+     * name, and returns them.  If metrics are already enabled they are
+     * returned unchanged, whatever their name.  Metrics are
+     * unregistered when the pool terminates or
+     * {@link #disableMetrics} is called.
+     *
+     * @param name the name under which to register the metrics
+     * @return the metrics of this pool
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if another executor's metrics
+     *         are registered under the same name
+     * @see ExecutorMetrics
+     * @since 1.8
+     */
+    public ExecutorMetrics enableMetrics(String name) {
+        synchronized (this) {
+            ExecutorMetrics m = metrics;
+            if (m == null)
+                metrics = m = ExecutorMetrics.register(name, this);
+            return m;
+        }
+    }
+
+    /**
+     * Disables and unregisters the metrics of this pool, if enabled.
+     *
+     * @since 1.8
+     */
+    public void disableMetrics() {
+        synchronized (this) {
+            ExecutorMetrics m = metrics;
+            if (m != null) {
+                metrics = null;
+                m.unregister();
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics of this pool, or {@code null} if not enabled.
+     *
+     * @return the metrics, or {@code null}
+     * @since 1.8
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Fills in a metrics snapshot from a single pass over workQueues.
+     */
+    void collectMetrics(ExecutorMetrics.Snapshot s) {
+        AtomicLong sc = stealCounter;
+        long st = (sc == null) ? 0L : sc.get(), qt = 0L;
+        WorkQueue[] ws; WorkQueue w;
+        if ((ws = workQueues) != null) {
+            for (int i = 0; i < ws.length; ++i) {
+                if ((w = ws[i]) != null) {
+                    qt += w.queueSize();
+                    ForkJoinWorkerThread wt;
+                    if ((i & 1) != 0 && (wt = w.owner) != null) {
+                        int ns = w.nsteals;
+                        st += ns;
+                        s.workers.add(new ExecutorMetrics.WorkerStats
+                                      (wt.getName(),
+                                       (w.scanState & SCANNING) == 0 && w.scanState >= 0,
+                                       w.completedTasks, ns, w.parkedNanos));
+                    }
+                }
+            }
+        }
+        s.poolSize = getPoolSize();
+        s.queuedTaskCount = qt;
+        s.stealCount = st;
+    }
+
     /**
      * Returns a string identifying this pool, as well as its state,
      * including indications of run state, parallelism level, and
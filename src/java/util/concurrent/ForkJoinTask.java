@@ -1350,6 +1350,39 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
         }
     }
 
+    /**
+     * Sets the submission time of a task created by ForkJoinPool to
+     * adapt a Runnable or Callable, for queue delay metrics.  Other
+     * tasks carry no submission time.
+     */
+    static void stampSubmitTime(ForkJoinTask<?> t) {
+        long now = System.nanoTime();
+        if (t instanceof RunnableExecuteAction)
+            ((RunnableExecuteAction)t).submitTime = now;
+        else if (t instanceof AdaptedRunnableAction)
+            ((AdaptedRunnableAction)t).submitTime = now;
+        else if (t instanceof AdaptedCallable)
+            ((AdaptedCallable<?>)t).submitTime = now;
+        else if (t instanceof AdaptedRunnable)
+            ((AdaptedRunnable<?>)t).submitTime = now;
+    }
+
+    /**
+     * Returns the submission time set by {@link #stampSubmitTime}, or
+     * zero if none.
+     */
+    static long submitTimeOf(ForkJoinTask<?> t) {
+        if (t instanceof RunnableExecuteAction)
+            return ((RunnableExecuteAction)t).submitTime;
+        else if (t instanceof AdaptedRunnableAction)
+            return ((AdaptedRunnableAction)t).submitTime;
+        else if (t instanceof AdaptedCallable)
+            return ((AdaptedCallable<?>)t).submitTime;
+        else if (t instanceof AdaptedRunnable)
+            return ((AdaptedRunnable<?>)t).submitTime;
+        return 0L;
+    }
+
     /**
      * Adaptor for Runnables. This implements RunnableFuture
      * to be compliant with AbstractExecutorService constraints
@@ -1359,6 +1392,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
         implements RunnableFuture<T> {
         final Runnable runnable;
         T result;
+        long submitTime;
         AdaptedRunnable(Runnable runnable, T result) {
             if (runnable == null) throw new NullPointerException();
             this.runnable = runnable;
@@ -1377,6 +1411,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
     static final class AdaptedRunnableAction extends ForkJoinTask<Void>
         implements RunnableFuture<Void> {
         final Runnable runnable;
+        long submitTime;
         AdaptedRunnableAction(Runnable runnable) {
             if (runnable == null) throw new NullPointerException();
             this.runnable = runnable;
@@ -1393,6 +1428,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
      */
     static final class RunnableExecuteAction extends ForkJoinTask<Void> {
         final Runnable runnable;
+        long submitTime;
         RunnableExecuteAction(Runnable runnable) {
             if (runnable == null) throw new NullPointerException();
             this.runnable = runnable;
@@ -1413,6 +1449,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
         implements RunnableFuture<T> {
         final Callable<? extends T> callable;
         T result;
+        long submitTime;
         AdaptedCallable(Callable<? extends T> callable) {
             if (callable == null) throw new NullPointerException();
             this.callable = callable;
@@ -51,6 +51,11 @@ public class FutureTask<V> implements RunnableFuture<V> {
     private volatile Thread runner;
     /** Treiber stack of waiting threads */
     private volatile WaitNode waiters;
+    /**
+     * System.nanoTime() at submission, set by an executor with metrics
+     * enabled before the task is queued; zero otherwise.
+     */
+    long submitTime;
 
     /**
      * Returns result or throws exception for completed task.
@@ -272,6 +272,61 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E> implements Blocking
         return c >= 0;
     }
 
+    /**
+     * Inserts elements of the given collection under one acquisition of
+     * {@code putLock}, and signals a waiting take at most once: a
+     * woken taker signals the next one itself while elements remain.
+     *
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null
+     * @throws IllegalArgumentException if the specified collection is
+     *         this queue
+     */
+    public int offerAll(Collection<? extends E> c) {
+        if (c == this)
+            throw new IllegalArgumentException();
+        // 先在锁外建好节点，检查null
+        Object[] a = c.toArray();
+        if (a.length == 0)
+            return 0;
+        Node<E> first = null, last = null;
+        for (Object o : a) {
+            if (o == null) throw new NullPointerException();
+            @SuppressWarnings("unchecked") Node<E> node = new Node<E>((E)o);
+            if (first == null) first = node;
+            else last.next = node;
+            last = node;
+        }
+        final AtomicInteger count = this.count;
+        if (count.get() == capacity)
+            return 0;
+        int c0 = -1, n = 0;
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            // 一次加锁，能放多少放多少
+            int room = capacity - count.get();
+            if (room > 0) {
+                n = Math.min(room, a.length);
+                Node<E> tail = first;
+                for (int i = 1; i < n; i++)
+                    tail = tail.next;
+                tail.next = null;
+                this.last.next = first;
+                this.last = tail;
+                c0 = count.getAndAdd(n);
+                if (c0 + n < capacity)
+                    notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        // 入队前队列为空才需要唤醒，和offer()一样，取到元素的线程会接着唤醒下一个
+        if (c0 == 0)
+            signalNotEmpty();
+        return n;
+    }
+
     public E take() throws InterruptedException {
         E x;
         int c = -1;
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * A bounded lock-free {@linkplain BlockingQueue blocking queue} for any
+ * number of producer and consumer threads, backed by a ring buffer with
+ * a sequence number per slot.  A producer or consumer claims a slot with
+ * one compare-and-set of its counter and hands it over with one ordered
+ * store of the slot's sequence, so producers contend only with
+ * producers and consumers only with consumers, never on a lock.  It can
+ * be used as the work queue of any {@link ThreadPoolExecutor}, in place
+ * of an {@link ArrayBlockingQueue} of the same capacity.
+ *
+ * <p>The capacity is rounded up to a power of two.  Blocking methods
+ * wait as directed by a {@link WaitStrategy}; with the default
+ * {@link WaitStrategy#PARK}, idle pool threads block as they do on other
+ * queues.  {@code remove(Object)} leaves the removed element's slot to
+ * be skipped by consumers, and iterators are snapshots.  This queue
+ * does not permit {@code null} elements.
+ *
+ * @param <E> the type of elements held in this queue
+ * @since 1.8
+ */
+public class MpmcArrayQueue<E> extends RingBufferQueue<E> {
+
+    /*
+     * This is Vyukov's bounded MPMC queue.  The slot of sequence i holds
+     * sequence number i while it is free for the producer of i, i + 1
+     * once that producer has stored its element, and i + capacity once
+     * the consumer of i has taken it, freeing it for the next lap.  A
+     * producer finding a sequence number below its own, or a consumer
+     * finding one below its own plus one, is a full lap behind: the
+     * queue is full, or empty, unless another thread has claimed the
+     * slot and not yet released it, which is told apart by reading the
+     * other side's counter, as in JCTools.
+     *
+     * The sequence array is padded like the buffer.  The supplier of
+     * fill is called only after a slot is claimed, and a slot whose
+     * supplier failed is released holding SKIP.  remove(Object)
+     * replaces a published element with SKIP by compare-and-set, and
+     * consumers take elements with an atomic swap, so each element goes
+     * to exactly one of them.
+     */
+
+    /** Per-slot sequence numbers, in slots SPAD .. SPAD + capacity - 1. */
+    private final long[] sequences;
+
+    /**
+     * Creates a queue with the given (rounded up) capacity that parks
+     * after spinning briefly, {@link WaitStrategy#PARK}.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public MpmcArrayQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a queue with the given (rounded up) capacity and wait
+     * strategy.
+     *
+     * @param capacity the capacity of this queue
+     * @param waitStrategy how blocking methods wait
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public MpmcArrayQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        long[] seqs = new long[this.capacity + 2 * SPAD];
+        for (int i = 0; i < this.capacity; ++i)
+            seqs[i + SPAD] = i;
+        this.sequences = seqs;
+    }
+
+    private long seqOffset(long index) {
+        return LBASE + (((index & mask) + SPAD) << LSHIFT);
+    }
+
+    /**
+     * Claims the next producer sequence, or returns -1 if full.
+     */
+    private long claimProducer() {
+        final long[] seqs = sequences;
+        for (;;) {
+            long p = producerIndex;
+            long s = U.getLongVolatile(seqs, seqOffset(p));
+            if (s == p) {
+                if (U.compareAndSwapLong(this, PINDEX, p, p + 1))
+                    return p;
+            }
+            else if (s < p && p - capacity >= consumerIndex)
+                return -1L;
+            // otherwise another producer got there first, or a consumer
+            // has claimed the slot a lap ago and is about to release it
+        }
+    }
+
+    /** Stores the element of claimed producer sequence p and publishes it. */
+    private void publish(long p, Object e) {
+        U.putObject(buffer, offset(p), e);
+        U.putOrderedLong(sequences, seqOffset(p), p + 1);
+    }
+
+    boolean relaxedOffer(E e) {
+        long p = claimProducer();
+        if (p < 0L)
+            return false;
+        publish(p, e);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    E relaxedPoll() {
+        final long[] seqs = sequences;
+        for (;;) {
+            long c = consumerIndex;
+            long so = seqOffset(c);
+            long s = U.getLongVolatile(seqs, so);
+            long expected = c + 1;
+            if (s == expected) {
+                if (U.compareAndSwapLong(this, CINDEX, c, expected)) {
+                    // swap rather than read and clear, so that the
+                    // element goes either here or to a racing remove
+                    Object e = U.getAndSetObject(buffer, offset(c), null);
+                    U.putOrderedLong(seqs, so, c + capacity);
+                    if (e != SKIP)
+                        return (E) e;
+                }
+            }
+            else if (s < expected && c >= producerIndex)
+                return null;
+        }
+    }
+
+    int relaxedFill(Supplier<? extends E> supplier, int limit) {
+        int n = 0;
+        for (long p; n < limit && (p = claimProducer()) >= 0L; ++n) {
+            Object e = SKIP;
+            try {
+                e = supply(supplier);
+            } finally {
+                publish(p, e);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Removes a single instance of the specified element from this
+     * queue, if it is present.  The element's slot is not compacted but
+     * marked to be skipped, and is freed when consumers reach it.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null)
+            return false;
+        final long[] seqs = sequences;
+        final long p = producerIndex;
+        for (long i = consumerIndex; i < p; ++i) {
+            // skip slots not yet stored, or already taken
+            if (U.getLongVolatile(seqs, seqOffset(i)) != i + 1)
+                continue;
+            long off = offset(i);
+            Object e = U.getObjectVolatile(buffer, off);
+            if (e != null && e != SKIP && o.equals(e) &&
+                U.compareAndSwapObject(buffer, off, e, SKIP))
+                return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        final long[] seqs = sequences;
+        for (;;) {
+            long c = consumerIndex;
+            long s = U.getLongVolatile(seqs, seqOffset(c));
+            if (s == c + 1) {
+                Object e = U.getObjectVolatile(buffer, offset(c));
+                if (e != null && consumerIndex == c) {
+                    if (e != SKIP)
+                        return (E) e;
+                    if (U.compareAndSwapLong(this, CINDEX, c, c + 1)) {
+                        U.putObject(buffer, offset(c), null);
+                        U.putOrderedLong(seqs, seqOffset(c), c + capacity);
+                    }
+                }
+            }
+            else if (s < c + 1 && c >= producerIndex)
+                return null;
+        }
+    }
+
+    // Unsafe mechanics
+    private static final long LBASE;
+    private static final int LSHIFT;
+    private static final int SPAD;
+    static {
+        try {
+            LBASE = U.arrayBaseOffset(long[].class);
+            int scale = U.arrayIndexScale(long[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            SPAD = PAD_BYTES / scale;
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
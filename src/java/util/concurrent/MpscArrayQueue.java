@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * A bounded lock-free {@linkplain BlockingQueue blocking queue} for any
+ * number of producer threads and one consumer thread, backed by a ring
+ * buffer.  Producers claim a slot with one compare-and-set of the
+ * producer counter, then publish the element with an ordered store; the
+ * consumer takes elements without any atomic read-modify-write.  This
+ * suits a pipeline stage fed by many threads.  It is not suitable as
+ * the work queue of a {@link ThreadPoolExecutor}, which drains and
+ * removes tasks from threads other than its workers.
+ *
+ * <p>At most one thread at a time may remove elements ({@code poll},
+ * {@code take}, {@code drain}, {@code peek}); using several
+ * concurrently corrupts the queue.  See {@link MpmcArrayQueue}
+ * otherwise.  An element whose producer has claimed its slot but not
+ * yet stored the element is counted by {@code size}, and the consumer
+ * waits for it rather than overtaking it, so elements are removed in
+ * the order their slots were claimed.
+ *
+ * <p>The capacity is rounded up to a power of two.  Blocking methods
+ * wait as directed by a {@link WaitStrategy}.  {@code remove(Object)}
+ * is not supported and iterators are snapshots.  This queue does not permit
+ * {@code null} elements.
+ *
+ * @param <E> the type of elements held in this queue
+ * @since 1.8
+ */
+public class MpscArrayQueue<E> extends RingBufferQueue<E> {
+
+    /*
+     * Producers bound their claims by producerLimit, a cached
+     * consumerIndex + capacity, and read the consumer's cache line only
+     * when the cached limit is reached.  The consumer frees a slot with
+     * a plain null store followed by the ordered store of
+     * consumerIndex, which producers acquire before reusing the slot.
+     * fill claims a run of slots with one compare-and-set; if the
+     * supplier fails part way, the rest of the run is filled with SKIP
+     * so that the consumer is not left waiting on slots no one will
+     * store.
+     */
+
+    /**
+     * Creates a queue with the given (rounded up) capacity that parks
+     * after spinning briefly, {@link WaitStrategy#PARK}.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public MpscArrayQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a queue with the given (rounded up) capacity and wait
+     * strategy.
+     *
+     * @param capacity the capacity of this queue
+     * @param waitStrategy how blocking methods wait
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public MpscArrayQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    boolean relaxedOffer(E e) {
+        long limit = producerLimit, p;
+        do {
+            p = producerIndex;
+            if (p >= limit) {
+                limit = consumerIndex + capacity;
+                if (p >= limit)
+                    return false;
+                U.putOrderedLong(this, PLIMIT, limit);
+            }
+        } while (!U.compareAndSwapLong(this, PINDEX, p, p + 1));
+        U.putOrderedObject(buffer, offset(p), e);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    E relaxedPoll() {
+        for (;;) {
+            long c = consumerIndex;
+            long off = offset(c);
+            Object e = U.getObjectVolatile(buffer, off);
+            if (e == null) {
+                if (c == producerIndex)
+                    return null;
+                // claimed but not yet stored; the producer is between its two steps
+                do {
+                    e = U.getObjectVolatile(buffer, off);
+                } while (e == null);
+            }
+            U.putObject(buffer, off, null);
+            U.putOrderedLong(this, CINDEX, c + 1);
+            if (e != SKIP)
+                return (E) e;
+        }
+    }
+
+    int relaxedFill(Supplier<? extends E> supplier, int limit) {
+        if (limit == 0)
+            return 0;
+        long bound = producerLimit, p;
+        int k;
+        do {
+            p = producerIndex;
+            long avail = bound - p;
+            if (avail < limit) {
+                bound = consumerIndex + capacity;
+                if ((avail = bound - p) <= 0L)
+                    return 0;
+                U.putOrderedLong(this, PLIMIT, bound);
+            }
+            k = (int) Math.min(avail, (long) limit);
+        } while (!U.compareAndSwapLong(this, PINDEX, p, p + k));
+        int n = 0;
+        try {
+            for (; n < k; ++n)
+                U.putOrderedObject(buffer, offset(p + n), supply(supplier));
+        } finally {
+            for (int i = n; i < k; ++i)
+                U.putOrderedObject(buffer, offset(p + i), SKIP);
+        }
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            long off = offset(c);
+            Object e = U.getObjectVolatile(buffer, off);
+            if (e == null) {
+                if (c == producerIndex)
+                    return null;
+                do {
+                    e = U.getObjectVolatile(buffer, off);
+                } while (e == null);
+            }
+            if (e != SKIP)
+                return (E) e;
+            // consumer only, so skipped slots can be released here
+            U.putObject(buffer, off, null);
+            U.putOrderedLong(this, CINDEX, c + 1);
+        }
+    }
+}
@@ -0,0 +1,1509 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A concurrent hash map whose keys and values live outside the Java heap,
+ * serialized into large {@link ByteBuffer#allocateDirect direct} buffers
+ * ("slabs"), or optionally into a memory-mapped file.  The map retains
+ * no Java objects per mapping: the hash tables are primitive
+ * {@code long} arrays, and every entry is a chunk of slab memory.  It
+ * is intended for very large caches whose on-heap representation
+ * ({@code ConcurrentHashMap.Node} plus key and value graphs) would
+ * dominate garbage collection time.
+ *
+ * <p>Keys and values are converted to and from bytes by user supplied
+ * {@link Codec}s.  Two keys are the same key if and only if their
+ * encodings are equal byte for byte; the {@code equals} and
+ * {@code hashCode} methods of the key class are never used.  Likewise
+ * {@link #remove(Object, Object)} and {@link #replace(Object, Object,
+ * Object)} compare encoded values.  Every retrieval decodes a fresh
+ * copy of the value, so mutating a returned value has no effect on the
+ * map.  Neither keys nor values may be {@code null}.
+ *
+ * <p>Like {@link ConcurrentHashMap}, the map is split into bins, and a
+ * bin is claimed for update by a CAS on a per-bin word (compare {@code
+ * ConcurrentHashMap.casTabAt}).  That word doubles as a sequence
+ * number, so retrievals normally run without locking: they read the
+ * word, walk the bin, and confirm that the word did not change.  The
+ * bins are grouped into segments that resize independently.  As with
+ * {@code ConcurrentHashMap.compute}, the functions passed to the
+ * {@code compute} and {@code merge} methods run while their bin is
+ * claimed, so they must be short and must not access this map.
+ *
+ * <p>A map created by {@link #open(Path, Codec, Codec)} keeps its slabs
+ * in the given file.  After {@link #close} (or {@link #force}) the file
+ * holds every mapping, and opening it again rebuilds the map without
+ * decoding any entries.  A map that was not closed cleanly may have lost
+ * recent updates.
+ *
+ * <p>Iterators and the {@link #size} and {@link #mappingCount} methods
+ * are weakly consistent in the same sense as those of
+ * {@code ConcurrentHashMap}.  A map must not be used once it has been
+ * closed, and {@code close} must not race with other operations.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see ConcurrentHashMap
+ * @since 1.8
+ */
+public class OffHeapConcurrentHashMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V>, AutoCloseable {
+
+    /**
+     * Converts objects to and from their off-heap byte representation.
+     * Implementations must be thread-safe, and {@code encode} must write
+     * exactly {@code encodedSize(t)} bytes.
+     *
+     * @param <T> the type of encoded objects
+     */
+    public interface Codec<T> {
+        /**
+         * Returns the number of bytes {@link #encode} writes for
+         * {@code t}.
+         *
+         * @param t the object to encode
+         * @return the encoded size in bytes
+         */
+        int encodedSize(T t);
+
+        /**
+         * Writes the encoding of {@code t} at the position of
+         * {@code dst}, advancing the position.
+         *
+         * @param t the object to encode
+         * @param dst the buffer to write to
+         */
+        void encode(T t, ByteBuffer dst);
+
+        /**
+         * Reads an object from the remaining bytes of {@code src}.
+         *
+         * @param src a buffer holding exactly one encoding
+         * @return the decoded object
+         */
+        T decode(ByteBuffer src);
+    }
+
+    /* ---------------- Constants -------------- */
+
+    /** Default slab size, 64MB. */
+    static final int DEFAULT_SLAB_SIZE = 1 << 26;
+
+    /** Smallest and largest supported slab sizes. */
+    static final int MIN_SLAB_SIZE = 1 << 12;
+    static final int MAX_SLAB_SIZE = 1 << 30;
+
+    /** Default number of independently resized segments. */
+    static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+    static final int MAX_SEGMENTS = 1 << 16;
+
+    /** Largest table of a single segment. */
+    static final int MAXIMUM_BINS = 1 << 30;
+
+    static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Bin word of a bin that has been transferred to a larger table,
+     * playing the role of {@code ConcurrentHashMap.ForwardingNode}.
+     * Any other odd value means the bin is claimed by an updater.
+     */
+    static final long MOVED = -1L;
+
+    /** Busy-wait iterations before yielding while a bin is claimed. */
+    static final int SPINS = 1 << 6;
+
+    /** Unlocked retrieval attempts before claiming the bin instead. */
+    static final int OPTIMISTIC_TRIES = 4;
+
+    /*
+     * Slab layout: a 16 byte header (magic, slab size, allocation top)
+     * followed by chunks.  Chunk sizes are powers of two, so a slab can
+     * be walked chunk by chunk up to its top, which is how a file backed
+     * map is recovered.  Chunk layout:
+     *
+     *   0  byte   size class (log2 of the chunk size)
+     *   1  byte   state (FREE_CHUNK or LIVE_CHUNK)
+     *   4  int    key hash
+     *   8  long   reference of the next chunk in the bin, or free list
+     *  16  int    key length
+     *  20  int    value length
+     *  24         key bytes, then value bytes
+     *
+     * A chunk reference is ((slab index + 1) << 32) | offset, so that
+     * zero never refers to a chunk.
+     */
+    static final int SLAB_MAGIC     = 0x4F48434D;
+    static final int S_SLAB_SIZE    = 4;
+    static final int S_TOP          = 8;
+    static final int SLAB_HEADER    = 16;
+
+    static final int C_CLASS        = 0;
+    static final int C_STATE        = 1;
+    static final int C_HASH         = 4;
+    static final int C_NEXT         = 8;
+    static final int C_KLEN         = 16;
+    static final int C_VLEN         = 20;
+    static final int CHUNK_HEADER   = 24;
+    static final int MIN_CHUNK_SHIFT = 5;
+
+    static final byte FREE_CHUNK    = 0;
+    static final byte LIVE_CHUNK    = 1;
+
+    /* ---------------- Fields -------------- */
+
+    final Codec<K> keyCodec;
+    final Codec<V> valueCodec;
+    final Arena arena;
+    final Segment[] segments;
+    final int segmentMask;
+    volatile boolean closed;
+
+    /* ---------------- Tables -------------- */
+
+    /**
+     * The table of one segment: bin heads and bin words, both plain
+     * long arrays that the collector never has to scan.
+     */
+    static final class Table {
+        final long[] bins;
+        final long[] stamps;
+        final int threshold;
+        Table(int n) {
+            bins = new long[n];
+            stamps = new long[n];
+            threshold = (n >= MAXIMUM_BINS) ? Integer.MAX_VALUE :
+                (int)(n * LOAD_FACTOR);
+        }
+    }
+
+    /**
+     * An independently resized part of the map.  Resizing holds the
+     * segment monitor, and so do operations that must see a table that
+     * is not about to be transferred (clear and iteration).
+     */
+    static final class Segment {
+        volatile Table table;
+        final AtomicInteger count = new AtomicInteger();
+        Segment(int n) { table = new Table(n); }
+    }
+
+    static final long stampAt(long[] st, int i) {
+        return U.getLongVolatile(st, ((long)i << LSHIFT) + LBASE);
+    }
+
+    static final boolean casStamp(long[] st, int i, long c, long v) {
+        return U.compareAndSwapLong(st, ((long)i << LSHIFT) + LBASE, c, v);
+    }
+
+    static final void setStamp(long[] st, int i, long v) {
+        U.putLongVolatile(st, ((long)i << LSHIFT) + LBASE, v);
+    }
+
+    /**
+     * Claims bin {@code i}, returning the (odd) claimed stamp, or
+     * {@code MOVED} if the bin has been transferred.  The claim is
+     * released by {@code setStamp(st, i, stamp + 1)}.
+     */
+    static final long lockBin(long[] st, int i) {
+        for (int spins = 0;;) {
+            long s = stampAt(st, i);
+            if (s == MOVED)
+                return MOVED;
+            if ((s & 1L) == 0L && casStamp(st, i, s, s + 1L))
+                return s + 1L;
+            if (++spins >= SPINS) {
+                spins = 0;
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Waits for the transfer that moved a bin of {@code t} to publish
+     * the next table.
+     */
+    static final void awaitResize(Segment seg, Table t) {
+        while (seg.table == t)
+            Thread.yield();
+    }
+
+    /* ---------------- Slab memory -------------- */
+
+    /**
+     * Allocates power-of-two chunks from slabs.  Freed chunks are kept
+     * on one list per size class; new chunks are cut from the end of the
+     * current slab.
+     */
+    static final class Arena {
+        final int slabSize;
+        final int maxShift;
+        final FileChannel channel;     // null unless file backed
+        volatile ByteBuffer[] slabs = new ByteBuffer[0];
+        int current = -1;              // slab cut from; guarded by this
+        final long[] freeHeads;        // guarded by freeLocks[class]
+        final Object[] freeLocks;
+
+        Arena(int slabSize, FileChannel channel) {
+            this.slabSize = slabSize;
+            this.channel = channel;
+            this.maxShift = 31 - Integer.numberOfLeadingZeros(slabSize - SLAB_HEADER);
+            freeHeads = new long[maxShift + 1];
+            freeLocks = new Object[maxShift + 1];
+            for (int c = 0; c <= maxShift; ++c)
+                freeLocks[c] = new Object();
+        }
+
+        final ByteBuffer slab(long ref) {
+            return slabs[(int)(ref >>> 32) - 1];
+        }
+
+        final int chunkShift(int size) {
+            int shift = Math.max(MIN_CHUNK_SHIFT,
+                                 32 - Integer.numberOfLeadingZeros(size - 1));
+            if (size <= 0 || shift > maxShift)
+                throw new IllegalArgumentException("Entry of " + size +
+                                                   " bytes exceeds slab size");
+            return shift;
+        }
+
+        /**
+         * Returns a chunk of at least {@code size} bytes, with its size
+         * class recorded and its state still FREE_CHUNK.
+         */
+        final long allocate(int size) {
+            int shift = chunkShift(size);
+            synchronized (freeLocks[shift]) {
+                long ref = freeHeads[shift];
+                if (ref != 0L) {
+                    freeHeads[shift] = slab(ref).getLong((int)ref + C_NEXT);
+                    return ref;
+                }
+            }
+            return cut(shift);
+        }
+
+        private synchronized long cut(int shift) {
+            int size = 1 << shift;
+            ByteBuffer b = null;
+            long top = 0L;
+            if (current >= 0) {
+                b = slabs[current];
+                top = b.getLong(S_TOP);
+            }
+            if (b == null || top + size > slabSize) {
+                b = addSlab();
+                top = SLAB_HEADER;
+            }
+            int off = (int)top;
+            b.put(off + C_CLASS, (byte)shift);
+            b.put(off + C_STATE, FREE_CHUNK);
+            b.putLong(S_TOP, top + size);
+            return ((long)(current + 1) << 32) | off;
+        }
+
+        private ByteBuffer addSlab() {
+            ByteBuffer[] ss = slabs;
+            int n = ss.length;
+            ByteBuffer b = newSlab(n);
+            b.putInt(0, SLAB_MAGIC);
+            b.putInt(S_SLAB_SIZE, slabSize);
+            b.putLong(S_TOP, SLAB_HEADER);
+            ss = Arrays.copyOf(ss, n + 1);
+            ss[n] = b;
+            slabs = ss;
+            current = n;
+            return b;
+        }
+
+        private ByteBuffer newSlab(int index) {
+            if (channel == null)
+                return ByteBuffer.allocateDirect(slabSize);
+            try {
+                return channel.map(FileChannel.MapMode.READ_WRITE,
+                                   (long)index * slabSize, slabSize);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Cannot map slab " + index, ex);
+            }
+        }
+
+        final void free(long ref) {
+            ByteBuffer b = slab(ref);
+            int off = (int)ref;
+            int shift = b.get(off + C_CLASS);
+            b.put(off + C_STATE, FREE_CHUNK);
+            synchronized (freeLocks[shift]) {
+                b.putLong(off + C_NEXT, freeHeads[shift]);
+                freeHeads[shift] = ref;
+            }
+        }
+
+        /**
+         * Maps the slabs already present in the file and rebuilds the
+         * free lists.  Returns the number of live chunks.
+         */
+        final long recover() throws IOException {
+            int n = (int)(channel.size() / slabSize);
+            long live = 0L;
+            ByteBuffer[] ss = new ByteBuffer[n];
+            for (int i = 0; i < n; ++i) {
+                ByteBuffer b = ss[i] = newSlab(i);
+                if (b.getInt(0) != SLAB_MAGIC || b.getInt(S_SLAB_SIZE) != slabSize)
+                    throw new IOException("Corrupt slab " + i);
+                long top = b.getLong(S_TOP);
+                for (long off = SLAB_HEADER; off < top; ) {
+                    int shift = b.get((int)off + C_CLASS);
+                    if (shift < MIN_CHUNK_SHIFT || shift > maxShift)
+                        throw new IOException("Corrupt chunk in slab " + i);
+                    if (b.get((int)off + C_STATE) == LIVE_CHUNK)
+                        ++live;
+                    else {
+                        b.putLong((int)off + C_NEXT, freeHeads[shift]);
+                        freeHeads[shift] = ((long)(i + 1) << 32) | off;
+                    }
+                    off += 1L << shift;
+                }
+            }
+            slabs = ss;
+            current = n - 1;
+            return live;
+        }
+
+        final long reservedBytes() {
+            return (long)slabs.length * slabSize;
+        }
+    }
+
+    /* ---------------- Constructors -------------- */
+
+    /**
+     * Creates a new, empty map backed by direct buffers, with default
+     * sizing.
+     *
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this(keyCodec, valueCodec, 16, DEFAULT_CONCURRENCY_LEVEL,
+             DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map backed by direct buffers.
+     *
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @param initialCapacity the number of mappings to size the tables
+     *        for
+     * @param concurrencyLevel the estimated number of concurrently
+     *        updating threads, used as the number of segments
+     * @param slabSize the size in bytes of each direct buffer, which also
+     *        bounds the encoded size of a single mapping
+     * @throws IllegalArgumentException if the initial capacity is
+     *         negative, the concurrency level is not positive, or the
+     *         slab size is out of range
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec,
+                                    int initialCapacity, int concurrencyLevel,
+                                    int slabSize) {
+        this(keyCodec, valueCodec, initialCapacity, concurrencyLevel,
+             new Arena(checkSlabSize(slabSize), null));
+    }
+
+    private OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec,
+                                     long initialCapacity, int concurrencyLevel,
+                                     Arena arena) {
+        if (keyCodec == null || valueCodec == null)
+            throw new NullPointerException();
+        if (initialCapacity < 0 || concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+        int ns = 1;
+        while (ns < concurrencyLevel && ns < MAX_SEGMENTS)
+            ns <<= 1;
+        long perSegment = (long)(1.0 + initialCapacity / ns / LOAD_FACTOR);
+        int n = 2;
+        while (n < perSegment && n < MAXIMUM_BINS)
+            n <<= 1;
+        Segment[] segs = new Segment[ns];
+        for (int i = 0; i < ns; ++i)
+            segs[i] = new Segment(n);
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.arena = arena;
+        this.segments = segs;
+        this.segmentMask = ns - 1;
+    }
+
+    static int checkSlabSize(int slabSize) {
+        if (slabSize < MIN_SLAB_SIZE || slabSize > MAX_SLAB_SIZE)
+            throw new IllegalArgumentException("Illegal slab size: " + slabSize);
+        return slabSize;
+    }
+
+    /**
+     * Opens a map whose slabs are memory-mapped from {@code file},
+     * creating the file if it does not exist, with the default slab size
+     * and concurrency level.
+     *
+     * @param file the backing file
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return the map
+     * @throws IOException if the file cannot be opened or mapped, or is
+     *         not a map file
+     */
+    public static <K,V> OffHeapConcurrentHashMap<K,V> open(Path file,
+                                                           Codec<K> keyCodec,
+                                                           Codec<V> valueCodec)
+        throws IOException {
+        return open(file, keyCodec, valueCodec, DEFAULT_CONCURRENCY_LEVEL,
+                    DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Opens a map whose slabs are memory-mapped from {@code file},
+     * creating the file if it does not exist.  An existing file must
+     * have been written with the same slab size and compatible codecs.
+     *
+     * @param file the backing file
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @param concurrencyLevel the number of segments
+     * @param slabSize the size in bytes of each mapped region
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @return the map
+     * @throws IOException if the file cannot be opened or mapped, or is
+     *         not a map file
+     */
+    public static <K,V> OffHeapConcurrentHashMap<K,V> open(Path file,
+                                                           Codec<K> keyCodec,
+                                                           Codec<V> valueCodec,
+                                                           int concurrencyLevel,
+                                                           int slabSize)
+        throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                                          StandardOpenOption.READ,
+                                          StandardOpenOption.WRITE);
+        try {
+            Arena arena = new Arena(checkSlabSize(slabSize), ch);
+            long live = arena.recover();
+            OffHeapConcurrentHashMap<K,V> m =
+                new OffHeapConcurrentHashMap<K,V>(keyCodec, valueCodec, live,
+                                                  concurrencyLevel, arena);
+            m.relink();
+            return m;
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Links every live chunk of a recovered arena into the tables,
+     * which were sized for them, so no resizing happens.
+     */
+    private void relink() {
+        ByteBuffer[] ss = arena.slabs;
+        for (int i = 0; i < ss.length; ++i) {
+            ByteBuffer b = ss[i];
+            long top = b.getLong(S_TOP);
+            for (long off = SLAB_HEADER; off < top; off += 1L << b.get((int)off + C_CLASS)) {
+                if (b.get((int)off + C_STATE) != LIVE_CHUNK)
+                    continue;
+                int h = b.getInt((int)off + C_HASH);
+                Segment seg = segmentFor(h);
+                long[] bins = seg.table.bins;
+                int j = h & (bins.length - 1);
+                b.putLong((int)off + C_NEXT, bins[j]);
+                bins[j] = ((long)(i + 1) << 32) | off;
+                seg.count.incrementAndGet();
+            }
+        }
+    }
+
+    /* ---------------- Hashing and encoding -------------- */
+
+    final Segment segmentFor(int h) {
+        return segments[((h * 0x9E3779B9) >>> 16) & segmentMask];
+    }
+
+    /**
+     * Hashes encoded key bytes eight at a time.
+     */
+    static int hash(ByteBuffer kb) {
+        int n = kb.limit(), i = 0;
+        long h = n * 0x9E3779B97F4A7C15L;
+        for (; i + 8 <= n; i += 8)
+            h = Long.rotateLeft(h ^ kb.getLong(i), 27) * 0x9E3779B97F4A7C15L;
+        for (; i < n; ++i)
+            h = (h ^ (kb.get(i) & 0xff)) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int)(h ^ (h >>> 16));
+    }
+
+    static <T> ByteBuffer encode(Codec<T> codec, T t) {
+        if (t == null)
+            throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocate(codec.encodedSize(t));
+        codec.encode(t, b);
+        b.flip();
+        return b;
+    }
+
+    @SuppressWarnings("unchecked")
+    final ByteBuffer encodeKey(Object key) {
+        if (closed)
+            throw new IllegalStateException("Map is closed");
+        return encode(keyCodec, (K)key);
+    }
+
+    final V decodeValue(byte[] vb) {
+        return valueCodec.decode(ByteBuffer.wrap(vb));
+    }
+
+    /**
+     * Returns true if the chunk at {@code off} holds the key encoded in
+     * {@code kb}.
+     */
+    static boolean keyEquals(ByteBuffer b, int off, int h, ByteBuffer kb) {
+        int n = kb.limit();
+        if (b.getInt(off + C_HASH) != h || b.getInt(off + C_KLEN) != n)
+            return false;
+        int p = off + CHUNK_HEADER, i = 0;
+        for (; i + 8 <= n; i += 8) {
+            if (b.getLong(p + i) != kb.getLong(i))
+                return false;
+        }
+        for (; i < n; ++i) {
+            if (b.get(p + i) != kb.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    static boolean valueEquals(ByteBuffer b, int off, ByteBuffer vb) {
+        int n = vb.limit();
+        if (b.getInt(off + C_VLEN) != n)
+            return false;
+        int p = off + CHUNK_HEADER + b.getInt(off + C_KLEN);
+        for (int i = 0; i < n; ++i) {
+            if (b.get(p + i) != vb.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copies the value bytes of the chunk at {@code off}, validating the
+     * lengths so that a chunk reused under an unlocked reader cannot
+     * trigger a huge allocation.
+     */
+    static byte[] copyValue(ByteBuffer b, int off) {
+        int shift = b.get(off + C_CLASS);
+        int klen = b.getInt(off + C_KLEN), vlen = b.getInt(off + C_VLEN);
+        if (shift < MIN_CHUNK_SHIFT || shift > 30 || klen < 0 || vlen < 0 ||
+            (long)CHUNK_HEADER + klen + vlen > (1L << shift))
+            throw new IllegalStateException();
+        byte[] a = new byte[vlen];
+        ByteBuffer d = b.duplicate();
+        d.position(off + CHUNK_HEADER + klen);
+        d.get(a);
+        return a;
+    }
+
+    /**
+     * Writes a new live chunk for the given encodings and returns its
+     * reference.  The caller links it into a claimed bin.
+     */
+    final long newChunk(int h, ByteBuffer kb, ByteBuffer vb, long next) {
+        int klen = kb.limit(), vlen = vb.limit();
+        long ref = arena.allocate(CHUNK_HEADER + klen + vlen);
+        ByteBuffer b = arena.slab(ref);
+        int off = (int)ref;
+        b.putInt(off + C_HASH, h);
+        b.putLong(off + C_NEXT, next);
+        b.putInt(off + C_KLEN, klen);
+        b.putInt(off + C_VLEN, vlen);
+        ByteBuffer d = b.duplicate();
+        d.position(off + CHUNK_HEADER);
+        d.put(kb.duplicate());
+        d.put(vb.duplicate());
+        b.put(off + C_STATE, LIVE_CHUNK);
+        return ref;
+    }
+
+    /**
+     * Stores {@code vb} as the value of chunk {@code ref} in bin
+     * {@code i}, overwriting it in place when it fits, and returns the
+     * reference now holding the mapping.  Called with the bin claimed.
+     */
+    final long replaceValue(Table t, int i, long pred, long ref, ByteBuffer vb) {
+        ByteBuffer b = arena.slab(ref);
+        int off = (int)ref;
+        int klen = b.getInt(off + C_KLEN), vlen = vb.limit();
+        if (CHUNK_HEADER + klen + vlen <= (1 << b.get(off + C_CLASS))) {
+            b.putInt(off + C_VLEN, vlen);
+            ByteBuffer d = b.duplicate();
+            d.position(off + CHUNK_HEADER + klen);
+            d.put(vb.duplicate());
+            return ref;
+        }
+        ByteBuffer kb = b.duplicate();
+        kb.position(off + CHUNK_HEADER).limit(off + CHUNK_HEADER + klen);
+        long r = newChunk(b.getInt(off + C_HASH), kb.slice(), vb,
+                          b.getLong(off + C_NEXT));
+        link(t, i, pred, r);
+        arena.free(ref);
+        return r;
+    }
+
+    /**
+     * Makes {@code pred} (or the bin head if pred is zero) point to
+     * {@code ref}.  Called with the bin claimed.
+     */
+    final void link(Table t, int i, long pred, long ref) {
+        if (pred == 0L)
+            t.bins[i] = ref;
+        else
+            arena.slab(pred).putLong((int)pred + C_NEXT, ref);
+    }
+
+    /**
+     * Unlinks and frees chunk {@code ref}.  Called with the bin claimed.
+     */
+    final void unlink(Table t, int i, long pred, long ref) {
+        link(t, i, pred, arena.slab(ref).getLong((int)ref + C_NEXT));
+        arena.free(ref);
+    }
+
+    /* ---------------- Retrieval -------------- */
+
+    /**
+     * Returns a copy of the value bytes mapped to the encoded key, or
+     * null.  Tries a few unlocked traversals validated against the bin
+     * word before claiming the bin.
+     */
+    final byte[] readValue(ByteBuffer kb, int h) {
+        Segment seg = segmentFor(h);
+        for (int tries = 0;;) {
+            Table t = seg.table;
+            long[] st = t.stamps;
+            int i = h & (st.length - 1);
+            long s = stampAt(st, i);
+            if (s == MOVED)
+                awaitResize(seg, t);
+            else if (tries++ < OPTIMISTIC_TRIES) {
+                if ((s & 1L) != 0L)
+                    continue;
+                byte[] v = null;
+                try {
+                    for (long ref = t.bins[i]; ref != 0L; ) {
+                        ByteBuffer b = arena.slab(ref);
+                        int off = (int)ref;
+                        if (keyEquals(b, off, h, kb)) {
+                            v = copyValue(b, off);
+                            break;
+                        }
+                        ref = b.getLong(off + C_NEXT);
+                        if (stampAt(st, i) != s)
+                            break;
+                    }
+                } catch (RuntimeException ex) {
+                    continue; // walked into a chunk that was being reused
+                }
+                U.loadFence();
+                if (stampAt(st, i) == s)
+                    return v;
+            }
+            else {
+                long ls = lockBin(st, i);
+                if (ls == MOVED) {
+                    awaitResize(seg, t);
+                    continue;
+                }
+                try {
+                    for (long ref = t.bins[i]; ref != 0L; ) {
+                        ByteBuffer b = arena.slab(ref);
+                        int off = (int)ref;
+                        if (keyEquals(b, off, h, kb))
+                            return copyValue(b, off);
+                        ref = b.getLong(off + C_NEXT);
+                    }
+                    return null;
+                } finally {
+                    setStamp(st, i, ls + 1L);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws ClassCastException if the key cannot be encoded by the
+     *         key codec
+     */
+    public V get(Object key) {
+        ByteBuffer kb = encodeKey(key);
+        byte[] v = readValue(kb, hash(kb));
+        return (v == null) ? null : decodeValue(v);
+    }
+
+    /**
+     * Tests if the specified object is a key in this map.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        ByteBuffer kb = encodeKey(key);
+        return readValue(kb, hash(kb)) != null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or the
+     * given default value if this map contains no mapping for the key.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getOrDefault(Object key, V defaultValue) {
+        V v;
+        return (v = get(key)) == null ? defaultValue : v;
+    }
+
+    /* ---------------- Updates -------------- */
+
+    /**
+     * Maps the specified key to the specified value in this map.
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        ByteBuffer kb = encodeKey(key);
+        ByteBuffer vb = encode(valueCodec, value);
+        int h = hash(kb);
+        Segment seg = segmentFor(h);
+        byte[] old = null;
+        Table t;
+        for (;;) {
+            t = seg.table;
+            long[] st = t.stamps;
+            int i = h & (st.length - 1);
+            long ls = lockBin(st, i);
+            if (ls == MOVED) {
+                awaitResize(seg, t);
+                continue;
+            }
+            try {
+                long pred = 0L, ref = t.bins[i];
+                for (; ref != 0L; pred = ref, ref = arena.slab(ref).getLong((int)ref + C_NEXT)) {
+                    if (keyEquals(arena.slab(ref), (int)ref, h, kb))
+                        break;
+                }
+                if (ref != 0L) {
+                    old = copyValue(arena.slab(ref), (int)ref);
+                    if (!onlyIfAbsent)
+                        replaceValue(t, i, pred, ref, vb);
+                    break;
+                }
+                t.bins[i] = newChunk(h, kb, vb, t.bins[i]);
+            } finally {
+                setStamp(st, i, ls + 1L);
+            }
+            addCount(seg, t, 1);
+            break;
+        }
+        return (old == null) ? null : decodeValue(old);
+    }
+
+    /**
+     * Adjusts the segment count, resizing its table if it is now above
+     * threshold.
+     */
+    final void addCount(Segment seg, Table t, int delta) {
+        if (seg.count.addAndGet(delta) > t.threshold && delta > 0)
+            resize(seg, t);
+    }
+
+    /**
+     * Moves every bin of {@code t} into a table twice as large.  Each
+     * old bin is claimed and left marked MOVED, so operations racing
+     * with the transfer wait for the new table instead of updating the
+     * old one.
+     */
+    private void resize(Segment seg, Table t) {
+        synchronized (seg) {
+            int n;
+            if (seg.table != t || (n = t.bins.length) >= MAXIMUM_BINS)
+                return;
+            Table nt = new Table(n << 1);
+            long[] nb = nt.bins, st = t.stamps;
+            int mask = (n << 1) - 1;
+            for (int i = 0; i < n; ++i) {
+                for (int spins = 0;;) {
+                    long s = stampAt(st, i);
+                    if ((s & 1L) == 0L && casStamp(st, i, s, MOVED))
+                        break;
+                    if (++spins >= SPINS) {
+                        spins = 0;
+                        Thread.yield();
+                    }
+                }
+                for (long ref = t.bins[i], next; ref != 0L; ref = next) {
+                    ByteBuffer b = arena.slab(ref);
+                    int off = (int)ref;
+                    next = b.getLong(off + C_NEXT);
+                    int j = b.getInt(off + C_HASH) & mask;
+                    b.putLong(off + C_NEXT, nb[j]);
+                    nb[j] = ref;
+                }
+            }
+            seg.table = nt;
+        }
+    }
+
+    /**
+     * Implementation for the four public remove/replace methods:
+     * Replaces the value with {@code value} (or removes the mapping if
+     * {@code value} is null), conditionally upon a match of the current
+     * value against {@code cv} if non-null.  Returns the previous value
+     * bytes, or null if nothing was changed.
+     */
+    final byte[] replaceNode(Object key, V value, Object cv) {
+        ByteBuffer kb = encodeKey(key);
+        ByteBuffer vb = (value == null) ? null : encode(valueCodec, value);
+        @SuppressWarnings("unchecked")
+        ByteBuffer cb = (cv == null) ? null : encode(valueCodec, (V)cv);
+        int h = hash(kb);
+        Segment seg = segmentFor(h);
+        for (;;) {
+            Table t = seg.table;
+            long[] st = t.stamps;
+            int i = h & (st.length - 1);
+            long ls = lockBin(st, i);
+            if (ls == MOVED) {
+                awaitResize(seg, t);
+                continue;
+            }
+            byte[] old = null;
+            try {
+                long pred = 0L, ref = t.bins[i];
+                for (; ref != 0L; pred = ref, ref = arena.slab(ref).getLong((int)ref + C_NEXT)) {
+                    if (keyEquals(arena.slab(ref), (int)ref, h, kb))
+                        break;
+                }
+                if (ref == 0L || (cb != null && !valueEquals(arena.slab(ref), (int)ref, cb)))
+                    return null;
+                old = copyValue(arena.slab(ref), (int)ref);
+                if (vb != null)
+                    replaceValue(t, i, pred, ref, vb);
+                else
+                    unlink(t, i, pred, ref);
+            } finally {
+                setStamp(st, i, ls + 1L);
+            }
+            if (vb == null)
+                addCount(seg, t, -1);
+            return old;
+        }
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        byte[] old = replaceNode(key, null, null);
+        return (old == null) ? null : decodeValue(old);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && replaceNode(key, null, value) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return replaceNode(key, newValue, oldValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        byte[] old = replaceNode(key, value, null);
+        return (old == null) ? null : decodeValue(old);
+    }
+
+    /* ---------------- Computation -------------- */
+
+    static final int COMPUTE_IF_ABSENT  = 0;
+    static final int COMPUTE_IF_PRESENT = 1;
+    static final int COMPUTE            = 2;
+    static final int MERGE              = 3;
+
+    /**
+     * Shared implementation of the compute and merge methods.  The
+     * function runs with the bin claimed; the current value is decoded
+     * from the chunk before the call and the result encoded after it.
+     */
+    final V doCompute(K key, int mode,
+                      Function<? super K, ? extends V> mappingFunction,
+                      BiFunction<? super K, ? super V, ? extends V> remappingFunction,
+                      V value,
+                      BiFunction<? super V, ? super V, ? extends V> mergeFunction) {
+        ByteBuffer kb = encodeKey(key);
+        int h = hash(kb);
+        Segment seg = segmentFor(h);
+        for (;;) {
+            Table t = seg.table;
+            long[] st = t.stamps;
+            int i = h & (st.length - 1);
+            long ls = lockBin(st, i);
+            if (ls == MOVED) {
+                awaitResize(seg, t);
+                continue;
+            }
+            int delta = 0;
+            V val;
+            try {
+                long pred = 0L, ref = t.bins[i];
+                for (; ref != 0L; pred = ref, ref = arena.slab(ref).getLong((int)ref + C_NEXT)) {
+                    if (keyEquals(arena.slab(ref), (int)ref, h, kb))
+                        break;
+                }
+                V old = (ref == 0L) ? null :
+                    decodeValue(copyValue(arena.slab(ref), (int)ref));
+                switch (mode) {
+                case COMPUTE_IF_ABSENT:
+                    val = (old != null) ? old : mappingFunction.apply(key);
+                    break;
+                case COMPUTE_IF_PRESENT:
+                    val = (old == null) ? null : remappingFunction.apply(key, old);
+                    break;
+                case COMPUTE:
+                    val = remappingFunction.apply(key, old);
+                    break;
+                default:
+                    val = (old == null) ? value : mergeFunction.apply(old, value);
+                    break;
+                }
+                if (val == null) {
+                    if (ref != 0L) {
+                        unlink(t, i, pred, ref);
+                        delta = -1;
+                    }
+                }
+                else if (ref == 0L) {
+                    t.bins[i] = newChunk(h, kb, encode(valueCodec, val), t.bins[i]);
+                    delta = 1;
+                }
+                else if (val != old)
+                    replaceValue(t, i, pred, ref, encode(valueCodec, val));
+            } finally {
+                setStamp(st, i, ls + 1L);
+            }
+            if (delta != 0)
+                addCount(seg, t, delta);
+            return val;
+        }
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function
+     * and enters it into this map unless {@code null}.  The function is
+     * applied with the key's bin claimed, so it should be short and must
+     * not attempt to update any other mappings of this map.
+     *
+     * @throws NullPointerException if the specified key or mappingFunction
+     *         is null
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        V v = get(key);
+        return (v != null) ? v :
+            doCompute(key, COMPUTE_IF_ABSENT, mappingFunction, null, null, null);
+    }
+
+    /**
+     * If the value for the specified key is present, attempts to
+     * compute a new mapping given the key and its current mapped value.
+     * The function is applied with the key's bin claimed.
+     *
+     * @throws NullPointerException if the specified key or remappingFunction
+     *         is null
+     */
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null || remappingFunction == null)
+            throw new NullPointerException();
+        return doCompute(key, COMPUTE_IF_PRESENT, null, remappingFunction, null, null);
+    }
+
+    /**
+     * Attempts to compute a mapping for the specified key and its
+     * current mapped value (or {@code null} if there is no current
+     * mapping).  The function is applied with the key's bin claimed.
+     *
+     * @throws NullPointerException if the specified key or remappingFunction
+     *         is null
+     */
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null || remappingFunction == null)
+            throw new NullPointerException();
+        return doCompute(key, COMPUTE, null, remappingFunction, null, null);
+    }
+
+    /**
+     * If the specified key is not already associated with a (non-null)
+     * value, associates it with the given value.  Otherwise, replaces
+     * the value with the results of the given remapping function, or
+     * removes if {@code null}.  The function is applied with the key's
+     * bin claimed.
+     *
+     * @throws NullPointerException if the specified key or the
+     *         remappingFunction is null
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (key == null || value == null || remappingFunction == null)
+            throw new NullPointerException();
+        return doCompute(key, MERGE, null, null, value, remappingFunction);
+    }
+
+    /* ---------------- Bulk operations and views -------------- */
+
+    /**
+     * Removes all of the mappings from this map and returns their memory
+     * to the slab free lists.  The slabs themselves stay reserved.
+     */
+    public void clear() {
+        for (Segment seg : segments) {
+            synchronized (seg) {
+                Table t = seg.table;
+                long[] st = t.stamps;
+                for (int i = 0; i < st.length; ++i) {
+                    long ls = lockBin(st, i);
+                    int removed = 0;
+                    try {
+                        for (long ref = t.bins[i], next; ref != 0L; ref = next) {
+                            next = arena.slab(ref).getLong((int)ref + C_NEXT);
+                            arena.free(ref);
+                            ++removed;
+                        }
+                        t.bins[i] = 0L;
+                    } finally {
+                        setStamp(st, i, ls + 1L);
+                    }
+                    seg.count.addAndGet(-removed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of mappings.  This method should be used
+     * instead of {@link #size} because the map may contain more mappings
+     * than can be represented as an int.  The value returned is an
+     * estimate; the actual count may differ if there are concurrent
+     * insertions or removals.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        long n = 0L;
+        for (Segment seg : segments)
+            n += seg.count.get();
+        return (n < 0L) ? 0L : n; // ignore transient negative values
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int size() {
+        long n = mappingCount();
+        return (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        return mappingCount() == 0L;
+    }
+
+    /**
+     * Returns the number of bytes of off-heap memory currently reserved
+     * for slabs, including free chunks.
+     *
+     * @return the reserved off-heap size in bytes
+     */
+    public long reservedBytes() {
+        return arena.reservedBytes();
+    }
+
+    /**
+     * Writes every modified slab of a file backed map to the storage
+     * device.  Has no effect for a map backed by direct buffers.
+     */
+    public void force() {
+        if (arena.channel != null) {
+            for (ByteBuffer b : arena.slabs)
+                ((MappedByteBuffer)b).force();
+        }
+    }
+
+    /**
+     * Closes this map.  A file backed map is forced to storage and its
+     * file closed.  The slab memory is released once the buffers are
+     * reclaimed by the collector.
+     *
+     * @throws IOException if closing the backing file fails
+     */
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        force();
+        arena.slabs = new ByteBuffer[0];
+        if (arena.channel != null)
+            arena.channel.close();
+    }
+
+    private transient Set<Map.Entry<K,V>> entrySet;
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * Entries are decoded on demand while iterating, and their
+     * {@code setValue} writes through to the map.
+     *
+     * <p>The view's iterators are weakly consistent.  Each iterator
+     * snapshots one group of bins at a time, so it holds at most a few
+     * decoded entries.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySet());
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        public int size()      { return OffHeapConcurrentHashMap.this.size(); }
+        public boolean isEmpty() { return OffHeapConcurrentHashMap.this.isEmpty(); }
+        public void clear()    { OffHeapConcurrentHashMap.this.clear(); }
+        public Iterator<Map.Entry<K,V>> iterator() { return new EntryIterator(); }
+        public boolean contains(Object o) {
+            Object k, v, r; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (r = get(k)) != null &&
+                    (v = e.getValue()) != null &&
+                    (v == r || v.equals(r)));
+        }
+        public boolean remove(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    OffHeapConcurrentHashMap.this.remove(k, v));
+        }
+    }
+
+    static final class MapEntry<K,V> implements Map.Entry<K,V> {
+        final K key; // non-null
+        V val;       // non-null
+        final OffHeapConcurrentHashMap<K,V> map;
+        MapEntry(K key, V val, OffHeapConcurrentHashMap<K,V> map) {
+            this.key = key;
+            this.val = val;
+            this.map = map;
+        }
+        public K getKey()        { return key; }
+        public V getValue()      { return val; }
+        public int hashCode()    { return key.hashCode() ^ val.hashCode(); }
+        public String toString() { return key + "=" + val; }
+        public boolean equals(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (k == key || k.equals(key)) &&
+                    (v == val || v.equals(val)));
+        }
+        public V setValue(V value) {
+            if (value == null) throw new NullPointerException();
+            V v = val;
+            val = value;
+            map.put(key, value);
+            return v;
+        }
+    }
+
+    /**
+     * Iterates segment by segment.  Within a segment, bins are visited
+     * in groups: group {@code g} is every bin whose index is congruent
+     * to {@code g} modulo the table length seen when the segment was
+     * started.  Tables only grow by doubling, so a group always covers
+     * exactly the mappings of one original bin, and a resize between
+     * groups neither skips nor repeats any of them.  A group is copied
+     * while holding the segment monitor, which excludes resizing.
+     */
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        int segIndex = -1;
+        int baseLength;
+        int group;
+        final ArrayList<byte[]> pending = new ArrayList<byte[]>();
+        int pendingIndex;
+        MapEntry<K,V> lastReturned;
+
+        EntryIterator() { advance(); }
+
+        private void advance() {
+            pending.clear();
+            pendingIndex = 0;
+            Segment[] segs = segments;
+            while (pending.isEmpty()) {
+                if (segIndex < 0 || group >= baseLength) {
+                    if (++segIndex >= segs.length)
+                        return;
+                    baseLength = segs[segIndex].table.bins.length;
+                    group = 0;
+                }
+                Segment seg = segs[segIndex];
+                synchronized (seg) {
+                    Table t = seg.table;
+                    long[] st = t.stamps;
+                    for (int i = group; i < st.length; i += baseLength) {
+                        long ls = lockBin(st, i);
+                        try {
+                            for (long ref = t.bins[i]; ref != 0L;
+                                 ref = arena.slab(ref).getLong((int)ref + C_NEXT)) {
+                                ByteBuffer b = arena.slab(ref);
+                                int off = (int)ref, klen = b.getInt(off + C_KLEN);
+                                byte[] kv = new byte[klen];
+                                ByteBuffer d = b.duplicate();
+                                d.position(off + CHUNK_HEADER);
+                                d.get(kv);
+                                pending.add(kv);
+                                pending.add(copyValue(b, off));
+                            }
+                        } finally {
+                            setStamp(st, i, ls + 1L);
+                        }
+                    }
+                }
+                ++group;
+            }
+        }
+
+        public boolean hasNext() {
+            return pendingIndex < pending.size();
+        }
+
+        public Map.Entry<K,V> next() {
+            if (pendingIndex >= pending.size())
+                throw new NoSuchElementException();
+            K k = keyCodec.decode(ByteBuffer.wrap(pending.get(pendingIndex++)));
+            V v = decodeValue(pending.get(pendingIndex++));
+            if (pendingIndex >= pending.size())
+                advance();
+            return lastReturned = new MapEntry<K,V>(k, v, OffHeapConcurrentHashMap.this);
+        }
+
+        public void remove() {
+            MapEntry<K,V> p;
+            if ((p = lastReturned) == null)
+                throw new IllegalStateException();
+            lastReturned = null;
+            OffHeapConcurrentHashMap.this.remove(p.key);
+        }
+    }
+
+    /* ---------------- Codecs -------------- */
+
+    /**
+     * Returns a codec for {@code String} keys or values, encoded as
+     * UTF-8.
+     *
+     * @return the codec
+     */
+    public static Codec<String> stringCodec() {
+        return StringCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a codec for {@code Long} keys or values, encoded as eight
+     * big-endian bytes.
+     *
+     * @return the codec
+     */
+    public static Codec<Long> longCodec() {
+        return LongCodec.INSTANCE;
+    }
+
+    /**
+     * Returns a codec for {@code byte[]} keys or values, stored as is.
+     * Note that two distinct arrays with the same contents are the same
+     * key.
+     *
+     * @return the codec
+     */
+    public static Codec<byte[]> byteArrayCodec() {
+        return ByteArrayCodec.INSTANCE;
+    }
+
+    static final class StringCodec implements Codec<String> {
+        static final StringCodec INSTANCE = new StringCodec();
+        public int encodedSize(String s) {
+            int n = s.length(), size = n;
+            for (int i = 0; i < n; ++i) {
+                char c = s.charAt(i);
+                if (c >= 0x80) {
+                    if (c < 0x800)
+                        size += 1;
+                    else if (Character.isHighSurrogate(c) && i + 1 < n &&
+                             Character.isLowSurrogate(s.charAt(i + 1))) {
+                        size += 2; // four bytes for the pair
+                        ++i;
+                    }
+                    else
+                        size += 2;
+                }
+            }
+            return size;
+        }
+        public void encode(String s, ByteBuffer dst) {
+            dst.put(s.getBytes(StandardCharsets.UTF_8));
+        }
+        public String decode(ByteBuffer src) {
+            byte[] a = new byte[src.remaining()];
+            src.get(a);
+            return new String(a, StandardCharsets.UTF_8);
+        }
+    }
+
+    static final class LongCodec implements Codec<Long> {
+        static final LongCodec INSTANCE = new LongCodec();
+        public int encodedSize(Long v)               { return 8; }
+        public void encode(Long v, ByteBuffer dst)   { dst.putLong(v.longValue()); }
+        public Long decode(ByteBuffer src)           { return src.getLong(); }
+    }
+
+    static final class ByteArrayCodec implements Codec<byte[]> {
+        static final ByteArrayCodec INSTANCE = new ByteArrayCodec();
+        public int encodedSize(byte[] a)             { return a.length; }
+        public void encode(byte[] a, ByteBuffer dst) { dst.put(a); }
+        public byte[] decode(ByteBuffer src) {
+            byte[] a = new byte[src.remaining()];
+            src.get(a);
+            return a;
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long LBASE;
+    private static final int LSHIFT;
+
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> ak = long[].class;
+            LBASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
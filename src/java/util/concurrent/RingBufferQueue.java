@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Common base of the lock-free bounded array queues {@link SpscArrayQueue},
+ * {@link MpscArrayQueue} and {@link MpmcArrayQueue}: the ring buffer,
+ * the producer and consumer sequence counters, and the blocking methods,
+ * which are built on the non-blocking ones and a {@link WaitStrategy}.
+ *
+ * <p>The buffer length is a power of two, so that a sequence maps to
+ * its slot with a mask, and the counters are 64 bit and never wrap.
+ * The producer counter and the consumer counter are each on a cache
+ * line of their own, and the buffer is padded at both ends, so that
+ * producers and consumers do not invalidate each other's cache lines
+ * other than by actually handing over elements.
+ *
+ * <p>Threads blocked in {@code put} or {@code take} register in a waiter
+ * count and wait on a condition; a thread that inserts or removes an
+ * element signals only if it sees a waiter, so the lock is never touched
+ * while nobody is blocked.  A waiter increments its count before it
+ * rechecks the queue, and the fast paths fence between publishing an
+ * element or a free slot and reading the count, so either the waiter
+ * sees the change or the other thread sees the waiter; no signal is
+ * lost and blocked threads wait until signalled.
+ */
+abstract class RingBufferQueue<E> extends AbstractQueue<E>
+    implements BlockingQueue<E> {
+
+    /** Largest capacity, the largest power of two array length. */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** Bytes of padding before and after the buffer's elements. */
+    static final int PAD_BYTES = 128;
+
+    /**
+     * Marks a slot a producer claimed but could not fill, because the
+     * supplier passed to {@code fill} failed, or whose element was
+     * removed by {@code remove(Object)}.  Consumers skip it.
+     */
+    static final Object SKIP = new Object();
+
+    /** The elements, in slots PAD .. PAD + capacity - 1. */
+    final Object[] buffer;
+
+    /** capacity - 1, for masking sequences to slots. */
+    final long mask;
+
+    /** The buffer length, a power of two. */
+    final int capacity;
+
+    final WaitStrategy waitStrategy;
+
+    /** Next sequence to produce. */
+    @sun.misc.Contended("p") volatile long producerIndex;
+
+    /**
+     * Sequence up to which producers may claim without checking the
+     * consumer: a cached view of consumerIndex + capacity, or in the
+     * single-producer queue a lookahead mark.
+     */
+    @sun.misc.Contended("p") volatile long producerLimit;
+
+    /** Next sequence to consume. */
+    @sun.misc.Contended("c") volatile long consumerIndex;
+
+    /** Guards blocking of waiting consumers and producers. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /** Number of consumers blocked or about to block, written under lock. */
+    volatile int takeWaiters;
+
+    /** Number of producers blocked or about to block, written under lock. */
+    volatile int putWaiters;
+
+    RingBufferQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+        if (waitStrategy == null)
+            throw new NullPointerException();
+        int n = (capacity >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY :
+            (capacity <= 2) ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.capacity = n;
+        this.mask = n - 1;
+        this.buffer = new Object[n + 2 * PAD];
+        this.waitStrategy = waitStrategy;
+    }
+
+    /** Returns the address offset of the slot of the given sequence. */
+    final long offset(long index) {
+        return ABASE + (((index & mask) + PAD) << ASHIFT);
+    }
+
+    /**
+     * Inserts the element without signalling waiting consumers,
+     * returning false if full.
+     */
+    abstract boolean relaxedOffer(E e);
+
+    /**
+     * Removes the head without signalling waiting producers, returning
+     * null if empty.
+     */
+    abstract E relaxedPoll();
+
+    /**
+     * Wakes one waiting consumer, or all of them if more than one
+     * element was inserted.
+     */
+    final void signalNotEmpty(boolean all) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (all)
+                notEmpty.signalAll();
+            else
+                notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes one waiting producer, or all of them if more than one
+     * element was removed.
+     */
+    final void signalNotFull(boolean all) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (all)
+                notFull.signalAll();
+            else
+                notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks the caller until signalled, or if timed for at most the
+     * given time, unless the condition it waits for has changed since it
+     * registered as a waiter.
+     */
+    private void block(boolean forPut, boolean timed, long nanos)
+        throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            // The waiter count is volatile, so its write is ordered
+            // before the reads of the counters below
+            if (forPut) {
+                ++putWaiters;
+                try {
+                    if (size() >= capacity) {
+                        if (timed)
+                            notFull.awaitNanos(nanos);
+                        else
+                            notFull.await();
+                    }
+                } finally {
+                    --putWaiters;
+                }
+            } else {
+                ++takeWaiters;
+                try {
+                    if (isEmpty()) {
+                        if (timed)
+                            notEmpty.awaitNanos(nanos);
+                        else
+                            notEmpty.await();
+                    }
+                } finally {
+                    --takeWaiters;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding the queue's
+     * capacity, returning {@code true} upon success and {@code false}
+     * if this queue is full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        if (!relaxedOffer(e))
+            return false;
+        // StoreLoad: the element must be visible before the waiter check
+        U.fullFence();
+        if (takeWaiters != 0)
+            signalNotEmpty(false);
+        return true;
+    }
+
+    public E poll() {
+        E e = relaxedPoll();
+        if (e != null) {
+            U.fullFence();
+            if (putWaiters != 0)
+                signalNotFull(false);
+        }
+        return e;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * as directed by the wait strategy for space to become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        for (int n = 0; !offer(e); ++n) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (!waitStrategy.idle(n))
+                block(true, false, 0L);
+        }
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * up to the specified wait time, as directed by the wait strategy,
+     * for space to become available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int n = 0; !offer(e); ++n) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0L)
+                return false;
+            if (!waitStrategy.idle(n))
+                block(true, true, nanos);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        E e;
+        for (int n = 0; (e = poll()) == null; ++n) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (!waitStrategy.idle(n))
+                block(false, false, 0L);
+        }
+        return e;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E e;
+        for (int n = 0; (e = poll()) == null; ++n) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            long nanos = deadline - System.nanoTime();
+            if (nanos <= 0L)
+                return null;
+            if (!waitStrategy.idle(n))
+                block(false, true, nanos);
+        }
+        return e;
+    }
+
+    /**
+     * Removes up to {@code limit} elements from the head of this queue,
+     * passing each to the given action, and returns how many were
+     * removed.  Stops early if the queue is, or appears, empty.  Waiting
+     * producers are signalled once for the whole batch.  Each element
+     * is removed before it is passed to the action, so an exception
+     * thrown by the action loses no other element.
+     *
+     * @param action the action to perform on each element
+     * @param limit the maximum number of elements to remove
+     * @return the number of elements removed
+     * @throws NullPointerException if the action is null
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    public int drain(Consumer<? super E> action, int limit) {
+        if (action == null) throw new NullPointerException();
+        if (limit < 0) throw new IllegalArgumentException();
+        int n = 0;
+        try {
+            for (E e; n < limit && (e = relaxedPoll()) != null; ) {
+                ++n;
+                action.accept(e);
+            }
+        } finally {
+            if (n > 0) {
+                U.fullFence();
+                if (putWaiters != 0)
+                    signalNotFull(n > 1);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Inserts up to {@code limit} elements obtained from the given
+     * supplier at the tail of this queue, and returns how many were
+     * inserted.  Stops early if the queue is full; the supplier is only
+     * called for elements there is room for.  Waiting consumers are
+     * signalled once for the whole batch.  If the supplier returns null
+     * or throws an exception, the exception is relayed to the caller and
+     * the elements inserted before remain in the queue.
+     *
+     * @param supplier the source of the elements
+     * @param limit the maximum number of elements to insert
+     * @return the number of elements inserted
+     * @throws NullPointerException if the supplier is null, or returns
+     *         null
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    public int fill(Supplier<? extends E> supplier, int limit) {
+        if (supplier == null) throw new NullPointerException();
+        if (limit < 0) throw new IllegalArgumentException();
+        int n = 0;
+        try {
+            n = relaxedFill(supplier, limit);
+        } finally {
+            if (n > 0) {
+                U.fullFence();
+                if (takeWaiters != 0)
+                    signalNotEmpty(n > 1);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Implements fill without signalling.
+     */
+    abstract int relaxedFill(Supplier<? extends E> supplier, int limit);
+
+    /**
+     * Calls the supplier, throwing NullPointerException if it returns null.
+     */
+    static <E> E supply(Supplier<? extends E> supplier) {
+        E e = supplier.get();
+        if (e == null) throw new NullPointerException();
+        return e;
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        return drain(c::add, Math.max(maxElements, 0));
+    }
+
+    /**
+     * Returns the number of elements in this queue, which is only an
+     * estimate while other threads insert or remove elements.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long after = consumerIndex;
+        for (;;) {
+            long before = after;
+            long p = producerIndex;
+            after = consumerIndex;
+            if (before == after) {
+                long n = p - after;
+                return (n <= 0L) ? 0 : (n >= capacity) ? capacity : (int) n;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex >= producerIndex;
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * ideally accept without blocking; an estimate like {@link #size}.
+     */
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /**
+     * Removing an element other than the head is not supported by
+     * queues with a single consumer, since the removing thread would
+     * be a second consumer.
+     *
+     * @param o element to be removed
+     * @return never
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue,
+     * taken without stopping producers or consumers, so that it may omit
+     * elements that were present throughout.  The iterator's
+     * {@code remove} removes the last element returned, through
+     * {@link #remove(Object)}, if it is still in the queue.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return new Itr<E>(this, snapshot());
+    }
+
+    /**
+     * Collects the elements between the consumer and producer counters.
+     */
+    private Object[] snapshot() {
+        long c = consumerIndex, p = producerIndex;
+        if (p - c > capacity)
+            c = p - capacity;
+        ArrayList<Object> list = new ArrayList<Object>();
+        for (long i = c; i < p; ++i) {
+            Object e = U.getObjectVolatile(buffer, offset(i));
+            if (e != null && e != SKIP)
+                list.add(e);
+        }
+        return list.toArray();
+    }
+
+    static final class Itr<E> implements Iterator<E> {
+        private final RingBufferQueue<E> queue;
+        private final Object[] items;
+        private int cursor;
+        private int lastRet = -1;
+
+        Itr(RingBufferQueue<E> queue, Object[] items) {
+            this.queue = queue;
+            this.items = items;
+        }
+
+        public boolean hasNext() {
+            return cursor < items.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= items.length)
+                throw new NoSuchElementException();
+            return (E) items[lastRet = cursor++];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            queue.remove(items[lastRet]);
+            lastRet = -1;
+        }
+    }
+
+    // Unsafe mechanics
+    static final sun.misc.Unsafe U;
+    static final long PINDEX;
+    static final long PLIMIT;
+    static final long CINDEX;
+    static final long ABASE;
+    static final int ASHIFT;
+    static final int PAD;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = RingBufferQueue.class;
+            PINDEX = U.objectFieldOffset
+                (k.getDeclaredField("producerIndex"));
+            PLIMIT = U.objectFieldOffset
+                (k.getDeclaredField("producerLimit"));
+            CINDEX = U.objectFieldOffset
+                (k.getDeclaredField("consumerIndex"));
+            ABASE = U.arrayBaseOffset(Object[].class);
+            int scale = U.arrayIndexScale(Object[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            PAD = PAD_BYTES / scale;
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
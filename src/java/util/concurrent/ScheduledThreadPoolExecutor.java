@@ -434,6 +434,46 @@ public class ScheduledThreadPoolExecutor extends ThreadPoolExecutor implements S
         schedule(command, 0, NANOSECONDS);
     }
 
+    /**
+     * Executes all the given tasks with zero required delay, as by
+     * {@link #execute}, inserting them into the delay queue under one
+     * lock acquisition.
+     *
+     * @throws RejectedExecutionException at discretion of
+     *         {@code RejectedExecutionHandler}, if a task cannot be
+     *         accepted for execution because the executor has been
+     *         shut down
+     * @throws NullPointerException if tasks or any task is null
+     * @since 1.8
+     */
+    public void executeAll(Collection<? extends Runnable> tasks) {
+        Object[] a = tasks.toArray();
+        for (Object o : a)
+            if (o == null) throw new NullPointerException();
+        if (a.length == 0) return;
+        // 和schedule(command, 0, NANOSECONDS)一样包装，同一个触发时间，按sequenceNumber保持提交顺序
+        long time = triggerTime(0, NANOSECONDS);
+        List<RunnableScheduledFuture<?>> ts = new ArrayList<RunnableScheduledFuture<?>>(a.length);
+        for (Object o : a) {
+            Runnable r = (Runnable)o;
+            ts.add(decorateTask(r, new ScheduledFutureTask<Void>(r, null, time)));
+        }
+        // 下面和delayedExecute()一样，只是一次入队
+        if (isShutdown()) {
+            for (RunnableScheduledFuture<?> t : ts) reject(t);
+            return;
+        }
+        super.getQueue().offerAll(ts);
+        if (isShutdown() && !canRunInCurrentRunState(false)) {
+            for (RunnableScheduledFuture<?> t : ts)
+                if (remove(t)) t.cancel(false);
+        } else {
+            // 每次ensurePrestart()最多补一个核心线程
+            for (int i = Math.min(ts.size(), getCorePoolSize()); i > 0; --i)
+                ensurePrestart();
+        }
+    }
+
     // Override AbstractExecutorService methods
 
     /**
@@ -787,6 +827,43 @@ public class ScheduledThreadPoolExecutor extends ThreadPoolExecutor implements S
             return true;
         }
 
+        /**
+         * Inserts all elements under one acquisition of the lock, and
+         * signals at most once, if the head changed; takers pass the
+         * signal on while elements remain.
+         */
+        public int offerAll(Collection<? extends Runnable> c) {
+            if (c == this) throw new IllegalArgumentException();
+            Object[] a = c.toArray();
+            for (Object o : a)
+                if (o == null) throw new NullPointerException();
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                RunnableScheduledFuture<?> head = queue[0];
+                for (Object o : a) {
+                    RunnableScheduledFuture<?> e = (RunnableScheduledFuture<?>)o;
+                    int i = size;
+                    if (i >= queue.length)
+                        grow();
+                    size = i + 1;
+                    if (i == 0) {
+                        queue[0] = e;
+                        setIndex(e, 0);
+                    } else {
+                        siftUp(i, e);
+                    }
+                }
+                if (a.length > 0 && queue[0] != head) {
+                    leader = null;
+                    available.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return a.length;
+        }
+
         public void put(Runnable e) {
             offer(e);
         }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * A bounded lock-free {@linkplain BlockingQueue blocking queue} for
+ * exactly one producer thread and one consumer thread, backed by a ring
+ * buffer.  Where {@link ArrayBlockingQueue} takes a lock on every
+ * operation, here an {@code offer} or {@code poll} is one ordered store
+ * of the element and one of a sequence counter, and the two threads
+ * touch a shared cache line only to hand over elements.
+ *
+ * <p>At most one thread at a time may insert elements ({@code offer},
+ * {@code put}, {@code fill}) and at most one may remove them
+ * ({@code poll}, {@code take}, {@code drain}, {@code peek}); using
+ * several concurrently corrupts the queue.  See {@link MpscArrayQueue}
+ * and {@link MpmcArrayQueue} otherwise; only the latter can be the work
+ * queue of a {@link ThreadPoolExecutor}, which drains and removes tasks
+ * from threads other than its workers.
+ *
+ * <p>The capacity is rounded up to a power of two.  Blocking methods
+ * wait as directed by a {@link WaitStrategy}.  {@code remove(Object)}
+ * is not supported and iterators are snapshots.  This queue does not permit
+ * {@code null} elements.
+ *
+ * @param <E> the type of elements held in this queue
+ * @since 1.8
+ */
+public class SpscArrayQueue<E> extends RingBufferQueue<E> {
+
+    /*
+     * The producer tests whether a slot is free by reading the slot
+     * itself rather than the consumer's counter, as in FastFlow: the
+     * consumer nulls each slot with an ordered store as it takes the
+     * element.  Since slots are freed in order, a free slot `lookAhead'
+     * sequences ahead means all slots before it are free too, so the
+     * producer reads ahead once per lookAhead offers, and caches the
+     * result in producerLimit.
+     */
+
+    /** Maximum number of slots the producer checks ahead. */
+    static final int MAX_LOOK_AHEAD = 4096;
+
+    private final int lookAhead;
+
+    /**
+     * Creates a queue with the given (rounded up) capacity that parks
+     * after spinning briefly, {@link WaitStrategy#PARK}.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public SpscArrayQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a queue with the given (rounded up) capacity and wait
+     * strategy.
+     *
+     * @param capacity the capacity of this queue
+     * @param waitStrategy how blocking methods wait
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public SpscArrayQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        this.lookAhead = Math.max(1, Math.min(this.capacity / 4, MAX_LOOK_AHEAD));
+    }
+
+    /**
+     * Returns true if the slot of sequence p is free, possibly moving
+     * producerLimit ahead.  Producer only.
+     */
+    private boolean hasSpace(long p) {
+        long ahead = p + lookAhead;
+        if (U.getObjectVolatile(buffer, offset(ahead)) == null) {
+            U.putOrderedLong(this, PLIMIT, ahead);
+            return true;
+        }
+        return U.getObjectVolatile(buffer, offset(p)) == null;
+    }
+
+    boolean relaxedOffer(E e) {
+        long p = producerIndex;
+        if (p >= producerLimit && !hasSpace(p))
+            return false;
+        U.putOrderedObject(buffer, offset(p), e);
+        U.putOrderedLong(this, PINDEX, p + 1);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    E relaxedPoll() {
+        long c = consumerIndex;
+        long off = offset(c);
+        Object e = U.getObjectVolatile(buffer, off);
+        if (e == null)
+            return null;
+        U.putOrderedObject(buffer, off, null);
+        U.putOrderedLong(this, CINDEX, c + 1);
+        return (E) e;
+    }
+
+    int relaxedFill(Supplier<? extends E> supplier, int limit) {
+        long p = producerIndex;
+        int n = 0;
+        try {
+            for (; n < limit; ++n) {
+                long i = p + n;
+                if (i >= producerLimit && !hasSpace(i))
+                    break;
+                U.putOrderedObject(buffer, offset(i), supply(supplier));
+            }
+        } finally {
+            if (n > 0)
+                U.putOrderedLong(this, PINDEX, p + n);
+        }
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return (E) U.getObjectVolatile(buffer, offset(consumerIndex));
+    }
+}
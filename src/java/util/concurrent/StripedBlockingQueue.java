@@ -0,0 +1,590 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link BlockingQueue} split into several independent shards, meant
+ * as the work queue of a {@link ThreadPoolExecutor} that receives many
+ * small tasks from many threads.  With a {@link LinkedBlockingQueue}
+ * every producer contends on {@code putLock} and every worker on
+ * {@code takeLock}; here each thread offers to and polls from its own
+ * <em>home</em> shard, chosen by the same per-thread probe that spreads
+ * {@code LongAdder} cells, and a consumer whose home shard is empty
+ * steals from the others.  Shards are lock-free
+ * {@link ConcurrentLinkedQueue}s; a lock is taken only to park and wake
+ * idle consumers.
+ *
+ * <p>Because the queue is an ordinary {@code BlockingQueue}, all of the
+ * executor's policies are unaffected: core and maximum pool sizes,
+ * keep-alive, rejection (when a bounded queue is full), and
+ * {@code shutdown}/{@code awaitTermination}.  See
+ * {@link Executors#newStripedThreadPool(int)}.
+ *
+ * <p>Ordering is FIFO within a shard only; elements offered by
+ * different threads may be taken in any order.  The optional capacity
+ * is divided evenly among shards, rounded up, and an offer fails only
+ * when every shard is full.  {@code size} and {@code remainingCapacity}
+ * are sums over shards and so are only estimates while the queue is in
+ * use.  Iterators are weakly consistent.
+ *
+ * @param <E> the type of elements held in this queue
+ * @since 1.8
+ */
+public class StripedBlockingQueue<E> extends AbstractQueue<E>
+    implements BlockingQueue<E> {
+
+    /** Number of CPUS, the default shard count. */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Upper bound on the number of shards. */
+    static final int MAX_SHARDS = 1 << 10;
+
+    /**
+     * One shard: a lock-free queue plus a count used to enforce the
+     * capacity.  The count is reserved before an element is enqueued
+     * and released after it is dequeued, so it never undercounts.
+     * Padded, as shards are updated by different threads.
+     */
+    @sun.misc.Contended static final class Shard<E> {
+        final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<E>();
+        volatile int count;
+
+        boolean reserve(int cap) {
+            for (int c;;) {
+                if ((c = count) >= cap)
+                    return false;
+                if (U.compareAndSwapInt(this, COUNT, c, c + 1))
+                    return true;
+            }
+        }
+
+        void release(int n) {
+            U.getAndAddInt(this, COUNT, -n);
+        }
+
+        E poll() {
+            E e = queue.poll();
+            if (e != null)
+                release(1);
+            return e;
+        }
+    }
+
+    private final Shard<E>[] shards;
+    private final int shardCapacity;
+
+    /** Guards parking of idle consumers and blocked producers. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /** Number of consumers parked or about to park, written under lock. */
+    private volatile int takeWaiters;
+
+    /** Number of producers parked or about to park, written under lock. */
+    private volatile int putWaiters;
+
+    /**
+     * Creates an unbounded queue with one shard per available processor,
+     * rounded up to a power of two.
+     */
+    public StripedBlockingQueue() {
+        this(NCPU, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates an unbounded queue with at least the given number of
+     * shards, rounded up to a power of two.
+     *
+     * @param shards the minimum number of shards
+     * @throws IllegalArgumentException if {@code shards} is not positive
+     */
+    public StripedBlockingQueue(int shards) {
+        this(shards, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a queue with at least the given number of shards, rounded
+     * up to a power of two, holding at most about {@code capacity}
+     * elements.
+     *
+     * @param shards the minimum number of shards
+     * @param capacity the capacity of this queue, divided among shards
+     * @throws IllegalArgumentException if {@code shards} or
+     *         {@code capacity} is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public StripedBlockingQueue(int shards, int capacity) {
+        if (shards <= 0 || capacity <= 0)
+            throw new IllegalArgumentException();
+        int n = 1;
+        while (n < shards && n < MAX_SHARDS)
+            n <<= 1;
+        Shard<E>[] ss = (Shard<E>[])new Shard<?>[n];
+        for (int i = 0; i < n; ++i)
+            ss[i] = new Shard<E>();
+        this.shards = ss;
+        this.shardCapacity = (capacity == Integer.MAX_VALUE) ? capacity :
+            (int)(((long)capacity + n - 1) / n);
+    }
+
+    /**
+     * Returns the index of the calling thread's home shard.
+     */
+    private int home() {
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit(); // force initialization
+            h = ThreadLocalRandom.getProbe();
+        }
+        return h & (shards.length - 1);
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /* ---------------- Signalling -------------- */
+
+    /*
+     * A consumer that finds every shard empty increments takeWaiters
+     * under the lock and rescans before awaiting; a producer reads
+     * takeWaiters after its element is enqueued.  Both accesses are
+     * volatile, so either the rescan sees the element or the producer
+     * sees the waiter and signals.  The same handshake, with putWaiters,
+     * wakes producers blocked in put on a full queue.
+     */
+
+    private void signalNotEmpty() {
+        if (takeWaiters > 0) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void signalNotFull() {
+        if (putWaiters > 0) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /* ---------------- Insertion -------------- */
+
+    /**
+     * Enqueues to the home shard, or to the first other shard with
+     * room.  Returns false if all shards are full.
+     */
+    private boolean enqueue(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        final Shard<E>[] ss = shards;
+        final int n = ss.length, h = home(), cap = shardCapacity;
+        for (int i = 0; i < n; ++i) {
+            Shard<E> s = ss[(h + i) & (n - 1)];
+            if (s.reserve(cap)) {
+                s.queue.offer(e);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts the specified element into this queue if it is possible
+     * to do so immediately without exceeding the capacity, returning
+     * {@code true} upon success and {@code false} if every shard is
+     * full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (!enqueue(e))
+            return false;
+        signalNotEmpty();
+        return true;
+    }
+
+    /**
+     * Inserts elements of the given collection, each as by
+     * {@link #offer(Object)}, then wakes as many parked consumers as
+     * elements were inserted under a single acquisition of the lock.
+     *
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements is null
+     * @throws IllegalArgumentException if the specified collection is
+     *         this queue
+     */
+    public int offerAll(Collection<? extends E> c) {
+        if (c == this)
+            throw new IllegalArgumentException();
+        Object[] a = c.toArray();
+        for (Object o : a) {
+            if (o == null)
+                throw new NullPointerException();
+        }
+        int n = 0;
+        for (Object o : a) {
+            @SuppressWarnings("unchecked") E e = (E)o;
+            if (!enqueue(e))
+                break;
+            ++n;
+        }
+        if (n > 0 && takeWaiters > 0) {
+            final ReentrantLock lock = this.lock;
+            lock.lock();
+            try {
+                for (int i = Math.min(n, takeWaiters); i > 0; --i)
+                    notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Inserts the specified element into this queue, waiting if
+     * necessary for space to become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        if (!offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS))
+            throw new IllegalStateException(); // unreachable
+    }
+
+    /**
+     * Inserts the specified element into this queue, waiting up to the
+     * specified wait time if necessary for space to become available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (enqueue(e)) {
+            signalNotEmpty();
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        boolean added;
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            putWaiters++;
+            try {
+                while (!(added = enqueue(e)) && nanos > 0L)
+                    nanos = notFull.awaitNanos(nanos);
+            } finally {
+                putWaiters--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (added)
+            signalNotEmpty();
+        return added;
+    }
+
+    /* ---------------- Removal -------------- */
+
+    /**
+     * Polls the home shard, then steals from the others in turn.
+     */
+    private E dequeue() {
+        final Shard<E>[] ss = shards;
+        final int n = ss.length, h = home();
+        for (int i = 0; i < n; ++i) {
+            E e = ss[(h + i) & (n - 1)].poll();
+            if (e != null)
+                return e;
+        }
+        return null;
+    }
+
+    public E poll() {
+        E e = dequeue();
+        if (e != null && shardCapacity != Integer.MAX_VALUE)
+            signalNotFull();
+        return e;
+    }
+
+    public E take() throws InterruptedException {
+        E e = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        if (e == null)
+            throw new IllegalStateException(); // unreachable
+        return e;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e;
+        if ((e = poll()) != null)
+            return e;
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            takeWaiters++;
+            try {
+                while ((e = dequeue()) == null && nanos > 0L)
+                    nanos = notEmpty.awaitNanos(nanos);
+            } finally {
+                takeWaiters--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (e != null && shardCapacity != Integer.MAX_VALUE)
+            signalNotFull();
+        return e;
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of the first
+     * non-empty shard, starting from the caller's home shard.
+     */
+    public E peek() {
+        final Shard<E>[] ss = shards;
+        final int n = ss.length, h = home();
+        for (int i = 0; i < n; ++i) {
+            E e = ss[(h + i) & (n - 1)].queue.peek();
+            if (e != null)
+                return e;
+        }
+        return null;
+    }
+
+    /**
+     * Removes a single instance of the specified element from this
+     * queue, if it is present.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null)
+            return false;
+        for (Shard<E> s : shards) {
+            if (s.queue.remove(o)) {
+                s.release(1);
+                if (shardCapacity != Integer.MAX_VALUE)
+                    signalNotFull();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this queue contains the specified element.
+     *
+     * @param o object to be checked for containment in this queue
+     * @return {@code true} if this queue contains the specified element
+     */
+    public boolean contains(Object o) {
+        if (o == null)
+            return false;
+        for (Shard<E> s : shards) {
+            if (s.queue.contains(o))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if no shard holds an element.  Unlike
+     * {@link #size}, this does not rely on the shard counts, so a
+     * {@code false} result means an element was seen.
+     */
+    public boolean isEmpty() {
+        for (Shard<E> s : shards) {
+            if (!s.queue.isEmpty())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns an estimate of the number of elements in this queue.
+     */
+    public int size() {
+        long sum = 0L;
+        for (Shard<E> s : shards)
+            sum += s.count;
+        return (int)Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns an estimate of the number of additional elements this
+     * queue can accept, or {@code Integer.MAX_VALUE} if unbounded.
+     */
+    public int remainingCapacity() {
+        if (shardCapacity == Integer.MAX_VALUE)
+            return Integer.MAX_VALUE;
+        long total = (long)shardCapacity * shards.length;
+        return (int)Math.min(Math.max(0L, total - size()), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        int i = 0;
+        E e;
+        while (i < maxElements && (e = dequeue()) != null) {
+            c.add(e);
+            ++i;
+        }
+        if (i > 0 && shardCapacity != Integer.MAX_VALUE)
+            signalNotFull();
+        return i;
+    }
+
+    /**
+     * Atomically removes all of the elements from each shard in turn.
+     */
+    public void clear() {
+        for (Shard<E> s : shards) {
+            while (s.poll() != null)
+                ;
+        }
+        if (shardCapacity != Integer.MAX_VALUE)
+            signalNotFull();
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements of each
+     * shard in turn.  {@link ThreadPoolExecutor#purge} removes
+     * cancelled tasks through it.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<E> {
+        private int index;
+        private Shard<E> cur;
+        private Iterator<E> it;
+        private Shard<E> lastShard;
+        private E lastRet;
+
+        Itr() {
+            cur = shards[0];
+            it = cur.queue.iterator();
+        }
+
+        public boolean hasNext() {
+            while (!it.hasNext()) {
+                if (++index >= shards.length)
+                    return false;
+                cur = shards[index];
+                it = cur.queue.iterator();
+            }
+            return true;
+        }
+
+        public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            E e = it.next();
+            lastRet = e;
+            lastShard = cur;
+            return e;
+        }
+
+        public void remove() {
+            E e = lastRet;
+            if (e == null)
+                throw new IllegalStateException();
+            lastRet = null;
+            // Remove by CAS rather than through the shard's iterator, so
+            // that an element concurrently polled is not released twice.
+            if (lastShard.queue.remove(e)) {
+                lastShard.release(1);
+                if (shardCapacity != Integer.MAX_VALUE)
+                    signalNotFull();
+            }
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long COUNT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            COUNT = U.objectFieldOffset
+                (Shard.class.getDeclaredField("count"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
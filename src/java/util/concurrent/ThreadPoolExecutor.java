@@ -217,6 +217,19 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     /* The context to be used when executing the finalizer, or null. */
     private final AccessControlContext acc;
 
+    /**
+     * Metrics, or null if not enabled.  Read once per task by workers
+     * and once per submission by execute.
+     */
+    private volatile ExecutorMetrics metrics;
+
+    /**
+     * Lock-free copy of the worker set, maintained under mainLock
+     * alongside {@code workers} while metrics are enabled, so that
+     * metrics snapshots need not take mainLock.
+     */
+    private volatile Set<Worker> metricsWorkers;
+
     // Worker内部类可以看作是对工作线程的包装
     // 可以看出，他实现了AQS
     // 工作线程Thread启动的时候实际是调用的Worker的run()方法，进而调用的是ThreadPoolExecutor的runWorker()方法
@@ -228,6 +241,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         Runnable firstTask;
         // 完成任务数
         volatile long completedTasks;
+        // 开启metrics后，在getTask()里等任务的累计时间（纳秒），只有本线程写
+        volatile long parkedNanos;
 
         // 构造方法
         Worker(Runnable firstTask) {
@@ -321,6 +336,9 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                         // 强制更新状态为TERMINATED，这里不需要CAS了
                         ctl.set(ctlOf(TERMINATED, 0));
                         termination.signalAll();
+                        ExecutorMetrics m = metrics;
+                        if (m != null)
+                            m.unregister();
                     }
                     return;
                 }
@@ -434,6 +452,9 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * Package-protected for use by ScheduledThreadPoolExecutor.
      */
     final void reject(Runnable command) {
+        ExecutorMetrics m = metrics;
+        if (m != null)
+            m.rejected.increment();
         handler.rejectedExecution(command, this);
     }
 
@@ -522,6 +543,9 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                         if (t.isAlive()) // precheck that t is startable
                             throw new IllegalThreadStateException();
                         workers.add(w);
+                        Set<Worker> mw = metricsWorkers;
+                        if (mw != null)
+                            mw.add(w);
                         int s = workers.size();
                         if (s > largestPoolSize)
                             largestPoolSize = s;
@@ -553,8 +577,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         final ReentrantLock mainLock = this.mainLock;
         mainLock.lock();
         try {
-            if (w != null)
+            if (w != null) {
                 workers.remove(w);
+                Set<Worker> mw = metricsWorkers;
+                if (mw != null)
+                    mw.remove(w);
+            }
             decrementWorkerCount();
             tryTerminate();
         } finally {
@@ -584,6 +612,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         try {
             completedTaskCount += w.completedTasks;
             workers.remove(w);
+            Set<Worker> mw = metricsWorkers;
+            ExecutorMetrics m = metrics;
+            if (mw != null && mw.remove(w) && m != null) {
+                m.retiredCompleted.add(w.completedTasks);
+                m.retiredParkedNanos.add(w.parkedNanos);
+            }
         } finally {
             mainLock.unlock();
         }
@@ -604,7 +638,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     }
 
     // STOP相应中断是在取task时候
-    private Runnable getTask() {
+    private Runnable getTask(Worker w) {
         // 是否超时
         boolean timedOut = false;
 
@@ -634,7 +668,15 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             try {
                 // 真正取任务的地方 默认情况下，只有当工作线程数量大于核心线程数量时，才会调用poll()方法触发超时调用
                 // STOP真正响应中断是在poll()方法或者take()方法中
-                Runnable r = timed ? workQueue.poll(keepAliveTime, TimeUnit.NANOSECONDS) : workQueue.take();
+                // 开启metrics时统计等任务的时间
+                long parkStart = (metrics != null) ? System.nanoTime() : 0L;
+                Runnable r;
+                try {
+                    r = timed ? workQueue.poll(keepAliveTime, TimeUnit.NANOSECONDS) : workQueue.take();
+                } finally {
+                    if (parkStart != 0L)
+                        w.parkedNanos += System.nanoTime() - parkStart;
+                }
                 // 取到任务了就正常返回
                 if (r != null) return r;
                 // 没取到任务表明超时了，回到continue那个if中返回null
@@ -664,12 +706,15 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             // 只要能取到任务，这就是个死循环
             // 正常来说getTask()返回的任务是不可能为空的，因为前面execute()方法是有空判断的
             // 那么，getTask()什么时候才会返回空任务--
-            while (task != null || (task = getTask()) != null) {
+            while (task != null || (task = getTask(w)) != null) {
                 w.lock();
                 // 检查线程池的状态
                 if ((runStateAtLeast(ctl.get(), STOP) || (Thread.interrupted() && runStateAtLeast(ctl.get(), STOP))) && !wt.isInterrupted())
                     wt.interrupt();
                 try {
+                    // 开启metrics时记录排队时间和执行时间
+                    ExecutorMetrics m = metrics;
+                    long start = (m != null) ? m.beforeExecute(task) : 0L;
                     // 钩子方法，方便子类在任务执行前做一些处理
                     beforeExecute(wt, task);
                     Throwable thrown = null;
@@ -683,6 +728,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     } catch (Throwable x) {
                         thrown = x; throw new Error(x);
                     } finally {
+                        if (m != null)
+                            m.afterExecute(start);
                         // 钩子方法，方便子类在任务执行后做一些处理
                         afterExecute(task, thrown);
                     }
@@ -739,6 +786,9 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     public void execute(Runnable command) {
         // 任务不能为空
         if (command == null) throw new NullPointerException();
+        // 开启metrics时给FutureTask打上提交时间，用来统计排队时间
+        if (metrics != null)
+            ExecutorMetrics.stamp(command, System.nanoTime());
         // 控制变量（高3位存储状态，低29位存储工作线程的数量）
         int c = ctl.get();
         // 如果工作线程数量小于核心数量
@@ -760,6 +810,60 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         else if (!addWorker(command, false)) reject(command);
     }
 
+    /**
+     * Executes the given tasks, applying the same policy as
+     * {@link #execute} to the batch as a whole: core threads are
+     * started for the first tasks while fewer than corePoolSize are
+     * running, the rest are inserted into the work queue with a single
+     * {@link BlockingQueue#offerAll offerAll}, and any the queue does
+     * not accept are given new threads up to maximumPoolSize or
+     * rejected.  With the standard queues this takes the queue lock
+     * once and wakes one idle worker, which wakes the next.
+     *
+     * @throws RejectedExecutionException at discretion of
+     *         {@code RejectedExecutionHandler}, if a task cannot be
+     *         accepted for execution; earlier tasks have been accepted
+     * @throws NullPointerException if tasks or any task is null, in
+     *         which case no task is executed
+     * @since 1.8
+     */
+    public void executeAll(Collection<? extends Runnable> tasks) {
+        Object[] a = tasks.toArray();
+        for (Object o : a)
+            if (o == null) throw new NullPointerException();
+        int n = a.length, i = 0;
+        if (n == 0) return;
+        if (metrics != null) {
+            long now = System.nanoTime();
+            for (Object o : a) ExecutorMetrics.stamp(o, now);
+        }
+        int c = ctl.get();
+        // 先补核心线程，每个新线程直接带走一个任务
+        while (i < n && workerCountOf(c) < corePoolSize) {
+            if (!addWorker((Runnable)a[i], true)) break;
+            ++i;
+            c = ctl.get();
+        }
+        c = ctl.get();
+        // 剩下的一次性入队
+        if (i < n && isRunning(c)) {
+            @SuppressWarnings("unchecked")
+            List<Runnable> rest = (List<Runnable>)(List<?>)Arrays.asList(a).subList(i, n);
+            int k = workQueue.offerAll(rest);
+            int recheck = ctl.get();
+            // 和execute()一样，入队后线程池不在运行了，就移除并拒绝
+            if (! isRunning(recheck)) {
+                for (int j = i; j < i + k; ++j)
+                    if (remove((Runnable)a[j])) reject((Runnable)a[j]);
+            }
+            else if (k > 0 && workerCountOf(recheck) == 0) addWorker(null, false);
+            i += k;
+        }
+        // 入队失败的任务，尝试创建非核心线程，失败就拒绝
+        for (; i < n; ++i)
+            if (!addWorker((Runnable)a[i], false)) reject((Runnable)a[i]);
+    }
+
     // 关闭就直接自旋修改这个状态
     public void shutdown() {
         final ReentrantLock mainLock = this.mainLock;
@@ -1261,6 +1365,85 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Enables metrics for this pool, registering them under the given
+     * name, and returns them.  If metrics are already enabled they are
+     * returned unchanged, whatever their name.  Metrics are
+     * unregistered when the pool terminates or
+     * {@link #disableMetrics} is called.
+     *
+     * @param name the name under which to register the metrics
+     * @return the metrics of this pool
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if another executor's metrics
+     *         are registered under the same name
+     * @see ExecutorMetrics
+     * @since 1.8
+     */
+    public ExecutorMetrics enableMetrics(String name) {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            ExecutorMetrics m = metrics;
+            if (m == null) {
+                m = ExecutorMetrics.register(name, this);
+                m.retiredCompleted.add(completedTaskCount);
+                Set<Worker> mw = ConcurrentHashMap.newKeySet();
+                mw.addAll(workers);
+                metricsWorkers = mw;
+                metrics = m;
+            }
+            return m;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Disables and unregisters the metrics of this pool, if enabled.
+     *
+     * @since 1.8
+     */
+    public void disableMetrics() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            ExecutorMetrics m = metrics;
+            if (m != null) {
+                metrics = null;
+                metricsWorkers = null;
+                m.unregister();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the metrics of this pool, or {@code null} if not enabled.
+     *
+     * @return the metrics, or {@code null}
+     * @since 1.8
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Fills in a metrics snapshot without taking mainLock.
+     */
+    void collectMetrics(ExecutorMetrics.Snapshot s) {
+        s.poolSize = workerCountOf(ctl.get());
+        s.queuedTaskCount = workQueue.size();
+        Set<Worker> mw = metricsWorkers;
+        if (mw != null) {
+            for (Worker w : mw)
+                s.workers.add(new ExecutorMetrics.WorkerStats
+                              (w.thread.getName(), w.isLocked(),
+                               w.completedTasks, 0L, w.parkedNanos));
+        }
+    }
+
     /**
      * Returns a string identifying this pool, as well as its state,
      * including indications of run state and estimated worker and
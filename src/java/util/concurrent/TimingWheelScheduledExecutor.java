@@ -0,0 +1,754 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link ScheduledExecutorService} that keeps delayed tasks in a
+ * hierarchical timing wheel rather than a priority queue, for programs
+ * that hold very many pending timeouts, most of which are cancelled
+ * before they fire.  {@link ScheduledThreadPoolExecutor} keeps its tasks
+ * in a binary heap under one lock, so each schedule and each removing
+ * cancel costs O(log n) while holding that lock.  Here scheduling a task
+ * and cancelling it are both O(1) and lock-free: they only enqueue the
+ * task onto a concurrent queue.
+ *
+ * <p>Time is divided into <em>ticks</em> of a configurable duration.  A
+ * dedicated ticker thread owns the wheel: each tick it moves newly
+ * scheduled tasks into the slot of their deadline tick, unlinks cancelled
+ * tasks, and hands the tasks of the expiring slot as one batch to a fixed
+ * pool of worker threads.  Deadlines too far away for the lowest level of
+ * the wheel are kept in coarser levels and cascaded down as their time
+ * approaches, so the wheel's size is independent of the longest delay.
+ *
+ * <p>Tasks never run before their delay has elapsed, but may run up to
+ * about one tick after it, plus the time the ticker or workers were
+ * late.  Tasks due in the same tick run in no particular order.  The tick
+ * duration is therefore the trade-off between timer precision and the
+ * ticker's wake-up rate; the default of one millisecond suits request
+ * timeouts.  While no task is pending the ticker does not wake up at
+ * all.
+ *
+ * <p>Cancelled tasks are always removed from the wheel, by the ticker
+ * within about a tick, so there is no equivalent of
+ * {@link ScheduledThreadPoolExecutor#setRemoveOnCancelPolicy}.  After
+ * {@link #shutdown}, pending one-shot tasks are still run when due and
+ * periodic tasks are cancelled, as with the default policies of
+ * {@code ScheduledThreadPoolExecutor}.  Like that class, tasks with zero
+ * delay are submitted to the workers directly, and {@code execute} and
+ * {@code submit} are scheduled with zero delay.
+ *
+ * @since 1.8
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService
+    implements ScheduledExecutorService {
+
+    /*
+     * The wheel has `levels' levels of 2^wheelBits slots each.  A slot
+     * of level i covers 2^(wheelBits*i) ticks, so level 0 has one slot
+     * per tick and all levels together cover about 2^SPAN_BITS ticks;
+     * deadlines further away are parked in the top level and re-filed
+     * when it cascades.  All slots are kept in one array, level i at
+     * offset i << wheelBits, each the head of a doubly linked list of
+     * tasks so that a task can be unlinked in constant time.  This is
+     * the scheme of Varghese and Lauck, in the variant used by the
+     * classic Linux kernel timers: on each tick, if the level-0 index
+     * wraps to zero, the current slot of level 1 is cascaded into
+     * level 0, and so on upwards; then the level-0 slot of the tick
+     * expires.
+     *
+     * Only the ticker thread touches the wheel, so it needs no locking.
+     * Other threads communicate with it through two lock-free queues,
+     * one of newly scheduled (or rescheduled periodic) tasks and one of
+     * cancelled tasks, which the ticker drains before every tick.  A
+     * task that is cancelled while still in the pending queue is simply
+     * skipped when drained.
+     *
+     * When the wheel is empty the ticker parks without timeout after
+     * setting tickerIdle, and threads that enqueue a task unpark it if
+     * they see the flag set.  As the flag and the queue are both
+     * volatile, either the ticker sees the new task before parking, or
+     * the enqueuer sees the flag.  Ticks skipped while idle are not
+     * replayed since nothing could expire in them.
+     *
+     * Shutdown mirrors ScheduledThreadPoolExecutor.delayedExecute: a
+     * task is enqueued first and the run state rechecked after; if the
+     * executor has since shut down and the task can still be removed,
+     * it is rejected.  The ticker exits once shut down with nothing
+     * pending, and only then shuts the worker pool down.
+     */
+
+    /** Default tick duration, one millisecond. */
+    static final long DEFAULT_TICK_NANOS = 1000L * 1000L;
+
+    /** Default number of slots in each level of the wheel. */
+    static final int DEFAULT_WHEEL_SIZE = 256;
+
+    /** Largest allowed number of slots per level. */
+    static final int MAXIMUM_WHEEL_SIZE = 1 << 16;
+
+    /** Log2 of the number of ticks the levels cover together, at least. */
+    static final int SPAN_BITS = 32;
+
+    /** Run states, as in ThreadPoolExecutor but never decreasing. */
+    private static final int RUNNING  = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP     = 2;
+
+    /** Sequence number to break scheduling ties, for compareTo. */
+    private static final AtomicLong sequencer = new AtomicLong();
+
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final int levels;
+
+    /** The nanoTime of tick zero. */
+    private final long startTime;
+
+    /** Heads of all slots' lists.  Accessed only by the ticker. */
+    private final WheelTask<?>[] slots;
+
+    /** Number of tasks linked into slots.  Accessed only by the ticker. */
+    private long wheelCount;
+
+    /** The next tick to process.  Accessed only by the ticker. */
+    private long currentTick;
+
+    /** Tasks scheduled or rescheduled but not yet linked into the wheel. */
+    private final ConcurrentLinkedQueue<WheelTask<?>> pending =
+        new ConcurrentLinkedQueue<WheelTask<?>>();
+
+    /** Tasks cancelled since the last tick, to be unlinked. */
+    private final ConcurrentLinkedQueue<WheelTask<?>> cancelled =
+        new ConcurrentLinkedQueue<WheelTask<?>>();
+
+    /** Runs expired tasks. */
+    private final ThreadPoolExecutor workers;
+
+    private final Thread ticker;
+
+    /** Set while the ticker is parked with nothing in the wheel. */
+    private volatile boolean tickerIdle;
+
+    private volatile int runState;
+
+    /** Released when the ticker thread exits. */
+    private final CountDownLatch tickerDone = new CountDownLatch(1);
+
+    private class WheelTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** Sequence number to break ties FIFO */
+        private final long sequenceNumber;
+
+        /** The time the task is enabled to execute in nanoTime units */
+        private long time;
+
+        /**
+         * Period in nanoseconds for repeating tasks.  A positive
+         * value indicates fixed-rate execution.  A negative value
+         * indicates fixed-delay execution.  A value of 0 indicates a
+         * non-repeating task.
+         */
+        private final long period;
+
+        /** Whether this task has been handed to the ticker. */
+        boolean timed;
+
+        /** Index of the slot holding this task, or -1.  Ticker only. */
+        int slot = -1;
+
+        /** Neighbours in the slot's list.  Ticker only. */
+        WheelTask<?> prev, next;
+
+        WheelTask(Runnable r, V result, long ns, long period) {
+            super(r, result);
+            this.time = ns;
+            this.period = period;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        WheelTask(Callable<V> callable, long ns) {
+            super(callable);
+            this.time = ns;
+            this.period = 0;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            if (other instanceof WheelTask) {
+                WheelTask<?> x = (WheelTask<?>)other;
+                long diff = time - x.time;
+                if (diff < 0)
+                    return -1;
+                else if (diff > 0)
+                    return 1;
+                else if (sequenceNumber < x.sequenceNumber)
+                    return -1;
+                else
+                    return 1;
+            }
+            long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        /** Returns the first tick at or after this task's time. */
+        long deadlineTick() {
+            long d = time - startTime;
+            return (d <= 0L) ? 0L : (d - 1L) / tickNanos + 1L;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean c = super.cancel(mayInterruptIfRunning);
+            if (c && timed)
+                cancelled.offer(this);
+            return c;
+        }
+
+        public void run() {
+            if (period == 0)
+                super.run();
+            else if (runState != RUNNING)
+                cancel(false);
+            else if (super.runAndReset()) {
+                long p = period;
+                if (p > 0)
+                    time += p;
+                else
+                    time = triggerTime(-p);
+                reExecutePeriodic(this);
+            }
+        }
+    }
+
+    /**
+     * Creates a new executor with the given number of worker threads, a
+     * tick of one millisecond and 256 slots per wheel level.
+     *
+     * @param nThreads the number of threads running expired tasks
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     */
+    public TimingWheelScheduledExecutor(int nThreads) {
+        this(nThreads, DEFAULT_TICK_NANOS, NANOSECONDS,
+             DEFAULT_WHEEL_SIZE, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new executor with the given number of worker threads
+     * and tick duration, and 256 slots per wheel level.
+     *
+     * @param nThreads the number of threads running expired tasks
+     * @param tickDuration the timer resolution
+     * @param unit the time unit of the tickDuration argument
+     * @throws IllegalArgumentException if {@code nThreads <= 0} or
+     *         {@code tickDuration <= 0}
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public TimingWheelScheduledExecutor(int nThreads, long tickDuration,
+                                        TimeUnit unit) {
+        this(nThreads, tickDuration, unit,
+             DEFAULT_WHEEL_SIZE, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new executor with the given parameters.  The ticker
+     * thread and the worker threads are all created with the given
+     * factory.
+     *
+     * @param nThreads the number of threads running expired tasks
+     * @param tickDuration the timer resolution
+     * @param unit the time unit of the tickDuration argument
+     * @param wheelSize the number of slots per level of the wheel,
+     *        rounded up to a power of two; larger wheels cascade tasks
+     *        less often but take more memory and scanning when idle
+     * @param threadFactory the factory to use when creating threads
+     * @throws IllegalArgumentException if {@code nThreads <= 0},
+     *         {@code tickDuration <= 0}, or {@code wheelSize} is not
+     *         between 2 and 65536
+     * @throws NullPointerException if {@code unit} or
+     *         {@code threadFactory} is null
+     */
+    public TimingWheelScheduledExecutor(int nThreads, long tickDuration,
+                                        TimeUnit unit, int wheelSize,
+                                        ThreadFactory threadFactory) {
+        if (nThreads <= 0 || tickDuration <= 0L ||
+            wheelSize < 2 || wheelSize > MAXIMUM_WHEEL_SIZE)
+            throw new IllegalArgumentException();
+        if (threadFactory == null)
+            throw new NullPointerException();
+        this.tickNanos = Math.max(1L, unit.toNanos(tickDuration));
+        int bits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.wheelBits = bits;
+        this.wheelMask = (1 << bits) - 1;
+        this.levels = (SPAN_BITS + bits - 1) / bits;
+        this.slots = new WheelTask<?>[levels << bits];
+        this.workers = new ThreadPoolExecutor(nThreads, nThreads,
+                                              0L, NANOSECONDS,
+                                              new LinkedBlockingQueue<Runnable>(),
+                                              threadFactory);
+        this.ticker = threadFactory.newThread(new Ticker());
+        if (ticker == null)
+            throw new NullPointerException();
+        this.startTime = System.nanoTime();
+        ticker.start();
+    }
+
+    /**
+     * Returns the nanoTime-based trigger time of a delayed action.
+     */
+    long triggerTime(long delay) {
+        if (delay < 0L)
+            delay = 0L;
+        return System.nanoTime() + ((delay < (Long.MAX_VALUE >> 1)) ? delay : (Long.MAX_VALUE >> 1));
+    }
+
+    /**
+     * Main execution method for delayed or periodic tasks.  Tasks that
+     * are already due go straight to the workers, others are handed
+     * to the ticker.
+     */
+    private void delayedExecute(WheelTask<?> task) {
+        if (runState != RUNNING)
+            throw new RejectedExecutionException();
+        if (task.time - System.nanoTime() <= 0L)
+            workers.execute(task);
+        else {
+            task.timed = true;
+            pending.offer(task);
+            if (runState != RUNNING && pending.remove(task)) {
+                task.cancel(false);
+                throw new RejectedExecutionException();
+            }
+            if (tickerIdle)
+                LockSupport.unpark(ticker);
+        }
+    }
+
+    /**
+     * Requeues a periodic task unless shut down, in which case it is
+     * cancelled rather than rejected.
+     */
+    void reExecutePeriodic(WheelTask<?> task) {
+        if (runState == RUNNING) {
+            task.timed = true;
+            pending.offer(task);
+            if (runState != RUNNING && pending.remove(task))
+                task.cancel(false);
+            else if (tickerIdle)
+                LockSupport.unpark(ticker);
+        }
+        else
+            task.cancel(false);
+    }
+
+    // ---------------- wheel, ticker thread only ----------------
+
+    private void link(WheelTask<?> t, int i) {
+        WheelTask<?> h = slots[i];
+        t.slot = i;
+        t.prev = null;
+        t.next = h;
+        if (h != null)
+            h.prev = t;
+        slots[i] = t;
+        ++wheelCount;
+    }
+
+    private void unlink(WheelTask<?> t) {
+        WheelTask<?> p = t.prev, n = t.next;
+        if (p == null)
+            slots[t.slot] = n;
+        else
+            p.next = n;
+        if (n != null)
+            n.prev = p;
+        t.slot = -1;
+        t.prev = t.next = null;
+        --wheelCount;
+    }
+
+    /**
+     * Detaches the whole list of slot i, returning its head.
+     */
+    private WheelTask<?> detach(int i) {
+        WheelTask<?> h = slots[i];
+        if (h != null) {
+            slots[i] = null;
+            for (WheelTask<?> t = h; t != null; t = t.next) {
+                t.slot = -1;
+                --wheelCount;
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Files a task into the slot of its deadline, relative to the
+     * current tick.  Deadlines already passed go into the slot
+     * expiring at the current tick.
+     */
+    private void place(WheelTask<?> t) {
+        final int bits = wheelBits, top = levels - 1;
+        long now = currentTick, d = t.deadlineTick();
+        long delta = d - now;
+        if (delta < 0L) {
+            d = now;
+            delta = 0L;
+        }
+        int level = 0;
+        while (level < top && delta >= (1L << (bits * (level + 1))))
+            ++level;
+        long span = 1L << (bits * levels);
+        if (delta >= span)          // beyond the wheel, re-filed on cascade
+            d = now + span - 1L;
+        int i = (int)(d >>> (bits * level)) & wheelMask;
+        link(t, (level << bits) | i);
+    }
+
+    /**
+     * Processes the current tick: cascades higher levels whose index
+     * wrapped, then moves the tasks of the expiring slot onto the
+     * batch list.
+     */
+    private ArrayList<Runnable> advance(ArrayList<Runnable> batch) {
+        final int bits = wheelBits, mask = wheelMask;
+        long now = currentTick;
+        int index = (int)now & mask;
+        for (int level = 1; index == 0 && level < levels; ++level) {
+            index = (int)(now >>> (bits * level)) & mask;
+            WheelTask<?> t = detach((level << bits) | index);
+            while (t != null) {
+                WheelTask<?> next = t.next;
+                if (!t.isCancelled())
+                    place(t);
+                t = next;
+            }
+        }
+        WheelTask<?> t = detach((int)now & mask);
+        while (t != null) {
+            WheelTask<?> next = t.next;
+            t.prev = t.next = null;
+            if (!t.isCancelled()) {
+                if (batch == null)
+                    batch = new ArrayList<Runnable>();
+                batch.add(t);
+            }
+            t = next;
+        }
+        currentTick = now + 1L;
+        return batch;
+    }
+
+    private void drainCancelled() {
+        for (WheelTask<?> t; (t = cancelled.poll()) != null; ) {
+            if (t.slot >= 0)
+                unlink(t);
+        }
+    }
+
+    private void drainPending(boolean shutdown) {
+        for (WheelTask<?> t; (t = pending.poll()) != null; ) {
+            if (t.isCancelled())
+                continue;
+            if (shutdown && t.isPeriodic())
+                t.cancel(false);
+            else
+                place(t);
+        }
+    }
+
+    /** Cancels all periodic tasks in the wheel, on shutdown. */
+    private void cancelPeriodic() {
+        for (WheelTask<?> h : slots)
+            for (WheelTask<?> t = h; t != null; t = t.next)
+                if (t.isPeriodic())
+                    t.cancel(false);
+    }
+
+    private final class Ticker implements Runnable {
+        public void run() {
+            try {
+                boolean periodicCancelled = false;
+                for (;;) {
+                    int rs = runState;
+                    if (rs >= STOP)
+                        break;
+                    if (rs == SHUTDOWN && !periodicCancelled) {
+                        cancelPeriodic();
+                        periodicCancelled = true;
+                    }
+                    // 当前应该处理到哪个tick了，轮子是空的就不用一个个tick地补
+                    long target = (System.nanoTime() - startTime) / tickNanos;
+                    if (wheelCount == 0L && currentTick < target)
+                        currentTick = target;
+                    drainCancelled();
+                    drainPending(rs != RUNNING);
+                    ArrayList<Runnable> batch = null;
+                    while (currentTick <= target)
+                        batch = advance(batch);
+                    // 同一个tick到期的任务一次交给工作线程，只加一次锁
+                    if (batch != null) {
+                        try {
+                            workers.executeAll(batch);
+                        } catch (RejectedExecutionException ex) {
+                            for (Runnable r : batch)  // shutdownNow
+                                ((Future<?>)r).cancel(false);
+                        }
+                    }
+                    if (wheelCount == 0L) {
+                        if (rs != RUNNING && pending.isEmpty())
+                            break;
+                        tickerIdle = true;
+                        if (pending.isEmpty() && runState == rs)
+                            LockSupport.park(this);
+                        tickerIdle = false;
+                    }
+                    else {
+                        long wait = currentTick * tickNanos -
+                            (System.nanoTime() - startTime);
+                        if (wait > 0L)
+                            LockSupport.parkNanos(this, wait);
+                    }
+                }
+            } finally {
+                workers.shutdown();
+                tickerDone.countDown();
+            }
+        }
+    }
+
+    // ---------------- ScheduledExecutorService ----------------
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<Void> t = new WheelTask<Void>(command, null,
+                                                triggerTime(unit.toNanos(delay)), 0L);
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<V> t = new WheelTask<V>(callable,
+                                          triggerTime(unit.toNanos(delay)));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t = new WheelTask<Void>(command, null,
+                                                triggerTime(unit.toNanos(initialDelay)),
+                                                unit.toNanos(period));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t = new WheelTask<Void>(command, null,
+                                                triggerTime(unit.toNanos(initialDelay)),
+                                                unit.toNanos(-delay));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * Executes {@code command} with zero required delay.
+     *
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public Future<?> submit(Runnable task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Runnable task, T result) {
+        return schedule(Executors.callable(task, result), 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * Returns the tick duration, the resolution of this executor's
+     * timer, in the given unit.
+     *
+     * @param unit the time unit of the result
+     * @return the tick duration
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, NANOSECONDS);
+    }
+
+    // ---------------- lifecycle ----------------
+
+    private synchronized void advanceRunState(int targetState) {
+        if (runState < targetState)
+            runState = targetState;
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted
+     * tasks are executed, but no new tasks will be accepted.  Pending
+     * one-shot delayed tasks are still run when due; periodic tasks
+     * are cancelled.  This method does not wait for previously
+     * submitted tasks to complete execution.  Use
+     * {@link #awaitTermination awaitTermination} to do that.
+     */
+    public void shutdown() {
+        advanceRunState(SHUTDOWN);
+        LockSupport.unpark(ticker);
+    }
+
+    /**
+     * Attempts to stop all actively executing tasks, halts the
+     * processing of waiting tasks, and returns a list of the tasks
+     * that were awaiting execution, both those not yet due and those
+     * due but not yet started.  These tasks are not cancelled.
+     *
+     * <p>This method waits for the ticker thread to stop, which takes
+     * at most one tick, but does not wait for actively executing
+     * tasks to terminate.  Worker threads are interrupted, as by
+     * {@link ThreadPoolExecutor#shutdownNow}.
+     *
+     * @return list of tasks that never commenced execution
+     */
+    public List<Runnable> shutdownNow() {
+        advanceRunState(STOP);
+        LockSupport.unpark(ticker);
+        boolean interrupted = false;
+        while (tickerDone.getCount() != 0L) {
+            try {
+                tickerDone.await();
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        List<Runnable> tasks = workers.shutdownNow();
+        // 计时线程已经退出，轮子和pending队列不会再有人改
+        for (int i = 0; i < slots.length; ++i) {
+            for (WheelTask<?> t = detach(i), n; t != null; t = n) {
+                n = t.next;
+                t.prev = t.next = null;
+                if (!t.isCancelled())
+                    tasks.add(t);
+            }
+        }
+        for (WheelTask<?> t; (t = pending.poll()) != null; )
+            if (!t.isCancelled())
+                tasks.add(t);
+        cancelled.clear();
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return runState != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return tickerDone.getCount() == 0L && workers.isTerminated();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!tickerDone.await(timeout, unit))
+            return false;
+        return workers.awaitTermination(deadline - System.nanoTime(),
+                                        NANOSECONDS);
+    }
+}
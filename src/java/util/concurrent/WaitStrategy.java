@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * Decides how a thread waits in a blocking method of a lock-free queue,
+ * such as {@link SpscArrayQueue#take}, that found the queue empty, or
+ * full, and is about to retry.  The strategy is called once per failed
+ * attempt, with the number of attempts that failed before; it may spin,
+ * yield or sleep before returning {@code true} to have the caller retry
+ * at once, or return {@code false} to have the caller block until
+ * another thread signals it.
+ *
+ * <p>Spinning gives the lowest hand-off latency but burns a core per
+ * waiting thread; blocking costs a lock acquisition for the thread that
+ * signals, and a context switch for the one woken.  Strategies must not
+ * block indefinitely themselves: the caller checks for interrupts and
+ * timeouts between calls.
+ *
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Called after an attempt to take from an empty queue, or to put
+     * into a full one, failed.
+     *
+     * @param attempts the number of consecutive failed attempts before
+     *        this one, zero on the first call of a wait
+     * @return {@code true} to retry immediately, {@code false} to block
+     *         until signalled
+     */
+    boolean idle(int attempts);
+
+    /**
+     * Busy-spins.  For dedicated threads on otherwise idle cores.
+     */
+    WaitStrategy SPIN = attempts -> true;
+
+    /**
+     * Yields the processor between attempts.
+     */
+    WaitStrategy YIELD = attempts -> {
+        Thread.yield();
+        return true;
+    };
+
+    /**
+     * Spins for a few attempts, then yields for a few, then blocks.  The
+     * default, and the strategy to use for the work queue of a
+     * {@link ThreadPoolExecutor} whose threads may be idle for long.
+     */
+    WaitStrategy PARK = attempts -> {
+        if (attempts < 128)
+            return true;
+        if (attempts < 256) {
+            Thread.yield();
+            return true;
+        }
+        return false;
+    };
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.atomic;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A concurrent histogram of non-negative {@code long} values, such as
+ * latencies in nanoseconds, meant to be updated on hot paths and read
+ * occasionally.
+ *
+ * <p>Values are counted in log-linear buckets, in the manner of
+ * HdrHistogram: each power-of-two range is divided into 16 equal
+ * sub-buckets, so that any recorded value is known to within 1/16
+ * (6.25%) of itself across the whole range of {@code long}, and values
+ * below 16 are counted exactly.  The bucket array has fixed size, so
+ * recording never allocates once the table is warm.
+ *
+ * <p>Like {@link LongAdder}, the counts are striped: a {@link #record}
+ * that encounters contention moves the calling thread to another
+ * stripe, chosen by the same per-thread probe, and stripes are created
+ * only as contention requires.  A {@link #snapshot} sums the stripes;
+ * it is not an atomic view of concurrent updates, but every completed
+ * {@code record} is reflected in it.
+ *
+ * @since 1.8
+ */
+public class LongHistogram {
+
+    /** Number of bits of sub-bucket resolution per power of two. */
+    static final int SUB_BITS = 4;
+
+    /** Number of sub-buckets per power of two. */
+    static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /** Total number of buckets covering [0, Long.MAX_VALUE]. */
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    /** Maximum number of stripes. */
+    static final int MAX_STRIPES;
+    static {
+        int n = 1, ncpu = Striped64.NCPU;
+        while (n < ncpu && n < 8)
+            n <<= 1;
+        MAX_STRIPES = n;
+    }
+
+    /** Stripes of bucket counts; slot 0 is always present. */
+    private final long[][] stripes;
+
+    /**
+     * Creates a new, empty histogram.
+     */
+    public LongHistogram() {
+        stripes = new long[MAX_STRIPES][];
+        stripes[0] = new long[BUCKETS];
+    }
+
+    /**
+     * Returns the bucket index of the given non-negative value.
+     */
+    static int indexOf(long v) {
+        if (v < SUB_COUNT)
+            return (int)v;
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int)(v >>> (e - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((e - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    /**
+     * Returns the smallest value counted in the given bucket.
+     */
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_COUNT)
+            return index;
+        int e = (index >>> SUB_BITS) + SUB_BITS - 1;
+        long sub = index & (SUB_COUNT - 1);
+        return (SUB_COUNT + sub) << (e - SUB_BITS);
+    }
+
+    /**
+     * Returns the largest value counted in the given bucket.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_COUNT)
+            return index;
+        int e = (index >>> SUB_BITS) + SUB_BITS - 1;
+        return lowestEquivalentValue(index) + (1L << (e - SUB_BITS)) - 1L;
+    }
+
+    /**
+     * Returns the stripe for the given probe, creating it if absent.
+     */
+    private long[] stripeFor(int h) {
+        long[][] ss = stripes;
+        long off = ((long)(h & (ss.length - 1)) << SSHIFT) + SBASE;
+        long[] s;
+        while ((s = (long[])U.getObjectVolatile(ss, off)) == null) {
+            long[] ns = new long[BUCKETS];
+            if (U.compareAndSwapObject(ss, off, null, ns))
+                return ns;
+        }
+        return s;
+    }
+
+    /**
+     * Records one occurrence of the given value.  Negative values, as
+     * may arise from differences of {@link System#nanoTime} readings
+     * across threads, are recorded as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        long off = ((long)indexOf(Math.max(value, 0L)) << LSHIFT) + LBASE;
+        int h = Striped64.getProbe();
+        long[] s = (h == 0) ? stripes[0] : stripeFor(h);
+        long c = U.getLongVolatile(s, off);
+        if (!U.compareAndSwapLong(s, off, c, c + 1L)) {
+            if (h == 0) {
+                ThreadLocalRandom.current(); // force initialization
+                h = Striped64.getProbe();
+            }
+            else
+                h = Striped64.advanceProbe(h);
+            U.getAndAddLong(stripeFor(h), off, 1L);
+        }
+    }
+
+    /**
+     * Resets all counts to zero.  Counts recorded concurrently with a
+     * reset may or may not be cleared.
+     */
+    public void reset() {
+        long[][] ss = stripes;
+        for (int i = 0; i < ss.length; ++i) {
+            long[] s = (long[])U.getObjectVolatile(ss, ((long)i << SSHIFT) + SBASE);
+            if (s != null) {
+                for (int j = 0; j < BUCKETS; ++j)
+                    U.putLongVolatile(s, ((long)j << LSHIFT) + LBASE, 0L);
+            }
+        }
+    }
+
+    /**
+     * Returns the current counts summed over all stripes.
+     *
+     * @return a snapshot of this histogram
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long[][] ss = stripes;
+        for (int i = 0; i < ss.length; ++i) {
+            long[] s = (long[])U.getObjectVolatile(ss, ((long)i << SSHIFT) + SBASE);
+            if (s != null) {
+                for (int j = 0; j < BUCKETS; ++j)
+                    counts[j] += U.getLongVolatile(s, ((long)j << LSHIFT) + LBASE);
+            }
+        }
+        return new Snapshot(counts);
+    }
+
+    /**
+     * Returns a summary of the current snapshot.
+     *
+     * @return a String representation of this histogram
+     */
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * An immutable copy of the counts of a {@link LongHistogram}.
+     * Statistics are computed from bucket boundaries, so they carry the
+     * histogram's relative error of 1/16.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+
+        Snapshot(long[] counts) {
+            long n = 0L;
+            for (long c : counts)
+                n += c;
+            this.counts = counts;
+            this.count = n;
+        }
+
+        /**
+         * Returns the number of recorded values.
+         *
+         * @return the number of recorded values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the lowest value equivalent to the smallest recorded
+         * value, or zero if none were recorded.
+         *
+         * @return the minimum
+         */
+        public long getMin() {
+            for (int i = 0; i < BUCKETS; ++i) {
+                if (counts[i] != 0L)
+                    return lowestEquivalentValue(i);
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns the highest value equivalent to the largest recorded
+         * value, or zero if none were recorded.
+         *
+         * @return the maximum
+         */
+        public long getMax() {
+            for (int i = BUCKETS - 1; i >= 0; --i) {
+                if (counts[i] != 0L)
+                    return highestEquivalentValue(i);
+            }
+            return 0L;
+        }
+
+        /**
+         * Returns the mean of the recorded values, taking each to be the
+         * midpoint of its bucket, or {@code 0.0} if none were recorded.
+         *
+         * @return the mean
+         */
+        public double getMean() {
+            if (count == 0L)
+                return 0.0;
+            double sum = 0.0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                long c = counts[i];
+                if (c != 0L) {
+                    double mid = ((double)lowestEquivalentValue(i) +
+                                  (double)highestEquivalentValue(i)) / 2.0;
+                    sum += mid * c;
+                }
+            }
+            return sum / count;
+        }
+
+        /**
+         * Returns the value at or below which the given percentage of
+         * recorded values fall: the highest value equivalent to the
+         * recorded value of that rank.
+         *
+         * @param percentile the percentile, from 0.0 to 100.0
+         * @return the value at the given percentile, or zero if no
+         *         values were recorded
+         * @throws IllegalArgumentException if {@code percentile} is out
+         *         of range
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0))
+                throw new IllegalArgumentException();
+            if (count == 0L)
+                return 0L;
+            long rank = Math.max(1L, (long)Math.ceil(percentile / 100.0 * count));
+            long seen = 0L;
+            for (int i = 0; i < BUCKETS; ++i) {
+                if ((seen += counts[i]) >= rank)
+                    return highestEquivalentValue(i);
+            }
+            return getMax();
+        }
+
+        /**
+         * Returns the number of recorded values in the range
+         * {@code [from, to]}, rounded outward to bucket boundaries.
+         *
+         * @param from the lowest value of the range
+         * @param to the highest value of the range
+         * @return the number of recorded values in the range
+         */
+        public long getCountBetween(long from, long to) {
+            long n = 0L;
+            for (int i = indexOf(Math.max(from, 0L)),
+                     j = indexOf(Math.max(to, 0L)); i <= j; ++i)
+                n += counts[i];
+            return n;
+        }
+
+        /**
+         * Returns a snapshot of the values recorded after {@code earlier}
+         * was taken, assuming the histogram was not reset in between.
+         *
+         * @param earlier an earlier snapshot of the same histogram
+         * @return the difference of the two snapshots
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] c = Arrays.copyOf(counts, BUCKETS);
+            for (int i = 0; i < BUCKETS; ++i)
+                c[i] = Math.max(0L, c[i] - earlier.counts[i]);
+            return new Snapshot(c);
+        }
+
+        /**
+         * Returns a summary of the count, mean and common percentiles.
+         *
+         * @return a String representation of this snapshot
+         */
+        public String toString() {
+            return "[count=" + count +
+                ", mean=" + (long)getMean() +
+                ", p50=" + getValueAtPercentile(50.0) +
+                ", p90=" + getValueAtPercentile(90.0) +
+                ", p99=" + getValueAtPercentile(99.0) +
+                ", p99.9=" + getValueAtPercentile(99.9) +
+                ", max=" + getMax() + "]";
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long LBASE;
+    private static final int LSHIFT;
+    private static final long SBASE;
+    private static final int SSHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            LBASE = U.arrayBaseOffset(long[].class);
+            int ls = U.arrayIndexScale(long[].class);
+            SBASE = U.arrayBaseOffset(long[][].class);
+            int ss = U.arrayIndexScale(long[][].class);
+            if ((ls & (ls - 1)) != 0 || (ss & (ss - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(ls);
+            SSHIFT = 31 - Integer.numberOfLeadingZeros(ss);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -255,6 +255,13 @@ public abstract class AbstractQueuedLongSynchronizer
          */
         Node nextWaiter;
 
+        /**
+         * The wait of this node's thread as recorded by
+         * ContentionProfiler, or null if recording was disabled when
+         * it queued.  Accessed only by that thread.
+         */
+        ContentionProfiler.Acquisition contention;
+
         /**
          * Returns true if node is waiting in shared mode.
          */
@@ -310,6 +317,32 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private volatile long state;
 
+    /**
+     * The contention recorded for this synchronizer by
+     * ContentionProfiler, created on the first blocking acquire while
+     * recording is enabled.
+     */
+    private transient volatile ContentionProfiler.LockStats contentionStats;
+
+    /**
+     * Returns the contention stats of this synchronizer, creating them
+     * if absent or invalidated by ContentionProfiler.reset.
+     */
+    final ContentionProfiler.LockStats contentionStats() {
+        ContentionProfiler.LockStats s = contentionStats;
+        int gen = ContentionProfiler.generation;
+        if (s == null || s.generation != gen) {
+            ContentionProfiler.LockStats n = ContentionProfiler.newStats(this, gen);
+            // register only the stats that were installed
+            if (unsafe.compareAndSwapObject(this, contentionStatsOffset, s, n)) {
+                ContentionProfiler.register(n);
+                s = n;
+            } else
+                s = contentionStats;
+        }
+        return s;
+    }
+
     /**
      * Returns the current value of synchronization state.
      * This operation has memory semantics of a {@code volatile} read.
@@ -382,6 +415,8 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private Node addWaiter(Node mode) {
         Node node = new Node(Thread.currentThread(), mode);
+        if (ContentionProfiler.enabled)
+            node.contention = contentionStats().startWait();
         // Try the fast path of enq; backup to full enq on failure
         Node pred = tail;
         if (pred != null) {
@@ -406,6 +441,11 @@ public abstract class AbstractQueuedLongSynchronizer
         head = node;
         node.thread = null;
         node.prev = null;
+        ContentionProfiler.Acquisition a = node.contention;
+        if (a != null) {
+            node.contention = null;
+            a.done();
+        }
     }
 
     /**
@@ -523,6 +563,11 @@ public abstract class AbstractQueuedLongSynchronizer
             return;
 
         node.thread = null;
+        ContentionProfiler.Acquisition a = node.contention;
+        if (a != null) {
+            node.contention = null;
+            a.done();
+        }
 
         // Skip cancelled predecessors
         Node pred = node.prev;
@@ -608,13 +653,37 @@ public abstract class AbstractQueuedLongSynchronizer
     /**
      * Convenience method to park and then check if interrupted
      *
+     * @param node the node of the current thread, which may record
+     *        the time parked
      * @return {@code true} if interrupted
      */
-    private final boolean parkAndCheckInterrupt() {
-        LockSupport.park(this);
+    private final boolean parkAndCheckInterrupt(Node node) {
+        ContentionProfiler.Acquisition a = node.contention;
+        if (a == null)
+            LockSupport.park(this);
+        else {
+            long t = System.nanoTime();
+            LockSupport.park(this);
+            a.parked(System.nanoTime() - t);
+        }
         return Thread.interrupted();
     }
 
+    /**
+     * Parks for at most the given time, recording the time parked
+     * like parkAndCheckInterrupt.
+     */
+    private final void parkNanos(Node node, long nanosTimeout) {
+        ContentionProfiler.Acquisition a = node.contention;
+        if (a == null)
+            LockSupport.parkNanos(this, nanosTimeout);
+        else {
+            long t = System.nanoTime();
+            LockSupport.parkNanos(this, nanosTimeout);
+            a.parked(System.nanoTime() - t);
+        }
+    }
+
     /*
      * Various flavors of acquire, varying in exclusive/shared and
      * control modes.  Each is mostly the same, but annoyingly
@@ -645,7 +714,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     return interrupted;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
+                    parkAndCheckInterrupt(node))
                     interrupted = true;
             }
         } finally {
@@ -672,7 +741,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     return;
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
+                    parkAndCheckInterrupt(node))
                     throw new InterruptedException();
             }
         } finally {
@@ -709,7 +778,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     return false;
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    parkNanos(node, nanosTimeout);
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -742,7 +811,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     }
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
+                    parkAndCheckInterrupt(node))
                     interrupted = true;
             }
         } finally {
@@ -772,7 +841,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     }
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
+                    parkAndCheckInterrupt(node))
                     throw new InterruptedException();
             }
         } finally {
@@ -812,7 +881,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     return false;
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    parkNanos(node, nanosTimeout);
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -973,6 +1042,8 @@ public abstract class AbstractQueuedLongSynchronizer
      *        can represent anything you like.
      */
     public final void acquire(long arg) {
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         if (!tryAcquire(arg) &&
             acquireQueued(addWaiter(Node.EXCLUSIVE), arg))
             selfInterrupt();
@@ -996,6 +1067,8 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         if (!tryAcquire(arg))
             doAcquireInterruptibly(arg);
     }
@@ -1021,6 +1094,8 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         return tryAcquire(arg) ||
             doAcquireNanos(arg, nanosTimeout);
     }
@@ -1057,6 +1132,8 @@ public abstract class AbstractQueuedLongSynchronizer
      *        and can represent anything you like.
      */
     public final void acquireShared(long arg) {
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         if (tryAcquireShared(arg) < 0)
             doAcquireShared(arg);
     }
@@ -1078,6 +1155,8 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         if (tryAcquireShared(arg) < 0)
             doAcquireSharedInterruptibly(arg);
     }
@@ -1102,6 +1181,8 @@ public abstract class AbstractQueuedLongSynchronizer
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         return tryAcquireShared(arg) >= 0 ||
             doAcquireSharedNanos(arg, nanosTimeout);
     }
@@ -2043,6 +2124,7 @@ public abstract class AbstractQueuedLongSynchronizer
     private static final long tailOffset;
     private static final long waitStatusOffset;
     private static final long nextOffset;
+    private static final long contentionStatsOffset;
 
     static {
         try {
@@ -2056,6 +2138,8 @@ public abstract class AbstractQueuedLongSynchronizer
                 (Node.class.getDeclaredField("waitStatus"));
             nextOffset = unsafe.objectFieldOffset
                 (Node.class.getDeclaredField("next"));
+            contentionStatsOffset = unsafe.objectFieldOffset
+                (AbstractQueuedLongSynchronizer.class.getDeclaredField("contentionStats"));
 
         } catch (Exception ex) { throw new Error(ex); }
     }
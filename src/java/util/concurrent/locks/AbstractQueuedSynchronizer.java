@@ -79,6 +79,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
          */
         Node nextWaiter;
 
+        /**
+         * 开启了ContentionProfiler时，记录这个节点排队期间阻塞了多久，没开启时是null
+         */
+        ContentionProfiler.Acquisition contention;
+
         /**
          * 是否是共享模式
          */
@@ -137,6 +142,29 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
      */
     private volatile int state;
 
+    /**
+     * ContentionProfiler记录的这个锁的竞争数据，开启记录后第一次获取锁时创建
+     */
+    private transient volatile ContentionProfiler.LockStats contentionStats;
+
+    /**
+     * 返回这个锁的竞争数据，没有或者ContentionProfiler.reset()过就新建一个
+     */
+    final ContentionProfiler.LockStats contentionStats() {
+        ContentionProfiler.LockStats s = contentionStats;
+        int gen = ContentionProfiler.generation;
+        if (s == null || s.generation != gen) {
+            ContentionProfiler.LockStats n = ContentionProfiler.newStats(this, gen);
+            // 抢赢了才登记，抢输了就用别人建好的
+            if (unsafe.compareAndSwapObject(this, contentionStatsOffset, s, n)) {
+                ContentionProfiler.register(n);
+                s = n;
+            } else
+                s = contentionStats;
+        }
+        return s;
+    }
+
     /**
      * 获取状态
      */
@@ -212,6 +240,9 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     private Node addWaiter(Node mode) {
         // 新建一个节点
         Node node = new Node(Thread.currentThread(), mode);
+        // 开启了竞争记录，登记排队
+        if (ContentionProfiler.enabled)
+            node.contention = contentionStats().startWait();
         // 先尝试把新节点加到尾节点后面
         // 成功了就返回新节点
         // 不成功再调用enq()方法不断尝试
@@ -243,6 +274,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
         head = node;
         node.thread = null;
         node.prev = null;
+        ContentionProfiler.Acquisition a = node.contention;
+        if (a != null) {
+            node.contention = null;
+            a.done();
+        }
     }
 
     /**
@@ -325,6 +361,11 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             return;
 
         node.thread = null;
+        ContentionProfiler.Acquisition a = node.contention;
+        if (a != null) {
+            node.contention = null;
+            a.done();
+        }
 
         // Skip cancelled predecessors
         Node pred = node.prev;
@@ -404,15 +445,37 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     /**
      * 阻塞线程
      */
-    private final boolean parkAndCheckInterrupt() {
+    private final boolean parkAndCheckInterrupt(Node node) {
+        ContentionProfiler.Acquisition a = node.contention;
         // 阻塞当前线程
         // 底层调用的是Unsafe的park()方法
-        LockSupport.park(this);
+        if (a == null)
+            LockSupport.park(this);
+        else {
+            // 开启了竞争记录，统计阻塞时间
+            long t = System.nanoTime();
+            LockSupport.park(this);
+            a.parked(System.nanoTime() - t);
+        }
         // 线程中断，只是在线程上打一个中断标志，并不会对运行中的线程有什么影响，具体需要根据这个中断标志干些什么，用户自己去决定
         // 一般我们都会放在try catch里面，所以其实也会释放锁
         return Thread.interrupted();
     }
 
+    /**
+     * 有超时的阻塞，和上面一样开启了竞争记录时统计阻塞时间
+     */
+    private final void parkNanos(Node node, long nanosTimeout) {
+        ContentionProfiler.Acquisition a = node.contention;
+        if (a == null)
+            LockSupport.parkNanos(this, nanosTimeout);
+        else {
+            long t = System.nanoTime();
+            LockSupport.parkNanos(this, nanosTimeout);
+            a.parked(System.nanoTime() - t);
+        }
+    }
+
     /*
      * Various flavors of acquire, varying in exclusive/shared and
      * control modes.  Each is mostly the same, but annoyingly
@@ -450,7 +513,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                     return interrupted;
                 }
                 // 是否需要阻塞 需要则直接阻塞parkAndCheckInterrupt
-                if (shouldParkAfterFailedAcquire(p, node) && parkAndCheckInterrupt())
+                if (shouldParkAfterFailedAcquire(p, node) && parkAndCheckInterrupt(node))
                     interrupted = true;
             }
         } finally {
@@ -475,7 +538,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                     failed = false;
                     return;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) && parkAndCheckInterrupt())
+                if (shouldParkAfterFailedAcquire(p, node) && parkAndCheckInterrupt(node))
                     throw new InterruptedException();
             }
         } finally {
@@ -511,7 +574,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                 // 只有到期时间大于1000纳秒，才阻塞
                 // 小于等于1000纳秒，直接自旋解决就得了
                 if (shouldParkAfterFailedAcquire(p, node) && nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    parkNanos(node, nanosTimeout);
                 if (Thread.interrupted()) throw new InterruptedException();
             }
         } finally {
@@ -550,7 +613,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                     }
                 }
                 // 没获取到读锁，阻塞并等待被唤醒
-                if (shouldParkAfterFailedAcquire(p, node) && parkAndCheckInterrupt())
+                if (shouldParkAfterFailedAcquire(p, node) && parkAndCheckInterrupt(node))
                     interrupted = true;
             }
         } finally {
@@ -580,7 +643,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                     }
                 }
                 if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
+                    parkAndCheckInterrupt(node))
                     throw new InterruptedException();
             }
         } finally {
@@ -620,7 +683,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
                     return false;
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    parkNanos(node, nanosTimeout);
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -663,6 +726,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
      * 这里可以看到，默认传的是独占模式
      */
     public final void acquire(int arg) {
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         if (!tryAcquire(arg) && acquireQueued(addWaiter(Node.EXCLUSIVE), arg))
             selfInterrupt();
     }
@@ -683,6 +748,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
      */
     public final void acquireInterruptibly(int arg) throws InterruptedException {
         if (Thread.interrupted()) throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         if (!tryAcquire(arg))
             doAcquireInterruptibly(arg);
     }
@@ -693,6 +760,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     public final boolean tryAcquireNanos(int arg, long nanosTimeout) throws InterruptedException {
         // 如果线程中断，就直接异常
         if (Thread.interrupted()) throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         // 先尝试获取一波锁
         return tryAcquire(arg) || doAcquireNanos(arg, nanosTimeout);
     }
@@ -719,6 +788,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
      * 获取共享锁
      */
     public final void acquireShared(int arg) {
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         // 尝试获取共享锁（返回1表示成功，返回-1表示失败）
         if (tryAcquireShared(arg) < 0)
             // // 失败了就可能要排队
@@ -742,6 +813,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         if (tryAcquireShared(arg) < 0)
             doAcquireSharedInterruptibly(arg);
     }
@@ -766,6 +839,8 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             throws InterruptedException {
         if (Thread.interrupted())
             throw new InterruptedException();
+        if (ContentionProfiler.enabled)
+            contentionStats().acquire();
         return tryAcquireShared(arg) >= 0 ||
             doAcquireSharedNanos(arg, nanosTimeout);
     }
@@ -1640,6 +1715,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
     private static final long tailOffset;
     private static final long waitStatusOffset;
     private static final long nextOffset;
+    private static final long contentionStatsOffset;
 
     static {
         try {
@@ -1648,6 +1724,7 @@ public abstract class AbstractQueuedSynchronizer extends AbstractOwnableSynchron
             tailOffset = unsafe.objectFieldOffset(AbstractQueuedSynchronizer.class.getDeclaredField("tail"));
             waitStatusOffset = unsafe.objectFieldOffset(Node.class.getDeclaredField("waitStatus"));
             nextOffset = unsafe.objectFieldOffset(Node.class.getDeclaredField("next"));
+            contentionStatsOffset = unsafe.objectFieldOffset(AbstractQueuedSynchronizer.class.getDeclaredField("contentionStats"));
         } catch (Exception ex) { throw new Error(ex); }
     }
 
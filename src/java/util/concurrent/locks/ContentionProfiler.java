@@ -0,0 +1,668 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Opt-in recording of contention on the synchronizers built on
+ * {@link AbstractQueuedSynchronizer} and
+ * {@link AbstractQueuedLongSynchronizer}, such as {@link ReentrantLock},
+ * {@link ReentrantReadWriteLock} and {@link java.util.concurrent.Semaphore}.
+ *
+ * <p>While recording is {@linkplain #enable enabled}, each synchronizer
+ * keeps, from its first use on:
+ * <ul>
+ * <li>the number of blocking acquisitions ({@code lock},
+ *     {@code acquire} and their interruptible and timed forms, but not
+ *     {@code tryLock()} and the like, which never wait);
+ * <li>the number of those that were contended, that is, had to queue;
+ * <li>the total and the longest time a queued thread spent parked
+ *     before it acquired, timed out or was interrupted;
+ * <li>the length of its queue, and the largest length seen; and
+ * <li>a sample of the call stacks of contended acquisitions, one in
+ *     {@link #setStackSampleInterval every so many}, aggregated by
+ *     acquisition site, with the time parked at each.
+ * </ul>
+ * Reacquisitions after {@link Condition#await} are not recorded.  The
+ * counters are striped or updated only by queued threads, so recording
+ * adds little to the cost of an uncontended acquire, and while
+ * recording is disabled the only cost is a read of a static field.
+ *
+ * <p>Recorded data is read with {@link #getLockInfos} and
+ * {@link #getTopContended}, formatted by {@link #report}, and exported
+ * as {@link java.lang.management.LockContentionMXBean}.  A synchronizer
+ * is identified by its class name and identity hash code; its
+ * {@linkplain LockContentionInfo#getStackSamples stack samples} show where it is
+ * acquired.  Data of synchronizers that have been garbage collected is
+ * discarded.
+ *
+ * @since 1.8
+ */
+public final class ContentionProfiler {
+
+    private ContentionProfiler() {}
+
+    /** Default number of contended acquisitions per stack sample. */
+    public static final int DEFAULT_STACK_SAMPLE_INTERVAL = 16;
+
+    /** Maximum number of distinct acquisition sites kept per lock. */
+    static final int MAX_SITES = 32;
+
+    /** Maximum number of frames kept per acquisition site. */
+    static final int MAX_FRAMES = 16;
+
+    /** Read on every blocking acquire; everything else is off the fast path. */
+    static volatile boolean enabled;
+
+    private static volatile int stackSampleInterval = DEFAULT_STACK_SAMPLE_INTERVAL;
+
+    /** Incremented by reset, invalidating the stats held by synchronizers. */
+    static volatile int generation;
+
+    /** Live stats, by identity. */
+    private static final Map<LockStats,Boolean> registry =
+        new ConcurrentHashMap<LockStats,Boolean>();
+
+    /** Stats whose synchronizer has been collected. */
+    private static final ReferenceQueue<Object> collected =
+        new ReferenceQueue<Object>();
+
+    /**
+     * Starts recording contention.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops recording contention.  Data recorded so far is kept.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Returns whether contention is being recorded.
+     *
+     * @return {@code true} if recording is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets how often a contended acquisition records its call stack:
+     * one in {@code interval} on average, chosen at random.  Capturing a
+     * stack costs several microseconds, so that lower intervals give
+     * more complete site data at more cost.  Zero disables stack
+     * sampling.
+     *
+     * @param interval the mean number of contended acquisitions per
+     *        sample, or zero
+     * @throws IllegalArgumentException if {@code interval} is negative
+     */
+    public static void setStackSampleInterval(int interval) {
+        if (interval < 0)
+            throw new IllegalArgumentException();
+        stackSampleInterval = interval;
+    }
+
+    /**
+     * Returns the stack sample interval.
+     *
+     * @return the mean number of contended acquisitions per stack
+     *         sample, or zero if stacks are not sampled
+     */
+    public static int getStackSampleInterval() {
+        return stackSampleInterval;
+    }
+
+    /**
+     * Discards all data recorded so far.  Recording continues if
+     * enabled, with counters starting from zero.
+     */
+    public static synchronized void reset() {
+        generation = generation + 1;
+        registry.clear();
+        while (collected.poll() != null)
+            ;
+    }
+
+    /**
+     * Returns a snapshot of the data recorded for each live
+     * synchronizer, in no particular order.
+     *
+     * @return the recorded data
+     */
+    public static List<LockContentionInfo> getLockInfos() {
+        expunge();
+        List<LockContentionInfo> list = new ArrayList<LockContentionInfo>(registry.size());
+        for (LockStats s : registry.keySet())
+            list.add(new LockContentionInfo(s));
+        return list;
+    }
+
+    /**
+     * Returns the {@code n} synchronizers whose threads spent the
+     * longest time parked, then those with the most contended
+     * acquisitions.
+     *
+     * @param n the maximum number of synchronizers to return
+     * @return the recorded data of at most n synchronizers, most
+     *         contended first
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public static List<LockContentionInfo> getTopContended(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        List<LockContentionInfo> list = getLockInfos();
+        Collections.sort(list, MOST_CONTENDED);
+        return (list.size() > n) ? new ArrayList<LockContentionInfo>(list.subList(0, n)) : list;
+    }
+
+    /**
+     * Returns a human-readable report of the {@code n} most contended
+     * synchronizers, as ordered by {@link #getTopContended}, with their
+     * counters and busiest acquisition sites.
+     *
+     * @param n the maximum number of synchronizers to report
+     * @return the report
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public static String report(int n) {
+        List<LockContentionInfo> all = getLockInfos();
+        if (n < 0)
+            throw new IllegalArgumentException();
+        Collections.sort(all, MOST_CONTENDED);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Lock contention: top ").append(Math.min(n, all.size()))
+          .append(" of ").append(all.size()).append(" locks")
+          .append(enabled ? "" : " (recording disabled)").append('\n');
+        for (int i = 0; i < n && i < all.size(); i++) {
+            LockContentionInfo li = all.get(i);
+            sb.append('\n').append(li.getName()).append('\n')
+              .append("    acquires ").append(li.getAcquireCount())
+              .append(", contended ").append(li.getContendedCount())
+              .append(", parked ").append(millis(li.getParkedTime()))
+              .append(" ms total, ").append(millis(li.getMaxParkedTime()))
+              .append(" ms max, queue ").append(li.getQueueLength())
+              .append(" (max ").append(li.getMaxQueueLength()).append(")\n");
+            for (StackSample ss : li.getStackSamples()) {
+                sb.append("    ").append(ss.getCount()).append(" samples, parked ")
+                  .append(millis(ss.getParkedTime())).append(" ms\n");
+                for (StackTraceElement f : ss.getStackTrace())
+                    sb.append("        at ").append(f).append('\n');
+            }
+            if (li.getDroppedSampleCount() > 0)
+                sb.append("    ").append(li.getDroppedSampleCount())
+                  .append(" samples at other sites\n");
+        }
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+
+    // no lambdas: this class is initialized by the first blocking
+    // acquire, possibly before java.lang.invoke is usable
+    private static final Comparator<LockContentionInfo> MOST_CONTENDED =
+        new Comparator<LockContentionInfo>() {
+            public int compare(LockContentionInfo a, LockContentionInfo b) {
+                int c = Long.compare(b.parkedTime, a.parkedTime);
+                return (c != 0) ? c : Long.compare(b.contended, a.contended);
+            }
+        };
+
+    private static final Comparator<StackSample> MOST_SAMPLED =
+        new Comparator<StackSample>() {
+            public int compare(StackSample a, StackSample b) {
+                return Long.compare(b.count, a.count);
+            }
+        };
+
+    /** Removes the stats of collected synchronizers. */
+    private static void expunge() {
+        for (Reference<?> r; (r = collected.poll()) != null; )
+            registry.remove(r);
+    }
+
+    /**
+     * Creates the stats of a synchronizer, called by its
+     * contentionStats method, which installs and then registers them.
+     */
+    static LockStats newStats(Object sync, int gen) {
+        return new LockStats(sync, gen, collected);
+    }
+
+    /**
+     * Registers the stats a synchronizer's contentionStats method has
+     * just installed.  Stats that lost the race to be installed are
+     * never registered, and stats made stale by a concurrent reset are
+     * removed again: either reset's clear follows the put, or the
+     * generation read here already differs.
+     */
+    static void register(LockStats s) {
+        expunge();
+        registry.put(s, Boolean.TRUE);
+        if (s.generation != generation)
+            registry.remove(s);
+    }
+
+    /**
+     * Returns the stack of the current thread from the frame that
+     * acquires the synchronizer on, dropping the frames of the
+     * synchronizer's implementation.
+     */
+    static StackTraceElement[] acquisitionSite(Class<?> syncClass) {
+        String outer = syncClass.getName();
+        int d = outer.indexOf('$');
+        if (d > 0)
+            outer = outer.substring(0, d);
+        String nested = outer + '$';
+        StackTraceElement[] st = new Throwable().getStackTrace();
+        int i = 0;
+        while (i < st.length) {
+            String cn = st[i].getClassName();
+            if (cn.startsWith("java.util.concurrent.locks.") ||
+                cn.equals(outer) || cn.startsWith(nested))
+                ++i;
+            else
+                break;
+        }
+        return Arrays.copyOfRange(st, i, Math.min(st.length, i + MAX_FRAMES));
+    }
+
+    /**
+     * The live counters of one synchronizer, weakly referring to it.
+     * Held by the synchronizer and by the registry.
+     */
+    static final class LockStats extends WeakReference<Object> {
+        final String name;
+        final Class<?> syncClass;
+        final int generation;
+        final LongAdder acquires = new LongAdder();
+        final LongAdder contended = new LongAdder();
+        final LongAdder parkedNanos = new LongAdder();
+        final LongAdder droppedSamples = new LongAdder();
+        final AtomicLong maxParkedNanos = new AtomicLong();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicInteger maxQueued = new AtomicInteger();
+        final ConcurrentHashMap<Site,SiteStats> sites =
+            new ConcurrentHashMap<Site,SiteStats>();
+
+        LockStats(Object sync, int generation, ReferenceQueue<Object> q) {
+            super(sync, q);
+            this.syncClass = sync.getClass();
+            this.name = syncClass.getName() + '@' +
+                Integer.toHexString(System.identityHashCode(sync));
+            this.generation = generation;
+        }
+
+        /** Records a blocking acquire. */
+        void acquire() {
+            acquires.increment();
+        }
+
+        /**
+         * Records that the current thread is about to queue, returning
+         * the record of its wait.
+         */
+        Acquisition startWait() {
+            contended.increment();
+            int q = queued.incrementAndGet();
+            for (int m; q > (m = maxQueued.get()) && !maxQueued.compareAndSet(m, q); )
+                ;
+            Site site = null;
+            int interval = stackSampleInterval;
+            if (interval > 0 && ThreadLocalRandom.current().nextInt(interval) == 0) {
+                Site s = new Site(acquisitionSite(syncClass));
+                if (sites.containsKey(s) || sites.size() < MAX_SITES)
+                    site = s;
+                else
+                    droppedSamples.increment();
+            }
+            return new Acquisition(this, site);
+        }
+
+        /** Records the end of a wait. */
+        void endWait(long parked, Site site) {
+            queued.decrementAndGet();
+            parkedNanos.add(parked);
+            for (long m; parked > (m = maxParkedNanos.get()) &&
+                     !maxParkedNanos.compareAndSet(m, parked); )
+                ;
+            if (site != null) {
+                SiteStats ss = sites.get(site);
+                if (ss == null) {
+                    SiteStats fresh = new SiteStats();
+                    ss = sites.putIfAbsent(site, fresh);
+                    if (ss == null)
+                        ss = fresh;
+                }
+                ss.count.increment();
+                ss.parkedNanos.add(parked);
+            }
+        }
+    }
+
+    /**
+     * The wait of one queued thread, attached to its queue node.
+     */
+    static final class Acquisition {
+        final LockStats lock;
+        final Site site;
+        long parkedNanos;       // written only by the waiting thread
+
+        Acquisition(LockStats lock, Site site) {
+            this.lock = lock;
+            this.site = site;
+        }
+
+        void parked(long nanos) {
+            parkedNanos += nanos;
+        }
+
+        /** Called once, when the thread acquires or gives up. */
+        void done() {
+            lock.endWait(parkedNanos, site);
+        }
+    }
+
+    /** A call stack, as a map key. */
+    static final class Site {
+        final StackTraceElement[] frames;
+        final int hash;
+
+        Site(StackTraceElement[] frames) {
+            this.frames = frames;
+            this.hash = Arrays.hashCode(frames);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            return (o instanceof Site) && Arrays.equals(frames, ((Site)o).frames);
+        }
+    }
+
+    static final class SiteStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder parkedNanos = new LongAdder();
+    }
+
+    /**
+     * A snapshot of the contention recorded for one synchronizer.
+     * Counters are read one at a time without stopping the threads
+     * updating them, so they need not be mutually consistent.  Times
+     * are in nanoseconds.
+     */
+    public static final class LockContentionInfo {
+        private final String name;
+        private final long acquires;
+        private final long contended;
+        private final long parkedTime;
+        private final long maxParkedTime;
+        private final int queueLength;
+        private final int maxQueueLength;
+        private final long droppedSamples;
+        private final List<StackSample> stackSamples;
+
+        private LockContentionInfo(String name, long acquires, long contended,
+                                   long parkedTime, long maxParkedTime,
+                                   int queueLength, int maxQueueLength,
+                                   long droppedSamples,
+                                   List<StackSample> stackSamples) {
+            this.name = name;
+            this.acquires = acquires;
+            this.contended = contended;
+            this.parkedTime = parkedTime;
+            this.maxParkedTime = maxParkedTime;
+            this.queueLength = queueLength;
+            this.maxQueueLength = maxQueueLength;
+            this.droppedSamples = droppedSamples;
+            this.stackSamples = stackSamples;
+        }
+
+        LockContentionInfo(LockStats s) {
+            name = s.name;
+            acquires = s.acquires.sum();
+            contended = s.contended.sum();
+            parkedTime = s.parkedNanos.sum();
+            maxParkedTime = s.maxParkedNanos.get();
+            queueLength = Math.max(0, s.queued.get());
+            maxQueueLength = s.maxQueued.get();
+            droppedSamples = s.droppedSamples.sum();
+            List<StackSample> samples = new ArrayList<StackSample>(s.sites.size());
+            for (Map.Entry<Site,SiteStats> e : s.sites.entrySet())
+                samples.add(new StackSample(e.getKey().frames,
+                                            e.getValue().count.sum(),
+                                            e.getValue().parkedNanos.sum()));
+            Collections.sort(samples, MOST_SAMPLED);
+            stackSamples = Collections.unmodifiableList(samples);
+        }
+
+        /**
+         * Returns the class name and identity hash code of the
+         * synchronizer, in the form of {@link Object#toString()}.
+         *
+         * @return the name of the synchronizer
+         */
+        public String getName() { return name; }
+
+        /**
+         * Returns the number of blocking acquisitions recorded.
+         *
+         * @return the number of acquisitions
+         */
+        public long getAcquireCount() { return acquires; }
+
+        /**
+         * Returns the number of blocking acquisitions that had to queue.
+         *
+         * @return the number of contended acquisitions
+         */
+        public long getContendedCount() { return contended; }
+
+        /**
+         * Returns the total time queued threads spent parked.
+         *
+         * @return the parked time in nanoseconds
+         */
+        public long getParkedTime() { return parkedTime; }
+
+        /**
+         * Returns the longest time one queued thread spent parked during
+         * one acquisition.
+         *
+         * @return the maximum parked time in nanoseconds
+         */
+        public long getMaxParkedTime() { return maxParkedTime; }
+
+        /**
+         * Returns the number of threads queued, among those whose
+         * acquisitions are recorded.
+         *
+         * @return the queue length
+         */
+        public int getQueueLength() { return queueLength; }
+
+        /**
+         * Returns the largest number of threads queued at once.
+         *
+         * @return the maximum queue length
+         */
+        public int getMaxQueueLength() { return maxQueueLength; }
+
+        /**
+         * Returns the number of stack samples not kept because the
+         * maximum number of distinct sites was reached.
+         *
+         * @return the number of dropped samples
+         */
+        public long getDroppedSampleCount() { return droppedSamples; }
+
+        /**
+         * Returns the sampled acquisition sites, most frequent first.
+         *
+         * @return the stack samples
+         */
+        public List<StackSample> getStackSamples() { return stackSamples; }
+
+        /**
+         * Returns a {@code LockContentionInfo} object represented by the
+         * given {@code CompositeData}, which must contain an item for
+         * each getter of this class, as produced when a
+         * {@link java.lang.management.LockContentionMXBean} is accessed
+         * remotely.
+         *
+         * @param cd {@code CompositeData} representing a
+         *        {@code LockContentionInfo}
+         * @return a {@code LockContentionInfo} object represented by
+         *         {@code cd} if {@code cd} is not {@code null};
+         *         {@code null} otherwise
+         * @throws IllegalArgumentException if {@code cd} does not
+         *         represent a {@code LockContentionInfo}
+         */
+        public static LockContentionInfo from(CompositeData cd) {
+            if (cd == null)
+                return null;
+            try {
+                CompositeData[] ss = (CompositeData[]) cd.get("stackSamples");
+                List<StackSample> samples = new ArrayList<StackSample>(ss.length);
+                for (CompositeData s : ss)
+                    samples.add(StackSample.from(s));
+                return new LockContentionInfo(
+                    (String) cd.get("name"),
+                    (Long) cd.get("acquireCount"),
+                    (Long) cd.get("contendedCount"),
+                    (Long) cd.get("parkedTime"),
+                    (Long) cd.get("maxParkedTime"),
+                    (Integer) cd.get("queueLength"),
+                    (Integer) cd.get("maxQueueLength"),
+                    (Long) cd.get("droppedSampleCount"),
+                    Collections.unmodifiableList(samples));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(
+                    "Not a LockContentionInfo: " + cd, e);
+            }
+        }
+
+        public String toString() {
+            return name + "[acquires=" + acquires + ", contended=" + contended +
+                ", parkedTime=" + parkedTime + ", maxParkedTime=" + maxParkedTime +
+                ", maxQueueLength=" + maxQueueLength + "]";
+        }
+    }
+
+    /**
+     * The contended acquisitions sampled at one call stack.
+     */
+    public static final class StackSample {
+        private final StackTraceElement[] stackTrace;
+        private final long count;
+        private final long parkedTime;
+
+        StackSample(StackTraceElement[] stackTrace, long count, long parkedTime) {
+            this.stackTrace = stackTrace;
+            this.count = count;
+            this.parkedTime = parkedTime;
+        }
+
+        /**
+         * Returns the call stack, starting at the frame that called the
+         * synchronizer's acquire method, and truncated to at most 16
+         * frames.
+         *
+         * @return the stack trace
+         */
+        public StackTraceElement[] getStackTrace() { return stackTrace.clone(); }
+
+        /**
+         * Returns the number of sampled acquisitions at this stack.
+         *
+         * @return the number of samples
+         */
+        public long getCount() { return count; }
+
+        /**
+         * Returns the total time the sampled acquisitions spent parked.
+         *
+         * @return the parked time in nanoseconds
+         */
+        public long getParkedTime() { return parkedTime; }
+
+        /**
+         * Returns a {@code StackSample} object represented by the given
+         * {@code CompositeData}, which must contain an item for each
+         * getter of this class.
+         *
+         * @param cd {@code CompositeData} representing a
+         *        {@code StackSample}
+         * @return a {@code StackSample} object represented by {@code cd}
+         *         if {@code cd} is not {@code null}; {@code null} otherwise
+         * @throws IllegalArgumentException if {@code cd} does not
+         *         represent a {@code StackSample}
+         */
+        public static StackSample from(CompositeData cd) {
+            if (cd == null)
+                return null;
+            try {
+                CompositeData[] frames = (CompositeData[]) cd.get("stackTrace");
+                StackTraceElement[] st = new StackTraceElement[frames.length];
+                for (int i = 0; i < frames.length; i++) {
+                    CompositeData f = frames[i];
+                    st[i] = new StackTraceElement((String) f.get("className"),
+                                                  (String) f.get("methodName"),
+                                                  (String) f.get("fileName"),
+                                                  (Integer) f.get("lineNumber"));
+                }
+                return new StackSample(st, (Long) cd.get("count"),
+                                       (Long) cd.get("parkedTime"));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(
+                    "Not a StackSample: " + cd, e);
+            }
+        }
+    }
+}
@@ -120,10 +120,13 @@ public class ReentrantLock implements Lock, java.io.Serializable {
         final void lock() {
             // 直接尝试CAS更新状态变量
             // 相比于公平，这里是直接就开始获取锁了，省略了排队
-            if (compareAndSetState(0, 1))
+            if (compareAndSetState(0, 1)) {
                 // 如果更新成功，说明获取到锁，把当前线程设为独占线程
                 setExclusiveOwnerThread(Thread.currentThread());
-            else
+                // 快速路径没走acquire()，开启了竞争记录的话这里补记一次获取
+                if (ContentionProfiler.enabled)
+                    contentionStats().acquire();
+            } else
                 // 没有获取到就调用AQS的获取方法
                 // AQS acquire
                 acquire(1);
@@ -0,0 +1,855 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A reentrant {@link ReadWriteLock} that counts its readers in striped
+ * cells rather than in a single word, for read-mostly data accessed
+ * from many cores.
+ *
+ * <p>{@link ReentrantReadWriteLock} keeps the number of read holds in
+ * the state of its synchronizer, so every {@code readLock().lock()} and
+ * {@code unlock()} updates the same cache line, and read throughput
+ * stops scaling, and then drops, as cores are added.  This lock keeps
+ * one counter per cell, padded to its own cache line, and a reader
+ * updates the cell chosen by its thread's probe, as
+ * {@link java.util.concurrent.atomic.LongAdder} does.  The cells are
+ * added on contention, up to about the number of processors.  A writer
+ * takes an internal {@link ReentrantLock}, announces itself, then waits
+ * until every cell drains; readers arriving while a writer is active
+ * wait on that internal lock.  Read acquisition and release are
+ * therefore cheaper and scale better than with
+ * {@code ReentrantReadWriteLock}, and write acquisition is more
+ * expensive, in proportion to the number of cells.
+ *
+ * <p>This class supports the following features, which
+ * {@link StampedLock} lacks:
+ * <ul>
+ * <li><b>Reentrancy.</b> Both locks are reentrant.  A thread's read
+ * holds are kept in a {@link ThreadLocal}, so a reader reacquiring the
+ * read lock never waits, even if a writer is waiting.  The writer can
+ * acquire the read lock, and a write lock can be downgraded by
+ * acquiring the read lock and then releasing the write lock.
+ * Upgrading from a read lock to the write lock is not supported.
+ *
+ * <li><b>Fairness.</b> In fair mode, writers acquire in arrival order,
+ * and a thread that does not already hold the read lock does not
+ * acquire it while a writer is queued; in nonfair mode, the default,
+ * readers only wait for a writer that holds the lock.  In either mode
+ * a writer is never starved: once it holds the internal lock, new
+ * readers wait until it is done.
+ *
+ * <li><b>Conditions.</b> The write lock provides a {@link Condition}
+ * with the same behavior as {@link ReentrantLock#newCondition}.  The
+ * read lock does not support conditions.
+ *
+ * <li><b>Interruption and timeouts</b> for both locks, as in
+ * {@link Lock}.
+ * </ul>
+ *
+ * <p>Each instance uses a few hundred bytes per cell, and each thread
+ * that has used its read lock keeps a small thread-local record, so
+ * this lock is meant for a moderate number of heavily shared locks
+ * rather than many fine-grained ones.  Serialization of this class
+ * behaves in the same way as built-in locks: a deserialized lock is in
+ * the unlocked state, regardless of its state when serialized.
+ *
+ * @since 1.8
+ */
+public class StripedReadWriteLock implements ReadWriteLock, java.io.Serializable {
+    private static final long serialVersionUID = 1652407371436286425L;
+
+    /** Number of CPUS, to place bound on table size */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of cells: the power of two at or above NCPU. */
+    static final int MAX_CELLS = (NCPU <= 1) ? 1 : Integer.highestOneBit(NCPU - 1) << 1;
+
+    /** Spins on a busy cell before parking the writer. */
+    static final int DRAIN_SPINS = (NCPU > 1) ? 1 << 6 : 0;
+
+    /**
+     * A padded count of the threads holding the read lock through this
+     * cell.  Adapted from Striped64.Cell.
+     */
+    @sun.misc.Contended static final class Cell {
+        volatile long value;
+        final boolean cas(long cmp, long val) {
+            return UNSAFE.compareAndSwapLong(this, valueOffset, cmp, val);
+        }
+        final void decrement() {
+            for (long v; !cas(v = value, v - 1); )
+                ;
+        }
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe UNSAFE;
+        private static final long valueOffset;
+        static {
+            try {
+                UNSAFE = sun.misc.Unsafe.getUnsafe();
+                Class<?> ak = Cell.class;
+                valueOffset = UNSAFE.objectFieldOffset(ak.getDeclaredField("value"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /** A thread's read holds, and the cell it counted itself in. */
+    static final class ReadHold {
+        int count;
+        Cell cell;
+    }
+
+    static final class ReadHolds extends ThreadLocal<ReadHold> {
+        protected ReadHold initialValue() {
+            return new ReadHold();
+        }
+    }
+
+    private final boolean fair;
+    /** Serializes writers, and readers while a writer is active. */
+    private final transient ReentrantLock writerLock;
+    private final transient ReadHolds readHolds;
+    private final transient ReadLock readerLock;
+    private final transient WriteLock writeLock;
+
+    /** Table of cells; the length is a power of two. */
+    private transient volatile Cell[] cells;
+    /** Spinlock (locked via CAS) used when resizing cells. */
+    private transient volatile int cellsBusy;
+    /** The thread holding the write lock and draining or past the cells. */
+    private transient volatile Thread writer;
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with the default
+     * (nonfair) ordering properties.
+     */
+    public StripedReadWriteLock() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with the given fairness
+     * policy.
+     *
+     * @param fair {@code true} if this lock should use a fair ordering policy
+     */
+    public StripedReadWriteLock(boolean fair) {
+        this.fair = fair;
+        writerLock = new ReentrantLock(fair);
+        readHolds = new ReadHolds();
+        readerLock = new ReadLock(this);
+        writeLock = new WriteLock(this);
+        cells = new Cell[] { new Cell() };
+    }
+
+    public StripedReadWriteLock.WriteLock writeLock() { return writeLock; }
+    public StripedReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    // Reader side
+
+    /**
+     * Tries to count the current thread as a reader without blocking.
+     * Fails if a writer other than the current thread is active, or,
+     * when fair, queued.
+     */
+    final boolean tryFastRead(ReadHold h) {
+        Thread w;
+        if (fair && writer == null && writerLock.hasQueuedThreads())
+            return false;
+        Cell c = increment();
+        // CAS on the cell then volatile read of writer: either the writer
+        // sees our count while draining, or we see the writer here
+        if ((w = writer) != null && w != Thread.currentThread()) {
+            c.decrement();
+            LockSupport.unpark(w);
+            return false;
+        }
+        h.cell = c;
+        h.count = 1;
+        return true;
+    }
+
+    /**
+     * Counts the current thread as a reader while holding the writer
+     * lock, so that no other writer can be active.
+     */
+    final void slowRead(ReadHold h) {
+        try {
+            h.cell = increment();
+            h.count = 1;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    final void releaseRead() {
+        ReadHold h = readHolds.get();
+        if (h.count <= 0)
+            throw new IllegalMonitorStateException();
+        if (--h.count == 0) {
+            Cell c = h.cell;
+            h.cell = null;
+            c.decrement();
+            Thread w = writer;
+            if (w != null)
+                LockSupport.unpark(w);
+        }
+    }
+
+    /**
+     * Increments the cell of the current thread, spreading to another
+     * cell, and growing the table, when the CAS fails.
+     */
+    private Cell increment() {
+        int h = getProbe();
+        if (h == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            h = getProbe();
+        }
+        for (boolean collide = false;;) {
+            Cell[] as = cells;
+            int n = as.length;
+            Cell c = as[h & (n - 1)];
+            long v = c.value;
+            if (c.cas(v, v + 1))
+                return c;
+            if (n >= MAX_CELLS || cells != as)
+                collide = false;           // at max size or stale
+            else if (!collide)
+                collide = true;
+            else if (cellsBusy == 0 && casCellsBusy()) {
+                try {
+                    if (cells == as) {     // expand table
+                        Cell[] rs = new Cell[n << 1];
+                        for (int i = 0; i < rs.length; ++i)
+                            rs[i] = (i < n) ? as[i] : new Cell();
+                        cells = rs;
+                    }
+                } finally {
+                    cellsBusy = 0;
+                }
+                collide = false;
+                continue;                  // retry with expanded table
+            }
+            h = advanceProbe(h);
+        }
+    }
+
+    // Writer side
+
+    /**
+     * Called by the holder of the writer lock on its first hold: marks
+     * the writer active and waits for the readers to drain, until the
+     * deadline if timed.  If interrupted or timed out, undoes the
+     * acquire and releases the writer lock.  A read hold of the
+     * current thread itself, left from a downgrade before awaiting a
+     * condition, is not waited for.
+     *
+     * @param timed whether to wait at most until deadline
+     * @param interruptible whether to give up on interrupt
+     * @return true if the readers drained
+     */
+    final boolean drainReaders(boolean timed, long deadline, boolean interruptible)
+        throws InterruptedException {
+        Thread current = Thread.currentThread();
+        writer = current;
+        Cell own = readHolds.get().cell;   // non-null if also reading
+        boolean interrupted = false;
+        Cell[] as = cells;  // a table grown later still holds these cells
+        for (int i = 0; i < as.length; ) {
+            Cell c = as[i];
+            long self = (c == own) ? 1L : 0L;
+            int spins = DRAIN_SPINS;
+            while (c.value > self) {
+                if (spins > 0)
+                    --spins;
+                else {
+                    long nanos = 0L;
+                    if (timed && (nanos = deadline - System.nanoTime()) <= 0L) {
+                        abortWrite();
+                        return false;
+                    }
+                    if (timed)
+                        LockSupport.parkNanos(this, nanos);
+                    else
+                        LockSupport.park(this);
+                    if (Thread.interrupted()) {
+                        if (interruptible) {
+                            abortWrite();
+                            throw new InterruptedException();
+                        }
+                        interrupted = true;
+                    }
+                }
+            }
+            if (++i == as.length && cells != as) {
+                as = cells;  // resized while draining; rescan the new cells
+            }
+        }
+        if (interrupted)
+            current.interrupt();
+        return true;
+    }
+
+    /**
+     * Like drainReaders, but fails rather than waits if any other
+     * reader is counted.
+     */
+    final boolean tryDrainReaders() {
+        writer = Thread.currentThread();
+        Cell own = readHolds.get().cell;
+        for (Cell c : cells) {
+            if (c.value > ((c == own) ? 1L : 0L)) {
+                abortWrite();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void abortWrite() {
+        writer = null;
+        writerLock.unlock();
+    }
+
+    final void releaseWrite() {
+        if (!writerLock.isHeldByCurrentThread())
+            throw new IllegalMonitorStateException();
+        if (writerLock.getHoldCount() == 1)
+            writer = null;
+        writerLock.unlock();
+    }
+
+    /**
+     * The read lock returned by method {@link StripedReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = -4992448646407690165L;
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the read lock.
+         *
+         * <p>Acquires the read lock and returns immediately if the
+         * current thread already holds it, or if the write lock is not
+         * held by another thread (and, when fair, no writer is queued).
+         * Otherwise the current thread waits until the writer is done.
+         */
+        public void lock() {
+            StripedReadWriteLock l = lock;
+            ReadHold h = l.readHolds.get();
+            if (h.count > 0)
+                ++h.count;
+            else if (!l.tryFastRead(h)) {
+                l.writerLock.lock();
+                l.slowRead(h);
+            }
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.  See {@link #lock}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            StripedReadWriteLock l = lock;
+            ReadHold h = l.readHolds.get();
+            if (h.count > 0)
+                ++h.count;
+            else if (!l.tryFastRead(h)) {
+                l.writerLock.lockInterruptibly();
+                l.slowRead(h);
+            }
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is not held by
+         * another thread at the time of invocation.  Like
+         * {@link ReentrantReadWriteLock.ReadLock#tryLock()}, this
+         * method barges in fair mode.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            StripedReadWriteLock l = lock;
+            ReadHold h = l.readHolds.get();
+            if (h.count > 0)
+                ++h.count;
+            else if (!l.tryFastRead(h)) {
+                if (!l.writerLock.tryLock())
+                    return false;
+                l.slowRead(h);
+            }
+            return true;
+        }
+
+        /**
+         * Acquires the read lock if the write lock is not held by
+         * another thread within the given waiting time and the current
+         * thread has not been {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            StripedReadWriteLock l = lock;
+            ReadHold h = l.readHolds.get();
+            if (h.count > 0)
+                ++h.count;
+            else if (!l.tryFastRead(h)) {
+                if (!l.writerLock.tryLock(timeout, unit))
+                    return false;
+                l.slowRead(h);
+            }
+            return true;
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * @throws IllegalMonitorStateException if the current thread
+         *         does not hold this lock
+         */
+        public void unlock() {
+            lock.releaseRead();
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code "Read locks ="}
+         * followed by the number of threads holding the read lock.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() + "[Read locks = " + lock.getReadLockCount() + "]";
+        }
+    }
+
+    /**
+     * The write lock returned by method {@link StripedReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = -4992448646407690166L;
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the write lock.
+         *
+         * <p>Acquires the write lock once no other thread holds it and
+         * every other reader has released the read lock.  If the current
+         * thread already holds the write lock, the hold count is
+         * incremented.  Upgrading from the read lock is not supported:
+         * it waits for the other readers like any writer, so that two
+         * readers attempting it deadlock.
+         */
+        public void lock() {
+            StripedReadWriteLock l = lock;
+            l.writerLock.lock();
+            if (l.writerLock.getHoldCount() == 1) {
+                try {
+                    l.drainReaders(false, 0L, false);
+                } catch (InterruptedException cannotHappen) {
+                    throw new Error(cannotHappen);
+                }
+            }
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.  See {@link #lock}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            l.writerLock.lockInterruptibly();
+            if (l.writerLock.getHoldCount() == 1)
+                l.drainReaders(false, 0L, true);
+        }
+
+        /**
+         * Acquires the write lock only if it is not held by another
+         * thread and no other thread holds the read lock at the time of
+         * invocation.
+         *
+         * @return {@code true} if the write lock was acquired
+         */
+        public boolean tryLock() {
+            StripedReadWriteLock l = lock;
+            if (!l.writerLock.tryLock())
+                return false;
+            return l.writerLock.getHoldCount() > 1 || l.tryDrainReaders();
+        }
+
+        /**
+         * Acquires the write lock if it is not held by another thread
+         * and the other readers release the read lock within the given
+         * waiting time, and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the write lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            StripedReadWriteLock l = lock;
+            if (!l.writerLock.tryLock(timeout, unit))
+                return false;
+            return l.writerLock.getHoldCount() > 1 ||
+                l.drainReaders(true, deadline, true);
+        }
+
+        /**
+         * Attempts to release this lock.  If the hold count drops to
+         * zero, the lock is released and waiting readers may proceed.
+         *
+         * @throws IllegalMonitorStateException if the current thread
+         *         does not hold this lock
+         */
+        public void unlock() {
+            lock.releaseWrite();
+        }
+
+        /**
+         * Returns a {@link Condition} instance for use with this
+         * {@link Lock} instance, behaving as the conditions of
+         * {@link ReentrantLock}.  While a writer awaits the condition,
+         * readers may acquire the read lock; on return from an await
+         * the writer again waits for readers to drain.
+         *
+         * @return the Condition object
+         */
+        public Condition newCondition() {
+            return lock.new WriterCondition(lock.writerLock.newCondition());
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         *
+         * @return {@code true} if the current thread holds this lock
+         */
+        public boolean isHeldByCurrentThread() {
+            return lock.writerLock.isHeldByCurrentThread();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.
+         *
+         * @return the number of holds on this lock by the current thread,
+         *         or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return lock.getWriteHoldCount();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets includes either the String
+         * {@code "Unlocked"} or the String {@code "Locked by"}
+         * followed by the {@linkplain Thread#getName name} of the owning thread.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            Thread o = lock.writer;
+            return super.toString() + ((o == null) ?
+                                       "[Unlocked]" :
+                                       "[Locked by thread " + o.getName() + "]");
+        }
+    }
+
+    /**
+     * A condition of the write lock.  Marks the writer inactive around
+     * each wait, since awaiting fully releases the writer lock and
+     * readers may then proceed, and drains the readers again after
+     * the writer lock is reacquired.
+     */
+    final class WriterCondition implements Condition, java.io.Serializable {
+        private static final long serialVersionUID = 1173984872572414699L;
+        private final Condition condition;
+
+        WriterCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        private void beforeWait() {
+            if (!writerLock.isHeldByCurrentThread())
+                throw new IllegalMonitorStateException();
+            writer = null;
+        }
+
+        private void afterWait() {
+            try {
+                drainReaders(false, 0L, false);
+            } catch (InterruptedException cannotHappen) {
+                throw new Error(cannotHappen);
+            }
+        }
+
+        public void await() throws InterruptedException {
+            beforeWait();
+            try {
+                condition.await();
+            } finally {
+                afterWait();
+            }
+        }
+
+        public void awaitUninterruptibly() {
+            beforeWait();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                afterWait();
+            }
+        }
+
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            beforeWait();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public boolean await(long time, TimeUnit unit) throws InterruptedException {
+            beforeWait();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public boolean awaitUntil(java.util.Date deadline) throws InterruptedException {
+            beforeWait();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public void signal() {
+            condition.signal();
+        }
+
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+
+    // Instrumentation and status
+
+    /**
+     * Returns {@code true} if this lock has fairness set true.
+     *
+     * @return {@code true} if this lock has fairness set true
+     */
+    public final boolean isFair() {
+        return fair;
+    }
+
+    /**
+     * Queries the number of threads holding the read lock, summed over
+     * the cells without locking; reentrant holds of one thread count
+     * once.  This method is designed for use in monitoring system
+     * state, not for synchronization control.
+     *
+     * @return the number of threads holding the read lock
+     */
+    public int getReadLockCount() {
+        long sum = 0L;
+        for (Cell c : cells)
+            sum += c.value;
+        return (int) Math.max(0L, sum);
+    }
+
+    /**
+     * Queries the number of reentrant read holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the read lock by the current thread,
+     *         or zero if the read lock is not held by the current thread
+     */
+    public int getReadHoldCount() {
+        return readHolds.get().count;
+    }
+
+    /**
+     * Queries if the write lock is held by any thread.
+     *
+     * @return {@code true} if any thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLocked() {
+        return writer != null;
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return writer == Thread.currentThread();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     *         or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return isWriteLockedByCurrentThread() ? writerLock.getHoldCount() : 0;
+    }
+
+    /**
+     * Queries whether any threads are waiting to acquire the write
+     * lock, or to acquire the read lock while a writer is active.
+     *
+     * @return {@code true} if there may be other threads waiting
+     */
+    public final boolean hasQueuedThreads() {
+        return writerLock.hasQueuedThreads();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes the String {@code "Write locks ="}
+     * followed by the number of reentrantly held write locks, and the
+     * String {@code "Read locks ="} followed by the number of threads
+     * holding the read lock.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        Thread w = writer;
+        int writes = (w == null) ? 0 :
+            (w == Thread.currentThread()) ? writerLock.getHoldCount() : 1;
+        return super.toString() +
+            "[Write locks = " + writes + ", Read locks = " + getReadLockCount() + "]";
+    }
+
+    /**
+     * Deserializes this lock in the unlocked state.
+     */
+    private Object readResolve() {
+        return new StripedReadWriteLock(fair);
+    }
+
+    // Unsafe mechanics, and the probe, copied from Striped64 due to
+    // package access restrictions
+
+    static final int getProbe() {
+        return UNSAFE.getInt(Thread.currentThread(), PROBE);
+    }
+
+    static final int advanceProbe(int probe) {
+        probe ^= probe << 13;   // xorshift
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        UNSAFE.putInt(Thread.currentThread(), PROBE, probe);
+        return probe;
+    }
+
+    final boolean casCellsBusy() {
+        return UNSAFE.compareAndSwapInt(this, CELLSBUSY, 0, 1);
+    }
+
+    private static final sun.misc.Unsafe UNSAFE;
+    private static final long CELLSBUSY;
+    private static final long PROBE;
+    static {
+        try {
+            UNSAFE = sun.misc.Unsafe.getUnsafe();
+            CELLSBUSY = UNSAFE.objectFieldOffset
+                (StripedReadWriteLock.class.getDeclaredField("cellsBusy"));
+            PROBE = UNSAFE.objectFieldOffset
+                (Thread.class.getDeclaredField("threadLocalRandomProbe"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
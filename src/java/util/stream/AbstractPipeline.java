@@ -24,8 +24,12 @@
  */
 package java.util.stream;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
@@ -74,6 +78,28 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     private static final String MSG_STREAM_LINKED = "stream has already been operated upon or closed";
     private static final String MSG_CONSUMED = "source already consumed or closed";
 
+    /**
+     * The largest number of elements a stage pushes downstream in one call
+     * to {@link Sink#acceptBatch}, which bounds the scratch buffer a
+     * batching stage keeps.
+     */
+    static final int BATCH_SIZE = 1 << 10;
+
+    private static final String BATCH_PROPERTY = "java.util.stream.batch";
+
+    /**
+     * Whether sequential traversals that are not short-circuiting push
+     * elements of array-backed sources through the pipeline in batches.
+     * Off unless the system property {@code java.util.stream.batch} is
+     * {@code true}: a batching stage applies its function to a whole batch
+     * before the next stage sees any of it, so the side effects of
+     * different stages interleave differently than when elements are
+     * pushed one at a time, and if a function throws, the elements before
+     * it in its batch never reach the terminal operation.
+     */
+    static final boolean BATCHING = AccessController.doPrivileged(
+            (PrivilegedAction<Boolean>) () -> Boolean.getBoolean(BATCH_PROPERTY));
+
     /**
      * Backlink to the head of the pipeline chain (self if this is the source
      * stage).
@@ -148,6 +174,27 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The pool parallel evaluations run in, or null for the pool of the
+     * caller, which is normally the common pool; only valid for the source
+     * stage.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The target leaf size of parallel evaluations, or 0 to derive it from
+     * the size of the source and the parallelism of the pool; only valid for
+     * the source stage.
+     */
+    private long splitSize;
+
+    /**
+     * The run of stages ending at this stage as last fused by
+     * {@link #wrapSink}, reused while the downstream sink is of the same
+     * class, as it is for every leaf task of a parallel evaluation.
+     */
+    private PipelineFusion.Run fusedRun;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -230,10 +277,43 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         linkedOrConsumed = true;
 
         return isParallel()
-               ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
+               ? inPool(() -> terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags())))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
     }
 
+    /**
+     * Performs a parallel evaluation in the pool set with
+     * {@link #parallel(ForkJoinPool)}, if any and if the caller is not
+     * already running in it, so that the tasks it forks go to that pool.
+     * An unchecked exception thrown by the evaluation is rethrown as is,
+     * rather than as the copy {@code ForkJoinTask} would make of it for
+     * the calling thread.
+     *
+     * @param evaluation the evaluation
+     * @return the result of the evaluation
+     */
+    private <R> R inPool(Supplier<R> evaluation) {
+        ForkJoinPool p = sourceStage.pool;
+        if (p == null || ForkJoinTask.getPool() == p)
+            return evaluation.get();
+        Throwable[] thrown = new Throwable[1];
+        R result = p.invoke(ForkJoinTask.adapt(() -> {
+            try {
+                return evaluation.get();
+            }
+            catch (RuntimeException | Error ex) {
+                thrown[0] = ex;
+                return null;
+            }
+        }));
+        // invoke() returning orders the write to thrown before this read
+        if (thrown[0] instanceof RuntimeException)
+            throw (RuntimeException) thrown[0];
+        if (thrown[0] instanceof Error)
+            throw (Error) thrown[0];
+        return result;
+    }
+
     /**
      * Collect the elements output from the pipeline stage.
      *
@@ -254,7 +334,10 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             // upstream slice and upstream operations will not be included
             // in this slice
             depth = 0;
-            return opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            return inPool(() -> opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator));
+        }
+        else if (isParallel()) {
+            return inPool(() -> evaluate(sourceSpliterator(0), true, generator));
         }
         else {
             return evaluate(sourceSpliterator(0), true, generator);
@@ -309,6 +392,25 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @SuppressWarnings("unchecked")
     public final S parallel() {
         sourceStage.parallel = true;
+        sourceStage.pool = null;
+        return (S) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        sourceStage.parallel = true;
+        sourceStage.pool = pool;
+        return (S) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final S splitSize(long size) {
+        if (size < 0)
+            throw new IllegalArgumentException(Long.toString(size));
+        sourceStage.splitSize = size;
         return (S) this;
     }
 
@@ -362,7 +464,11 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             }
         }
         else {
-            return wrap(this, () -> sourceSpliterator(0), isParallel());
+            // Stateful ops are evaluated when the spliterator is first
+            // used, and must then run in the pool of the pipeline too
+            return isParallel()
+                   ? wrap(this, () -> inPool(() -> sourceSpliterator(0)), true)
+                   : wrap(this, () -> sourceSpliterator(0), false);
         }
     }
 
@@ -474,12 +580,23 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     final <P_IN> void copyInto(Sink<P_IN> wrappedSink, Spliterator<P_IN> spliterator) {
         Objects.requireNonNull(wrappedSink);
 
         if (!StreamOpFlag.SHORT_CIRCUIT.isKnown(getStreamAndOpFlags())) {
             wrappedSink.begin(spliterator.getExactSizeIfKnown());
-            spliterator.forEachRemaining(wrappedSink);
+            if (BATCHING) {
+                @SuppressWarnings("rawtypes")
+                AbstractPipeline p = AbstractPipeline.this;
+                while (p.depth > 0) {
+                    p = p.previousStage;
+                }
+                p.forEachRemaining(spliterator, wrappedSink);
+            }
+            else {
+                spliterator.forEachRemaining(wrappedSink);
+            }
             wrappedSink.end();
         }
         else {
@@ -505,6 +622,12 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         return combinedFlags;
     }
 
+    @Override
+    final long suggestTargetSize(long sizeEstimate) {
+        long size = sourceStage.splitSize;
+        return (size > 0) ? size : AbstractTask.suggestTargetSize(sizeEstimate);
+    }
+
     final boolean isOrdered() {
         return StreamOpFlag.ORDERED.isKnown(combinedFlags);
     }
@@ -515,6 +638,39 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         Objects.requireNonNull(sink);
 
         for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
+            if (PipelineFusion.ENABLED) {
+                PipelineFusion.Run run = p.fusedRun;
+                if (run != null && run.downstreamClass == sink.getClass()) {
+                    sink = run.wrap(sink);
+                    p = run.first;
+                    continue;
+                }
+            }
+            if (PipelineFusion.ENABLED && p.fusibleOp() != null) {
+                // Find the run of fusible stages ending at p, and fuse it
+                // if long enough, continuing before its first stage
+                @SuppressWarnings("rawtypes")
+                AbstractPipeline first = p;
+                int n = 1;
+                while (first.previousStage.depth > 0 && first.previousStage.fusibleOp() != null) {
+                    first = first.previousStage;
+                    n++;
+                }
+                if (n >= PipelineFusion.MIN_RUN) {
+                    PipelineFusion.Op[] ops = new PipelineFusion.Op[n];
+                    @SuppressWarnings("rawtypes")
+                    AbstractPipeline q = p;
+                    for (int i = n - 1; i >= 0; i--, q = q.previousStage)
+                        ops[i] = q.fusibleOp();
+                    PipelineFusion.Run run = PipelineFusion.fuse(ops, first, sink.getClass());
+                    if (run != null) {
+                        p.fusedRun = run;
+                        sink = run.wrap(sink);
+                        p = first;
+                        continue;
+                    }
+                }
+            }
             sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
         }
         return (Sink<P_IN>) sink;
@@ -605,6 +761,17 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     abstract void forEachWithCancel(Spliterator<E_OUT> spliterator, Sink<E_OUT> sink);
 
+    /**
+     * Traverse the elements of a spliterator compatible with this stream shape,
+     * pushing those elements into a sink, in batches through
+     * {@link Sink#acceptBatch} if the spliterator can hand out its elements a
+     * chunk at a time.  Used only if {@link #BATCHING} is enabled.
+     *
+     * @param spliterator the spliterator to pull elements from
+     * @param sink the sink to push elements to
+     */
+    abstract void forEachRemaining(Spliterator<E_OUT> spliterator, Sink<E_OUT> sink);
+
     /**
      * Make a node builder compatible with this stream shape.
      *
@@ -658,6 +825,21 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     abstract Sink<E_IN> opWrapSink(int flags, Sink<E_OUT> sink);
 
+    /**
+     * Returns a description of this stateless operation that allows
+     * {@link #wrapSink} to fuse it with adjacent stages into one sink,
+     * when {@linkplain PipelineFusion fusion} is enabled, or null if the
+     * operation cannot be fused.  The sink of a fused operation must
+     * behave as the one returned by {@link #opWrapSink}.
+     *
+     * @implSpec The default implementation returns null.
+     *
+     * @return a description of this operation, or null
+     */
+    PipelineFusion.Op fusibleOp() {
+        return null;
+    }
+
     /**
      * Performs a parallel evaluation of the operation using the specified
      * {@code PipelineHelper} which describes the upstream intermediate
@@ -704,4 +886,44 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
                                                      Spliterator<P_IN> spliterator) {
         return opEvaluateParallel(helper, spliterator, i -> (E_OUT[]) new Object[i]).spliterator();
     }
+
+    /**
+     * Returns the given buffer if it can hold a batch of {@code size}
+     * elements, or of {@link #BATCH_SIZE} elements if fewer, else a new
+     * buffer that can.
+     */
+    static int[] batchBuffer(int[] buffer, int size) {
+        int n = Math.min(size, BATCH_SIZE);
+        return (buffer != null && buffer.length >= n) ? buffer : new int[n];
+    }
+
+    /**
+     * Returns the given buffer if it can hold a batch of {@code size}
+     * elements, or of {@link #BATCH_SIZE} elements if fewer, else a new
+     * buffer that can.
+     */
+    static long[] batchBuffer(long[] buffer, int size) {
+        int n = Math.min(size, BATCH_SIZE);
+        return (buffer != null && buffer.length >= n) ? buffer : new long[n];
+    }
+
+    /**
+     * Returns the given buffer if it can hold a batch of {@code size}
+     * elements, or of {@link #BATCH_SIZE} elements if fewer, else a new
+     * buffer that can.
+     */
+    static double[] batchBuffer(double[] buffer, int size) {
+        int n = Math.min(size, BATCH_SIZE);
+        return (buffer != null && buffer.length >= n) ? buffer : new double[n];
+    }
+
+    /**
+     * Returns the given buffer if it can hold a batch of {@code size}
+     * elements, or of {@link #BATCH_SIZE} elements if fewer, else a new
+     * buffer that can.
+     */
+    static Object[] batchBuffer(Object[] buffer, int size) {
+        int n = Math.min(size, BATCH_SIZE);
+        return (buffer != null && buffer.length >= n) ? buffer : new Object[n];
+    }
 }
@@ -27,6 +27,7 @@ package java.util.stream;
 import java.util.Spliterator;
 import java.util.concurrent.CountedCompleter;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Abstract base class for most fork-join tasks used to implement stream ops.
@@ -176,12 +177,18 @@ abstract class AbstractTask<P_IN, P_OUT, R,
     protected abstract R doLeaf();
 
     /**
-     * Returns a suggested target leaf size based on the initial size estimate.
+     * Returns a suggested target leaf size based on the initial size estimate,
+     * over-partitioning as for {@link #LEAF_TARGET} but for the parallelism of
+     * the pool the caller runs in, or of the common pool if the caller is not
+     * a {@code ForkJoinPool} worker.
      *
      * @return suggested target leaf size
      */
     public static long suggestTargetSize(long sizeEstimate) {
-        long est = sizeEstimate / LEAF_TARGET;
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        long est = sizeEstimate / (pool == null || pool == ForkJoinPool.commonPool()
+                                   ? LEAF_TARGET
+                                   : pool.getParallelism() << 2);
         return est > 0L ? est : 1L;
     }
 
@@ -192,7 +199,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
     protected final long getTargetSize(long sizeEstimate) {
         long s;
         return ((s = targetSize) != 0 ? s :
-                (targetSize = suggestTargetSize(sizeEstimate)));
+                (targetSize = helper.suggestTargetSize(sizeEstimate)));
     }
 
     /**
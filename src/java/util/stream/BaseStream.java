@@ -29,8 +29,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
@@ -116,6 +118,64 @@ public interface BaseStream<T, S extends BaseStream<T, S>>
      */
     S parallel();
 
+    /**
+     * Returns an equivalent stream that is parallel, and whose terminal
+     * operation runs its parallel computation in the given pool instead of
+     * the {@linkplain ForkJoinPool#commonPool() common pool}.  Tasks are
+     * split for the parallelism of that pool, unless a split size is set
+     * with {@link #splitSize(long)}.  This isolates streams of one workload
+     * from those of others, and from other users of the common pool.
+     *
+     * <p>Calling {@link #parallel()} afterwards returns the stream to the
+     * pool of the caller, which is normally the common pool.  Calling
+     * {@link #sequential()} makes it sequential; the pool is then not used.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation checks that the pool is not null and
+     * returns {@link #parallel()}, ignoring the pool.
+     *
+     * @param pool the pool to run parallel computations in
+     * @return a parallel stream
+     * @throws NullPointerException if the pool is null
+     * @since 1.8
+     */
+    default S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return parallel();
+    }
+
+    /**
+     * Returns an equivalent stream whose parallel computations stop
+     * splitting the source once a task covers at most the given number of
+     * elements, or that derives that number from the size of the source and
+     * the parallelism of the pool if {@code size} is zero, the default.
+     * Larger sizes reduce the overhead of splitting and combining for cheap
+     * per-element work; smaller sizes balance the load better when the work
+     * per element is large or uneven.  The size is a hint, as sources may
+     * not split evenly, or at all.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation checks the argument and returns this
+     * stream, ignoring the hint.
+     *
+     * @param size the target number of elements per task, or zero
+     * @return a stream with the given split size
+     * @throws IllegalArgumentException if {@code size} is negative
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    default S splitSize(long size) {
+        if (size < 0)
+            throw new IllegalArgumentException(Long.toString(size));
+        return (S) this;
+    }
+
     /**
      * Returns an equivalent stream that is
      * <a href="package-summary.html#Ordering">unordered</a>.  May return
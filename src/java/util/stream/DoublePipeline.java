@@ -159,6 +159,17 @@ abstract class DoublePipeline<E_IN>
         do { } while (!sink.cancellationRequested() && spl.tryAdvance(adaptedSink));
     }
 
+    @Override
+    final void forEachRemaining(Spliterator<Double> spliterator, Sink<Double> sink) {
+        Spliterator.OfDouble spl = adapt(spliterator);
+        if (sink instanceof Sink.OfDouble) {
+            Spliterator.DoubleChunkConsumer batches = ((Sink.OfDouble) sink)::acceptBatch;
+            if (spl.forEachRemainingChunk(batches))
+                return;
+        }
+        spl.forEachRemaining(adapt(sink));
+    }
+
     @Override
     final  Node.Builder<Double> makeNodeBuilder(long exactSizeIfKnown, IntFunction<Double[]> generator) {
         return Nodes.doubleBuilder(exactSizeIfKnown);
@@ -189,13 +200,31 @@ abstract class DoublePipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new StatelessOp<Double>(this, StreamShape.DOUBLE_VALUE,
                                        StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.doubleMap(mapper);
+            }
+
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedDouble<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        double[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsDouble(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -206,13 +235,31 @@ abstract class DoublePipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new ReferencePipeline.StatelessOp<Double, U>(this, StreamShape.DOUBLE_VALUE,
                                                             StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.doubleMapToObj(mapper);
+            }
+
             @Override
             Sink<Double> opWrapSink(int flags, Sink<U> sink) {
                 return new Sink.ChainedDouble<U>(sink) {
+                    Object[] buffer;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.apply(t));
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        Object[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.apply(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -223,13 +270,31 @@ abstract class DoublePipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new IntPipeline.StatelessOp<Double>(this, StreamShape.DOUBLE_VALUE,
                                                    StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.doubleMapToInt(mapper);
+            }
+
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedDouble<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        int[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsInt(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -240,13 +305,31 @@ abstract class DoublePipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new LongPipeline.StatelessOp<Double>(this, StreamShape.DOUBLE_VALUE,
                                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.doubleMapToLong(mapper);
+            }
+
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedDouble<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        long[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsLong(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -295,9 +378,16 @@ abstract class DoublePipeline<E_IN>
         Objects.requireNonNull(predicate);
         return new StatelessOp<Double>(this, StreamShape.DOUBLE_VALUE,
                                        StreamOpFlag.NOT_SIZED) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.doubleFilter(predicate);
+            }
+
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedDouble<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -308,6 +398,22 @@ abstract class DoublePipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void acceptBatch(double[] array, int from, int to) {
+                        double[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            int k = 0;
+                            for (int i = 0; i < n; i++) {
+                                double t = array[from + i];
+                                if (predicate.test(t))
+                                    buf[k++] = t;
+                            }
+                            if (k > 0)
+                                downstream.acceptBatch(buf, 0, k);
+                        }
+                    }
                 };
             }
         };
@@ -318,6 +424,11 @@ abstract class DoublePipeline<E_IN>
         Objects.requireNonNull(action);
         return new StatelessOp<Double>(this, StreamShape.DOUBLE_VALUE,
                                        0) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.doublePeek(action);
+            }
+
             @Override
             Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedDouble<Double>(sink) {
@@ -162,6 +162,17 @@ abstract class IntPipeline<E_IN>
         do { } while (!sink.cancellationRequested() && spl.tryAdvance(adaptedSink));
     }
 
+    @Override
+    final void forEachRemaining(Spliterator<Integer> spliterator, Sink<Integer> sink) {
+        Spliterator.OfInt spl = adapt(spliterator);
+        if (sink instanceof Sink.OfInt) {
+            Spliterator.IntChunkConsumer batches = ((Sink.OfInt) sink)::acceptBatch;
+            if (spl.forEachRemainingChunk(batches))
+                return;
+        }
+        spl.forEachRemaining(adapt(sink));
+    }
+
     @Override
     final Node.Builder<Integer> makeNodeBuilder(long exactSizeIfKnown,
                                                 IntFunction<Integer[]> generator) {
@@ -190,10 +201,23 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedInt<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept((long) t);
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        long[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = (long) array[from + i];
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -206,10 +230,23 @@ abstract class IntPipeline<E_IN>
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedInt<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept((double) t);
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        double[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = (double) array[from + i];
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -225,13 +262,31 @@ abstract class IntPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new StatelessOp<Integer>(this, StreamShape.INT_VALUE,
                                         StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.intMap(mapper);
+            }
+
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedInt<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        int[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsInt(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -242,13 +297,31 @@ abstract class IntPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new ReferencePipeline.StatelessOp<Integer, U>(this, StreamShape.INT_VALUE,
                                                              StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.intMapToObj(mapper);
+            }
+
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<U> sink) {
                 return new Sink.ChainedInt<U>(sink) {
+                    Object[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.apply(t));
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        Object[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.apply(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -259,13 +332,31 @@ abstract class IntPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new LongPipeline.StatelessOp<Integer>(this, StreamShape.INT_VALUE,
                                                      StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.intMapToLong(mapper);
+            }
+
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedInt<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        long[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsLong(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -276,13 +367,31 @@ abstract class IntPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new DoublePipeline.StatelessOp<Integer>(this, StreamShape.INT_VALUE,
                                                        StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.intMapToDouble(mapper);
+            }
+
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedInt<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        double[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsDouble(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -331,9 +440,16 @@ abstract class IntPipeline<E_IN>
         Objects.requireNonNull(predicate);
         return new StatelessOp<Integer>(this, StreamShape.INT_VALUE,
                                         StreamOpFlag.NOT_SIZED) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.intFilter(predicate);
+            }
+
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedInt<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -344,6 +460,22 @@ abstract class IntPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void acceptBatch(int[] array, int from, int to) {
+                        int[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            int k = 0;
+                            for (int i = 0; i < n; i++) {
+                                int t = array[from + i];
+                                if (predicate.test(t))
+                                    buf[k++] = t;
+                            }
+                            if (k > 0)
+                                downstream.acceptBatch(buf, 0, k);
+                        }
+                    }
                 };
             }
         };
@@ -354,6 +486,11 @@ abstract class IntPipeline<E_IN>
         Objects.requireNonNull(action);
         return new StatelessOp<Integer>(this, StreamShape.INT_VALUE,
                                         0) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.intPeek(action);
+            }
+
             @Override
             Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedInt<Integer>(sink) {
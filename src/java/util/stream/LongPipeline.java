@@ -160,6 +160,17 @@ abstract class LongPipeline<E_IN>
         do { } while (!sink.cancellationRequested() && spl.tryAdvance(adaptedSink));
     }
 
+    @Override
+    final void forEachRemaining(Spliterator<Long> spliterator, Sink<Long> sink) {
+        Spliterator.OfLong spl = adapt(spliterator);
+        if (sink instanceof Sink.OfLong) {
+            Spliterator.LongChunkConsumer batches = ((Sink.OfLong) sink)::acceptBatch;
+            if (spl.forEachRemainingChunk(batches))
+                return;
+        }
+        spl.forEachRemaining(adapt(sink));
+    }
+
     @Override
     final Node.Builder<Long> makeNodeBuilder(long exactSizeIfKnown, IntFunction<Long[]> generator) {
         return Nodes.longBuilder(exactSizeIfKnown);
@@ -187,10 +198,23 @@ abstract class LongPipeline<E_IN>
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedLong<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept((double) t);
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        double[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = (double) array[from + i];
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -206,13 +230,31 @@ abstract class LongPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new StatelessOp<Long>(this, StreamShape.LONG_VALUE,
                                      StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.longMap(mapper);
+            }
+
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedLong<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        long[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsLong(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -223,13 +265,31 @@ abstract class LongPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new ReferencePipeline.StatelessOp<Long, U>(this, StreamShape.LONG_VALUE,
                                                           StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.longMapToObj(mapper);
+            }
+
             @Override
             Sink<Long> opWrapSink(int flags, Sink<U> sink) {
                 return new Sink.ChainedLong<U>(sink) {
+                    Object[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.apply(t));
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        Object[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.apply(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -240,13 +300,31 @@ abstract class LongPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new IntPipeline.StatelessOp<Long>(this, StreamShape.LONG_VALUE,
                                                  StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.longMapToInt(mapper);
+            }
+
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedLong<Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        int[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsInt(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -257,13 +335,31 @@ abstract class LongPipeline<E_IN>
         Objects.requireNonNull(mapper);
         return new DoublePipeline.StatelessOp<Long>(this, StreamShape.LONG_VALUE,
                                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.longMapToDouble(mapper);
+            }
+
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedLong<Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        double[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsDouble(array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -312,9 +408,16 @@ abstract class LongPipeline<E_IN>
         Objects.requireNonNull(predicate);
         return new StatelessOp<Long>(this, StreamShape.LONG_VALUE,
                                      StreamOpFlag.NOT_SIZED) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.longFilter(predicate);
+            }
+
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedLong<Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -325,6 +428,22 @@ abstract class LongPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void acceptBatch(long[] array, int from, int to) {
+                        long[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            int k = 0;
+                            for (int i = 0; i < n; i++) {
+                                long t = array[from + i];
+                                if (predicate.test(t))
+                                    buf[k++] = t;
+                            }
+                            if (k > 0)
+                                downstream.acceptBatch(buf, 0, k);
+                        }
+                    }
                 };
             }
         };
@@ -335,6 +454,11 @@ abstract class LongPipeline<E_IN>
         Objects.requireNonNull(action);
         return new StatelessOp<Long>(this, StreamShape.LONG_VALUE,
                                      0) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.longPeek(action);
+            }
+
             @Override
             Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedLong<Long>(sink) {
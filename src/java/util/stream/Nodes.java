@@ -1226,6 +1226,17 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void acceptBatch(Object[] a, int from, int to) {
+            if (to - from <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, to - from);
+                curSize += to - from;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length)
@@ -1512,6 +1523,17 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void acceptBatch(int[] a, int from, int to) {
+            if (to - from <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, to - from);
+                curSize += to - from;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length) {
@@ -1566,6 +1588,17 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void acceptBatch(long[] a, int from, int to) {
+            if (to - from <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, to - from);
+                curSize += to - from;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length) {
@@ -1620,6 +1653,17 @@ final class Nodes {
             }
         }
 
+        @Override
+        public void acceptBatch(double[] a, int from, int to) {
+            if (to - from <= array.length - curSize) {
+                System.arraycopy(a, from, array, curSize, to - from);
+                curSize += to - from;
+            } else {
+                throw new IllegalStateException(String.format("Accept exceeded fixed size of %d",
+                                                              array.length));
+            }
+        }
+
         @Override
         public void end() {
             if (curSize < array.length) {
@@ -1837,7 +1881,7 @@ final class Nodes {
             assert spliterator.hasCharacteristics(Spliterator.SUBSIZED);
             this.spliterator = spliterator;
             this.helper = helper;
-            this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
+            this.targetSize = helper.suggestTargetSize(spliterator.estimateSize());
             this.offset = 0;
             this.length = arrayLength;
         }
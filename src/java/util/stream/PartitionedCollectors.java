@@ -0,0 +1,932 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link Collector} implementations of "group by" and "to map" that
+ * build their result maps in parallel, one hash partition per task,
+ * without merging maps.
+ *
+ * <p>When {@link Collectors#groupingBy(Function) Collectors.groupingBy}
+ * or {@link Collectors#toMap(Function, Function) Collectors.toMap} is
+ * used in a parallel stream, every leaf task builds a map of its own,
+ * and the maps are merged pairwise up the task tree, entry by entry.
+ * With many distinct keys the merges dominate, and the last of them
+ * runs in a single thread over maps as large as the result.
+ * {@link Collectors#groupingByConcurrent(Function)
+ * Collectors.groupingByConcurrent} avoids the merges but funnels every
+ * thread through one {@code ConcurrentHashMap}.
+ *
+ * <p>The collectors of this class instead scatter each key, with its
+ * element or value, into one of a fixed number of partitions chosen by
+ * the key's hash code.  Scattering appends to chunked arrays, and
+ * combining two leaf results links their chunk lists, in time
+ * proportional to the number of partitions rather than of keys.  The
+ * finisher then builds the map of every partition in a separate
+ * {@link ForkJoinPool} task, in the pool of the calling thread if it is
+ * a worker, or else the common pool, and the result is a map that
+ * routes each key to its partition's map.  Each key is therefore hashed into a map once,
+ * by one thread, and the downstream collector of
+ * {@link #groupingBy(Function, Collector)} needs no combiner.
+ * Encounter order is preserved within each group, as for
+ * {@code Collectors.groupingBy}.
+ *
+ * <p>The primitive-valued variants, {@link #groupingByCounting},
+ * {@link #groupingBySummingLong} and {@link #groupingBySummingDouble},
+ * scatter unboxed values and accumulate them in {@code long[]} or
+ * {@code double[]} slots of an open-addressed table per partition,
+ * rather than allocating a container and a boxed result per key; the
+ * values are boxed only when read from the result map.
+ *
+ * <p>Scattering holds on to every key and element until the finisher
+ * runs, which costs a reference or primitive slot per element, so these
+ * collectors pay off for large inputs with many distinct keys.  For a
+ * small number of keys, the standard collectors, which reduce as they
+ * go, are usually faster.
+ *
+ * <p>Like those of {@link Collectors}, the maps returned are mutable and
+ * not thread-safe, and there are no guarantees on their type or
+ * serializability.  Keys must not be null.
+ *
+ * @see Collectors
+ * @since 1.8
+ */
+public final class PartitionedCollectors {
+
+    private PartitionedCollectors() { }
+
+    /** The largest number of partitions. */
+    static final int MAX_PARTITIONS = 1 << 10;
+
+    /** Partitions per thread of the common pool, so that tasks balance. */
+    static final int PARTITIONS_PER_THREAD = 4;
+
+    /** Below this many elements, the finisher builds in the calling thread. */
+    static final long SEQUENTIAL_THRESHOLD = 1L << 13;
+
+    /** The initial and largest capacities of a chunk. */
+    static final int MIN_CHUNK = 8, MAX_CHUNK = 1 << 10;
+
+    /** What a chunk holds besides keys. */
+    static final int KEYS = 0, REFS = 1, LONGS = 2, DOUBLES = 3;
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation
+     * on input elements of type {@code T}, building the result map per
+     * hash partition in parallel.  The result is the same as that of
+     * {@link Collectors#groupingBy(Function)}.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier the classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     */
+    public static <T, K> Collector<T, ?, Map<K, List<T>>>
+    groupingBy(Function<? super T, ? extends K> classifier) {
+        return groupingBy(classifier, Collectors.toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, building the result
+     * map per hash partition in parallel.  The result is the same as
+     * that of {@link Collectors#groupingBy(Function, Collector)}, but
+     * the downstream collector's combiner is never used: each group is
+     * accumulated by one thread, in encounter order.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     */
+    public static <T, K, A, D> Collector<T, ?, Map<K, D>>
+    groupingBy(Function<? super T, ? extends K> classifier,
+               Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        final Supplier<A> downstreamSupplier = downstream.supplier();
+        final BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        final Function<A, D> downstreamFinisher =
+            downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+            ? null : downstream.finisher();
+        final int partitions = defaultPartitions();
+        return new Collectors.CollectorImpl<T, Scatter, Map<K, D>>(
+                () -> new Scatter(REFS, partitions),
+                (s, t) -> s.add(keyOf(classifier, t), t),
+                Scatter::combine,
+                s -> s.build(new PartitionBuilder<Map<K, D>>() {
+                    @SuppressWarnings("unchecked")
+                    public Map<K, D> build(Chunk head) {
+                        HashMap<K, Object> m = new HashMap<>();
+                        for (Chunk c = head; c != null; c = c.next) {
+                            Object[] keys = c.keys, refs = c.refs;
+                            for (int i = 0, n = c.count; i < n; i++) {
+                                K k = (K) keys[i];
+                                A a = (A) m.get(k);
+                                if (a == null)
+                                    m.put(k, a = downstreamSupplier.get());
+                                downstreamAccumulator.accept(a, (T) refs[i]);
+                            }
+                        }
+                        if (downstreamFinisher != null)
+                            m.replaceAll((k, v) -> downstreamFinisher.apply((A) v));
+                        return (Map<K, D>) m;
+                    }
+                }),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates elements into a
+     * {@code Map} whose keys and values are the result of applying the
+     * provided mapping functions to the input elements, building the
+     * map per hash partition in parallel.  The result is the same as
+     * that of {@link Collectors#toMap(Function, Function)}: if the mapped
+     * keys contain duplicates, an {@code IllegalStateException} is
+     * thrown when the collection operation is performed.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the output type of the key mapping function
+     * @param <U> the output type of the value mapping function
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @return a {@code Collector} which collects elements into a {@code Map}
+     */
+    public static <T, K, U> Collector<T, ?, Map<K, U>>
+    toMap(Function<? super T, ? extends K> keyMapper,
+          Function<? super T, ? extends U> valueMapper) {
+        return toMap(keyMapper, valueMapper, null);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates elements into a
+     * {@code Map} whose keys and values are the result of applying the
+     * provided mapping functions to the input elements, building the
+     * map per hash partition in parallel.  The result is the same as
+     * that of {@link Collectors#toMap(Function, Function, BinaryOperator)}:
+     * values mapped to equal keys are merged, in encounter order, with
+     * the merge function.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the output type of the key mapping function
+     * @param <U> the output type of the value mapping function
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @param mergeFunction a merge function, used to resolve collisions
+     *                      between values associated with the same key,
+     *                      or {@code null} to throw
+     *                      {@code IllegalStateException} on collisions
+     * @return a {@code Collector} which collects elements into a {@code Map}
+     */
+    public static <T, K, U> Collector<T, ?, Map<K, U>>
+    toMap(Function<? super T, ? extends K> keyMapper,
+          Function<? super T, ? extends U> valueMapper,
+          BinaryOperator<U> mergeFunction) {
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(valueMapper);
+        final int partitions = defaultPartitions();
+        return new Collectors.CollectorImpl<T, Scatter, Map<K, U>>(
+                () -> new Scatter(REFS, partitions),
+                (s, t) -> s.add(keyOf(keyMapper, t),
+                                Objects.requireNonNull(valueMapper.apply(t))),
+                Scatter::combine,
+                s -> s.build(new PartitionBuilder<Map<K, U>>() {
+                    @SuppressWarnings("unchecked")
+                    public Map<K, U> build(Chunk head) {
+                        HashMap<K, U> m = new HashMap<>();
+                        for (Chunk c = head; c != null; c = c.next) {
+                            Object[] keys = c.keys, refs = c.refs;
+                            for (int i = 0, n = c.count; i < n; i++) {
+                                K k = (K) keys[i];
+                                U v = (U) refs[i];
+                                if (mergeFunction != null)
+                                    m.merge(k, v, mergeFunction);
+                                else {
+                                    U u = m.putIfAbsent(k, v);
+                                    if (u != null)
+                                        throw new IllegalStateException(
+                                            String.format("Duplicate key %s", u));
+                                }
+                            }
+                        }
+                        return m;
+                    }
+                }),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} counting the input elements of each
+     * key, building the result map per hash partition in parallel.  The
+     * result is the same as that of
+     * {@code Collectors.groupingBy(classifier, Collectors.counting())},
+     * but counts are kept in a {@code long[]} rather than in a container
+     * per key.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a {@code Collector} counting elements by key
+     */
+    public static <T, K> Collector<T, ?, Map<K, Long>>
+    groupingByCounting(Function<? super T, ? extends K> classifier) {
+        Objects.requireNonNull(classifier);
+        final int partitions = defaultPartitions();
+        return new Collectors.CollectorImpl<T, Scatter, Map<K, Long>>(
+                () -> new Scatter(KEYS, partitions),
+                (s, t) -> s.add(keyOf(classifier, t)),
+                Scatter::combine,
+                s -> s.build(new PartitionBuilder<Map<K, Long>>() {
+                    public Map<K, Long> build(Chunk head) {
+                        LongTable<K> m = new LongTable<>();
+                        for (Chunk c = head; c != null; c = c.next) {
+                            Object[] keys = c.keys;
+                            for (int i = 0, n = c.count; i < n; i++)
+                                m.add(keys[i], 1L);
+                        }
+                        return m;
+                    }
+                }),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} summing a {@code long}-valued function
+     * of the input elements of each key, building the result map per
+     * hash partition in parallel.  The result is the same as that of
+     * {@code Collectors.groupingBy(classifier, Collectors.summingLong(mapper))},
+     * but the values are scattered unboxed and summed in a
+     * {@code long[]} rather than in a container per key.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summed
+     * @return a {@code Collector} summing a property by key
+     */
+    public static <T, K> Collector<T, ?, Map<K, Long>>
+    groupingBySummingLong(Function<? super T, ? extends K> classifier,
+                          ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        final int partitions = defaultPartitions();
+        return new Collectors.CollectorImpl<T, Scatter, Map<K, Long>>(
+                () -> new Scatter(LONGS, partitions),
+                (s, t) -> s.add(keyOf(classifier, t), mapper.applyAsLong(t)),
+                Scatter::combine,
+                s -> s.build(new PartitionBuilder<Map<K, Long>>() {
+                    public Map<K, Long> build(Chunk head) {
+                        LongTable<K> m = new LongTable<>();
+                        for (Chunk c = head; c != null; c = c.next) {
+                            Object[] keys = c.keys;
+                            long[] longs = c.longs;
+                            for (int i = 0, n = c.count; i < n; i++)
+                                m.add(keys[i], longs[i]);
+                        }
+                        return m;
+                    }
+                }),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} summing a {@code double}-valued
+     * function of the input elements of each key, building the result
+     * map per hash partition in parallel.  The result is the same as
+     * that of
+     * {@code Collectors.groupingBy(classifier, Collectors.summingDouble(mapper))},
+     * including its compensated summation, but the values are scattered
+     * unboxed and summed in {@code double[]} slots rather than in a
+     * container per key.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapper a function extracting the property to be summed
+     * @return a {@code Collector} summing a property by key
+     */
+    public static <T, K> Collector<T, ?, Map<K, Double>>
+    groupingBySummingDouble(Function<? super T, ? extends K> classifier,
+                            ToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapper);
+        final int partitions = defaultPartitions();
+        return new Collectors.CollectorImpl<T, Scatter, Map<K, Double>>(
+                () -> new Scatter(DOUBLES, partitions),
+                (s, t) -> s.add(keyOf(classifier, t), mapper.applyAsDouble(t)),
+                Scatter::combine,
+                s -> s.build(new PartitionBuilder<Map<K, Double>>() {
+                    public Map<K, Double> build(Chunk head) {
+                        DoubleTable<K> m = new DoubleTable<>();
+                        for (Chunk c = head; c != null; c = c.next) {
+                            Object[] keys = c.keys;
+                            double[] doubles = c.doubles;
+                            for (int i = 0, n = c.count; i < n; i++)
+                                m.add(keys[i], doubles[i]);
+                        }
+                        return m;
+                    }
+                }),
+                Collectors.CH_NOID);
+    }
+
+    private static <T> Object keyOf(Function<? super T, ?> classifier, T t) {
+        return Objects.requireNonNull(classifier.apply(t),
+                                      "element cannot be mapped to a null key");
+    }
+
+    /**
+     * Returns the number of partitions: a power of two, a few per
+     * thread of the common pool.
+     */
+    static int defaultPartitions() {
+        int p = ForkJoinPool.getCommonPoolParallelism() * PARTITIONS_PER_THREAD;
+        int n = 1;
+        while (n < p && n < MAX_PARTITIONS)
+            n <<= 1;
+        return n;
+    }
+
+    /**
+     * Returns the partition of a hash code among 2^(32 - shift)
+     * partitions.  Uses the high bits of a multiplicative hash, so
+     * that the low bits, which index the table of each partition, stay
+     * evenly spread within a partition.
+     */
+    static int partition(int h, int shift) {
+        return (shift >= Integer.SIZE) ? 0 : (h * 0x9e3779b9) >>> shift;
+    }
+
+    /**
+     * A block of scattered keys, and their elements or values, of one
+     * partition.  Only the value array of the scatter's kind is
+     * allocated.
+     */
+    static final class Chunk {
+        final Object[] keys;
+        final Object[] refs;
+        final long[] longs;
+        final double[] doubles;
+        int count;
+        Chunk next;
+
+        Chunk(int kind, int capacity) {
+            keys = new Object[capacity];
+            refs = (kind == REFS) ? new Object[capacity] : null;
+            longs = (kind == LONGS) ? new long[capacity] : null;
+            doubles = (kind == DOUBLES) ? new double[capacity] : null;
+        }
+    }
+
+    /**
+     * The result container of the collectors: a list of chunks per
+     * partition, in encounter order.
+     */
+    static final class Scatter {
+        final int kind;
+        final int shift;
+        final Chunk[] heads;
+        final Chunk[] tails;
+        long count;
+
+        Scatter(int kind, int partitions) {
+            this.kind = kind;
+            this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(partitions);
+            this.heads = new Chunk[partitions];
+            this.tails = new Chunk[partitions];
+        }
+
+        /**
+         * Returns the chunk to append the key to, allocating chunks of
+         * doubling capacity as they fill.
+         */
+        private Chunk chunkFor(Object key) {
+            int p = partition(key.hashCode(), shift);
+            Chunk c = tails[p];
+            if (c == null || c.count == c.keys.length) {
+                Chunk t = new Chunk(kind, (c == null) ? MIN_CHUNK :
+                                    Math.min(c.keys.length << 1, MAX_CHUNK));
+                if (c == null)
+                    heads[p] = t;
+                else
+                    c.next = t;
+                tails[p] = c = t;
+            }
+            ++count;
+            return c;
+        }
+
+        void add(Object key) {
+            Chunk c = chunkFor(key);
+            c.keys[c.count++] = key;
+        }
+
+        void add(Object key, Object value) {
+            Chunk c = chunkFor(key);
+            c.refs[c.count] = value;
+            c.keys[c.count++] = key;
+        }
+
+        void add(Object key, long value) {
+            Chunk c = chunkFor(key);
+            c.longs[c.count] = value;
+            c.keys[c.count++] = key;
+        }
+
+        void add(Object key, double value) {
+            Chunk c = chunkFor(key);
+            c.doubles[c.count] = value;
+            c.keys[c.count++] = key;
+        }
+
+        /**
+         * Appends the chunks of {@code other}, which follows this in
+         * encounter order, to those of this.  No chunk of either is
+         * appended to afterwards.
+         */
+        Scatter combine(Scatter other) {
+            for (int p = 0; p < heads.length; p++) {
+                Chunk h = other.heads[p];
+                if (h != null) {
+                    if (tails[p] == null)
+                        heads[p] = h;
+                    else
+                        tails[p].next = h;
+                    tails[p] = other.tails[p];
+                }
+            }
+            count += other.count;
+            return this;
+        }
+
+        /**
+         * Builds the map of each partition, in parallel unless there
+         * are few elements, and returns their union.
+         */
+        <K, V> Map<K, V> build(PartitionBuilder<? extends Map<K, V>> builder) {
+            @SuppressWarnings("unchecked")
+            Map<K, V>[] parts = (Map<K, V>[]) new Map<?, ?>[heads.length];
+            if (heads.length == 1 || count < SEQUENTIAL_THRESHOLD) {
+                for (int p = 0; p < heads.length; p++)
+                    parts[p] = builder.build(heads[p]);
+            }
+            else
+                new BuildTask<>(heads, builder, parts, 0, heads.length).invoke();
+            Arrays.fill(heads, null); // let chunks be collected as soon as possible
+            Arrays.fill(tails, null);
+            return new PartitionedMap<>(parts, shift);
+        }
+    }
+
+    /**
+     * Builds the map of one partition from its chunks.
+     */
+    interface PartitionBuilder<M> {
+        M build(Chunk head);
+    }
+
+    /**
+     * Builds the maps of a range of partitions, forking halves.
+     */
+    @SuppressWarnings("serial")
+    static final class BuildTask<M> extends RecursiveAction {
+        final Chunk[] heads;
+        final PartitionBuilder<? extends M> builder;
+        final M[] parts;
+        final int lo, hi;
+        BuildTask<M> nextForked;    // the task forked before this one by the same parent
+
+        BuildTask(Chunk[] heads, PartitionBuilder<? extends M> builder,
+                  M[] parts, int lo, int hi) {
+            this.heads = heads; this.builder = builder; this.parts = parts;
+            this.lo = lo; this.hi = hi;
+        }
+
+        protected void compute() {
+            int l = lo, h = hi;
+            BuildTask<M> forked = null;
+            while (h - l > 1) {
+                int mid = (l + h) >>> 1;
+                BuildTask<M> t = new BuildTask<M>(heads, builder, parts, mid, h);
+                t.nextForked = forked;
+                (forked = t).fork();
+                h = mid;
+            }
+            parts[l] = builder.build(heads[l]);
+            for (; forked != null; forked = forked.nextForked)
+                forked.join();
+        }
+    }
+
+    /**
+     * The result map: the union of the disjoint maps of the partitions,
+     * each key being looked up in the map of its partition.
+     */
+    static final class PartitionedMap<K, V> extends AbstractMap<K, V> {
+        final Map<K, V>[] parts;
+        final int shift;
+        private transient Set<Map.Entry<K, V>> entrySet;
+
+        PartitionedMap(Map<K, V>[] parts, int shift) {
+            this.parts = parts;
+            this.shift = shift;
+        }
+
+        private Map<K, V> partOf(Object key) {
+            return parts[partition(Objects.hashCode(key), shift)];
+        }
+
+        public int size() {
+            long n = 0L;
+            for (Map<K, V> m : parts)
+                n += m.size();
+            return (n > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n;
+        }
+
+        public boolean isEmpty() {
+            for (Map<K, V> m : parts)
+                if (!m.isEmpty())
+                    return false;
+            return true;
+        }
+
+        public boolean containsKey(Object key) {
+            return partOf(key).containsKey(key);
+        }
+
+        public V get(Object key) {
+            return partOf(key).get(key);
+        }
+
+        public V put(K key, V value) {
+            return partOf(key).put(key, value);
+        }
+
+        public V remove(Object key) {
+            return partOf(key).remove(key);
+        }
+
+        public void clear() {
+            for (Map<K, V> m : parts)
+                m.clear();
+        }
+
+        public Set<Map.Entry<K, V>> entrySet() {
+            Set<Map.Entry<K, V>> es;
+            return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+        }
+
+        final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+            public int size() {
+                return PartitionedMap.this.size();
+            }
+
+            public void clear() {
+                PartitionedMap.this.clear();
+            }
+
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new Iterator<Map.Entry<K, V>>() {
+                    int next = 0;
+                    Iterator<Map.Entry<K, V>> it = null, last = null;
+
+                    public boolean hasNext() {
+                        while (it == null || !it.hasNext()) {
+                            if (next == parts.length)
+                                return false;
+                            it = parts[next++].entrySet().iterator();
+                        }
+                        return true;
+                    }
+
+                    public Map.Entry<K, V> next() {
+                        if (!hasNext())
+                            throw new NoSuchElementException();
+                        last = it;
+                        return it.next();
+                    }
+
+                    public void remove() {
+                        if (last == null)
+                            throw new IllegalStateException();
+                        last.remove();
+                        last = null;
+                    }
+                };
+            }
+        }
+    }
+
+    /**
+     * An open-addressed hash table from keys to primitive values, with
+     * linear probing and backward-shift deletion.  Keys are never null.
+     * Its entry set iterator does not support removal.
+     */
+    abstract static class PrimitiveTable<K, V> extends AbstractMap<K, V> {
+        static final int INITIAL_CAPACITY = 16;
+
+        Object[] keys = new Object[INITIAL_CAPACITY];
+        int size;
+        private transient Set<Map.Entry<K, V>> entrySet;
+
+        /** Returns the boxed value in slot i. */
+        abstract V valueAt(int i);
+
+        /** Sets the value in slot i. */
+        abstract void setValueAt(int i, V value);
+
+        /** Moves the value in slot from to slot to of this table. */
+        abstract void moveValue(int from, int to);
+
+        /** Replaces the value arrays by new ones of the given capacity, returning the old ones. */
+        abstract Object newValues(int capacity);
+
+        /** Copies the value in slot from of the old value arrays to slot to. */
+        abstract void transferValue(Object oldValues, int from, int to);
+
+        static int hash(Object key) {
+            int h = key.hashCode();
+            return h ^ (h >>> 16);
+        }
+
+        /** Returns the slot holding key, or the empty slot where it belongs. */
+        final int slot(Object key) {
+            Object[] ks = keys;
+            int mask = ks.length - 1;
+            int i = hash(key) & mask;
+            for (Object k; (k = ks[i]) != null && !k.equals(key); i = (i + 1) & mask)
+                ;
+            return i;
+        }
+
+        /**
+         * Claims the empty slot i for key, growing the table if half
+         * full, and returns the slot of key afterwards.
+         */
+        final int insert(int i, Object key) {
+            keys[i] = key;
+            if (++size > keys.length >>> 1) {
+                resize();
+                i = slot(key);
+            }
+            return i;
+        }
+
+        private void resize() {
+            Object[] oldKeys = keys;
+            int n = oldKeys.length << 1;
+            if (n < 0)
+                throw new OutOfMemoryError("Required array size too large");
+            Object oldValues = newValues(n);
+            keys = new Object[n];
+            for (int i = 0; i < oldKeys.length; i++) {
+                Object k = oldKeys[i];
+                if (k != null) {
+                    int j = slot(k);
+                    keys[j] = k;
+                    transferValue(oldValues, i, j);
+                }
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean containsKey(Object key) {
+            return key != null && keys[slot(key)] != null;
+        }
+
+        public V get(Object key) {
+            int i;
+            return (key == null || keys[i = slot(key)] == null) ? null : valueAt(i);
+        }
+
+        public V put(K key, V value) {
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            int i = slot(key);
+            if (keys[i] != null) {
+                V old = valueAt(i);
+                setValueAt(i, value);
+                return old;
+            }
+            setValueAt(insert(i, key), value);
+            return null;
+        }
+
+        public V remove(Object key) {
+            int i;
+            if (key == null || keys[i = slot(key)] == null)
+                return null;
+            V old = valueAt(i);
+            Object[] ks = keys;
+            int mask = ks.length - 1;
+            ks[i] = null;
+            --size;
+            // shift back later entries of the run that probed past slot i
+            for (int j = (i + 1) & mask; ks[j] != null; j = (j + 1) & mask) {
+                int h = hash(ks[j]) & mask;
+                if ((j > i) ? (h <= i || h > j) : (h <= i && h > j)) {
+                    ks[i] = ks[j];
+                    moveValue(j, i);
+                    ks[j] = null;
+                    i = j;
+                }
+            }
+            return old;
+        }
+
+        public void clear() {
+            Arrays.fill(keys, null);
+            size = 0;
+        }
+
+        public Set<Map.Entry<K, V>> entrySet() {
+            Set<Map.Entry<K, V>> es;
+            return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+        }
+
+        final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+            public int size() {
+                return size;
+            }
+
+            public void clear() {
+                PrimitiveTable.this.clear();
+            }
+
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new Iterator<Map.Entry<K, V>>() {
+                    int next = advance(0);
+
+                    int advance(int i) {
+                        Object[] ks = keys;
+                        while (i < ks.length && ks[i] == null)
+                            i++;
+                        return i;
+                    }
+
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    public Map.Entry<K, V> next() {
+                        final int i = next;
+                        if (i >= keys.length)
+                            throw new NoSuchElementException();
+                        next = advance(i + 1);
+                        @SuppressWarnings("unchecked")
+                        K k = (K) keys[i];
+                        return new AbstractMap.SimpleEntry<K, V>(k, valueAt(i)) {
+                            private static final long serialVersionUID = 1L;
+                            public V setValue(V value) {
+                                setValueAt(i, Objects.requireNonNull(value));
+                                return super.setValue(value);
+                            }
+                        };
+                    }
+                };
+            }
+        }
+    }
+
+    /**
+     * A table of {@code long} sums.
+     */
+    static final class LongTable<K> extends PrimitiveTable<K, Long> {
+        long[] values = new long[INITIAL_CAPACITY];
+
+        void add(Object key, long v) {
+            int i = slot(key);
+            if (keys[i] != null)
+                values[i] += v;
+            else {
+                i = insert(i, key);
+                values[i] = v;
+            }
+        }
+
+        Long valueAt(int i) { return values[i]; }
+        void setValueAt(int i, Long value) { values[i] = value; }
+        void moveValue(int from, int to) { values[to] = values[from]; }
+
+        Object newValues(int capacity) {
+            long[] old = values;
+            values = new long[capacity];
+            return old;
+        }
+
+        void transferValue(Object oldValues, int from, int to) {
+            values[to] = ((long[]) oldValues)[from];
+        }
+    }
+
+    /**
+     * A table of {@code double} sums, each kept with its Kahan
+     * compensation and its simple sum, as in
+     * {@link Collectors#summingDouble}.
+     */
+    static final class DoubleTable<K> extends PrimitiveTable<K, Double> {
+        double[] sums = new double[INITIAL_CAPACITY];
+        double[] compensations = new double[INITIAL_CAPACITY];
+        double[] simpleSums = new double[INITIAL_CAPACITY];
+
+        void add(Object key, double v) {
+            int i = slot(key);
+            if (keys[i] == null) {
+                i = insert(i, key);
+                sums[i] = v;
+                compensations[i] = 0.0d;
+                simpleSums[i] = v;
+            } else {
+                // Kahan summation, as Collectors.sumWithCompensation
+                double tmp = v - compensations[i];
+                double sum = sums[i];
+                double velvel = sum + tmp; // Little wolf of rounding error
+                compensations[i] = (velvel - sum) - tmp;
+                sums[i] = velvel;
+                simpleSums[i] += v;
+            }
+        }
+
+        Double valueAt(int i) {
+            // as Collectors.computeFinalSum
+            double tmp = sums[i] + compensations[i];
+            double simpleSum = simpleSums[i];
+            if (Double.isNaN(tmp) && Double.isInfinite(simpleSum))
+                return simpleSum;
+            return tmp;
+        }
+
+        void setValueAt(int i, Double value) {
+            sums[i] = simpleSums[i] = value;
+            compensations[i] = 0.0d;
+        }
+
+        void moveValue(int from, int to) {
+            sums[to] = sums[from];
+            compensations[to] = compensations[from];
+            simpleSums[to] = simpleSums[from];
+        }
+
+        Object newValues(int capacity) {
+            double[][] old = { sums, compensations, simpleSums };
+            sums = new double[capacity];
+            compensations = new double[capacity];
+            simpleSums = new double[capacity];
+            return old;
+        }
+
+        void transferValue(Object oldValues, int from, int to) {
+            double[][] old = (double[][]) oldValues;
+            sums[to] = old[0][from];
+            compensations[to] = old[1][from];
+            simpleSums[to] = old[2][from];
+        }
+    }
+}
@@ -0,0 +1,556 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.Label;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import jdk.internal.org.objectweb.asm.Type;
+import sun.misc.Unsafe;
+
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Fusion of runs of stateless {@code map}, {@code filter} and
+ * {@code peek} stages into a single generated {@link Sink}.
+ *
+ * <p>Each stage of a pipeline wraps the sink of the next stage in a
+ * {@link Sink.ChainedReference} or similar, and the {@code accept} of
+ * every such sink class is shared by all pipelines using that
+ * operation, with whatever lambdas they were given.  Once a few
+ * different pipelines have run, the calls to the function and to the
+ * downstream sink in those shared methods see several receiver classes,
+ * and the JIT can no longer inline through the chain.
+ *
+ * <p>When fusion is enabled, by setting the system property
+ * {@code java.util.stream.fusion} to {@code true},
+ * {@link AbstractPipeline#wrapSink} replaces each run of at least
+ * {@link #MIN_RUN} consecutive fusible stages by one sink of a class
+ * spun for the shape of the run: the operations, the classes of their
+ * functions, and the class of the downstream sink.  The spun
+ * {@code accept} calls each function, and the downstream sink, through
+ * a call site of its own, so that every call site of the class sees a
+ * single receiver class and the whole run inlines into one loop body.
+ * Classes are defined as anonymous classes of this class, as the lambda
+ * metafactory does, and cached for as long as the classes of the shape
+ * are reachable; while {@link #MAX_SHAPES} shapes are cached, further
+ * runs are wrapped stage by stage as usual.
+ *
+ * <p>A stage is fusible if its operation reports a {@link Op} from
+ * {@link AbstractPipeline#fusibleOp}.  Fusion does not change which
+ * functions are called, on which elements, or in which order.
+ */
+final class PipelineFusion {
+
+    private PipelineFusion() { }
+
+    private static final String FUSION_PROPERTY = "java.util.stream.fusion";
+
+    /** Whether runs of stateless stages are fused. */
+    static final boolean ENABLED = AccessController.doPrivileged(
+            (PrivilegedAction<Boolean>) () -> Boolean.getBoolean(FUSION_PROPERTY));
+
+    /** The smallest number of consecutive stages worth fusing. */
+    static final int MIN_RUN = 2;
+
+    /** The largest number of run shapes whose classes are cached. */
+    static final int MAX_SHAPES = 512;
+
+    /** Kinds of fusible operation. */
+    static final int MAP = 0, FILTER = 1, PEEK = 2;
+
+    /**
+     * A fusible stateless operation: its kind, its function, and how
+     * to call it.
+     */
+    static final class Op {
+        final int kind;
+        final Object fn;
+        final Class<?> fnInterface;
+        final String fnMethod;
+        final StreamShape inputShape;
+        final StreamShape outputShape;
+
+        Op(int kind, Object fn, Class<?> fnInterface, String fnMethod,
+           StreamShape inputShape, StreamShape outputShape) {
+            this.kind = kind;
+            this.fn = fn;
+            this.fnInterface = fnInterface;
+            this.fnMethod = fnMethod;
+            this.inputShape = inputShape;
+            this.outputShape = outputShape;
+        }
+
+        /** Returns the descriptor of the function's method. */
+        String fnDescriptor() {
+            String ret = (kind == FILTER) ? "Z" : (kind == PEEK) ? "V"
+                : descriptor(outputShape);
+            return "(" + descriptor(inputShape) + ")" + ret;
+        }
+    }
+
+    // Factories, one per functional interface of a fusible operation,
+    // named for the stream method, prefixed with the input shape unless
+    // it is REFERENCE
+
+    static Op intMap(IntUnaryOperator f) {
+        return new Op(MAP, f, IntUnaryOperator.class, "applyAsInt", StreamShape.INT_VALUE, StreamShape.INT_VALUE);
+    }
+
+    static Op intMapToLong(IntToLongFunction f) {
+        return new Op(MAP, f, IntToLongFunction.class, "applyAsLong", StreamShape.INT_VALUE, StreamShape.LONG_VALUE);
+    }
+
+    static Op intMapToDouble(IntToDoubleFunction f) {
+        return new Op(MAP, f, IntToDoubleFunction.class, "applyAsDouble", StreamShape.INT_VALUE, StreamShape.DOUBLE_VALUE);
+    }
+
+    static Op intMapToObj(IntFunction<?> f) {
+        return new Op(MAP, f, IntFunction.class, "apply", StreamShape.INT_VALUE, StreamShape.REFERENCE);
+    }
+
+    static Op intFilter(IntPredicate f) {
+        return new Op(FILTER, f, IntPredicate.class, "test", StreamShape.INT_VALUE, StreamShape.INT_VALUE);
+    }
+
+    static Op intPeek(IntConsumer f) {
+        return new Op(PEEK, f, IntConsumer.class, "accept", StreamShape.INT_VALUE, StreamShape.INT_VALUE);
+    }
+
+    static Op longMap(LongUnaryOperator f) {
+        return new Op(MAP, f, LongUnaryOperator.class, "applyAsLong", StreamShape.LONG_VALUE, StreamShape.LONG_VALUE);
+    }
+
+    static Op longMapToInt(LongToIntFunction f) {
+        return new Op(MAP, f, LongToIntFunction.class, "applyAsInt", StreamShape.LONG_VALUE, StreamShape.INT_VALUE);
+    }
+
+    static Op longMapToDouble(LongToDoubleFunction f) {
+        return new Op(MAP, f, LongToDoubleFunction.class, "applyAsDouble", StreamShape.LONG_VALUE, StreamShape.DOUBLE_VALUE);
+    }
+
+    static Op longMapToObj(LongFunction<?> f) {
+        return new Op(MAP, f, LongFunction.class, "apply", StreamShape.LONG_VALUE, StreamShape.REFERENCE);
+    }
+
+    static Op longFilter(LongPredicate f) {
+        return new Op(FILTER, f, LongPredicate.class, "test", StreamShape.LONG_VALUE, StreamShape.LONG_VALUE);
+    }
+
+    static Op longPeek(LongConsumer f) {
+        return new Op(PEEK, f, LongConsumer.class, "accept", StreamShape.LONG_VALUE, StreamShape.LONG_VALUE);
+    }
+
+    static Op doubleMap(DoubleUnaryOperator f) {
+        return new Op(MAP, f, DoubleUnaryOperator.class, "applyAsDouble", StreamShape.DOUBLE_VALUE, StreamShape.DOUBLE_VALUE);
+    }
+
+    static Op doubleMapToInt(DoubleToIntFunction f) {
+        return new Op(MAP, f, DoubleToIntFunction.class, "applyAsInt", StreamShape.DOUBLE_VALUE, StreamShape.INT_VALUE);
+    }
+
+    static Op doubleMapToLong(DoubleToLongFunction f) {
+        return new Op(MAP, f, DoubleToLongFunction.class, "applyAsLong", StreamShape.DOUBLE_VALUE, StreamShape.LONG_VALUE);
+    }
+
+    static Op doubleMapToObj(DoubleFunction<?> f) {
+        return new Op(MAP, f, DoubleFunction.class, "apply", StreamShape.DOUBLE_VALUE, StreamShape.REFERENCE);
+    }
+
+    static Op doubleFilter(DoublePredicate f) {
+        return new Op(FILTER, f, DoublePredicate.class, "test", StreamShape.DOUBLE_VALUE, StreamShape.DOUBLE_VALUE);
+    }
+
+    static Op doublePeek(DoubleConsumer f) {
+        return new Op(PEEK, f, DoubleConsumer.class, "accept", StreamShape.DOUBLE_VALUE, StreamShape.DOUBLE_VALUE);
+    }
+
+    static Op map(java.util.function.Function<?, ?> f) {
+        return new Op(MAP, f, java.util.function.Function.class, "apply", StreamShape.REFERENCE, StreamShape.REFERENCE);
+    }
+
+    static Op mapToInt(java.util.function.ToIntFunction<?> f) {
+        return new Op(MAP, f, java.util.function.ToIntFunction.class, "applyAsInt", StreamShape.REFERENCE, StreamShape.INT_VALUE);
+    }
+
+    static Op mapToLong(java.util.function.ToLongFunction<?> f) {
+        return new Op(MAP, f, java.util.function.ToLongFunction.class, "applyAsLong", StreamShape.REFERENCE, StreamShape.LONG_VALUE);
+    }
+
+    static Op mapToDouble(java.util.function.ToDoubleFunction<?> f) {
+        return new Op(MAP, f, java.util.function.ToDoubleFunction.class, "applyAsDouble", StreamShape.REFERENCE, StreamShape.DOUBLE_VALUE);
+    }
+
+    static Op filter(java.util.function.Predicate<?> f) {
+        return new Op(FILTER, f, java.util.function.Predicate.class, "test", StreamShape.REFERENCE, StreamShape.REFERENCE);
+    }
+
+    static Op peek(java.util.function.Consumer<?> f) {
+        return new Op(PEEK, f, java.util.function.Consumer.class, "accept", StreamShape.REFERENCE, StreamShape.REFERENCE);
+    }
+
+    /**
+     * Returns the fused form of a run of stages for downstream sinks of
+     * the given class, or null if no class can be spun for its shape.
+     * The caller keeps the result with the pipeline, so that the shape
+     * is looked up once per pipeline rather than once per leaf task.
+     *
+     * @param ops the operations of a run of consecutive stages, first
+     *        stage first
+     * @param first the first stage of the run
+     * @param downstreamClass the class of the sink of the stage following
+     *        the run
+     */
+    static Run fuse(Op[] ops, AbstractPipeline<?, ?, ?> first, Class<?> downstreamClass) {
+        processQueue();
+        FusedSink proto = SHAPES.get(new Shape(ops, downstreamClass, null));
+        if (proto == null) {
+            if (SHAPES.size() >= MAX_SHAPES)
+                return null;
+            FusedSink p = spin(ops);
+            proto = SHAPES.putIfAbsent(new Shape(ops, downstreamClass, QUEUE), p);
+            if (proto == null)
+                proto = p;
+        }
+        Object[] fns = new Object[ops.length];
+        for (int i = 0; i < ops.length; i++)
+            fns[i] = ops[i].fn;
+        return new Run(first, downstreamClass, proto, fns);
+    }
+
+    /**
+     * A run of stages of one pipeline, fused for downstream sinks of one
+     * class.  Its fields are final, so it may be shared by the leaf tasks
+     * of a parallel evaluation without further synchronization.
+     */
+    static final class Run {
+        final AbstractPipeline<?, ?, ?> first;
+        final Class<?> downstreamClass;
+        private final FusedSink proto;
+        private final Object[] fns;     // read, never written, by the sinks
+
+        Run(AbstractPipeline<?, ?, ?> first, Class<?> downstreamClass,
+            FusedSink proto, Object[] fns) {
+            this.first = first;
+            this.downstreamClass = downstreamClass;
+            this.proto = proto;
+            this.fns = fns;
+        }
+
+        /** Returns a sink performing the run and passing its results to downstream. */
+        @SuppressWarnings("unchecked")
+        <T> Sink<T> wrap(Sink<?> downstream) {
+            return (Sink<T>) proto.newSink(fns, (Sink<Object>) downstream);
+        }
+    }
+
+    /**
+     * The shape of a run: what the spun class depends on, and what the
+     * profiles of its call sites see.  The classes of the functions and
+     * of the downstream sink are held weakly, so that a cached shape does
+     * not keep their class loaders alive; a shape one of whose classes
+     * has been collected equals no other shape, and is removed from the
+     * cache by {@link #processQueue}.
+     */
+    static final class Shape {
+        final ClassRef[] classes;       // downstream class, then per op its function's
+        final Class<?>[] fnInterfaces;
+        final int[] kinds;
+        final int hash;
+
+        /**
+         * Creates the shape of the given run, registering its class
+         * references with the given queue, if not null.
+         */
+        Shape(Op[] ops, Class<?> downstreamClass, ReferenceQueue<Class<?>> queue) {
+            classes = new ClassRef[ops.length + 1];
+            fnInterfaces = new Class<?>[ops.length];
+            kinds = new int[ops.length];
+            classes[0] = new ClassRef(downstreamClass, this, queue);
+            int h = System.identityHashCode(downstreamClass);
+            for (int i = 0; i < ops.length; i++) {
+                Class<?> c = ops[i].fn.getClass();
+                classes[i + 1] = new ClassRef(c, this, queue);
+                fnInterfaces[i] = ops[i].fnInterface;
+                kinds[i] = ops[i].kind;
+                h = h * 31 + System.identityHashCode(c);
+            }
+            hash = (h * 31 + Arrays.hashCode(fnInterfaces)) * 31 + Arrays.hashCode(kinds);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Shape))
+                return false;
+            Shape s = (Shape) o;
+            if (s.classes.length != classes.length
+                || !Arrays.equals(fnInterfaces, s.fnInterfaces)
+                || !Arrays.equals(kinds, s.kinds))
+                return false;
+            for (int i = 0; i < classes.length; i++) {
+                Class<?> c = classes[i].get();
+                if (c == null || c != s.classes[i].get())
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /** A weak reference to a class of a shape, leading back to the shape. */
+    static final class ClassRef extends WeakReference<Class<?>> {
+        final Shape shape;
+
+        ClassRef(Class<?> c, Shape shape, ReferenceQueue<Class<?>> queue) {
+            super(c, queue);
+            this.shape = shape;
+        }
+    }
+
+    private static final ConcurrentHashMap<Shape, FusedSink> SHAPES = new ConcurrentHashMap<>();
+
+    /** Queue for the class references of the shapes in {@link #SHAPES}. */
+    private static final ReferenceQueue<Class<?>> QUEUE = new ReferenceQueue<>();
+
+    /**
+     * Removes from the cache the shapes one of whose classes has been
+     * collected.  The spun classes refer only to the functional
+     * interfaces, so the cache holds nothing else of the collected class.
+     */
+    private static void processQueue() {
+        Reference<? extends Class<?>> ref;
+        while ((ref = QUEUE.poll()) != null)
+            SHAPES.remove(((ClassRef) ref).shape);
+    }
+
+    /**
+     * The superclass of spun sinks.  A spun class adds a field per
+     * function, a constructor {@code (Object[] fns, Sink downstream)},
+     * {@link #newSink}, and the {@code accept} method of the input
+     * shape.  The instance cached per shape is allocated without a
+     * constructor, and only serves to call {@code newSink}.
+     */
+    abstract static class FusedSink implements Sink<Object> {
+        final Sink<Object> downstream;
+        final boolean sizeUnknown;
+
+        FusedSink(Sink<Object> downstream, boolean sizeUnknown) {
+            this.downstream = downstream;
+            this.sizeUnknown = sizeUnknown;
+        }
+
+        /** Returns a new sink of this class. */
+        abstract FusedSink newSink(Object[] fns, Sink<Object> downstream);
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(sizeUnknown ? -1 : size);
+        }
+
+        @Override
+        public void end() {
+            downstream.end();
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+    }
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private static final String FUSED_SINK = Type.getInternalName(FusedSink.class);
+    private static final String SINK = Type.getInternalName(Sink.class);
+    private static final String CTOR_DESC = "([Ljava/lang/Object;L" + SINK + ";)V";
+
+    /**
+     * Spins the class of a run and returns an instance to create sinks
+     * with.
+     */
+    private static FusedSink spin(Op[] ops) {
+        String className = FUSED_SINK + "$$" + counter.incrementAndGet();
+        StreamShape in = ops[0].inputShape;
+        boolean sizeUnknown = false;
+        for (Op op : ops)
+            sizeUnknown |= op.kind == FILTER;
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        String[] interfaces = (in == StreamShape.REFERENCE) ? null
+            : new String[] { SINK + "$" + sinkInterface(in) };
+        cw.visit(V1_8, ACC_SUPER | ACC_FINAL | ACC_SYNTHETIC, className, null,
+                 FUSED_SINK, interfaces);
+        for (int i = 0; i < ops.length; i++)
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, "f" + i,
+                          Type.getDescriptor(ops[i].fnInterface), null, null).visitEnd();
+
+        // constructor: super(downstream, sizeUnknown); fi = (Fi) fns[i]
+        MethodVisitor mv = cw.visitMethod(0, "<init>", CTOR_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(sizeUnknown ? ICONST_1 : ICONST_0);
+        mv.visitMethodInsn(INVOKESPECIAL, FUSED_SINK, "<init>", "(L" + SINK + ";Z)V", false);
+        for (int i = 0; i < ops.length; i++) {
+            String fi = Type.getInternalName(ops[i].fnInterface);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(AALOAD);
+            mv.visitTypeInsn(CHECKCAST, fi);
+            mv.visitFieldInsn(PUTFIELD, className, "f" + i, "L" + fi + ";");
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        // newSink: return new <className>(fns, downstream)
+        mv = cw.visitMethod(0, "newSink",
+                            "([Ljava/lang/Object;L" + SINK + ";)L" + FUSED_SINK + ";", null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, className);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKESPECIAL, className, "<init>", CTOR_DESC, false);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        // accept: each op in turn on the value in a local of its shape,
+        // returning early when a filter rejects it
+        mv = cw.visitMethod(ACC_PUBLIC, "accept", "(" + descriptor(in) + ")V", null, null);
+        mv.visitCode();
+        int value = 1;              // local holding the current value
+        StreamShape shape = in;
+        for (int i = 0; i < ops.length; i++) {
+            Op op = ops[i];
+            String fi = Type.getInternalName(op.fnInterface);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, className, "f" + i, "L" + fi + ";");
+            mv.visitVarInsn(loadOpcode(shape), value);
+            mv.visitMethodInsn(INVOKEINTERFACE, fi, op.fnMethod, op.fnDescriptor(), true);
+            if (op.kind == FILTER) {
+                Label pass = new Label();
+                mv.visitJumpInsn(IFNE, pass);
+                mv.visitInsn(RETURN);
+                mv.visitLabel(pass);
+            }
+            else if (op.kind == MAP) {
+                int next = value + slots(shape);  // fresh local, so no slot changes type
+                shape = op.outputShape;
+                value = next;
+                mv.visitVarInsn(storeOpcode(shape), value);
+            }
+        }
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, FUSED_SINK, "downstream", "L" + SINK + ";");
+        mv.visitVarInsn(loadOpcode(shape), value);
+        mv.visitMethodInsn(INVOKEINTERFACE, SINK, "accept", "(" + descriptor(shape) + ")V", true);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        Class<?> c = UNSAFE.defineAnonymousClass(PipelineFusion.class, cw.toByteArray(), null);
+        try {
+            return (FusedSink) UNSAFE.allocateInstance(c);
+        } catch (InstantiationException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    private static String descriptor(StreamShape shape) {
+        switch (shape) {
+            case INT_VALUE:    return "I";
+            case LONG_VALUE:   return "J";
+            case DOUBLE_VALUE: return "D";
+            default:           return "Ljava/lang/Object;";
+        }
+    }
+
+    private static String sinkInterface(StreamShape shape) {
+        switch (shape) {
+            case INT_VALUE:    return "OfInt";
+            case LONG_VALUE:   return "OfLong";
+            default:           return "OfDouble";
+        }
+    }
+
+    private static int loadOpcode(StreamShape shape) {
+        switch (shape) {
+            case INT_VALUE:    return ILOAD;
+            case LONG_VALUE:   return LLOAD;
+            case DOUBLE_VALUE: return DLOAD;
+            default:           return ALOAD;
+        }
+    }
+
+    private static int storeOpcode(StreamShape shape) {
+        switch (shape) {
+            case INT_VALUE:    return ISTORE;
+            case LONG_VALUE:   return LSTORE;
+            case DOUBLE_VALUE: return DSTORE;
+            default:           return ASTORE;
+        }
+    }
+
+    private static int slots(StreamShape shape) {
+        return (shape == StreamShape.LONG_VALUE || shape == StreamShape.DOUBLE_VALUE) ? 2 : 1;
+    }
+}
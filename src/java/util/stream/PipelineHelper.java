@@ -71,6 +71,16 @@ abstract class PipelineHelper<P_OUT> {
      */
     abstract int getStreamAndOpFlags();
 
+    /**
+     * Returns the size below which a task evaluating this pipeline in parallel
+     * should stop splitting its spliterator and process it directly, given
+     * the size estimate of the source.
+     *
+     * @param sizeEstimate the size estimate of the source spliterator
+     * @return the target leaf size, at least 1
+     */
+    abstract long suggestTargetSize(long sizeEstimate);
+
     /**
      * Returns the exact output size of the portion of the output resulting from
      * applying the pipeline stages described by this {@code PipelineHelper} to
@@ -26,6 +26,7 @@ package java.util.stream;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -126,6 +127,12 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         do { } while (!sink.cancellationRequested() && spliterator.tryAdvance(sink));
     }
 
+    @Override
+    final void forEachRemaining(Spliterator<P_OUT> spliterator, Sink<P_OUT> sink) {
+        if (!spliterator.forEachRemainingChunk(sink::acceptBatch))
+            spliterator.forEachRemaining(sink);
+    }
+
     @Override
     final Node.Builder<P_OUT> makeNodeBuilder(long exactSizeIfKnown, IntFunction<P_OUT[]> generator) {
         return Nodes.builder(exactSizeIfKnown, generator);
@@ -161,9 +168,16 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         Objects.requireNonNull(predicate);
         return new StatelessOp<P_OUT, P_OUT>(this, StreamShape.REFERENCE,
                                      StreamOpFlag.NOT_SIZED) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.filter(predicate);
+            }
+
             @Override
             Sink<P_OUT> opWrapSink(int flags, Sink<P_OUT> sink) {
                 return new Sink.ChainedReference<P_OUT, P_OUT>(sink) {
+                    Object[] buffer;
+
                     @Override
                     public void begin(long size) {
                         downstream.begin(-1);
@@ -174,6 +188,22 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                         if (predicate.test(u))
                             downstream.accept(u);
                     }
+
+                    @Override
+                    public void acceptBatch(Object[] array, int from, int to) {
+                        Object[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            int k = 0;
+                            for (int i = 0; i < n; i++) {
+                                @SuppressWarnings("unchecked") P_OUT u = (P_OUT) array[from + i];
+                                if (predicate.test(u))
+                                    buf[k++] = u;
+                            }
+                            if (k > 0)
+                                downstream.acceptBatch(buf, 0, k);
+                        }
+                    }
                 };
             }
         };
@@ -185,13 +215,32 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         Objects.requireNonNull(mapper);
         return new StatelessOp<P_OUT, R>(this, StreamShape.REFERENCE,
                                      StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.map(mapper);
+            }
+
             @Override
             Sink<P_OUT> opWrapSink(int flags, Sink<R> sink) {
                 return new Sink.ChainedReference<P_OUT, R>(sink) {
+                    Object[] buffer;
+
                     @Override
                     public void accept(P_OUT u) {
                         downstream.accept(mapper.apply(u));
                     }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void acceptBatch(Object[] array, int from, int to) {
+                        Object[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.apply((P_OUT) array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -202,13 +251,32 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         Objects.requireNonNull(mapper);
         return new IntPipeline.StatelessOp<P_OUT>(this, StreamShape.REFERENCE,
                                               StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.mapToInt(mapper);
+            }
+
             @Override
             Sink<P_OUT> opWrapSink(int flags, Sink<Integer> sink) {
                 return new Sink.ChainedReference<P_OUT, Integer>(sink) {
+                    int[] buffer;
+
                     @Override
                     public void accept(P_OUT u) {
                         downstream.accept(mapper.applyAsInt(u));
                     }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void acceptBatch(Object[] array, int from, int to) {
+                        int[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsInt((P_OUT) array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -219,13 +287,32 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         Objects.requireNonNull(mapper);
         return new LongPipeline.StatelessOp<P_OUT>(this, StreamShape.REFERENCE,
                                       StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.mapToLong(mapper);
+            }
+
             @Override
             Sink<P_OUT> opWrapSink(int flags, Sink<Long> sink) {
                 return new Sink.ChainedReference<P_OUT, Long>(sink) {
+                    long[] buffer;
+
                     @Override
                     public void accept(P_OUT u) {
                         downstream.accept(mapper.applyAsLong(u));
                     }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void acceptBatch(Object[] array, int from, int to) {
+                        long[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsLong((P_OUT) array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -236,13 +323,32 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         Objects.requireNonNull(mapper);
         return new DoublePipeline.StatelessOp<P_OUT>(this, StreamShape.REFERENCE,
                                         StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.mapToDouble(mapper);
+            }
+
             @Override
             Sink<P_OUT> opWrapSink(int flags, Sink<Double> sink) {
                 return new Sink.ChainedReference<P_OUT, Double>(sink) {
+                    double[] buffer;
+
                     @Override
                     public void accept(P_OUT u) {
                         downstream.accept(mapper.applyAsDouble(u));
                     }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void acceptBatch(Object[] array, int from, int to) {
+                        double[] buf = buffer = batchBuffer(buffer, to - from);
+                        for (int n; from < to; from += n) {
+                            n = Math.min(to - from, buf.length);
+                            for (int i = 0; i < n; i++)
+                                buf[i] = mapper.applyAsDouble((P_OUT) array[from + i]);
+                            downstream.acceptBatch(buf, 0, n);
+                        }
+                    }
                 };
             }
         };
@@ -364,6 +470,11 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         Objects.requireNonNull(action);
         return new StatelessOp<P_OUT, P_OUT>(this, StreamShape.REFERENCE,
                                      0) {
+            @Override
+            PipelineFusion.Op fusibleOp() {
+                return PipelineFusion.peek(action);
+            }
+
             @Override
             Sink<P_OUT> opWrapSink(int flags, Sink<P_OUT> sink) {
                 return new Sink.ChainedReference<P_OUT, P_OUT>(sink) {
@@ -411,6 +522,16 @@ abstract class ReferencePipeline<P_IN, P_OUT>
             return SliceOps.makeRef(this, n, -1);
     }
 
+    @Override
+    public final Stream<List<P_OUT>> chunked(int size) {
+        return WindowOps.makeRef(this, size, size, true);
+    }
+
+    @Override
+    public final Stream<List<P_OUT>> windowed(int size, int step) {
+        return WindowOps.makeRef(this, size, step, false);
+    }
+
     // Terminal operations from Stream
 
     @Override
@@ -88,6 +88,14 @@ import java.util.function.LongConsumer;
  * {@code Consumer}, and re-abstract the appropriate primitive specialization of
  * {@code accept}.
  *
+ * <p>When batching is enabled (see {@link AbstractPipeline#BATCHING}) and
+ * the source holds its elements in arrays, they are pushed in batches
+ * through {@code acceptBatch(array, from, to)}, which has the same set of
+ * entry points as {@code accept}.  A stage that overrides it can run
+ * its operation over the whole batch in one loop and push the results
+ * downstream as a batch; a stage that does not falls back, through the
+ * default implementation, to receiving and sending single elements.
+ *
  * <p>The chaining subtypes such as {@link ChainedInt} not only implement
  * {@code Sink.OfInt}, but also maintain a {@code downstream} field which
  * represents the downstream {@code Sink}, and implement the methods
@@ -181,6 +189,62 @@ interface Sink<T> extends Consumer<T> {
         throw new IllegalStateException("called wrong accept method");
     }
 
+    /**
+     * Accepts the elements {@code array[from]} (inclusive) through
+     * {@code array[to]} (exclusive), in order, as if by calling
+     * {@link #accept(Object)} for each of them.  Sources that hold their
+     * elements in arrays push them through this method, so that a stage can
+     * process a whole batch in one tight loop and hand its results
+     * downstream as a batch of its own.  The array must not be modified or
+     * retained.
+     *
+     * @implSpec The default implementation calls {@code accept(Object)} for
+     * each element, so a stage that does not override this method delivers
+     * elements one at a time to its downstream {@code Sink}.
+     *
+     * @param array the array holding the elements
+     * @param from the index of the first element, inclusive
+     * @param to the index of the last element, exclusive
+     */
+    @SuppressWarnings("unchecked")
+    default void acceptBatch(Object[] array, int from, int to) {
+        for (int i = from; i < to; i++)
+            accept((T) array[i]);
+    }
+
+    /**
+     * Accepts a batch of int values.
+     *
+     * @implSpec The default implementation throws IllegalStateException.
+     *
+     * @throws IllegalStateException if this sink does not accept int values
+     */
+    default void acceptBatch(int[] array, int from, int to) {
+        throw new IllegalStateException("called wrong accept method");
+    }
+
+    /**
+     * Accepts a batch of long values.
+     *
+     * @implSpec The default implementation throws IllegalStateException.
+     *
+     * @throws IllegalStateException if this sink does not accept long values
+     */
+    default void acceptBatch(long[] array, int from, int to) {
+        throw new IllegalStateException("called wrong accept method");
+    }
+
+    /**
+     * Accepts a batch of double values.
+     *
+     * @implSpec The default implementation throws IllegalStateException.
+     *
+     * @throws IllegalStateException if this sink does not accept double values
+     */
+    default void acceptBatch(double[] array, int from, int to) {
+        throw new IllegalStateException("called wrong accept method");
+    }
+
     /**
      * {@code Sink} that implements {@code Sink<Integer>}, re-abstracts
      * {@code accept(int)}, and wires {@code accept(Integer)} to bridge to
@@ -196,6 +260,18 @@ interface Sink<T> extends Consumer<T> {
                 Tripwire.trip(getClass(), "{0} calling Sink.OfInt.accept(Integer)");
             accept(i.intValue());
         }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @implSpec The default implementation calls {@code accept(int)} for
+         * each element.
+         */
+        @Override
+        default void acceptBatch(int[] array, int from, int to) {
+            for (int i = from; i < to; i++)
+                accept(array[i]);
+        }
     }
 
     /**
@@ -213,6 +289,18 @@ interface Sink<T> extends Consumer<T> {
                 Tripwire.trip(getClass(), "{0} calling Sink.OfLong.accept(Long)");
             accept(i.longValue());
         }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @implSpec The default implementation calls {@code accept(long)} for
+         * each element.
+         */
+        @Override
+        default void acceptBatch(long[] array, int from, int to) {
+            for (int i = from; i < to; i++)
+                accept(array[i]);
+        }
     }
 
     /**
@@ -230,6 +318,18 @@ interface Sink<T> extends Consumer<T> {
                 Tripwire.trip(getClass(), "{0} calling Sink.OfDouble.accept(Double)");
             accept(i.doubleValue());
         }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @implSpec The default implementation calls {@code accept(double)} for
+         * each element.
+         */
+        @Override
+        default void acceptBatch(double[] array, int from, int to) {
+            for (int i = from; i < to; i++)
+                accept(array[i]);
+        }
     }
 
     /**
@@ -369,6 +369,29 @@ class SpinedBuffer<E>
                 }
             }
 
+            @Override
+            public boolean forEachRemainingChunk(Spliterator.ChunkConsumer action) {
+                Objects.requireNonNull(action);
+
+                if (splSpineIndex < lastSpineIndex
+                    || (splSpineIndex == lastSpineIndex && splElementIndex < lastSpineElementFence)) {
+                    int i = splElementIndex;
+                    // completed chunks, if any
+                    for (int sp = splSpineIndex; sp < lastSpineIndex; sp++) {
+                        E[] chunk = spine[sp];
+                        action.accept(chunk, i, chunk.length);
+                        i = 0;
+                    }
+                    // last (or current uncompleted) chunk
+                    E[] chunk = (splSpineIndex == lastSpineIndex) ? splChunk : spine[lastSpineIndex];
+                    action.accept(chunk, i, lastSpineElementFence);
+                    // mark consumed
+                    splSpineIndex = lastSpineIndex;
+                    splElementIndex = lastSpineElementFence;
+                }
+                return true;
+            }
+
             @Override
             public Spliterator<E> trySplit() {
                 if (splSpineIndex < lastSpineIndex) {
@@ -480,6 +503,11 @@ class SpinedBuffer<E>
         protected abstract void arrayForEach(T_ARR array, int from, int to,
                                              T_CONS consumer);
 
+        /** An action on a run of elements of a chunk */
+        interface ChunkAction<T_ARR> {
+            void accept(T_ARR array, int from, int to);
+        }
+
         protected long capacity() {
             return (spineIndex == 0)
                    ? arrayLength(curChunk)
@@ -688,6 +716,31 @@ class SpinedBuffer<E>
                 }
             }
 
+            /**
+             * Traverses the remaining elements a chunk at a time, as
+             * {@code forEachRemainingChunk} does for the primitive
+             * specializations.
+             */
+            final boolean forEachChunk(ChunkAction<T_ARR> action) {
+                if (splSpineIndex < lastSpineIndex
+                    || (splSpineIndex == lastSpineIndex && splElementIndex < lastSpineElementFence)) {
+                    int i = splElementIndex;
+                    // completed chunks, if any
+                    for (int sp = splSpineIndex; sp < lastSpineIndex; sp++) {
+                        T_ARR chunk = spine[sp];
+                        action.accept(chunk, i, arrayLength(chunk));
+                        i = 0;
+                    }
+                    // last (or current uncompleted) chunk
+                    T_ARR chunk = (splSpineIndex == lastSpineIndex) ? splChunk : spine[lastSpineIndex];
+                    action.accept(chunk, i, lastSpineElementFence);
+                    // mark consumed
+                    splSpineIndex = lastSpineIndex;
+                    splElementIndex = lastSpineElementFence;
+                }
+                return true;
+            }
+
             @Override
             public T_SPLITR trySplit() {
                 if (splSpineIndex < lastSpineIndex) {
@@ -805,6 +858,12 @@ class SpinedBuffer<E>
                     consumer.accept(array[index]);
                 }
 
+                @Override
+                public boolean forEachRemainingChunk(Spliterator.IntChunkConsumer action) {
+                    Objects.requireNonNull(action);
+                    return forEachChunk(action::accept);
+                }
+
                 @Override
                 Spliterator.OfInt arraySpliterator(int[] array, int offset, int len) {
                     return Arrays.spliterator(array, offset, offset+len);
@@ -919,6 +978,12 @@ class SpinedBuffer<E>
                     consumer.accept(array[index]);
                 }
 
+                @Override
+                public boolean forEachRemainingChunk(Spliterator.LongChunkConsumer action) {
+                    Objects.requireNonNull(action);
+                    return forEachChunk(action::accept);
+                }
+
                 @Override
                 Spliterator.OfLong arraySpliterator(long[] array, int offset, int len) {
                     return Arrays.spliterator(array, offset, offset+len);
@@ -1033,6 +1098,12 @@ class SpinedBuffer<E>
                     consumer.accept(array[index]);
                 }
 
+                @Override
+                public boolean forEachRemainingChunk(Spliterator.DoubleChunkConsumer action) {
+                    Objects.requireNonNull(action);
+                    return forEachChunk(action::accept);
+                }
+
                 @Override
                 Spliterator.OfDouble arraySpliterator(double[] array, int offset, int len) {
                     return Arrays.spliterator(array, offset, offset+len);
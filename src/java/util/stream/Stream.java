@@ -31,6 +31,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -478,6 +479,86 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> skip(long n);
 
+    /**
+     * Returns a stream consisting of the elements of this stream grouped, in
+     * encounter order, into lists of {@code size} consecutive elements.  The
+     * last list holds the remaining elements, and is shorter than
+     * {@code size} if the number of elements is not a multiple of it.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  It is lazy: a list is passed on as soon
+     * as its last element arrives, and at most one list's worth of elements
+     * is held while it fills, so large or infinite streams can be processed
+     * in chunks without collecting them first.
+     *
+     * @apiNote
+     * This is useful for batching, for example to write the elements of a
+     * stream to a database in batches of a given size:
+     * <pre>{@code
+     *     orders.stream()
+     *           .chunked(500)
+     *           .forEach(repository::insertAll);
+     * }</pre>
+     *
+     * <p>In ordered parallel pipelines whose size is known, such as those
+     * over arrays or {@code ArrayList}s without filtering, the source is
+     * still split in parallel and each split formed into whole chunks.
+     * Otherwise chunks are formed sequentially and processed in parallel
+     * downstream.
+     *
+     * @implSpec
+     * The default implementation groups the elements of the
+     * {@link #spliterator() spliterator} of this stream, in a stream that is
+     * parallel if this stream is, and closes this stream when closed.
+     *
+     * @param size the number of elements in each list
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 1.8
+     */
+    default Stream<List<T>> chunked(int size) {
+        return WindowOps.windows(this, size, size, true);
+    }
+
+    /**
+     * Returns a stream consisting of the windows of this stream: lists of
+     * {@code size} consecutive elements, in encounter order, starting at the
+     * first element and then every {@code step} elements.  Windows overlap
+     * if {@code step} is less than {@code size}; with a {@code step} of 1
+     * this is a sliding window over the stream.  Elements between windows
+     * are skipped if {@code step} is greater than {@code size}.  Only full
+     * windows are included, so the stream is empty if this stream has fewer
+     * than {@code size} elements.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Like {@link #chunked(int)} it is lazy,
+     * and holds at most one window's worth of elements while it fills.
+     *
+     * @apiNote
+     * For example, a moving average over the last five values:
+     * <pre>{@code
+     *     Stream<Double> averages = prices.stream()
+     *         .windowed(5, 1)
+     *         .map(w -> w.stream().mapToDouble(Double::doubleValue).average().getAsDouble());
+     * }</pre>
+     *
+     * @implSpec
+     * The default implementation groups the elements of the
+     * {@link #spliterator() spliterator} of this stream, in a stream that is
+     * parallel if this stream is, and closes this stream when closed.
+     *
+     * @param size the number of elements in each window
+     * @param step the number of elements between the starts of consecutive
+     *        windows
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is
+     *         not positive
+     * @since 1.8
+     */
+    default Stream<List<T>> windowed(int size, int step) {
+        return WindowOps.windows(this, size, step, false);
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Factory for stateful intermediate operations that group the elements of a
+ * stream into lists of consecutive elements: fixed-size chunks, or windows of
+ * a given size starting every {@code step} elements.
+ *
+ * <p>Sequentially, elements are grouped as they flow through the sink, so at
+ * most one window of elements is held at a time.  In parallel, if the size of
+ * the upstream pipeline is known and its source is {@code SUBSIZED}, the
+ * source is split lazily and each split is moved to a window boundary: the
+ * prefix borrows the first elements of the suffix that its last window
+ * needs, so each split holds at most one extra window of elements.  Otherwise
+ * windows are formed sequentially and handed out in batches.
+ *
+ * @since 1.8
+ */
+final class WindowOps {
+
+    // No instances
+    private WindowOps() { }
+
+    /**
+     * Appends a windowing operation to the provided stream.
+     *
+     * @param <T> the type of the input elements
+     * @param upstream a reference stream with element type T
+     * @param size the number of elements in a window, must be positive
+     * @param step the distance between the starts of consecutive windows,
+     *        must be positive
+     * @param partial whether a last window with fewer than {@code size}
+     *        elements is passed on, or dropped
+     */
+    static <T> Stream<List<T>> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       int size, int step, boolean partial) {
+        checkArguments(size, step);
+        return new ReferencePipeline.StatefulOp<T, List<T>>(upstream, StreamShape.REFERENCE,
+                                                            StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT |
+                                                            StreamOpFlag.NOT_SIZED) {
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<List<T>> sink) {
+                return new Sink.ChainedReference<T, List<T>>(sink) {
+                    Windower<T> windower;
+
+                    @Override
+                    public void begin(long n) {
+                        windower = new Windower<>(size, step, partial, 0, Long.MAX_VALUE);
+                        downstream.begin(n >= 0 ? windowCount(n, size, step, partial) : -1);
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        windower.accept(t, downstream);
+                    }
+
+                    @Override
+                    public void end() {
+                        windower.flush(downstream);
+                        windower = null;
+                        downstream.end();
+                    }
+                };
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            <P_IN> Spliterator<List<T>> opEvaluateParallelLazy(PipelineHelper<List<T>> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                // The helper describes the upstream pipeline, whose output is T
+                Spliterator<T> s = (Spliterator<T>) (Spliterator<?>) helper.wrapSpliterator(spliterator);
+                long n = helper.exactOutputSizeIfKnown(spliterator);
+                if (n < 0 || !spliterator.hasCharacteristics(Spliterator.SUBSIZED))
+                    n = -1;
+                return new WindowSpliterator<>(s, size, step, partial, n);
+            }
+
+            @Override
+            <P_IN> Node<List<T>> opEvaluateParallel(PipelineHelper<List<T>> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<List<T>[]> generator) {
+                return Nodes.node(StreamSupport.stream(opEvaluateParallelLazy(helper, spliterator), true)
+                                               .toArray(generator));
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of the windows of the given stream, for streams that
+     * are not pipelines of this package.  The windows are formed lazily from
+     * the spliterator of that stream.
+     */
+    static <T> Stream<List<T>> windows(Stream<T> stream, int size, int step, boolean partial) {
+        checkArguments(size, step);
+        Spliterator<List<T>> s = new WindowSpliterator<>(stream.spliterator(), size, step, partial, -1);
+        return StreamSupport.stream(s, stream.isParallel()).onClose(stream::close);
+    }
+
+    private static void checkArguments(int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        if (step <= 0)
+            throw new IllegalArgumentException("Window step must be positive: " + step);
+    }
+
+    /**
+     * Returns the number of windows of a sequence of {@code n} elements.
+     */
+    static long windowCount(long n, int size, int step, boolean partial) {
+        long last = partial ? n - 1 : n - size;     // last index a window may start at
+        return last >= 0 ? last / step + 1 : 0;
+    }
+
+    /**
+     * Groups consecutive elements of a sequence into windows, keeping at
+     * most one window of elements.  Elements are numbered from the index
+     * of the first element given; only windows starting at a multiple of
+     * {@code step} below {@code limit} are formed.
+     */
+    static final class Windower<T> {
+        final int size;
+        final int step;
+        final boolean partial;
+        final long limit;
+        long index;         // index of the next element
+        long nextStart;     // start of the window being filled
+        List<T> buffer;     // elements of that window seen so far
+
+        Windower(int size, int step, boolean partial, long start, long limit) {
+            this.size = size;
+            this.step = step;
+            this.partial = partial;
+            this.limit = limit;
+            this.index = start;
+            long r = start % step;
+            this.nextStart = (r == 0) ? start : start - r + step;
+            this.buffer = newBuffer();
+        }
+
+        private List<T> newBuffer() {
+            return new ArrayList<>(Math.min(size, 1 << 10));
+        }
+
+        /** Returns true if no more windows can be formed */
+        boolean done() {
+            return nextStart >= limit;
+        }
+
+        /**
+         * Adds the next element, passing the window it completes, if any, to
+         * the action.
+         */
+        void accept(T t, Consumer<? super List<T>> action) {
+            if (index++ >= nextStart && nextStart < limit) {
+                buffer.add(t);
+                if (buffer.size() == size) {
+                    nextStart += step;
+                    List<T> w;
+                    if (step >= size) {
+                        w = buffer;
+                        buffer = newBuffer();
+                    }
+                    else {
+                        // Windows overlap: keep the elements of the next one
+                        w = new ArrayList<>(buffer);
+                        buffer.subList(0, step).clear();
+                    }
+                    action.accept(w);
+                }
+            }
+        }
+
+        /**
+         * Passes the last, incomplete, window to the action if partial
+         * windows are kept and it is not empty, after which no more windows
+         * are formed.
+         */
+        void flush(Consumer<? super List<T>> action) {
+            List<T> w = buffer;
+            boolean emit = partial && !w.isEmpty() && nextStart < limit;
+            buffer = null;
+            nextStart = Long.MAX_VALUE;
+            if (emit)
+                action.accept(w);
+        }
+    }
+
+    /**
+     * A spliterator over the windows of a sequence made of a list of
+     * elements taken from the source by an earlier split, the remaining
+     * source, and a list of elements borrowed from the split after it.
+     * It forms the windows starting between {@code origin}, the index of its
+     * first element, and {@code limit}.  The lists may be shared with the
+     * neighbouring splits, so they are only read.
+     */
+    static final class WindowSpliterator<T> extends Spliterators.AbstractSpliterator<List<T>> {
+        private final int size;
+        private final int step;
+        private final boolean partial;
+        private final long fence;   // size of the whole source, or -1 if unknown
+        private final Spliterator<T> s;
+        private List<T> head;       // elements before those of s, or null
+        private final List<T> tail; // elements after those of s, or null
+        private int headIndex;      // index of the next element of head
+        private int tailIndex;      // index of the next element of tail
+        private long origin;        // index of the first element of head, or of s
+        private final long limit;
+        private Windower<T> windower;   // null until traversal starts
+        private Consumer<T> feed;       // feeds the windower for tryAdvance
+        private List<T> window;         // a window formed but not yet handed out
+
+        WindowSpliterator(Spliterator<T> s, int size, int step, boolean partial, long fence) {
+            this(s, size, step, partial, fence, null, null, 0, Long.MAX_VALUE);
+        }
+
+        private WindowSpliterator(Spliterator<T> s, int size, int step, boolean partial, long fence,
+                                  List<T> head, List<T> tail, long origin, long limit) {
+            super(Long.MAX_VALUE, (s.characteristics() & Spliterator.ORDERED) | Spliterator.NONNULL);
+            this.s = s;
+            this.size = size;
+            this.step = step;
+            this.partial = partial;
+            this.fence = fence;
+            this.head = head;
+            this.tail = tail;
+            this.origin = origin;
+            this.limit = limit;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            if (fence < 0)
+                return super.trySplit();
+            Spliterator<T> prefix;
+            if (windower != null || (prefix = s.trySplit()) == null)
+                return null;
+
+            // The prefix forms the windows starting before the split point,
+            // and borrows the elements after it that its last window needs:
+            // first from s, which then starts after them, then from tail
+            long split = origin + (head == null ? 0 : head.size()) + prefix.getExactSizeIfKnown();
+            long lastStart = (split - 1) - (split - 1) % step;
+            long need = (split > origin && lastStart >= origin)
+                        ? Math.min(fence, lastStart + size) - split
+                        : 0;
+            ArrayList<T> taken = new ArrayList<>((int) Math.max(need, 0));
+            for (long i = 0; i < need && s.tryAdvance(taken::add); i++) { }
+            List<T> borrowed = taken;
+            if (taken.size() < need && tail != null) {
+                borrowed = new ArrayList<>(taken);
+                borrowed.addAll(tail.subList(0, (int) Math.min(tail.size(), need - taken.size())));
+            }
+
+            Spliterator<List<T>> left = new WindowSpliterator<>(prefix, size, step, partial, fence,
+                                                                head, borrowed, origin, split);
+            head = taken;
+            origin = split;
+            return left;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (fence < 0)
+                return Long.MAX_VALUE;
+            long start = (windower != null) ? windower.nextStart : origin;
+            long end = Math.min(limit, partial ? fence : fence - size + 1);
+            return (end > start) ? (end - start + step - 1) / step : 0;
+        }
+
+        private Windower<T> windower() {
+            Windower<T> w = windower;
+            return (w != null) ? w : (windower = new Windower<>(size, step, partial, origin, limit));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            Objects.requireNonNull(action);
+            Windower<T> w = windower();
+            Consumer<T> f = feed;
+            if (f == null)
+                feed = f = e -> w.accept(e, x -> window = x);
+            while (window == null && !w.done()) {
+                if (head != null && headIndex < head.size())
+                    f.accept(head.get(headIndex++));
+                else if (s.tryAdvance(f))
+                    continue;
+                else if (tail != null && tailIndex < tail.size())
+                    f.accept(tail.get(tailIndex++));
+                else
+                    w.flush(x -> window = x);
+            }
+            List<T> x = window;
+            if (x == null)
+                return false;
+            window = null;
+            action.accept(x);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super List<T>> action) {
+            Objects.requireNonNull(action);
+            Windower<T> w = windower();
+            if (w.done())
+                return;
+            Consumer<T> f = e -> w.accept(e, action);
+            if (head != null) {
+                for (int n = head.size(); headIndex < n; )
+                    f.accept(head.get(headIndex++));
+            }
+            if (!w.done())
+                s.forEachRemaining(f);
+            if (tail != null) {
+                for (int n = tail.size(); tailIndex < n && !w.done(); )
+                    f.accept(tail.get(tailIndex++));
+            }
+            w.flush(action);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package sun.misc;
+
+import java.util.concurrent.ExecutorMetrics;
+import java.util.function.BiConsumer;
+
+/**
+ * Lets {@code java.lang.management} observe the registration of
+ * {@link ExecutorMetrics} without a public hook in
+ * {@code java.util.concurrent}, in the manner of {@link SharedSecrets}.
+ * The platform MBeanServer installs a listener here when it is created;
+ * {@code ExecutorMetrics} notifies it whenever metrics are registered
+ * ({@code true}) or unregistered ({@code false}).
+ */
+public final class ExecutorMetricsHook {
+
+    private ExecutorMetricsHook() {}
+
+    private static volatile BiConsumer<ExecutorMetrics,Boolean> listener;
+
+    public static void setListener(BiConsumer<ExecutorMetrics,Boolean> l) {
+        listener = l;
+    }
+
+    public static BiConsumer<ExecutorMetrics,Boolean> getListener() {
+        return listener;
+    }
+}